@@ -18,6 +18,7 @@
 
 package util;
 
+import org.wso2.carbon.stream.processor.common.EventStreamHandle;
 import org.wso2.carbon.stream.processor.common.EventStreamService;
 import org.wso2.carbon.stream.processor.common.exception.ResourceNotFoundException;
 import org.wso2.siddhi.core.event.Event;
@@ -67,6 +68,38 @@ public class StreamProcessorUtil implements EventStreamService {
         eventsReceived.add(new EventData(siddhiAppName, streamName, event));
     }
 
+    @Override
+    public void pushEvents(String siddhiAppName, String streamName, Event[] events) {
+        for (Event event : events) {
+            pushEvent(siddhiAppName, streamName, event);
+        }
+    }
+
+    @Override
+    public EventStreamHandle getEventStreamHandle(String siddhiAppName, String streamName) {
+        return new EventStreamHandle() {
+            @Override
+            public String getSiddhiAppName() {
+                return siddhiAppName;
+            }
+
+            @Override
+            public String getStreamName() {
+                return streamName;
+            }
+
+            @Override
+            public void send(Event event) {
+                pushEvent(siddhiAppName, streamName, event);
+            }
+
+            @Override
+            public void send(Event[] events) {
+                pushEvents(siddhiAppName, streamName, events);
+            }
+        };
+    }
+
     public int getNoOfEvents() {
         return eventsReceived.size();
     }
@@ -22,9 +22,11 @@ package org.wso2.carbon.siddhi.editor.core.internal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.siddhi.editor.core.exception.NoSuchStreamException;
+import org.wso2.carbon.stream.processor.common.EventStreamHandle;
 import org.wso2.carbon.stream.processor.common.EventStreamService;
 import org.wso2.carbon.stream.processor.common.exception.ResourceNotFoundException;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 import java.util.List;
@@ -73,4 +75,66 @@ public class DebuggerEventStreamService implements EventStreamService {
             }
         }
     }
+
+    @Override
+    public void pushEvents(String siddhiAppName, String streamName, Event[] events) {
+        DebugRuntime runtimeHolder = EditorDataHolder.getSiddhiAppMap().get(siddhiAppName);
+        if (runtimeHolder != null) {
+            try {
+                runtimeHolder.getInputHandler(streamName).send(events);
+            } catch (Exception e) {
+                log.error("Error when pushing events to Siddhi debugger engine ", e);
+            }
+        }
+    }
+
+    @Override
+    public EventStreamHandle getEventStreamHandle(String siddhiAppName, String streamName) throws
+            ResourceNotFoundException {
+        // Validates that the stream exists, as the handle resolves it on each send
+        getStreamAttributes(siddhiAppName, streamName);
+        return new DebuggerEventStreamHandle(siddhiAppName, streamName);
+    }
+
+    /**
+     * {@link EventStreamHandle} of a Siddhi App in the editor, which resolves the input handler of the stream on each
+     * send since the runtime of the Siddhi App is recreated whenever it is stopped or reloaded.
+     */
+    private static class DebuggerEventStreamHandle implements EventStreamHandle {
+        private final String siddhiAppName;
+        private final String streamName;
+
+        private DebuggerEventStreamHandle(String siddhiAppName, String streamName) {
+            this.siddhiAppName = siddhiAppName;
+            this.streamName = streamName;
+        }
+
+        @Override
+        public String getSiddhiAppName() {
+            return siddhiAppName;
+        }
+
+        @Override
+        public String getStreamName() {
+            return streamName;
+        }
+
+        @Override
+        public void send(Event event) throws InterruptedException {
+            getInputHandler().send(event);
+        }
+
+        @Override
+        public void send(Event[] events) throws InterruptedException {
+            getInputHandler().send(events);
+        }
+
+        private InputHandler getInputHandler() {
+            DebugRuntime runtimeHolder = EditorDataHolder.getSiddhiAppMap().get(siddhiAppName);
+            if (runtimeHolder == null) {
+                throw new IllegalStateException("Siddhi App '" + siddhiAppName + "' does not exist.");
+            }
+            return runtimeHolder.getInputHandler(streamName);
+        }
+    }
 }
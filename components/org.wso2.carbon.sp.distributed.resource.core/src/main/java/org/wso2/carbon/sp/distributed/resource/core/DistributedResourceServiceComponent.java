@@ -45,7 +45,6 @@ import org.wso2.carbon.stream.processor.core.util.DeploymentMode;
 import org.wso2.carbon.utils.Utils;
 
 import java.util.Map;
-import java.util.Timer;
 
 /**
  * DistributedResourceServiceComponent for the Resource.
@@ -62,9 +61,9 @@ public class DistributedResourceServiceComponent {
      */
     private ServiceRegistration distributionServiceRegistration;
     /**
-     * Timer to schedule heartbeat sending task.
+     * Sender of the heartbeats to the resource pool leader.
      */
-    private Timer timer;
+    private HeartbeatSender heartbeatSender;
 
     /**
      * Activation method of Resource DistributedResourceServiceComponent. This will be called when all of its references are satisfied.
@@ -82,8 +81,8 @@ public class DistributedResourceServiceComponent {
             /* If the node started in worker runtime with distributed mode enabled, Then, join a resource pool and
              * start periodically sending heartbeats.
              */
-            timer = new Timer();
-            timer.schedule(new HeartbeatSender(timer), 0);
+            heartbeatSender = new HeartbeatSender();
+            heartbeatSender.start();
         }
         distributionServiceRegistration = bundleContext.registerService(
                 DistributionService.class.getName(), new DistributionResourceServiceImpl(), null);
@@ -98,9 +97,8 @@ public class DistributedResourceServiceComponent {
      */
     @Deactivate
     protected void stop() throws Exception {
-        if (timer != null) {
-            timer.cancel();
-            timer.purge();
+        if (heartbeatSender != null) {
+            heartbeatSender.stop();
         }
         if (distributionServiceRegistration != null) {
             distributionServiceRegistration.unregister();
@@ -132,6 +130,12 @@ public class DistributedResourceServiceComponent {
                             .getConfigurationObject(ResourceConstants.DEPLOYMENT_CONFIG_NS)).get("type"))) {
                         deploymentConfig = configProvider.getConfigurationObject(DeploymentConfig.class);
                         if (deploymentConfig != null) {
+                            double heartbeatJitter = deploymentConfig.getHeartbeatJitter();
+                            if (!(heartbeatJitter >= 0 && heartbeatJitter < 1)) {
+                                throw new ResourceNodeException("heartbeatJitter of " +
+                                        ResourceConstants.DEPLOYMENT_CONFIG_NS + " in deployment.yaml should be " +
+                                        "at least 0 and less than 1, but was " + heartbeatJitter);
+                            }
                             // Id will be in a separate namespace (wso2.carbon), therefore manually set it.
                             String id = (String) ((Map) configProvider
                                     .getConfigurationObject("wso2.carbon")).get("id");
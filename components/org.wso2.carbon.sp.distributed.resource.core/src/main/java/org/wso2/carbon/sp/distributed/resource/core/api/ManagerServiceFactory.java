@@ -22,13 +22,56 @@ package org.wso2.carbon.sp.distributed.resource.core.api;
 import org.wso2.carbon.sp.distributed.resource.core.internal.ServiceDataHolder;
 import org.wso2.carbon.sp.distributed.resource.core.util.HTTPSClientUtil;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Rest API service which is used to access service stub for calling another worker.
+ * <p>
+ * Service stubs are reused for each manager and user, so that consecutive heartbeats share the same HTTPS client and
+ * its kept alive connections instead of building a new client and handshaking on every heartbeat. Only a digest of
+ * the password is kept alongside a stub, and the stub is replaced when the password changes.
  */
 public class ManagerServiceFactory {
+    private static final Map<String, ManagerHttpsClient> managerHttpsClients = new ConcurrentHashMap<>();
+
     public static ManagerServiceStub getManagerHttpsClient(String url, String username, String password) {
-        return ServiceDataHolder.getClientBuilderService().build(username, password,
-                HTTPSClientUtil.CLIENT_CONNECTION_TIMEOUT, HTTPSClientUtil.CLIENT_READ_TIMEOUT,
-                ManagerServiceStub.class, url);
+        String key = url + "|" + username;
+        byte[] passwordDigest = digest(password);
+        ManagerHttpsClient managerHttpsClient = managerHttpsClients.get(key);
+        if (managerHttpsClient == null || !MessageDigest.isEqual(managerHttpsClient.passwordDigest, passwordDigest)) {
+            managerHttpsClient = new ManagerHttpsClient(ServiceDataHolder.getClientBuilderService().build(username,
+                    password, HTTPSClientUtil.CLIENT_CONNECTION_TIMEOUT, HTTPSClientUtil.CLIENT_READ_TIMEOUT,
+                    ManagerServiceStub.class, url), passwordDigest);
+            managerHttpsClients.put(key, managerHttpsClient);
+        }
+        return managerHttpsClient.serviceStub;
+    }
+
+    private static byte[] digest(String password) {
+        if (password == null) {
+            return new byte[0];
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by the JVM.", e);
+        }
+    }
+
+    /**
+     * Service stub of a manager along with the digest of the password it was built with.
+     */
+    private static class ManagerHttpsClient {
+        private final ManagerServiceStub serviceStub;
+        private final byte[] passwordDigest;
+
+        private ManagerHttpsClient(ManagerServiceStub serviceStub, byte[] passwordDigest) {
+            this.serviceStub = serviceStub;
+            this.passwordDigest = passwordDigest;
+        }
     }
 }
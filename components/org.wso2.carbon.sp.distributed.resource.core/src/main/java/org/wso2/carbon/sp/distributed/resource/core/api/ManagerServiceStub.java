@@ -33,4 +33,8 @@ public interface ManagerServiceStub {
     @RequestLine("POST /resourceManager/heartbeat")
     @Headers("Content-Type: application/json")
     Response sendHeartBeat(String nodeConfig);
+
+    @RequestLine("POST /resourceManager/heartbeat/delta")
+    @Headers("Content-Type: application/json")
+    Response sendHeartbeatDelta(String heartbeatDelta);
 }
@@ -54,6 +54,22 @@ public class DeploymentConfig implements Serializable {
      */
     private boolean isReceiverNode = false;
 
+    /**
+     * Whether heartbeats are sent as compact deltas while the configuration of the node does not change.
+     */
+    private boolean deltaHeartbeatEnabled = true;
+
+    /**
+     * Maximum number of consecutive delta heartbeats sent before a full heartbeat.
+     */
+    private int fullHeartbeatInterval = 10;
+
+    /**
+     * Maximum fraction of the heartbeat interval by which heartbeats are randomly sent earlier, at least 0 and less
+     * than 1.
+     */
+    private double heartbeatJitter = 0.1;
+
     /**
      * Getter for the deployment type.
      *
@@ -134,6 +150,60 @@ public class DeploymentConfig implements Serializable {
         isReceiverNode = receiverNode;
     }
 
+    /**
+     * Getter for the deltaHeartbeatEnabled.
+     *
+     * @return whether delta heartbeats are enabled.
+     */
+    public boolean isDeltaHeartbeatEnabled() {
+        return deltaHeartbeatEnabled;
+    }
+
+    /**
+     * Setter for the deltaHeartbeatEnabled.
+     *
+     * @param deltaHeartbeatEnabled whether delta heartbeats are enabled.
+     */
+    public void setDeltaHeartbeatEnabled(boolean deltaHeartbeatEnabled) {
+        this.deltaHeartbeatEnabled = deltaHeartbeatEnabled;
+    }
+
+    /**
+     * Getter for the fullHeartbeatInterval.
+     *
+     * @return maximum number of consecutive delta heartbeats.
+     */
+    public int getFullHeartbeatInterval() {
+        return fullHeartbeatInterval;
+    }
+
+    /**
+     * Setter for the fullHeartbeatInterval.
+     *
+     * @param fullHeartbeatInterval maximum number of consecutive delta heartbeats.
+     */
+    public void setFullHeartbeatInterval(int fullHeartbeatInterval) {
+        this.fullHeartbeatInterval = fullHeartbeatInterval;
+    }
+
+    /**
+     * Getter for the heartbeatJitter.
+     *
+     * @return maximum fraction of the heartbeat interval by which heartbeats are sent earlier.
+     */
+    public double getHeartbeatJitter() {
+        return heartbeatJitter;
+    }
+
+    /**
+     * Setter for the heartbeatJitter.
+     *
+     * @param heartbeatJitter maximum fraction of the heartbeat interval by which heartbeats are sent earlier.
+     */
+    public void setHeartbeatJitter(double heartbeatJitter) {
+        this.heartbeatJitter = heartbeatJitter;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
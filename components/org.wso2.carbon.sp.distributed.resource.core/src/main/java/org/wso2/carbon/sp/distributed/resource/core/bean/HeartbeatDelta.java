@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.sp.distributed.resource.core.bean;
+
+import org.wso2.carbon.stream.processor.statistics.bean.WorkerMetrics;
+
+/**
+ * Compact heartbeat sent instead of the full {@link NodeConfig} while the configuration of the node is unchanged.
+ */
+public class HeartbeatDelta {
+    /**
+     * Id of the node.
+     */
+    private String id;
+    /**
+     * Sequence number of the heartbeat.
+     */
+    private long sequence;
+    /**
+     * Specify whether the resource node is type, ReceiverNode
+     */
+    private boolean receiverNode;
+    /**
+     * Real time metrics of the node, or null if they have not changed since the last acknowledged heartbeat.
+     */
+    private WorkerMetrics workerMetrics;
+
+    /**
+     * Getter for the node id.
+     *
+     * @return id.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Setter for the node id.
+     *
+     * @param id node id.
+     * @return current {@link HeartbeatDelta}
+     */
+    public HeartbeatDelta setId(String id) {
+        this.id = id;
+        return this;
+    }
+
+    /**
+     * Getter for the heartbeat sequence number.
+     *
+     * @return sequence.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Setter for the heartbeat sequence number.
+     *
+     * @param sequence sequence number of the heartbeat.
+     * @return current {@link HeartbeatDelta}
+     */
+    public HeartbeatDelta setSequence(long sequence) {
+        this.sequence = sequence;
+        return this;
+    }
+
+    public boolean isReceiverNode() {
+        return receiverNode;
+    }
+
+    public HeartbeatDelta setReceiverNode(boolean receiverNode) {
+        this.receiverNode = receiverNode;
+        return this;
+    }
+
+    public WorkerMetrics getWorkerMetrics() {
+        return workerMetrics;
+    }
+
+    public HeartbeatDelta setWorkerMetrics(WorkerMetrics workerMetrics) {
+        this.workerMetrics = workerMetrics;
+        return this;
+    }
+}
@@ -50,6 +50,11 @@ public class NodeConfig implements Serializable {
      */
     private boolean isReceiverNode;
 
+    /**
+     * Sequence number of the heartbeat, which increases with every heartbeat sent by the node.
+     */
+    private long heartbeatSequence;
+
     /**
      * Getter for the node id.
      *
@@ -126,6 +131,26 @@ public class NodeConfig implements Serializable {
         return this;
     }
 
+    /**
+     * Getter for the heartbeat sequence number.
+     *
+     * @return heartbeatSequence.
+     */
+    public long getHeartbeatSequence() {
+        return heartbeatSequence;
+    }
+
+    /**
+     * Setter for the heartbeat sequence number.
+     *
+     * @param heartbeatSequence sequence number of the heartbeat.
+     * @return current {@link NodeConfig}
+     */
+    public NodeConfig setHeartbeatSequence(long heartbeatSequence) {
+        this.heartbeatSequence = heartbeatSequence;
+        return this;
+    }
+
     @Override
     public String toString() {
         return String.format("Node { id: %s, host: %s, port: %s, state: %s }",
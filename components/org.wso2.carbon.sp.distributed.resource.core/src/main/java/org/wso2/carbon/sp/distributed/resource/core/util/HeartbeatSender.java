@@ -22,34 +22,115 @@ import com.google.gson.Gson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.sp.distributed.resource.core.api.ManagerServiceFactory;
+import org.wso2.carbon.sp.distributed.resource.core.api.ManagerServiceStub;
+import org.wso2.carbon.sp.distributed.resource.core.bean.DeploymentConfig;
 import org.wso2.carbon.sp.distributed.resource.core.bean.HTTPSInterfaceConfig;
+import org.wso2.carbon.sp.distributed.resource.core.bean.HeartbeatDelta;
 import org.wso2.carbon.sp.distributed.resource.core.bean.HeartbeatResponse;
 import org.wso2.carbon.sp.distributed.resource.core.bean.ManagerNodeConfig;
+import org.wso2.carbon.sp.distributed.resource.core.bean.NodeConfig;
 import org.wso2.carbon.sp.distributed.resource.core.exception.ResourceNodeException;
 import org.wso2.carbon.sp.distributed.resource.core.internal.ServiceDataHolder;
 import org.wso2.carbon.stream.processor.statistics.bean.WorkerMetrics;
 import org.wso2.carbon.stream.processor.statistics.internal.OperatingSystemMetricSet;
-import org.wso2.carbon.stream.processor.statistics.internal.exception.MetricsConfigException;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This will be responsible for discovering the leader, joining the resource pool and keep sending the heartbeats to the
- * leader node. This is a {@link TimerTask}, which get scheduled according to the heartbeatInterval of current leader
- * node.
+ * leader node. Heartbeats are scheduled according to the heartbeatInterval of current leader node, shortened by a
+ * random jitter of up to {@link DeploymentConfig#getHeartbeatJitter()} so that resource nodes do not send their
+ * heartbeats in lockstep.
+ * <p>
+ * Heartbeats are sent on a separate thread from the one scheduling them, and the next heartbeat is scheduled as soon
+ * as the current one completes or has taken longer than a heartbeat interval, whichever comes first, so that a slow
+ * manager never holds back the following heartbeats. While no manager can be reached, heartbeats are retried with an
+ * exponential back off, starting from the heartbeat interval and capped at the leaderRetryInterval, of which a random
+ * half is waited so that resource nodes reconnecting to a restarted manager spread their attempts.
+ * <p>
+ * Once the leader has acknowledged a full heartbeat, following heartbeats to it are sent as a compact
+ * {@link HeartbeatDelta}, carrying the worker metrics only if they changed, for as long as the configuration of the
+ * node does not change. A full heartbeat is sent again when the leader asks for it, when the configuration changes
+ * and after {@link DeploymentConfig#getFullHeartbeatInterval()} consecutive delta heartbeats.
+ * <p>
+ * Heartbeats are stopped for good once the leader rejects this node from joining the resource pool, as retrying
+ * with the same node id can not succeed.
  */
-public class HeartbeatSender extends TimerTask {
+public class HeartbeatSender {
     private static final Logger LOG = LoggerFactory.getLogger(HeartbeatSender.class);
+    /**
+     * Minimum change of a worker metric for it to be sent in a delta heartbeat.
+     */
+    private static final double METRICS_DELTA_THRESHOLD = 0.01;
+    /**
+     * Maximum number of times the retry interval is doubled while no manager can be reached.
+     */
+    private static final int MAX_BACKOFF_EXPONENT = 16;
 
     /**
      * Timestamp of the last successful heartbeat.
      */
-    private static long lastUpdatedTimestamp;
+    private long lastUpdatedTimestamp;
+    /**
+     * Sequence number of the last heartbeat sent.
+     */
+    private long heartbeatSequence;
+    /**
+     * Manager which acknowledged the last full heartbeat, or null if delta heartbeats can not be sent.
+     */
+    private HTTPSInterfaceConfig acknowledgedManager;
+    /**
+     * Configuration of the node in the last acknowledged full heartbeat.
+     */
+    private String acknowledgedConfig;
+    /**
+     * Worker metrics last acknowledged by the manager.
+     */
+    private WorkerMetrics acknowledgedMetrics;
+    /**
+     * Number of delta heartbeats acknowledged since the last full heartbeat.
+     */
+    private int deltaHeartbeatCount;
+    /**
+     * Whether the managers accept delta heartbeats.
+     */
+    private boolean deltaHeartbeatSupported = true;
+    /**
+     * Executor scheduling the heartbeats.
+     */
+    private final ScheduledExecutorService heartbeatScheduler;
+    /**
+     * Executor sending the heartbeats.
+     */
+    private final ExecutorService heartbeatExecutor;
+    /**
+     * Heartbeat being sent, accessed only by the scheduler thread.
+     */
+    private Future<?> heartbeatFuture;
+    /**
+     * Number of the last heartbeat attempt, accessed only by the scheduler thread.
+     */
+    private long attempt;
+    /**
+     * Number of the last heartbeat attempt for which the next attempt is scheduled, accessed only by the scheduler
+     * thread.
+     */
+    private long scheduledAttempt;
     /**
-     * Timer to schedule heartbeat sending task.
+     * Number of consecutive heartbeat attempts that could not reach a manager, accessed only by the scheduler
+     * thread.
      */
-    private final Timer timer;
+    private int failedAttempts;
+    /**
+     * Whether the leader rejected this node from joining the resource pool, after which no heartbeats are sent.
+     */
+    private volatile boolean rejected;
     /**
      * Instance of {@link Gson} to un/marshall request/response.
      */
@@ -61,12 +142,34 @@ public class HeartbeatSender extends TimerTask {
 
     /**
      * Constructs a new {@link HeartbeatSender} instance.
-     *
-     * @param timer timer to schedule heartbeat sending task.
      */
-    public HeartbeatSender(Timer timer) {
-        this.timer = timer;
+    public HeartbeatSender() {
         this.gson = new Gson();
+        this.heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SP-HeartbeatScheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeatExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SP-HeartbeatSender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts sending heartbeats.
+     */
+    public void start() {
+        heartbeatScheduler.execute(this::startHeartbeat);
+    }
+
+    /**
+     * Stops sending heartbeats.
+     */
+    public void stop() {
+        heartbeatScheduler.shutdownNow();
+        heartbeatExecutor.shutdownNow();
     }
 
     /**
@@ -74,51 +177,146 @@ public class HeartbeatSender extends TimerTask {
      *
      * @return lastUpdatedTimestamp
      */
-    private static long getLastUpdatedTimestamp() {
+    private long getLastUpdatedTimestamp() {
         return lastUpdatedTimestamp;
     }
 
     /**
      * Method to update the lastUpdatedTimestamp to the {@code System.currentTimeMillis()}
      */
-    private static void updateLastUpdatedTimestamp() {
-        HeartbeatSender.lastUpdatedTimestamp = System.currentTimeMillis();
+    private void updateLastUpdatedTimestamp() {
+        this.lastUpdatedTimestamp = System.currentTimeMillis();
     }
 
     /**
-     * Start the Heartbeat updating task.
+     * Starts a heartbeat attempt on the sender thread, unless the previous attempt is still in progress, and
+     * schedules the next attempt once this one completes or times out. Runs on the scheduler thread.
      */
-    @Override
-    public void run() {
-        boolean heartbeatSent = false;
-        do {
-            /* If the LeaderNodeConfig is available, Heartbeat should sent to that Leader Node.
-             */
-            if (ServiceDataHolder.getLeaderNodeConfig() != null) {
-                heartbeatSent = sendHeartbeat(ServiceDataHolder.getLeaderNodeConfig().getHttpsInterface());
-            }
-            /* At this point check whether the node was able to connect to the leader successfully. If it failed,
-             * Then try to connect to the list of manager nodes available.
-             */
-            if (!heartbeatSent) {
-                for (HTTPSInterfaceConfig i : ServiceDataHolder.getResourceManagers()) {
-                    heartbeatSent = sendHeartbeat(i);
-                    if (heartbeatSent) {
-                        break;
+    private void startHeartbeat() {
+        long currentAttempt = ++attempt;
+        long startTime = System.currentTimeMillis();
+        if (heartbeatFuture != null && !heartbeatFuture.isDone()) {
+            LOG.warn("Previous heartbeat is still in progress, hence skipping the heartbeat.");
+            scheduleNextHeartbeat(currentAttempt, false, startTime);
+            return;
+        }
+        try {
+            heartbeatFuture = heartbeatExecutor.submit(() -> {
+                boolean heartbeatSent = false;
+                try {
+                    heartbeatSent = sendHeartbeatToManagers();
+                } catch (RuntimeException e) {
+                    if (rejected) {
+                        LOG.error(e.getMessage() + ". Hence, stopped sending heartbeats.");
+                    } else {
+                        LOG.error("Error occurred while sending heartbeat.", e);
+                    }
+                } finally {
+                    if (rejected) {
+                        stop();
+                    } else {
+                        boolean sent = heartbeatSent;
+                        executeOnScheduler(() -> scheduleNextHeartbeat(currentAttempt, sent, startTime));
                     }
                 }
+            });
+            heartbeatScheduler.schedule(() -> {
+                if (currentAttempt > scheduledAttempt) {
+                    LOG.warn("Heartbeat did not complete within " + getHeartbeatInterval() + " milliseconds.");
+                    scheduleNextHeartbeat(currentAttempt, false, startTime);
+                }
+            }, getHeartbeatInterval(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Heartbeat sender is stopped.", e);
             }
-            /* If still couldn't connect to the leader or the other available nodes, the Log that and wait for
-             * a given period of time and try to reconnect.
-             */
-            if (!heartbeatSent) {
-                try {
-                    LOG.info("Waiting for the resource pool leader.");
-                    Thread.sleep(ServiceDataHolder.getDeploymentConfig().getLeaderRetryInterval());
-                } catch (InterruptedException ignored) {
+        }
+    }
+
+    /**
+     * Sends a heartbeat to the leader node or, if it can not be reached, to the first reachable manager node.
+     *
+     * @return whether the heartbeat was sent.
+     */
+    boolean sendHeartbeatToManagers() {
+        boolean heartbeatSent = false;
+        /* If the LeaderNodeConfig is available, Heartbeat should sent to that Leader Node.
+         */
+        if (ServiceDataHolder.getLeaderNodeConfig() != null) {
+            heartbeatSent = sendHeartbeat(ServiceDataHolder.getLeaderNodeConfig().getHttpsInterface());
+        }
+        /* At this point check whether the node was able to connect to the leader successfully. If it failed,
+         * Then try to connect to the list of manager nodes available.
+         */
+        if (!heartbeatSent) {
+            for (HTTPSInterfaceConfig i : ServiceDataHolder.getResourceManagers()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
                 }
+                heartbeatSent = sendHeartbeat(i);
+                if (heartbeatSent) {
+                    break;
+                }
+            }
+        }
+        if (!heartbeatSent) {
+            LOG.info("Waiting for the resource pool leader.");
+        }
+        return heartbeatSent;
+    }
+
+    /**
+     * Schedules the heartbeat attempt following the given one, unless it is already scheduled. Runs on the
+     * scheduler thread.
+     *
+     * @param completedAttempt number of the heartbeat attempt that completed or timed out.
+     * @param heartbeatSent    whether the heartbeat attempt reached a manager.
+     * @param startTime        time at which the heartbeat attempt started.
+     */
+    private void scheduleNextHeartbeat(long completedAttempt, boolean heartbeatSent, long startTime) {
+        if (completedAttempt <= scheduledAttempt) {
+            return;
+        }
+        scheduledAttempt = completedAttempt;
+        long interval = getHeartbeatInterval();
+        long delay;
+        if (heartbeatSent) {
+            failedAttempts = 0;
+            double jitter = ServiceDataHolder.getDeploymentConfig().getHeartbeatJitter();
+            delay = (long) (interval * (1 - jitter * ThreadLocalRandom.current().nextDouble()))
+                    - (System.currentTimeMillis() - startTime);
+        } else {
+            long backoff = Math.min(interval << Math.min(failedAttempts, MAX_BACKOFF_EXPONENT),
+                    Math.max(interval, ServiceDataHolder.getDeploymentConfig().getLeaderRetryInterval()));
+            failedAttempts++;
+            delay = backoff / 2 + (long) (backoff / 2 * ThreadLocalRandom.current().nextDouble());
+        }
+        try {
+            heartbeatScheduler.schedule(this::startHeartbeat, Math.max(delay, 0), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Heartbeat sender is stopped.", e);
             }
-        } while (!heartbeatSent);
+        }
+    }
+
+    private void executeOnScheduler(Runnable runnable) {
+        try {
+            heartbeatScheduler.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Heartbeat sender is stopped.", e);
+            }
+        }
+    }
+
+    /**
+     * @return heartbeat interval of the current leader, or the leaderRetryInterval if the leader is not known
+     */
+    private long getHeartbeatInterval() {
+        ManagerNodeConfig leader = ServiceDataHolder.getLeaderNodeConfig();
+        return leader != null ? leader.getHeartbeatInterval()
+                : ServiceDataHolder.getDeploymentConfig().getLeaderRetryInterval();
     }
 
     /**
@@ -137,13 +335,9 @@ public class HeartbeatSender extends TimerTask {
             OperatingSystemMetricSet operatingSystemMetricSet = ServiceDataHolder.getOperatingSystemMetricSet();
             operatingSystemMetricSet.initConnection();
             if (operatingSystemMetricSet.isEnableWorkerMetrics()) {
-                try {
-                    workerMetrics = operatingSystemMetricSet.getMetrics().getWorkerMetrics();
-                    ServiceDataHolder.getCurrentNodeConfig().setWorkerMetrics(workerMetrics);
-                } catch (MetricsConfigException e) {
-                    LOG.error("Error retrieving WorkerStatistics from  Resource Node: "
-                            + ServiceDataHolder.getCurrentNodeConfig().getId(), e);
-                }
+                // Served from the values sampled in the background, so this does not block the heartbeat.
+                workerMetrics = operatingSystemMetricSet.getWorkerMetrics();
+                ServiceDataHolder.getCurrentNodeConfig().setWorkerMetrics(workerMetrics);
             }
         }
         try {
@@ -166,11 +360,48 @@ public class HeartbeatSender extends TimerTask {
                 }
             }
             long startTime = System.currentTimeMillis();
+            ManagerServiceStub managerClient = getManagerClient(config);
+            if (isHeartbeatDeltaApplicable(config)) {
+                HeartbeatDelta heartbeatDelta = createHeartbeatDelta();
+                managerResponse = managerClient.sendHeartbeatDelta(gson.toJson(heartbeatDelta));
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Time taken to update delta heartbeat: " + (System.currentTimeMillis() - startTime));
+                }
+                switch (managerResponse.status()) {
+                    case 200:
+                    case 204:
+                        updateLastUpdatedTimestamp();
+                        if (heartbeatDelta.getWorkerMetrics() != null) {
+                            acknowledgedMetrics = heartbeatDelta.getWorkerMetrics();
+                        }
+                        deltaHeartbeatCount++;
+                        cleaned = false;
+                        return true;
+                    case 301:
+                        resetHeartbeatSession();
+                        hbRes = gson.fromJson(managerResponse.body().toString(), HeartbeatResponse.class);
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Redirecting to the current leader node at:" + hbRes.getLeader());
+                        }
+                        return sendHeartbeat(hbRes.getLeader().getHttpsInterface());
+                    case 404:
+                        LOG.info("ManagerNode@:" + config + " does not accept delta heartbeats. Hence, sending full "
+                                + "heartbeats.");
+                        deltaHeartbeatSupported = false;
+                        break;
+                    default:
+                        // 409 asks for a full heartbeat, which is also sent for any other failure.
+                        break;
+                }
+                resetHeartbeatSession();
+                managerResponse.close();
+                managerResponse = null;
+                startTime = System.currentTimeMillis();
+            }
             // Send request to the heartbeat endpoint.
-            managerResponse = ManagerServiceFactory.getManagerHttpsClient(HTTPSClientUtil.PROTOCOL +
-                    HTTPSClientUtil.generateURLHostPort(config.getHost(),
-                            String.valueOf(config.getPort())), config.getUsername(), config.getPassword())
-                    .sendHeartBeat(gson.toJson(ServiceDataHolder.getCurrentNodeConfig()));
+            NodeConfig currentNodeConfig = ServiceDataHolder.getCurrentNodeConfig();
+            currentNodeConfig.setHeartbeatSequence(++heartbeatSequence);
+            managerResponse = managerClient.sendHeartBeat(gson.toJson(currentNodeConfig));
 
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Time taken to update heartbeat: " + (System.currentTimeMillis() - startTime));
@@ -203,6 +434,7 @@ public class HeartbeatSender extends TimerTask {
                             }
                             ServiceDataHolder.getCurrentNodeConfig().setState(ResourceConstants.STATE_EXISTS);
                         } else if (ResourceConstants.STATE_REJECTED.equalsIgnoreCase(hbRes.getJoinedState())) {
+                            rejected = true;
                             throw new ResourceNodeException(String.format("Leader@{host:%s, port:%s} rejected "
                                             + "resource %s from joining the resource pool. Please check node id "
                                             + "in deployment.yaml", config.getHost(), config.getPort(),
@@ -212,11 +444,11 @@ public class HeartbeatSender extends TimerTask {
                                             + "returned from the Leader@{host:%s, port:%s} while sending heartbeat.",
                                     hbRes.getJoinedState(), config.getHost(), config.getPort()));
                         }
-                        /* When to send the next heartbeat, will depend on the current leaders "heartbeatInterval".
-                         * So that, we don't have to worry about different leaders having different heartbeat check
-                         * intervals (in case).
+                        acknowledgeFullHeartbeat(hbRes.getLeader().getHttpsInterface(), currentNodeConfig);
+                        /* When to send the next heartbeat, will depend on the current leaders "heartbeatInterval",
+                         * which is set above. So that, we don't have to worry about different leaders having
+                         * different heartbeat check intervals (in case).
                          */
-                        timer.schedule(new HeartbeatSender(timer), hbRes.getLeader().getHeartbeatInterval());
                         connected = true;
                         cleaned = false;
                         break;
@@ -247,4 +479,101 @@ public class HeartbeatSender extends TimerTask {
         }
         return connected;
     }
+
+    /**
+     * Returns the client sending heartbeats to the given manager node.
+     *
+     * @param config host:port configuration of the manager node.
+     * @return manager client.
+     */
+    protected ManagerServiceStub getManagerClient(HTTPSInterfaceConfig config) {
+        return ManagerServiceFactory.getManagerHttpsClient(HTTPSClientUtil.PROTOCOL
+                + HTTPSClientUtil.generateURLHostPort(config.getHost(), String.valueOf(config.getPort())),
+                config.getUsername(), config.getPassword());
+    }
+
+    /**
+     * Checks whether the next heartbeat to the given manager can be sent as a delta heartbeat.
+     *
+     * @param config host:port configuration of the manager node.
+     * @return whether a delta heartbeat can be sent.
+     */
+    private boolean isHeartbeatDeltaApplicable(HTTPSInterfaceConfig config) {
+        DeploymentConfig deploymentConfig = ServiceDataHolder.getDeploymentConfig();
+        return deltaHeartbeatSupported && deploymentConfig.isDeltaHeartbeatEnabled()
+                && config.equals(acknowledgedManager)
+                && deltaHeartbeatCount < deploymentConfig.getFullHeartbeatInterval()
+                && getConfigSignature(ServiceDataHolder.getCurrentNodeConfig()).equals(acknowledgedConfig);
+    }
+
+    /**
+     * Creates the next delta heartbeat, including the worker metrics only if they changed noticeably since they
+     * were last acknowledged.
+     *
+     * @return delta heartbeat.
+     */
+    private HeartbeatDelta createHeartbeatDelta() {
+        NodeConfig currentNodeConfig = ServiceDataHolder.getCurrentNodeConfig();
+        HeartbeatDelta heartbeatDelta = new HeartbeatDelta()
+                .setId(currentNodeConfig.getId())
+                .setSequence(++heartbeatSequence)
+                .setReceiverNode(currentNodeConfig.isReceiverNode());
+        WorkerMetrics workerMetrics = currentNodeConfig.getWorkerMetrics();
+        if (workerMetrics != null && (acknowledgedMetrics == null
+                || isChanged(workerMetrics.getProcessCPU(), acknowledgedMetrics.getProcessCPU())
+                || isChanged(workerMetrics.getSystemCPU(), acknowledgedMetrics.getSystemCPU())
+                || isChanged(workerMetrics.getLoadAverage(), acknowledgedMetrics.getLoadAverage())
+                || isChanged(workerMetrics.getTotalMemory(), acknowledgedMetrics.getTotalMemory()))) {
+            heartbeatDelta.setWorkerMetrics(copyOf(workerMetrics));
+        }
+        return heartbeatDelta;
+    }
+
+    /**
+     * Records the full heartbeat acknowledged by the leader, so that following heartbeats can be sent as delta
+     * heartbeats.
+     *
+     * @param config     host:port configuration of the leader node.
+     * @param nodeConfig configuration of the current node.
+     */
+    private void acknowledgeFullHeartbeat(HTTPSInterfaceConfig config, NodeConfig nodeConfig) {
+        acknowledgedManager = config;
+        acknowledgedConfig = getConfigSignature(nodeConfig);
+        acknowledgedMetrics = nodeConfig.getWorkerMetrics() != null ? copyOf(nodeConfig.getWorkerMetrics()) : null;
+        deltaHeartbeatCount = 0;
+    }
+
+    /**
+     * Makes the next heartbeat a full heartbeat.
+     */
+    private void resetHeartbeatSession() {
+        acknowledgedManager = null;
+        acknowledgedConfig = null;
+        acknowledgedMetrics = null;
+        deltaHeartbeatCount = 0;
+    }
+
+    /**
+     * Returns the parts of the node configuration which are sent only in full heartbeats.
+     */
+    private String getConfigSignature(NodeConfig nodeConfig) {
+        return gson.toJson(new NodeConfig()
+                .setId(nodeConfig.getId())
+                .setHttpsInterface(nodeConfig.getHttpsInterface())
+                .setState(nodeConfig.getState())
+                .setReceiverNode(nodeConfig.isReceiverNode()));
+    }
+
+    private static boolean isChanged(double value, double acknowledgedValue) {
+        return Math.abs(value - acknowledgedValue) >= METRICS_DELTA_THRESHOLD;
+    }
+
+    private static WorkerMetrics copyOf(WorkerMetrics workerMetrics) {
+        WorkerMetrics copy = new WorkerMetrics();
+        copy.setProcessCPU(workerMetrics.getProcessCPU());
+        copy.setSystemCPU(workerMetrics.getSystemCPU());
+        copy.setLoadAverage(workerMetrics.getLoadAverage());
+        copy.setTotalMemory(workerMetrics.getTotalMemory());
+        return copy;
+    }
 }
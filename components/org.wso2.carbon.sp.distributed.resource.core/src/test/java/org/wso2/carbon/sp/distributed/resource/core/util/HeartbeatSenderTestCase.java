@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.sp.distributed.resource.core.util;
+
+import com.google.gson.Gson;
+import feign.Response;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.sp.distributed.resource.core.api.ManagerServiceStub;
+import org.wso2.carbon.sp.distributed.resource.core.bean.DeploymentConfig;
+import org.wso2.carbon.sp.distributed.resource.core.bean.HTTPSInterfaceConfig;
+import org.wso2.carbon.sp.distributed.resource.core.bean.HeartbeatDelta;
+import org.wso2.carbon.sp.distributed.resource.core.bean.HeartbeatResponse;
+import org.wso2.carbon.sp.distributed.resource.core.bean.ManagerNodeConfig;
+import org.wso2.carbon.sp.distributed.resource.core.bean.NodeConfig;
+import org.wso2.carbon.sp.distributed.resource.core.internal.ServiceDataHolder;
+import org.wso2.carbon.stream.processor.statistics.bean.WorkerMetrics;
+import org.wso2.carbon.stream.processor.statistics.internal.OperatingSystemMetricSet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class HeartbeatSenderTestCase {
+    private static final long HEARTBEAT_INTERVAL = 1000;
+
+    private DeploymentConfig previousDeploymentConfig;
+    private ManagerNodeConfig previousLeaderNodeConfig;
+    private NodeConfig previousCurrentNodeConfig;
+    private Set<HTTPSInterfaceConfig> previousResourceManagers;
+    private OperatingSystemMetricSet previousOperatingSystemMetricSet;
+    private DeploymentConfig deploymentConfig;
+    private NodeConfig currentNodeConfig;
+    private MockManagerService managerService;
+    private HeartbeatSender heartbeatSender;
+
+    @BeforeMethod
+    public void setUp() {
+        previousDeploymentConfig = ServiceDataHolder.getDeploymentConfig();
+        previousLeaderNodeConfig = ServiceDataHolder.getLeaderNodeConfig();
+        previousCurrentNodeConfig = ServiceDataHolder.getCurrentNodeConfig();
+        previousResourceManagers = ServiceDataHolder.getResourceManagers();
+        previousOperatingSystemMetricSet = ServiceDataHolder.getOperatingSystemMetricSet();
+        deploymentConfig = new DeploymentConfig();
+        deploymentConfig.setFullHeartbeatInterval(3);
+        ServiceDataHolder.setDeploymentConfig(deploymentConfig);
+        ServiceDataHolder.setLeaderNodeConfig(null);
+        currentNodeConfig = new NodeConfig().setId("worker1").setHttpsInterface(createInterface(9443))
+                .setState(ResourceConstants.STATE_NEW);
+        currentNodeConfig.setWorkerMetrics(createMetrics(0.2));
+        ServiceDataHolder.setCurrentNodeConfig(currentNodeConfig);
+        ServiceDataHolder.setResourceManagers(new HashSet<>(Collections.singletonList(createInterface(9543))));
+        ServiceDataHolder.setOperatingSystemMetricSet(null);
+        managerService = new MockManagerService();
+        heartbeatSender = new MockHeartbeatSender(managerService);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        heartbeatSender.stop();
+        ServiceDataHolder.setDeploymentConfig(previousDeploymentConfig);
+        ServiceDataHolder.setLeaderNodeConfig(previousLeaderNodeConfig);
+        ServiceDataHolder.setCurrentNodeConfig(previousCurrentNodeConfig);
+        ServiceDataHolder.setResourceManagers(previousResourceManagers);
+        ServiceDataHolder.setOperatingSystemMetricSet(previousOperatingSystemMetricSet);
+    }
+
+    @Test
+    public void testDeltaHeartbeats() {
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(heartbeatSender.sendHeartbeatToManagers());
+        }
+        // A full heartbeat is sent after fullHeartbeatInterval consecutive delta heartbeats
+        Assert.assertEquals(managerService.requests, Arrays.asList("full", "delta", "delta", "delta", "full"));
+        Assert.assertEquals(managerService.sequences, Arrays.asList(1L, 2L, 3L, 4L, 5L));
+        Assert.assertEquals(managerService.deltas.get(0).getId(), "worker1");
+        Assert.assertEquals(currentNodeConfig.getState(), ResourceConstants.STATE_EXISTS);
+
+        // A change of the node configuration is sent in a full heartbeat
+        Assert.assertTrue(heartbeatSender.sendHeartbeatToManagers());
+        currentNodeConfig.setReceiverNode(true);
+        Assert.assertTrue(heartbeatSender.sendHeartbeatToManagers());
+        Assert.assertEquals(managerService.requests.subList(5, 7), Arrays.asList("delta", "full"));
+    }
+
+    @Test
+    public void testDeltaHeartbeatDisabled() {
+        deploymentConfig.setDeltaHeartbeatEnabled(false);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(heartbeatSender.sendHeartbeatToManagers());
+        }
+        Assert.assertEquals(managerService.requests, Arrays.asList("full", "full", "full"));
+    }
+
+    @Test
+    public void testFullHeartbeatRequested() {
+        Assert.assertTrue(heartbeatSender.sendHeartbeatToManagers());
+        managerService.deltaStatus = 409;
+        Assert.assertTrue(heartbeatSender.sendHeartbeatToManagers());
+        managerService.deltaStatus = 204;
+        Assert.assertTrue(heartbeatSender.sendHeartbeatToManagers());
+        Assert.assertEquals(managerService.requests, Arrays.asList("full", "delta", "full", "delta"));
+        Assert.assertEquals(managerService.sequences, Arrays.asList(1L, 2L, 3L, 4L));
+    }
+
+    @Test
+    public void testDeltaHeartbeatNotSupported() {
+        managerService.deltaStatus = 404;
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(heartbeatSender.sendHeartbeatToManagers());
+        }
+        // Managers which do not have the delta heartbeat endpoint are sent full heartbeats only
+        Assert.assertEquals(managerService.requests, Arrays.asList("full", "delta", "full", "full"));
+    }
+
+    @Test
+    public void testMetricsThreshold() {
+        deploymentConfig.setFullHeartbeatInterval(10);
+        Assert.assertTrue(heartbeatSender.sendHeartbeatToManagers());
+        currentNodeConfig.setWorkerMetrics(createMetrics(0.205));
+        Assert.assertTrue(heartbeatSender.sendHeartbeatToManagers());
+        currentNodeConfig.setWorkerMetrics(createMetrics(0.215));
+        Assert.assertTrue(heartbeatSender.sendHeartbeatToManagers());
+        // Changes are measured against the last metrics sent, rather than the previous sample
+        currentNodeConfig.setWorkerMetrics(createMetrics(0.22));
+        Assert.assertTrue(heartbeatSender.sendHeartbeatToManagers());
+
+        Assert.assertEquals(managerService.requests, Arrays.asList("full", "delta", "delta", "delta"));
+        Assert.assertNull(managerService.deltas.get(0).getWorkerMetrics());
+        Assert.assertEquals(managerService.deltas.get(1).getWorkerMetrics().getProcessCPU(), 0.215);
+        Assert.assertNull(managerService.deltas.get(2).getWorkerMetrics());
+    }
+
+    @Test
+    public void testJitter() throws InterruptedException {
+        deploymentConfig.setHeartbeatJitter(0.5);
+        deploymentConfig.setFullHeartbeatInterval(100);
+        managerService.heartbeatInterval = 100;
+        heartbeatSender.start();
+        managerService.waitForRequests(12);
+        heartbeatSender.stop();
+
+        // Each heartbeat is sent between half and the whole of the heartbeat interval after the previous one
+        List<Long> timestamps = new ArrayList<>(managerService.timestamps);
+        long minGap = Long.MAX_VALUE;
+        for (int i = 2; i < timestamps.size(); i++) {
+            long gap = timestamps.get(i) - timestamps.get(i - 1);
+            Assert.assertTrue(gap >= 45 && gap <= 150, "Heartbeat " + i + " was sent after " + gap + " ms.");
+            minGap = Math.min(minGap, gap);
+        }
+        Assert.assertTrue(minGap < 95, "Heartbeats were sent in " + minGap + " ms intervals or more.");
+    }
+
+    @Test
+    public void testSkippedHeartbeats() throws InterruptedException {
+        deploymentConfig.setLeaderRetryInterval(100);
+        managerService.heartbeatInterval = 100;
+        managerService.release = new CountDownLatch(1);
+        heartbeatSender.start();
+        managerService.waitForRequests(1);
+        // Heartbeats are not sent while the previous heartbeat is still in progress
+        Thread.sleep(500);
+        Assert.assertEquals(managerService.requests.size(), 1);
+
+        managerService.release.countDown();
+        managerService.waitForRequests(3);
+        Assert.assertEquals(new ArrayList<>(managerService.requests).subList(0, 3),
+                Arrays.asList("full", "delta", "delta"));
+    }
+
+    @Test
+    public void testBackoff() throws InterruptedException {
+        deploymentConfig.setLeaderRetryInterval(640);
+        managerService.heartbeatInterval = 20;
+        heartbeatSender.start();
+        managerService.waitForRequests(1);
+        // Leave no other manager to fall back to, so that each attempt sends a single heartbeat
+        ServiceDataHolder.getResourceManagers().clear();
+        managerService.fullStatus = 500;
+        managerService.deltaStatus = 500;
+        managerService.waitForRequests(10);
+        heartbeatSender.stop();
+
+        // The retry interval is doubled on each failure, capped at the leaderRetryInterval, of which a random half
+        // is waited
+        List<String> requests = new ArrayList<>(managerService.requests);
+        List<Long> timestamps = new ArrayList<>(managerService.timestamps);
+        int firstFailure = requests.lastIndexOf("delta") + 1;
+        Assert.assertEquals(requests.get(firstFailure), "full");
+        for (int i = firstFailure + 1; i < timestamps.size(); i++) {
+            Assert.assertEquals(requests.get(i), "full");
+            long backoff = Math.min(20L << (i - firstFailure - 1), 640);
+            long gap = timestamps.get(i) - timestamps.get(i - 1);
+            Assert.assertTrue(gap >= backoff / 2 - 5 && gap <= backoff + 50, "Retry " + (i - firstFailure)
+                    + " was sent after " + gap + " ms, instead of between " + backoff / 2 + " and " + backoff
+                    + " ms.");
+        }
+    }
+
+    @Test
+    public void testRejected() throws InterruptedException {
+        deploymentConfig.setLeaderRetryInterval(50);
+        managerService.heartbeatInterval = 50;
+        managerService.joinedState = ResourceConstants.STATE_REJECTED;
+        heartbeatSender.start();
+        managerService.waitForRequests(1);
+        // A rejected node does not keep retrying to join the resource pool
+        Thread.sleep(500);
+        Assert.assertEquals(managerService.requests.size(), 1);
+    }
+
+    private static HTTPSInterfaceConfig createInterface(int port) {
+        HTTPSInterfaceConfig httpsInterface = new HTTPSInterfaceConfig();
+        httpsInterface.setHost("localhost");
+        httpsInterface.setPort(port);
+        return httpsInterface;
+    }
+
+    private static WorkerMetrics createMetrics(double cpu) {
+        WorkerMetrics workerMetrics = new WorkerMetrics();
+        workerMetrics.setProcessCPU(cpu);
+        workerMetrics.setSystemCPU(cpu);
+        workerMetrics.setLoadAverage(1);
+        workerMetrics.setTotalMemory(0.5);
+        return workerMetrics;
+    }
+
+    private static class MockHeartbeatSender extends HeartbeatSender {
+        private final ManagerServiceStub managerService;
+
+        private MockHeartbeatSender(ManagerServiceStub managerService) {
+            this.managerService = managerService;
+        }
+
+        @Override
+        protected ManagerServiceStub getManagerClient(HTTPSInterfaceConfig config) {
+            return managerService;
+        }
+    }
+
+    /**
+     * Manager which accepts every heartbeat unless told otherwise, recording the heartbeats in the order they are
+     * received.
+     */
+    private static class MockManagerService implements ManagerServiceStub {
+        private final Gson gson = new Gson();
+        private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+        private final List<Long> sequences = Collections.synchronizedList(new ArrayList<>());
+        private final List<Long> timestamps = Collections.synchronizedList(new ArrayList<>());
+        private final List<HeartbeatDelta> deltas = Collections.synchronizedList(new ArrayList<>());
+        private volatile int deltaStatus = 204;
+        private volatile int fullStatus = 200;
+        private volatile String joinedState = ResourceConstants.STATE_EXISTS;
+        private volatile long heartbeatInterval = HEARTBEAT_INTERVAL;
+        private volatile CountDownLatch release;
+
+        @Override
+        public Response sendHeartBeat(String nodeConfig) {
+            record("full", gson.fromJson(nodeConfig, NodeConfig.class).getHeartbeatSequence());
+            if (fullStatus != 200) {
+                return createResponse(fullStatus, "");
+            }
+            ManagerNodeConfig leader = new ManagerNodeConfig();
+            leader.setId("manager1");
+            leader.setHttpsInterface(createInterface(9543));
+            leader.setHeartbeatInterval(heartbeatInterval);
+            leader.setHeartbeatMaxRetry(1000);
+            HeartbeatResponse heartbeatResponse = new HeartbeatResponse();
+            heartbeatResponse.setLeader(leader);
+            heartbeatResponse.setConnectedManagers(new ArrayList<>());
+            heartbeatResponse.setJoinedState(joinedState);
+            return createResponse(200, gson.toJson(heartbeatResponse));
+        }
+
+        @Override
+        public Response sendHeartbeatDelta(String heartbeatDelta) {
+            HeartbeatDelta delta = gson.fromJson(heartbeatDelta, HeartbeatDelta.class);
+            record("delta", delta.getSequence());
+            if (deltaStatus == 204) {
+                deltas.add(delta);
+            }
+            return createResponse(deltaStatus, "");
+        }
+
+        private void record(String request, long sequence) {
+            timestamps.add(System.currentTimeMillis());
+            sequences.add(sequence);
+            requests.add(request);
+            CountDownLatch latch = release;
+            if (latch != null) {
+                try {
+                    latch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void waitForRequests(int count) throws InterruptedException {
+            long timeout = System.currentTimeMillis() + 10000;
+            while (requests.size() < count && System.currentTimeMillis() < timeout) {
+                Thread.sleep(5);
+            }
+            Assert.assertTrue(requests.size() >= count, "Received " + requests.size() + " heartbeats, instead of "
+                    + count + ".");
+        }
+
+        private static Response createResponse(int status, String body) {
+            Map<String, Collection<String>> headers = Collections.emptyMap();
+            return Response.create(status, "", headers, body, StandardCharsets.UTF_8);
+        }
+    }
+}
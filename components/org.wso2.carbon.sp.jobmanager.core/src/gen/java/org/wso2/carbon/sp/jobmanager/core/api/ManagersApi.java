@@ -30,7 +30,10 @@ import org.wso2.msf4j.Microservice;
 import org.wso2.msf4j.Request;
 import org.wso2.msf4j.interceptor.annotation.RequestInterceptor;
 
+import java.util.List;
+import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
@@ -144,6 +147,34 @@ public class ManagersApi implements Microservice {
         return managersApi.getChildSiddhiAppDetails(appName, request);
     }
 
+    @POST
+    @Path("/siddhi-apps/analysis")
+    @Consumes({"text/plain"})
+    @Produces({"application/json"})
+    @io.swagger.annotations.ApiOperation(value = "Recommend the parallelism of the execution groups of a siddhi app",
+            notes = "Estimates the cost of each execution group of the given distributed siddhi app, optionally "
+                    + "calibrated with observed throughput, and recommends its parallelism without deploying it.",
+            response = void.class, tags = {"Managers",})
+    @io.swagger.annotations.ApiResponses(value = {
+            @io.swagger.annotations.ApiResponse(code = 200, message = "Siddhi app successfully analyzed.",
+                    response = void.class),
+
+            @io.swagger.annotations.ApiResponse(code = 400, message = "The siddhi app is invalid.",
+                    response = void.class),
+
+            @io.swagger.annotations.ApiResponse(code = 500, message = "An unexpected error occured.",
+                    response = void.class)})
+    public Response analyzeSiddhiApp(
+            @Context Request request,
+            @ApiParam(value = "Distributed siddhi app to be analyzed.", required = true) String body,
+            @ApiParam(value = "Expected events per second.")
+            @QueryParam("inputRate") Double inputRate,
+            @ApiParam(value = "Observed events per second of an instance of an execution group, given as "
+                    + "execGroup:eventsPerSecond.")
+            @QueryParam("observedThroughput") List<String> observedThroughput) throws NotFoundException {
+        return managersApi.analyzeSiddhiApp(body, inputRate, observedThroughput, request);
+    }
+
     /**
      * Get user sysAdminRoles by username.
      *
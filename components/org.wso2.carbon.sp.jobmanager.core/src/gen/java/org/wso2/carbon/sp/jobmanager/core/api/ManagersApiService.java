@@ -21,6 +21,7 @@ package org.wso2.carbon.sp.jobmanager.core.api;
 
 import org.wso2.msf4j.Request;
 
+import java.util.List;
 import javax.ws.rs.core.Response;
 
 /**
@@ -39,6 +40,9 @@ public abstract class ManagersApiService {
 
     public abstract Response getSiddhiAppTextView(String appName, Request request) throws NotFoundException;
 
+    public abstract Response analyzeSiddhiApp(String siddhiApp, Double inputRate, List<String> observedThroughput,
+                                              Request request) throws NotFoundException;
+
     public abstract Response getRolesByUsername(Request request, String permisstionString);
 
     public abstract Response getKafkaDetails(String appName, Request request) throws NotFoundException;
@@ -21,6 +21,7 @@ package org.wso2.carbon.sp.jobmanager.core.api;
 import org.wso2.carbon.analytics.msf4j.interceptor.common.AuthenticationInterceptor;
 import org.wso2.carbon.sp.jobmanager.core.factories.ResourceManagerApiServiceFactory;
 import org.wso2.carbon.sp.jobmanager.core.model.Deployment;
+import org.wso2.carbon.sp.jobmanager.core.model.HeartbeatDelta;
 import org.wso2.carbon.sp.jobmanager.core.model.HeartbeatResponse;
 import org.wso2.carbon.sp.jobmanager.core.model.NodeConfig;
 import org.wso2.msf4j.Microservice;
@@ -78,4 +79,26 @@ public class ResourceManagerApi implements Microservice {
             + "as the resource.", required = true) NodeConfig node) throws NotFoundException {
         return delegate.updateHeartbeat(node);
     }
+
+    @POST
+    @Path("/heartbeat/delta")
+    @Consumes({"application/json"})
+    @Produces({"application/json"})
+    @io.swagger.annotations.ApiOperation(value = "Updates Heartbeat of a registered resource node.",
+            notes = "Resource nodes whose configuration has not changed since their last full heartbeat will call "
+                    + "this endpoint with a compact heartbeat, carrying the resource metrics only if they changed.",
+            response = HeartbeatResponse.class, tags = {"ResourceManager",})
+    @io.swagger.annotations.ApiResponses(value = {
+            @io.swagger.annotations.ApiResponse(code = 204, message = "Heartbeat updated.",
+                    response = void.class),
+
+            @io.swagger.annotations.ApiResponse(code = 301, message = "Not the current leader (redir. to correct "
+                    + "leader).", response = HeartbeatResponse.class),
+
+            @io.swagger.annotations.ApiResponse(code = 409, message = "Full heartbeat required.",
+                    response = void.class)})
+    public Response updateHeartbeatDelta(@ApiParam(value = "Compact heartbeat of the resource node.",
+            required = true) HeartbeatDelta heartbeatDelta) throws NotFoundException {
+        return delegate.updateHeartbeatDelta(heartbeatDelta);
+    }
 }
@@ -18,6 +18,7 @@
 
 package org.wso2.carbon.sp.jobmanager.core.api;
 
+import org.wso2.carbon.sp.jobmanager.core.model.HeartbeatDelta;
 import org.wso2.carbon.sp.jobmanager.core.model.NodeConfig;
 
 import javax.ws.rs.core.Response;
@@ -33,4 +34,7 @@ public abstract class ResourceManagerApiService {
 
     public abstract Response updateHeartbeat(NodeConfig node
     ) throws NotFoundException;
+
+    public abstract Response updateHeartbeatDelta(HeartbeatDelta heartbeatDelta
+    ) throws NotFoundException;
 }
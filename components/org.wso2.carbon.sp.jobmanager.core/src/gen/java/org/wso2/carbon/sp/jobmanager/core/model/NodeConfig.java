@@ -43,6 +43,8 @@ public class NodeConfig {
     private WorkerMetrics workerMetrics = null;
     @JsonProperty("isReceiverNode")
     private boolean isReceiverNode;
+    @JsonProperty("heartbeatSequence")
+    private long heartbeatSequence;
 
     public NodeConfig id(String id) {
         this.id = id;
@@ -120,6 +122,21 @@ public class NodeConfig {
         return this;
     }
 
+    /**
+     * Get heartbeatSequence
+     *
+     * @return sequence number of the heartbeat, which is 0 for resource nodes that do not send delta heartbeats
+     **/
+    @ApiModelProperty(required = false, value = "")
+    public long getHeartbeatSequence() {
+        return heartbeatSequence;
+    }
+
+    public NodeConfig heartbeatSequence(long heartbeatSequence) {
+        this.heartbeatSequence = heartbeatSequence;
+        return this;
+    }
+
     @Override
     public boolean equals(java.lang.Object o) {
         if (this == o) {
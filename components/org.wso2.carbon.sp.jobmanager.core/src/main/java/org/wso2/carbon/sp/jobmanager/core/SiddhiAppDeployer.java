@@ -19,6 +19,9 @@
 package org.wso2.carbon.sp.jobmanager.core;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import org.apache.log4j.Logger;
 import org.wso2.carbon.sp.jobmanager.core.api.ResourceServiceFactory;
 import org.wso2.carbon.sp.jobmanager.core.appcreator.SiddhiQuery;
@@ -110,6 +113,70 @@ public class SiddhiAppDeployer {
         }
     }
 
+    /**
+     * Back up the current state of a Siddhi app to the persistence store of the node.
+     *
+     * @param node          node in which the Siddhi app is deployed.
+     * @param siddhiAppName name of the Siddhi app.
+     * @return revision of the backed up state, or null if it could not be backed up.
+     */
+    public static String backup(ResourceNode node, String siddhiAppName) {
+        feign.Response resourceResponse = null;
+        try {
+            resourceResponse = ResourceServiceFactory.getResourceHttpsClient(Constants.PROTOCOL +
+                            HTTPSClientUtil.generateURLHostPort(node.getHttpsInterface().getHost(),
+                                    String.valueOf(node.getHttpsInterface().getPort())),
+                    node.getHttpsInterface().getUsername(), node.getHttpsInterface().getPassword())
+                    .backupSiddhiApp(siddhiAppName);
+            if (resourceResponse.status() == 201) {
+                JsonElement revision = new Gson().fromJson(resourceResponse.body().toString(), JsonObject.class)
+                        .get("revision");
+                return revision != null && !revision.isJsonNull() ? revision.getAsString() : null;
+            }
+            return null;
+        } catch (feign.FeignException | JsonParseException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Error occurred while backing up the state of Siddhi app " + siddhiAppName + " in "
+                        + node, e);
+            }
+            return null;
+        } finally {
+            if (resourceResponse != null) {
+                resourceResponse.close();
+            }
+        }
+    }
+
+    /**
+     * Restore the state of a Siddhi app from the persistence store of the node.
+     *
+     * @param node          node in which the Siddhi app is deployed.
+     * @param siddhiAppName name of the Siddhi app.
+     * @param revision      revision of the state to restore.
+     * @return a boolean stating whether the state got restored or not.
+     */
+    public static boolean restore(ResourceNode node, String siddhiAppName, String revision) {
+        feign.Response resourceResponse = null;
+        try {
+            resourceResponse = ResourceServiceFactory.getResourceHttpsClient(Constants.PROTOCOL +
+                            HTTPSClientUtil.generateURLHostPort(node.getHttpsInterface().getHost(),
+                                    String.valueOf(node.getHttpsInterface().getPort())),
+                    node.getHttpsInterface().getUsername(), node.getHttpsInterface().getPassword())
+                    .restoreSiddhiApp(siddhiAppName, revision);
+            return resourceResponse.status() == 200;
+        } catch (feign.FeignException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Error occurred while restoring the state of Siddhi app " + siddhiAppName + " in "
+                        + node, e);
+            }
+            return false;
+        } finally {
+            if (resourceResponse != null) {
+                resourceResponse.close();
+            }
+        }
+    }
+
     /**
      * Get list of deployed Siddhi app names in a given resource node.
      *
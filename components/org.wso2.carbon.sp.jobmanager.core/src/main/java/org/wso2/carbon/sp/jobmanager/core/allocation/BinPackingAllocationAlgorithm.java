@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.sp.jobmanager.core.allocation;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.sp.jobmanager.core.bean.DeploymentConfig;
+import org.wso2.carbon.sp.jobmanager.core.internal.ServiceDataHolder;
+import org.wso2.carbon.sp.jobmanager.core.model.ResourceNode;
+import org.wso2.carbon.sp.jobmanager.core.model.ResourcePool;
+import org.wso2.carbon.sp.jobmanager.core.model.SiddhiAppHolder;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Allocation algorithm that packs partial Siddhi apps onto resource nodes by their CPU, load average and memory
+ * usage. The demand of a partial Siddhi app is estimated from the usage of the nodes and the number of partial
+ * Siddhi apps deployed in them, and is reserved on the elected node until its next metrics update reflects it.
+ * <p>
+ * A node is elected if none of its projected usages exceeds the capacity limit, preferring the node whose highest
+ * weighted projected usage is the lowest, so that no node runs out of a single resource while others are idle. Nodes
+ * whose metrics are missing or older than two heartbeat intervals are not considered, and nodes are allocated round
+ * robin only if the metrics of none of them are up to date.
+ */
+public class BinPackingAllocationAlgorithm implements ResourceAllocationAlgorithm {
+    private static final Logger logger = Logger.getLogger(BinPackingAllocationAlgorithm.class);
+    private static final double PROCESS_CPU_WEIGHT = 1;
+    private static final double SYSTEM_CPU_WEIGHT = 0.5;
+    private static final double LOAD_AVERAGE_WEIGHT = 0.5;
+    private static final double MEMORY_WEIGHT = 1;
+    private static final double CAPACITY_LIMIT = 0.9;
+    private static final double MIN_CPU_DEMAND = 0.01;
+    private static final double MIN_MEMORY_DEMAND = 0.01;
+    private final Map<String, Reservation> reservations = new HashMap<>();
+    private final RoundRobinAllocationAlgorithm roundRobinAllocationAlgorithm = new RoundRobinAllocationAlgorithm();
+
+    @Override
+    public synchronized ResourceNode getNextResourceNode(Map<String, ResourceNode> resourceNodeMap,
+                                                         int minResourceCount) {
+        DeploymentConfig deploymentConfig = ServiceDataHolder.getDeploymentConfig();
+        if (deploymentConfig == null || resourceNodeMap.isEmpty()) {
+            return null;
+        }
+        if (resourceNodeMap.size() < minResourceCount) {
+            logger.error("Minimum resource requirement did not match, hence not deploying the partial siddhi app ");
+            return null;
+        }
+        long staleTimestamp = System.currentTimeMillis() - deploymentConfig.getHeartbeatInterval() * 2L;
+        Map<String, ResourceNode> currentNodeMap = new LinkedHashMap<>();
+        for (Map.Entry<String, ResourceNode> resourceNode : resourceNodeMap.entrySet()) {
+            if (resourceNode.getValue().isMetricsUpdated()
+                    && resourceNode.getValue().getMetricsTimestamp() >= staleTimestamp) {
+                currentNodeMap.put(resourceNode.getKey(), resourceNode.getValue());
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("Metrics of resource node " + resourceNode.getKey() + " are not up to date, hence "
+                        + "not considering it for the allocation.");
+            }
+        }
+        if (currentNodeMap.isEmpty()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Metrics of none of the resource nodes are up to date, hence allocating the next node "
+                        + "round robin.");
+            }
+            return roundRobinAllocationAlgorithm.getNextResourceNode(resourceNodeMap, minResourceCount);
+        }
+        reservations.keySet().retainAll(resourceNodeMap.keySet());
+        double[] demand = estimateDemand(currentNodeMap);
+        double maxLoadAverage = 0;
+        for (ResourceNode resourceNode : currentNodeMap.values()) {
+            maxLoadAverage = Math.max(maxLoadAverage, resourceNode.getLoadAverage());
+        }
+
+        ResourceNode electedNode = null;
+        double electedScore = Double.MAX_VALUE;
+        boolean electedFits = false;
+        for (ResourceNode resourceNode : currentNodeMap.values()) {
+            Reservation reservation = getReservation(resourceNode);
+            double cpu = Math.min(resourceNode.getProcessCPU() + reservation.cpu + demand[0], 1);
+            double systemCPU = Math.min(resourceNode.getSystemCPU() + reservation.cpu + demand[0], 1);
+            double memory = Math.min(resourceNode.getMemoryUsage() + reservation.memory + demand[1], 1);
+            double loadAverage = maxLoadAverage > 0 ? resourceNode.getLoadAverage() / maxLoadAverage : 0;
+            boolean fits = cpu <= CAPACITY_LIMIT && systemCPU <= CAPACITY_LIMIT && memory <= CAPACITY_LIMIT;
+            double score = Math.max(Math.max(PROCESS_CPU_WEIGHT * cpu, SYSTEM_CPU_WEIGHT * systemCPU),
+                    Math.max(LOAD_AVERAGE_WEIGHT * loadAverage, MEMORY_WEIGHT * memory));
+            if ((fits && !electedFits) || (fits == electedFits && score < electedScore)) {
+                electedNode = resourceNode;
+                electedScore = score;
+                electedFits = fits;
+            }
+        }
+        if (!electedFits) {
+            logger.warn("None of the resource nodes has capacity left for another partial siddhi app, hence "
+                    + "allocating the least utilized node " + electedNode.getId());
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("Next node to get allocated is " + electedNode.getId());
+        }
+        Reservation reservation = getReservation(electedNode);
+        reservation.cpu += demand[0];
+        reservation.memory += demand[1];
+        return electedNode;
+    }
+
+    /**
+     * Estimates the CPU and memory demand of a partial Siddhi app as the average usage per partial Siddhi app
+     * deployed in the nodes.
+     */
+    private double[] estimateDemand(Map<String, ResourceNode> resourceNodeMap) {
+        Map<String, Integer> appCounts = new HashMap<>();
+        ResourcePool resourcePool = ServiceDataHolder.getResourcePool();
+        if (resourcePool != null) {
+            for (Map.Entry<ResourceNode, List<SiddhiAppHolder>> nodeApps : resourcePool.getNodeAppMapping()
+                    .entrySet()) {
+                appCounts.merge(nodeApps.getKey().getId(), nodeApps.getValue().size(), Integer::sum);
+            }
+        }
+        double cpu = 0;
+        double memory = 0;
+        int appCount = 0;
+        for (ResourceNode resourceNode : resourceNodeMap.values()) {
+            Integer nodeAppCount = appCounts.get(resourceNode.getId());
+            if (nodeAppCount != null && nodeAppCount > 0) {
+                cpu += resourceNode.getProcessCPU();
+                memory += resourceNode.getMemoryUsage();
+                appCount += nodeAppCount;
+            }
+        }
+        if (appCount == 0) {
+            return new double[]{MIN_CPU_DEMAND, MIN_MEMORY_DEMAND};
+        }
+        return new double[]{Math.max(cpu / appCount, MIN_CPU_DEMAND),
+                Math.max(memory / appCount, MIN_MEMORY_DEMAND)};
+    }
+
+    /**
+     * Returns the demand reserved on the node since its metrics were last updated.
+     */
+    private Reservation getReservation(ResourceNode resourceNode) {
+        Reservation reservation = reservations.get(resourceNode.getId());
+        if (reservation == null || reservation.metricsTimestamp != resourceNode.getMetricsTimestamp()) {
+            reservation = new Reservation(resourceNode.getMetricsTimestamp());
+            reservations.put(resourceNode.getId(), reservation);
+        }
+        return reservation;
+    }
+
+    /**
+     * Demand of the partial Siddhi apps allocated to a node, which is not yet reflected in its metrics.
+     */
+    private static class Reservation {
+        private final long metricsTimestamp;
+        private double cpu;
+        private double memory;
+
+        private Reservation(long metricsTimestamp) {
+            this.metricsTimestamp = metricsTimestamp;
+        }
+    }
+}
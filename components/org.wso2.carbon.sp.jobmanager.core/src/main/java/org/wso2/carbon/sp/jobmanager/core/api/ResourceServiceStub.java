@@ -45,4 +45,12 @@ public interface ResourceServiceStub {
     @Headers("Content-Type: application/json")
     @RequestLine("GET /siddhi-apps")
     Response getSiddhiApps();
+
+    @Headers("Content-Type: application/json")
+    @RequestLine("POST /siddhi-apps/{appName}/backup")
+    Response backupSiddhiApp(@Param("appName") String appName);
+
+    @Headers("Content-Type: application/json")
+    @RequestLine("POST /siddhi-apps/{appName}/restore?revision={revision}")
+    Response restoreSiddhiApp(@Param("appName") String appName, @Param("revision") String revision);
 }
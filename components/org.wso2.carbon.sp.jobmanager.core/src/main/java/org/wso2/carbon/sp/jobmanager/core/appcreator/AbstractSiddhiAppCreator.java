@@ -45,6 +45,7 @@ public abstract class AbstractSiddhiAppCreator implements SiddhiAppCreator {
                     new DeployableSiddhiQueryGroup(queryGroup.getName(),
                             queryGroup.isReceiverQueryGroup(),
                             queryGroup.getParallelism());
+            deployableQueryGroup.setColocationGroup(queryGroup.getColocationGroup());
             deployableQueryGroup.setSiddhiQueries(createApps(topology.getName(), queryGroup));
             deployableSiddhiQueryGroupList.add(deployableQueryGroup);
         }
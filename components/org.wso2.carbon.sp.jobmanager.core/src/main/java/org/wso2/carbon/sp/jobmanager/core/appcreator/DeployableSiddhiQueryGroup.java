@@ -30,6 +30,7 @@ public class DeployableSiddhiQueryGroup {
     private List<SiddhiQuery> siddhiQueries;
     private boolean isReceiverQueryGroup;
     private int parallelism;
+    private String colocationGroup;
 
     public DeployableSiddhiQueryGroup(String groupName, boolean receiverQueryGroup, int parallelism) {
         this.groupName = groupName;
@@ -62,6 +63,14 @@ public class DeployableSiddhiQueryGroup {
         return parallelism;
     }
 
+    public String getColocationGroup() {
+        return colocationGroup;
+    }
+
+    public void setColocationGroup(String colocationGroup) {
+        this.colocationGroup = colocationGroup;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
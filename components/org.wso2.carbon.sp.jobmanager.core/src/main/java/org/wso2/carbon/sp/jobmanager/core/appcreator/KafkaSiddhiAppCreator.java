@@ -28,6 +28,7 @@ import org.wso2.carbon.sp.jobmanager.core.topology.InputStreamDataHolder;
 import org.wso2.carbon.sp.jobmanager.core.topology.OutputStreamDataHolder;
 import org.wso2.carbon.sp.jobmanager.core.topology.PublishingStrategyDataHolder;
 import org.wso2.carbon.sp.jobmanager.core.topology.SiddhiQueryGroup;
+import org.wso2.carbon.sp.jobmanager.core.topology.SiddhiTopology;
 import org.wso2.carbon.sp.jobmanager.core.topology.SubscriptionStrategyDataHolder;
 import org.wso2.carbon.sp.jobmanager.core.util.ResourceManagerConstants;
 import org.wso2.carbon.sp.jobmanager.core.util.SiddhiTopologyCreatorConstants;
@@ -40,6 +41,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -48,6 +50,7 @@ import java.util.concurrent.TimeUnit;
 public class KafkaSiddhiAppCreator extends AbstractSiddhiAppCreator {
     private static final Logger log = Logger.getLogger(KafkaSiddhiAppCreator.class);
     private static final int TIMEOUT = 120;
+    private Map<String, Integer> topologyTopicPartitions = new HashMap<>();
 
     @Override
     protected List<SiddhiQuery> createApps(String siddhiAppName, SiddhiQueryGroup queryGroup) {
@@ -115,10 +118,31 @@ public class KafkaSiddhiAppCreator extends AbstractSiddhiAppCreator {
             Map<String, String> queryValuesMap = new HashMap<>(1);
             queryValuesMap.put(outputStream.getStreamName(), StringUtils.join(sinkList.values(), "\n"));
             updateQueryList(queryList, queryValuesMap);
-            createTopicPartitions(topicParallelismMap);
+            for (Map.Entry<String, Integer> entry : topicParallelismMap.entrySet()) {
+                topologyTopicPartitions.merge(entry.getKey(), entry.getValue(), Math::max);
+            }
+        }
+    }
+
+    /**
+     * Provisions the topics of all query groups of the topology at once, after the partial Siddhi apps of every
+     * group are created, instead of provisioning the topics of each output stream separately.
+     */
+    @Override
+    public synchronized List<DeployableSiddhiQueryGroup> createApps(SiddhiTopology topology) {
+        topologyTopicPartitions = new HashMap<>();
+        List<DeployableSiddhiQueryGroup> deployableQueryGroupList = super.createApps(topology);
+        if (!topologyTopicPartitions.isEmpty()) {
+            createTopicPartitions(topologyTopicPartitions);
         }
+        return deployableQueryGroupList;
     }
 
+    /**
+     * Creates the given topics, or adjusts the partitions of existing ones, within a single ZooKeeper session. The
+     * partition counts of all topics are read once up front and every topic is validated before any of them is
+     * modified, so that a topology that can not be provisioned fails without leaving half of its topics changed.
+     */
     private void createTopicPartitions(Map<String, Integer> topicParallelismMap) {
         ZkUtils zkUtils;
         String[] bootstrapServerURLs = null;
@@ -148,68 +172,89 @@ public class KafkaSiddhiAppCreator extends AbstractSiddhiAppCreator {
         if (bootstrapServerURL != null) {
             bootstrapServerURLs = bootstrapServerURL.replaceAll("\\s+", "").split(",");
         } else if (transportChannelCreationEnabled) {
+            safeZkClient.closeClient();
             throw new SiddhiAppCreationException("Bootstrap server URLs  are not provided " +
                     "in deployment.yaml under deployment.config. Hence cannot create required topics.");
         }
 
-        Properties topicConfig = new Properties();
-        for (Map.Entry<String, Integer> entry : topicParallelismMap.entrySet()) {
-            String topic = entry.getKey();
-            Integer partitions = entry.getValue();
-            if (AdminUtils.topicExists(zkUtils, topic)) {
-                int existingPartitions = AdminUtils.fetchTopicMetadataFromZk(topic, zkUtils).partitionMetadata()
-                        .size();
-                if (existingPartitions < partitions) {
-                    (new SafeKafkaInvoker()).addKafkaPartition(zkUtils, topic, partitions);
-                    log.info("Added " + partitions + " partitions to topic " + topic);
-                } else if (existingPartitions > partitions) {
-                    if (transportChannelCreationEnabled) {
-                        log.info("Topic " + topic + " has higher number of partitions than expected partition count. "
-                                + "Hence have to delete the topic and recreate with " + partitions + "partitions.");
-                        AdminUtils.deleteTopic(zkUtils, topic);
-                        long startTime = System.currentTimeMillis();
-                        while (AdminUtils.topicExists(zkUtils, topic)) {
-                            try {
-                                TimeUnit.SECONDS.sleep(1);
-                                if (System.currentTimeMillis() - startTime > TIMEOUT * 1000L) {
-                                    break;
-                                }
-                            } catch (InterruptedException e) {
-                                Thread.currentThread().interrupt();
-                            }
-                        }
-                        if (!AdminUtils.topicExists(zkUtils, topic)) {
-                            (new SafeKafkaInvoker()).createKafkaTopic(bootstrapServerURLs, zkUtils, topicConfig, topic,
-                                    partitions);
-                            log.info("Created topic " + topic + " with " + partitions + " partitions.");
-                        } else {
-                            throw new SiddhiAppCreationException("Topic " + topic + " deletion failed. Hence Could not "
-                                    + "create new topic to facilitate new partitions."
-                            );
-                        }
-                    } else {
-                        throw new SiddhiAppCreationException("Number of partitions in the existing topic has higher " +
-                                "number of partitions than the expected count. Hence need to delete and recreate " +
-                                "topic with " + partitions + "partitions.  User has disabled topic creation by " +
-                                "setting "  + SiddhiTopologyCreatorConstants.TRANSPORT_CHANNEL_CREATION_IDENTIFIER +
+        try {
+            SafeKafkaInvoker safeKafkaInvoker = new SafeKafkaInvoker();
+            Map<String, Integer> existingPartitions = safeKafkaInvoker.getPartitionCounts(zkUtils,
+                    topicParallelismMap.keySet());
+            Map<String, Integer> topicsToCreate = new HashMap<>();
+            Map<String, Integer> topicsToExpand = new HashMap<>();
+            Map<String, Integer> topicsToRecreate = new HashMap<>();
+            for (Map.Entry<String, Integer> entry : topicParallelismMap.entrySet()) {
+                String topic = entry.getKey();
+                Integer partitions = entry.getValue();
+                int existingPartitionCount = existingPartitions.get(topic);
+                if (existingPartitionCount == 0) {
+                    if (!transportChannelCreationEnabled) {
+                        throw new SiddhiAppCreationException("Topic " + topic + " creation failed. User has " +
+                                "disabled topic creation by setting " +
+                                SiddhiTopologyCreatorConstants.TRANSPORT_CHANNEL_CREATION_IDENTIFIER +
+                                " property to false. Hence Siddhi App deployment will be aborted.");
+                    }
+                    topicsToCreate.put(topic, partitions);
+                } else if (existingPartitionCount < partitions) {
+                    topicsToExpand.put(topic, partitions);
+                } else if (existingPartitionCount > partitions) {
+                    if (!transportChannelCreationEnabled) {
+                        throw new SiddhiAppCreationException("Number of partitions in the existing topic " + topic +
+                                " has higher number of partitions than the expected count. Hence need to delete " +
+                                "and recreate topic with " + partitions + "partitions.  User has disabled topic " +
+                                "creation by setting " +
+                                SiddhiTopologyCreatorConstants.TRANSPORT_CHANNEL_CREATION_IDENTIFIER +
                                 " property to false. Hence new topics can't be created and Siddhi App deployemnt " +
                                 "will be aborted.");
                     }
+                    topicsToRecreate.put(topic, partitions);
                 }
-            } else {
-                if (transportChannelCreationEnabled) {
-                    new SafeKafkaInvoker().createKafkaTopic(bootstrapServerURLs, zkUtils, topicConfig, topic,
-                            partitions);
-                    log.info("Created topic " + topic + " with " + partitions + " partitions.");
-                } else {
-                    throw new SiddhiAppCreationException("Topic " + topic + " creation failed. User has disabled " +
-                            "topic creation by setting " +
-                            SiddhiTopologyCreatorConstants.TRANSPORT_CHANNEL_CREATION_IDENTIFIER +
-                            " property to false. Hence Siddhi App deployment will be aborted.");
-                }
             }
+
+            for (Map.Entry<String, Integer> entry : topicsToExpand.entrySet()) {
+                safeKafkaInvoker.addKafkaPartition(zkUtils, entry.getKey(), entry.getValue());
+                log.info("Added " + entry.getValue() + " partitions to topic " + entry.getKey());
+            }
+            if (!topicsToRecreate.isEmpty()) {
+                deleteTopics(safeKafkaInvoker, zkUtils, topicsToRecreate.keySet());
+                topicsToCreate.putAll(topicsToRecreate);
+            }
+            Properties topicConfig = new Properties();
+            for (Map.Entry<String, Integer> entry : topicsToCreate.entrySet()) {
+                safeKafkaInvoker.createKafkaTopic(bootstrapServerURLs, zkUtils, topicConfig, entry.getKey(),
+                        entry.getValue());
+                log.info("Created topic " + entry.getKey() + " with " + entry.getValue() + " partitions.");
+            }
+        } finally {
+            safeZkClient.closeClient();
+        }
+    }
+
+    /**
+     * Marks all the given topics for deletion and waits until the brokers have deleted every one of them.
+     */
+    private void deleteTopics(SafeKafkaInvoker safeKafkaInvoker, ZkUtils zkUtils, Set<String> topics) {
+        for (String topic : topics) {
+            log.info("Topic " + topic + " has higher number of partitions than expected partition count. "
+                    + "Hence have to delete the topic and recreate it.");
+            AdminUtils.deleteTopic(zkUtils, topic);
+        }
+        long startTime = System.currentTimeMillis();
+        Set<String> remainingTopics = safeKafkaInvoker.getExistingTopics(zkUtils, topics);
+        while (!remainingTopics.isEmpty() && System.currentTimeMillis() - startTime <= TIMEOUT * 1000L) {
+            try {
+                TimeUnit.SECONDS.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            remainingTopics = safeKafkaInvoker.getExistingTopics(zkUtils, remainingTopics);
+        }
+        if (!remainingTopics.isEmpty()) {
+            throw new SiddhiAppCreationException("Deletion of topics " + remainingTopics + " failed. Hence Could "
+                    + "not create new topics to facilitate new partitions.");
         }
-        safeZkClient.closeClient();
     }
 
     private void processInputStreams(String siddhiAppName, String groupName, List<SiddhiQuery> queryList,
@@ -21,8 +21,17 @@ package org.wso2.carbon.sp.jobmanager.core.appcreator;
 import kafka.admin.AdminUtils;
 import kafka.admin.RackAwareMode;
 import kafka.utils.ZkUtils;
+import scala.collection.JavaConversions;
+import scala.collection.Seq;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * Helper class to use Kafka.
@@ -56,4 +65,41 @@ class SafeKafkaInvoker {
         AdminUtils.addPartitions(zkUtils, topic, partitions, "", true,
                 RackAwareMode.Enforced$.MODULE$);
     }
+
+    /**
+     * Reads the partition counts of the given topics with a single listing of the existing topics, followed by a
+     * single read of the partition assignments of the ones that exist.
+     *
+     * @param zkUtils zkUtils
+     * @param topics  topics
+     * @return partition count of each topic, which is 0 for topics that do not exist
+     */
+    public Map<String, Integer> getPartitionCounts(ZkUtils zkUtils, Collection<String> topics) {
+        Map<String, Integer> partitionCounts = new HashMap<>(topics.size());
+        List<String> existingTopics = new ArrayList<>(getExistingTopics(zkUtils, topics));
+        for (String topic : topics) {
+            partitionCounts.put(topic, 0);
+        }
+        if (!existingTopics.isEmpty()) {
+            Map<String, Seq<Object>> partitions = JavaConversions.mapAsJavaMap(
+                    zkUtils.getPartitionsForTopics(JavaConversions.asScalaBuffer(existingTopics)));
+            for (Map.Entry<String, Seq<Object>> entry : partitions.entrySet()) {
+                partitionCounts.put(entry.getKey(), entry.getValue().size());
+            }
+        }
+        return partitionCounts;
+    }
+
+    /**
+     * Returns the given topics which exist in the cluster, listing the topics of the cluster only once.
+     *
+     * @param zkUtils zkUtils
+     * @param topics  topics
+     * @return existing topics among the given topics
+     */
+    public Set<String> getExistingTopics(ZkUtils zkUtils, Collection<String> topics) {
+        Set<String> existingTopics = new HashSet<>(JavaConversions.seqAsJavaList(zkUtils.getAllTopics()));
+        existingTopics.retainAll(topics);
+        return existingTopics;
+    }
 }
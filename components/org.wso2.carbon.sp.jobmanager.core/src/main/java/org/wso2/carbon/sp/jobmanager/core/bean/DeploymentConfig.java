@@ -41,6 +41,17 @@ public class DeploymentConfig implements Serializable {
     private int heartbeatInterval = 10000;
     private int heartbeatMaxRetry = 2;
     private int minResourceCount = 1;
+    private int deploymentParallelism = 16;
+    private int deploymentParallelismPerNode = 4;
+    private int resourcePoolPersistenceWindow = 200;
+    private boolean rebalanceEnabled = false;
+    private int rebalanceInterval = 60000;
+    private double rebalanceHighWatermark = 0.85;
+    private double rebalanceLowWatermark = 0.6;
+    private int rebalanceSustainedIntervals = 3;
+    private int rebalanceMaxMigrations = 1;
+    private int rebalanceCooldown = 300000;
+    private boolean rebalanceStatefulApps = false;
     @Element(description = "datasource to persist resource mappings", required = true)
     private String datasource;
     @Element(description = "bootstrap urls for Kafka", required = true)
@@ -139,6 +150,94 @@ public class DeploymentConfig implements Serializable {
         this.minResourceCount = minResourceCount;
     }
 
+    public int getDeploymentParallelism() {
+        return deploymentParallelism;
+    }
+
+    public void setDeploymentParallelism(int deploymentParallelism) {
+        this.deploymentParallelism = deploymentParallelism;
+    }
+
+    public int getDeploymentParallelismPerNode() {
+        return deploymentParallelismPerNode;
+    }
+
+    public void setDeploymentParallelismPerNode(int deploymentParallelismPerNode) {
+        this.deploymentParallelismPerNode = deploymentParallelismPerNode;
+    }
+
+    public int getResourcePoolPersistenceWindow() {
+        return resourcePoolPersistenceWindow;
+    }
+
+    public void setResourcePoolPersistenceWindow(int resourcePoolPersistenceWindow) {
+        this.resourcePoolPersistenceWindow = resourcePoolPersistenceWindow;
+    }
+
+    public boolean isRebalanceEnabled() {
+        return rebalanceEnabled;
+    }
+
+    public void setRebalanceEnabled(boolean rebalanceEnabled) {
+        this.rebalanceEnabled = rebalanceEnabled;
+    }
+
+    public int getRebalanceInterval() {
+        return rebalanceInterval;
+    }
+
+    public void setRebalanceInterval(int rebalanceInterval) {
+        this.rebalanceInterval = rebalanceInterval;
+    }
+
+    public double getRebalanceHighWatermark() {
+        return rebalanceHighWatermark;
+    }
+
+    public void setRebalanceHighWatermark(double rebalanceHighWatermark) {
+        this.rebalanceHighWatermark = rebalanceHighWatermark;
+    }
+
+    public double getRebalanceLowWatermark() {
+        return rebalanceLowWatermark;
+    }
+
+    public void setRebalanceLowWatermark(double rebalanceLowWatermark) {
+        this.rebalanceLowWatermark = rebalanceLowWatermark;
+    }
+
+    public int getRebalanceSustainedIntervals() {
+        return rebalanceSustainedIntervals;
+    }
+
+    public void setRebalanceSustainedIntervals(int rebalanceSustainedIntervals) {
+        this.rebalanceSustainedIntervals = rebalanceSustainedIntervals;
+    }
+
+    public int getRebalanceMaxMigrations() {
+        return rebalanceMaxMigrations;
+    }
+
+    public void setRebalanceMaxMigrations(int rebalanceMaxMigrations) {
+        this.rebalanceMaxMigrations = rebalanceMaxMigrations;
+    }
+
+    public int getRebalanceCooldown() {
+        return rebalanceCooldown;
+    }
+
+    public void setRebalanceCooldown(int rebalanceCooldown) {
+        this.rebalanceCooldown = rebalanceCooldown;
+    }
+
+    public boolean isRebalanceStatefulApps() {
+        return rebalanceStatefulApps;
+    }
+
+    public void setRebalanceStatefulApps(boolean rebalanceStatefulApps) {
+        this.rebalanceStatefulApps = rebalanceStatefulApps;
+    }
+
     public String getDatasource() {
         return datasource;
     }
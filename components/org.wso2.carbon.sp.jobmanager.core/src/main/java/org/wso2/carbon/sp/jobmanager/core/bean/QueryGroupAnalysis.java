@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.sp.jobmanager.core.bean;
+
+/**
+ * Bean class for the estimated cost and recommended parallelism of a query group.
+ */
+public class QueryGroupAnalysis {
+    private String groupName;
+    private int configuredParallelism;
+    private int recommendedParallelism;
+    private boolean parallelizable;
+    private double estimatedCost;
+    private boolean calibrated;
+    private double throughputPerInstance;
+    private double maxThroughput;
+
+    public String getGroupName() {
+        return groupName;
+    }
+
+    public void setGroupName(String groupName) {
+        this.groupName = groupName;
+    }
+
+    public int getConfiguredParallelism() {
+        return configuredParallelism;
+    }
+
+    public void setConfiguredParallelism(int configuredParallelism) {
+        this.configuredParallelism = configuredParallelism;
+    }
+
+    public int getRecommendedParallelism() {
+        return recommendedParallelism;
+    }
+
+    public void setRecommendedParallelism(int recommendedParallelism) {
+        this.recommendedParallelism = recommendedParallelism;
+    }
+
+    public boolean isParallelizable() {
+        return parallelizable;
+    }
+
+    public void setParallelizable(boolean parallelizable) {
+        this.parallelizable = parallelizable;
+    }
+
+    /**
+     * @return estimated processing cost of an event, relative to a pass through query
+     */
+    public double getEstimatedCost() {
+        return estimatedCost;
+    }
+
+    public void setEstimatedCost(double estimatedCost) {
+        this.estimatedCost = estimatedCost;
+    }
+
+    /**
+     * @return true if the throughput per instance was observed rather than estimated from the cost
+     */
+    public boolean isCalibrated() {
+        return calibrated;
+    }
+
+    public void setCalibrated(boolean calibrated) {
+        this.calibrated = calibrated;
+    }
+
+    /**
+     * @return events per second a single instance of the query group can process
+     */
+    public double getThroughputPerInstance() {
+        return throughputPerInstance;
+    }
+
+    public void setThroughputPerInstance(double throughputPerInstance) {
+        this.throughputPerInstance = throughputPerInstance;
+    }
+
+    /**
+     * @return events per second the query group can process with the recommended parallelism
+     */
+    public double getMaxThroughput() {
+        return maxThroughput;
+    }
+
+    public void setMaxThroughput(double maxThroughput) {
+        this.maxThroughput = maxThroughput;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.sp.jobmanager.core.bean;
+
+import java.util.List;
+
+/**
+ * Bean class for the parallelism recommendation of a distributed Siddhi app.
+ */
+public class TopologyAnalysis {
+    private String siddhiAppName;
+    private double inputRate;
+    private double maxThroughput;
+    private String bottleneckGroup;
+    private List<QueryGroupAnalysis> queryGroups;
+
+    public String getSiddhiAppName() {
+        return siddhiAppName;
+    }
+
+    public void setSiddhiAppName(String siddhiAppName) {
+        this.siddhiAppName = siddhiAppName;
+    }
+
+    /**
+     * @return expected events per second the parallelism was recommended for, or 0 if it was not given
+     */
+    public double getInputRate() {
+        return inputRate;
+    }
+
+    public void setInputRate(double inputRate) {
+        this.inputRate = inputRate;
+    }
+
+    /**
+     * @return events per second the Siddhi app can process with the recommended parallelism, which is limited by
+     * the bottleneck query group
+     */
+    public double getMaxThroughput() {
+        return maxThroughput;
+    }
+
+    public void setMaxThroughput(double maxThroughput) {
+        this.maxThroughput = maxThroughput;
+    }
+
+    public String getBottleneckGroup() {
+        return bottleneckGroup;
+    }
+
+    public void setBottleneckGroup(String bottleneckGroup) {
+        this.bottleneckGroup = bottleneckGroup;
+    }
+
+    public List<QueryGroupAnalysis> getQueryGroups() {
+        return queryGroups;
+    }
+
+    public void setQueryGroups(List<QueryGroupAnalysis> queryGroups) {
+        this.queryGroups = queryGroups;
+    }
+}
@@ -39,7 +39,17 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -49,6 +59,9 @@ import java.util.concurrent.locks.ReentrantLock;
 public class DeploymentManagerImpl implements DeploymentManager, ResourcePoolChangeListener {
     private static final Logger log = Logger.getLogger(DeploymentManagerImpl.class);
     private final Lock lock = new ReentrantLock();
+    private final Object allocationLock = new Object();
+    private final Map<String, Semaphore> nodePermits = new ConcurrentHashMap<>();
+    private volatile ExecutorService deploymentExecutor;
     private ResourceAllocationAlgorithm resourceAllocationAlgorithm = ServiceDataHolder.getAllocationAlgorithm();
     private ResourceAllocationAlgorithm receiverAllocationAlgorithm = new RoundRobinAllocationAlgorithm();
 
@@ -91,26 +104,13 @@ public class DeploymentManagerImpl implements DeploymentManager, ResourcePoolCha
             }
             boolean isDeployed = true;
             if (shouldDeploy) {
-                for (SiddhiAppHolder appHolder : appsToDeploy) {
-                    ResourceNode deployedNode;
-                    deployedNode = deploy(new SiddhiQuery(appHolder.getAppName(), appHolder.getSiddhiApp(),
-                            appHolder.isReceiverQueryGroup()), 0, appHolder.getParallelism());
-                    if (deployedNode != null) {
-                        appHolder.setDeployedNode(deployedNode);
-                        deployedApps.add(appHolder);
-                        log.info(String.format("Siddhi app %s of %s successfully deployed in %s.",
-                                appHolder.getAppName(), appHolder.getParentAppName(), deployedNode));
-                    } else {
-                        log.warn(String.format("Insufficient resources to deploy Siddhi app %s of %s. Hence, rolling " +
-                                "back.", appHolder.getAppName(), appHolder.getParentAppName()));
-                        isDeployed = false;
-                        break;
-                    }
-                }
+                isDeployed = deploy(appsToDeploy, deployedApps);
                 if (isDeployed) {
                     deployedSiddhiAppHoldersMap.put(distributedSiddhiQuery.getAppName(), deployedApps);
                     log.info("Siddhi app " + distributedSiddhiQuery.getAppName() + " successfully deployed.");
                 } else {
+                    log.warn("Insufficient resources to deploy Siddhi app " + distributedSiddhiQuery.getAppName()
+                            + ". Hence, rolling back.");
                     rollback(deployedApps);
                     deployedApps = Collections.emptyList();
                     deployedSiddhiAppHoldersMap.remove(distributedSiddhiQuery.getAppName());
@@ -150,9 +150,11 @@ public class DeploymentManagerImpl implements DeploymentManager, ResourcePoolCha
         List<SiddhiAppHolder> siddhiAppHolders = new ArrayList<>();
         distributedSiddhiQuery.getQueryGroups().forEach(queryGroup -> {
             queryGroup.getSiddhiQueries().forEach(query -> {
-                siddhiAppHolders.add(new SiddhiAppHolder(distributedSiddhiQuery.getAppName(),
+                SiddhiAppHolder siddhiAppHolder = new SiddhiAppHolder(distributedSiddhiQuery.getAppName(),
                         queryGroup.getGroupName(), query.getAppName(), query.getApp(),
-                        null, queryGroup.isReceiverQueryGroup(), queryGroup.getParallelism()));
+                        null, queryGroup.isReceiverQueryGroup(), queryGroup.getParallelism());
+                siddhiAppHolder.setColocationGroup(queryGroup.getColocationGroup());
+                siddhiAppHolders.add(siddhiAppHolder);
             });
         });
         return siddhiAppHolders;
@@ -212,25 +214,8 @@ public class DeploymentManagerImpl implements DeploymentManager, ResourcePoolCha
         try {
             for (String parentSiddhiAppName : waitingParentAppNames) {
                 partialAppHoldersOfSiddhiApp = waitingList.getOrDefault(parentSiddhiAppName, Collections.emptyList());
-                deployedCompletely = true;
                 currentDeployedPartialApps = new ArrayList<>();
-
-                for (SiddhiAppHolder partialAppHolder : partialAppHoldersOfSiddhiApp) {
-                    ResourceNode deployedNode = deploy(new SiddhiQuery(partialAppHolder.getAppName(),
-                                    partialAppHolder.getSiddhiApp(), partialAppHolder.isReceiverQueryGroup()), 0,
-                            partialAppHolder.getParallelism());
-
-                    if (deployedNode != null) {
-                        partialAppHolder.setDeployedNode(deployedNode);
-                        currentDeployedPartialApps.add(partialAppHolder);
-                        log.info(String.format("Siddhi app %s of %s successfully deployed in %s.",
-                                partialAppHolder.getAppName(), partialAppHolder.getParentAppName(),
-                                deployedNode));
-                    } else {
-                        deployedCompletely = false;
-                        break;
-                    }
-                }
+                deployedCompletely = deploy(partialAppHoldersOfSiddhiApp, currentDeployedPartialApps);
                 if (deployedCompletely) {
                     ServiceDataHolder.getResourcePool().getSiddhiAppHoldersMap()
                             .put(parentSiddhiAppName, partialAppHoldersOfSiddhiApp);
@@ -262,9 +247,13 @@ public class DeploymentManagerImpl implements DeploymentManager, ResourcePoolCha
                 rollback(affectedPartialApps);
 
                 affectedPartialApps.forEach(affectedPartialApp -> {
-                    ResourceNode deployedNode = deploy(new SiddhiQuery(affectedPartialApp.getAppName(),
-                                    affectedPartialApp.getSiddhiApp(), affectedPartialApp.isReceiverQueryGroup()), 0,
-                            affectedPartialApp.getParallelism());
+                    SiddhiQuery siddhiQuery = new SiddhiQuery(affectedPartialApp.getAppName(),
+                            affectedPartialApp.getSiddhiApp(), affectedPartialApp.isReceiverQueryGroup());
+                    ResourceNode colocatedNode = getColocatedNode(affectedPartialApp, resourcePool
+                            .getSiddhiAppHoldersMap().get(affectedPartialApp.getParentAppName()));
+                    ResourceNode deployedNode = colocatedNode != null
+                            ? deployColocated(siddhiQuery, colocatedNode)
+                            : deploy(siddhiQuery, 0, affectedPartialApp.getParallelism());
                     if (deployedNode != null) {
                         affectedPartialApp.setDeployedNode(deployedNode);
                         log.info(String.format("Siddhi app %s of %s successfully deployed in %s.",
@@ -301,7 +290,7 @@ public class DeploymentManagerImpl implements DeploymentManager, ResourcePoolCha
             if (resourceNode != null && deployedAppHolders != null) {
 
                 deployedAppHolders.forEach(appHolder -> {
-                    String appName = SiddhiAppDeployer.deploy(resourceNode, new SiddhiQuery(appHolder.getAppName(),
+                    String appName = deployApp(resourceNode, new SiddhiQuery(appHolder.getAppName(),
                             appHolder.getSiddhiApp(), appHolder.isReceiverQueryGroup()));
                     if (appName == null || appName.isEmpty()) {
                         log.warn(String.format("Couldn't re-deploy partial Siddhi app %s of %s in %s. Therefore, " +
@@ -327,22 +316,216 @@ public class DeploymentManagerImpl implements DeploymentManager, ResourcePoolCha
         }
     }
 
-    private ResourceNode deploy(SiddhiQuery siddhiQuery, int retry, int parallelism) {
-        ResourcePool resourcePool = ServiceDataHolder.getResourcePool();
-        Map<String, ResourceNode> nodeMap;
-        ResourceNode resourceNode;
+    /**
+     * Moves a deployed partial Siddhi app to another resource node. A stateless partial Siddhi app is deployed in the
+     * target node before it is un-deployed from its current node, so that its events keep being processed while it
+     * is moved. A stateful partial Siddhi app is backed up and un-deployed from its current node before it is
+     * deployed and restored in the target node, so that the two nodes never process its events at the same time.
+     * Its state is carried over through the persistence store, which therefore has to be shared by the resource
+     * nodes, and state changes made between the backup and the un-deployment are not carried over. If the stateful
+     * partial Siddhi app can't be started in the target node, it is re-deployed and restored in its current node.
+     *
+     * @param appHolder  deployed partial Siddhi app.
+     * @param targetNode resource node to move the partial Siddhi app to.
+     * @param carryState whether the state of the partial Siddhi app has to be carried over.
+     * @return whether the partial Siddhi app was moved. Otherwise, it is left deployed in its current node, unless it
+     * could neither be started in the target node nor re-deployed in its current node, in which case its parent
+     * Siddhi app is held back in waiting mode.
+     */
+    public boolean migrate(SiddhiAppHolder appHolder, ResourceNode targetNode, boolean carryState) {
+        lock.lock();
+        try {
+            ResourcePool resourcePool = ServiceDataHolder.getResourcePool();
+            ResourceNode sourceNode = appHolder.getDeployedNode();
+            List<SiddhiAppHolder> appHolders = resourcePool.getSiddhiAppHoldersMap()
+                    .get(appHolder.getParentAppName());
+            if (sourceNode == null || appHolders == null || appHolders.stream().noneMatch(e -> e == appHolder)
+                    || !resourcePool.getResourceNodeMap().containsKey(targetNode.getId())) {
+                // The partial Siddhi app was re-deployed or un-deployed, or the target node left, since it was chosen
+                return false;
+            }
+            boolean moved = carryState ? migrateStateful(appHolder, sourceNode, targetNode)
+                    : migrateStateless(appHolder, sourceNode, targetNode);
+            if (moved) {
+                appHolder.setDeployedNode(targetNode);
+                log.info(String.format("Siddhi app %s of %s moved from %s to %s.", appHolder.getAppName(),
+                        appHolder.getParentAppName(), sourceNode, targetNode));
+            }
+            resourcePool.persist();
+            return moved;
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        if (siddhiQuery.isReceiverQuery()) {
-            nodeMap = resourcePool.getReceiverNodeMap();
-            resourceNode = receiverAllocationAlgorithm.getNextResourceNode(nodeMap, parallelism);
+    private boolean migrateStateless(SiddhiAppHolder appHolder, ResourceNode sourceNode, ResourceNode targetNode) {
+        if (!deployMigratedApp(appHolder, targetNode)) {
+            log.warn(String.format("Couldn't deploy partial Siddhi app %s in %s. Hence, not moving it.",
+                    appHolder.getAppName(), targetNode));
+            return false;
+        }
+        if (!unDeployApp(sourceNode, appHolder.getAppName())) {
+            log.warn(String.format("Couldn't un-deploy partial Siddhi app %s from %s. Hence, not moving it.",
+                    appHolder.getAppName(), sourceNode));
+            rollbackMigration(appHolder, targetNode);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean migrateStateful(SiddhiAppHolder appHolder, ResourceNode sourceNode, ResourceNode targetNode) {
+        String revision = backupApp(sourceNode, appHolder.getAppName());
+        if (revision == null) {
+            log.warn(String.format("Couldn't back up the state of partial Siddhi app %s in %s. Hence, not moving it.",
+                    appHolder.getAppName(), sourceNode));
+            return false;
+        }
+        if (!unDeployApp(sourceNode, appHolder.getAppName())) {
+            log.warn(String.format("Couldn't un-deploy partial Siddhi app %s from %s. Hence, not moving it.",
+                    appHolder.getAppName(), sourceNode));
+            return false;
+        }
+        if (!deployMigratedApp(appHolder, targetNode)) {
+            log.warn(String.format("Couldn't deploy partial Siddhi app %s in %s. Hence, re-deploying it in %s.",
+                    appHolder.getAppName(), targetNode, sourceNode));
+        } else if (!restoreApp(targetNode, appHolder.getAppName(), revision)) {
+            log.warn(String.format("Couldn't restore the state of partial Siddhi app %s in %s. Hence, re-deploying "
+                    + "it in %s.", appHolder.getAppName(), targetNode, sourceNode));
+            rollbackMigration(appHolder, targetNode);
         } else {
-            nodeMap = resourcePool.getResourceNodeMap();
-            resourceNode = resourceAllocationAlgorithm.getNextResourceNode(nodeMap,
-                    ServiceDataHolder.getDeploymentConfig().getMinResourceCount());
+            return true;
+        }
+        if (!deployMigratedApp(appHolder, sourceNode)) {
+            log.error(String.format("Couldn't re-deploy partial Siddhi app %s in %s. Hence, holding back Siddhi app "
+                    + "%s in waiting mode.", appHolder.getAppName(), sourceNode, appHolder.getParentAppName()));
+            appHolder.setDeployedNode(null);
+            List<SiddhiAppHolder> appHolders = ServiceDataHolder.getResourcePool().getSiddhiAppHoldersMap()
+                    .remove(appHolder.getParentAppName());
+            rollback(appHolders);
+            appHolders.forEach(e -> e.setDeployedNode(null));
+            ServiceDataHolder.getResourcePool().getAppsWaitingForDeploy().put(appHolder.getParentAppName(),
+                    appHolders);
+        } else if (!restoreApp(sourceNode, appHolder.getAppName(), revision)) {
+            log.error(String.format("Couldn't restore the state of partial Siddhi app %s in %s, which was "
+                    + "re-deployed without its state.", appHolder.getAppName(), sourceNode));
+        }
+        return false;
+    }
+
+    private boolean deployMigratedApp(SiddhiAppHolder appHolder, ResourceNode resourceNode) {
+        String appName = deployInNode(resourceNode, new SiddhiQuery(appHolder.getAppName(),
+                appHolder.getSiddhiApp(), appHolder.isReceiverQueryGroup()));
+        return appName != null && !appName.isEmpty();
+    }
+
+    private void rollbackMigration(SiddhiAppHolder appHolder, ResourceNode targetNode) {
+        if (!unDeployApp(targetNode, appHolder.getAppName())) {
+            log.warn(String.format("Could not un-deploy Siddhi app %s from %s.", appHolder.getAppName(),
+                    targetNode));
         }
+    }
+
+    /**
+     * Deploys the partial Siddhi apps in the given order. Consecutive partial Siddhi apps of the same query group are
+     * deployed concurrently, bounded by the deployment parallelism of the job manager and of each resource node, while
+     * each query group is only deployed once the previous one is completely deployed. Deployment stops at the first
+     * query group that could not be deployed completely. Partial Siddhi apps of a colocation group are deployed in
+     * the node of the first of them, without retrying in other nodes.
+     *
+     * @param appHolders   partial Siddhi apps to deploy, ordered by query group.
+     * @param deployedApps list the successfully deployed partial Siddhi apps are added to, in the given order.
+     * @return whether all the partial Siddhi apps were deployed.
+     */
+    private boolean deploy(List<SiddhiAppHolder> appHolders, List<SiddhiAppHolder> deployedApps) {
+        int groupStart = 0;
+        while (groupStart < appHolders.size()) {
+            int groupEnd = groupStart + 1;
+            while (groupEnd < appHolders.size() && Objects.equals(appHolders.get(groupEnd).getGroupName(),
+                    appHolders.get(groupStart).getGroupName())) {
+                groupEnd++;
+            }
+            List<SiddhiAppHolder> groupAppHolders = appHolders.subList(groupStart, groupEnd);
+            List<Future<ResourceNode>> deployments = new ArrayList<>(groupAppHolders.size());
+            for (SiddhiAppHolder appHolder : groupAppHolders) {
+                // Nodes are allocated in order, so that the placement does not depend on the deployment timing
+                SiddhiQuery siddhiQuery = new SiddhiQuery(appHolder.getAppName(), appHolder.getSiddhiApp(),
+                        appHolder.isReceiverQueryGroup());
+                ResourceNode colocatedNode = getColocatedNode(appHolder, deployedApps);
+                if (colocatedNode != null) {
+                    deployments.add(getDeploymentExecutor().submit(() ->
+                            deployColocated(siddhiQuery, colocatedNode)));
+                    continue;
+                }
+                ResourceNode resourceNode = allocate(siddhiQuery, appHolder.getParallelism());
+                deployments.add(resourceNode == null ? null : getDeploymentExecutor().submit(() ->
+                        deploy(siddhiQuery, resourceNode, 0, appHolder.getParallelism())));
+            }
+            boolean groupDeployed = true;
+            boolean interrupted = false;
+            for (int i = 0; i < groupAppHolders.size(); i++) {
+                SiddhiAppHolder appHolder = groupAppHolders.get(i);
+                ResourceNode deployedNode = null;
+                Future<ResourceNode> deployment = deployments.get(i);
+                while (deployment != null) {
+                    try {
+                        deployedNode = deployment.get();
+                        break;
+                    } catch (InterruptedException e) {
+                        // Deployments that are in progress have to complete to be rolled back
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        log.error(String.format("Error while deploying Siddhi app %s of %s.", appHolder.getAppName(),
+                                appHolder.getParentAppName()), e.getCause());
+                        break;
+                    }
+                }
+                if (deployedNode != null) {
+                    appHolder.setDeployedNode(deployedNode);
+                    deployedApps.add(appHolder);
+                    log.info(String.format("Siddhi app %s of %s successfully deployed in %s.",
+                            appHolder.getAppName(), appHolder.getParentAppName(), deployedNode));
+                } else {
+                    log.warn(String.format("Insufficient resources to deploy Siddhi app %s of %s.",
+                            appHolder.getAppName(), appHolder.getParentAppName()));
+                    groupDeployed = false;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (!groupDeployed) {
+                return false;
+            }
+            groupStart = groupEnd;
+        }
+        return true;
+    }
+
+    private ResourceNode deploy(SiddhiQuery siddhiQuery, int retry, int parallelism) {
+        ResourceNode resourceNode = allocate(siddhiQuery, parallelism);
+        return resourceNode != null ? deploy(siddhiQuery, resourceNode, retry, parallelism) : null;
+    }
+
+    private ResourceNode allocate(SiddhiQuery siddhiQuery, int parallelism) {
+        ResourcePool resourcePool = ServiceDataHolder.getResourcePool();
+        synchronized (allocationLock) {
+            if (siddhiQuery.isReceiverQuery()) {
+                return receiverAllocationAlgorithm.getNextResourceNode(resourcePool.getReceiverNodeMap(),
+                        parallelism);
+            } else {
+                return resourceAllocationAlgorithm.getNextResourceNode(resourcePool.getResourceNodeMap(),
+                        ServiceDataHolder.getDeploymentConfig().getMinResourceCount());
+            }
+        }
+    }
+
+    private ResourceNode deploy(SiddhiQuery siddhiQuery, ResourceNode resourceNode, int retry, int parallelism) {
+        ResourcePool resourcePool = ServiceDataHolder.getResourcePool();
+        Map<String, ResourceNode> nodeMap = siddhiQuery.isReceiverQuery() ? resourcePool.getReceiverNodeMap()
+                : resourcePool.getResourceNodeMap();
         ResourceNode deployedNode = null;
         if (resourceNode != null) {
-            String appName = SiddhiAppDeployer.deploy(resourceNode, siddhiQuery);
+            String appName = deployInNode(resourceNode, siddhiQuery);
             if (appName == null || appName.isEmpty()) {
                 log.warn(String.format("Couldn't deploy partial Siddhi app %s in %s", siddhiQuery.getAppName(),
                         resourceNode));
@@ -365,6 +548,103 @@ public class DeploymentManagerImpl implements DeploymentManager, ResourcePoolCha
         return deployedNode;
     }
 
+    /**
+     * Returns the active node in which another partial Siddhi app of the same colocation group is deployed.
+     *
+     * @param appHolder  partial Siddhi app to deploy.
+     * @param appHolders partial Siddhi apps of the same parent Siddhi app.
+     * @return the node to deploy the partial Siddhi app in, or null if it can be deployed in any node.
+     */
+    private ResourceNode getColocatedNode(SiddhiAppHolder appHolder, List<SiddhiAppHolder> appHolders) {
+        if (appHolder.getColocationGroup() == null || appHolder.isReceiverQueryGroup() || appHolders == null) {
+            return null;
+        }
+        Map<String, ResourceNode> resourceNodeMap = ServiceDataHolder.getResourcePool().getResourceNodeMap();
+        for (SiddhiAppHolder colocatedAppHolder : appHolders) {
+            ResourceNode deployedNode = colocatedAppHolder.getDeployedNode();
+            if (colocatedAppHolder != appHolder && deployedNode != null
+                    && appHolder.getColocationGroup().equals(colocatedAppHolder.getColocationGroup())
+                    && resourceNodeMap.containsKey(deployedNode.getId())) {
+                return resourceNodeMap.get(deployedNode.getId());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Deploys the partial Siddhi app in the node of its colocation group. It is not retried in other nodes, since
+     * colocated partial Siddhi apps exchange events in memory.
+     */
+    private ResourceNode deployColocated(SiddhiQuery siddhiQuery, ResourceNode colocatedNode) {
+        String appName = deployInNode(colocatedNode, siddhiQuery);
+        if (appName == null || appName.isEmpty()) {
+            log.warn(String.format("Couldn't deploy partial Siddhi app %s in %s, in which its colocated partial "
+                    + "Siddhi apps are deployed.", siddhiQuery.getAppName(), colocatedNode));
+            return null;
+        }
+        return colocatedNode;
+    }
+
+    /**
+     * Deploys the partial Siddhi app in the node, waiting while the node has as many deployments in progress as its
+     * deployment parallelism allows.
+     */
+    private String deployInNode(ResourceNode resourceNode, SiddhiQuery siddhiQuery) {
+        Semaphore permits = nodePermits.computeIfAbsent(resourceNode.getId(), key ->
+                new Semaphore(Math.max(ServiceDataHolder.getDeploymentConfig().getDeploymentParallelismPerNode(), 1)));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        try {
+            return deployApp(resourceNode, siddhiQuery);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Deploys a Siddhi app in a resource node. This method and the following ones make the calls to the resource
+     * nodes, and can be overridden to deploy without resource nodes.
+     */
+    protected String deployApp(ResourceNode resourceNode, SiddhiQuery siddhiQuery) {
+        return SiddhiAppDeployer.deploy(resourceNode, siddhiQuery);
+    }
+
+    protected boolean unDeployApp(ResourceNode resourceNode, String siddhiAppName) {
+        return SiddhiAppDeployer.unDeploy(resourceNode, siddhiAppName);
+    }
+
+    protected String backupApp(ResourceNode resourceNode, String siddhiAppName) {
+        return SiddhiAppDeployer.backup(resourceNode, siddhiAppName);
+    }
+
+    protected boolean restoreApp(ResourceNode resourceNode, String siddhiAppName, String revision) {
+        return SiddhiAppDeployer.restore(resourceNode, siddhiAppName, revision);
+    }
+
+    private ExecutorService getDeploymentExecutor() {
+        if (deploymentExecutor == null) {
+            synchronized (this) {
+                if (deploymentExecutor == null) {
+                    int parallelism = Math.max(ServiceDataHolder.getDeploymentConfig().getDeploymentParallelism(), 1);
+                    AtomicInteger threadCount = new AtomicInteger();
+                    ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 60,
+                            TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "SiddhiAppDeployer-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    executor.allowCoreThreadTimeOut(true);
+                    deploymentExecutor = executor;
+                }
+            }
+        }
+        return deploymentExecutor;
+    }
+
     /**
      * Rollback (un-deploy) already deployed Siddhi apps.
      *
@@ -374,7 +654,7 @@ public class DeploymentManagerImpl implements DeploymentManager, ResourcePoolCha
         if (siddhiAppHolders != null) {
             siddhiAppHolders.forEach(appHolder -> {
                 if (appHolder.getDeployedNode() != null) {
-                    if (!SiddhiAppDeployer.unDeploy(appHolder.getDeployedNode(), appHolder.getAppName())) {
+                    if (!unDeployApp(appHolder.getDeployedNode(), appHolder.getAppName())) {
                         log.warn(String.format("Could not un-deploy Siddhi app %s from %s.",
                                 appHolder.getAppName(), appHolder.getDeployedNode()));
                     } else {
@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.sp.jobmanager.core.deployment;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.sp.jobmanager.core.bean.DeploymentConfig;
+import org.wso2.carbon.sp.jobmanager.core.internal.ServiceDataHolder;
+import org.wso2.carbon.sp.jobmanager.core.model.ResourceNode;
+import org.wso2.carbon.sp.jobmanager.core.model.ResourcePool;
+import org.wso2.carbon.sp.jobmanager.core.model.SiddhiAppHolder;
+import org.wso2.siddhi.query.api.SiddhiApp;
+import org.wso2.siddhi.query.api.execution.ExecutionElement;
+import org.wso2.siddhi.query.api.execution.query.Query;
+import org.wso2.siddhi.query.api.execution.query.input.handler.Filter;
+import org.wso2.siddhi.query.api.execution.query.input.handler.StreamFunction;
+import org.wso2.siddhi.query.api.execution.query.input.handler.StreamHandler;
+import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
+import org.wso2.siddhi.query.api.execution.query.selection.OutputAttribute;
+import org.wso2.siddhi.query.api.execution.query.selection.Selector;
+import org.wso2.siddhi.query.api.expression.AttributeFunction;
+import org.wso2.siddhi.query.api.expression.Expression;
+import org.wso2.siddhi.query.api.expression.Variable;
+import org.wso2.siddhi.query.api.expression.constant.Constant;
+import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Moves deployed partial Siddhi apps away from resource nodes which stay overloaded, based on the CPU usage the
+ * nodes report with their heartbeats.
+ * <p>
+ * A node becomes overloaded once its CPU usage is at or above the high watermark for a number of consecutive
+ * metrics updates, and stays so until its CPU usage drops below the low watermark. A partial Siddhi app is moved from
+ * an overloaded node to the least loaded node below the low watermark, only if the node stays below the high
+ * watermark and less loaded than the overloaded node with the estimated demand of the partial Siddhi app. Only a
+ * limited number of partial Siddhi apps are moved in each run, and moved partial Siddhi apps and the nodes they were
+ * moved between are left alone for a cool down period, so that partial Siddhi apps are not moved back and forth.
+ * <p>
+ * Stateful partial Siddhi apps are only moved if enabled, since their state is carried over through the
+ * persistence store, which has to be shared by the resource nodes. Receivers and colocated partial Siddhi apps are
+ * never moved.
+ */
+public class ResourceNodeRebalancer implements Runnable {
+    private static final Logger log = Logger.getLogger(ResourceNodeRebalancer.class);
+    private static final Set<String> AGGREGATORS = new HashSet<>(Arrays.asList("sum", "count", "avg", "min", "max",
+            "distinctCount", "stdDev", "maxForever", "minForever", "and", "or", "unionSet"));
+    // Number of consecutive metrics updates each node was overloaded in, and the last metrics update considered
+    private final Map<String, Integer> overloadedIntervals = new HashMap<>();
+    private final Map<String, Long> sampledMetricsTimestamps = new HashMap<>();
+    // Time until which the nodes partial Siddhi apps were moved between, and the moved partial Siddhi apps, are
+    // left alone
+    private final Map<String, Long> nodeCooldowns = new HashMap<>();
+    private final Map<String, Long> appCooldowns = new HashMap<>();
+    // Whether each partial Siddhi app may hold state, by its Siddhi app string
+    private final Map<String, Boolean> statefulApps = new HashMap<>();
+
+    @Override
+    public void run() {
+        ResourcePool resourcePool = ServiceDataHolder.getResourcePool();
+        DeploymentConfig deploymentConfig = ServiceDataHolder.getDeploymentConfig();
+        DeploymentManagerImpl deploymentManager = ServiceDataHolder.getDeploymentManager();
+        if (!ServiceDataHolder.isLeader() || resourcePool == null || deploymentConfig == null
+                || deploymentManager == null) {
+            return;
+        }
+        try {
+            long currentTimestamp = System.currentTimeMillis();
+            for (Migration migration : planMigrations(resourcePool.getResourceNodeMap(),
+                    resourcePool.getNodeAppMapping(), deploymentConfig, currentTimestamp)) {
+                if (deploymentManager.migrate(migration.getAppHolder(), migration.getTargetNode(),
+                        migration.isStateful())) {
+                    cooldown(migration, currentTimestamp + deploymentConfig.getRebalanceCooldown());
+                }
+            }
+        } catch (RuntimeException e) {
+            // Exceptions would stop the subsequent runs
+            log.error("Error while re-balancing the partial Siddhi apps among the resource nodes.", e);
+        }
+    }
+
+    /**
+     * Updates the overloaded state of the nodes with their latest metrics and chooses the partial Siddhi apps to
+     * move from the overloaded nodes.
+     *
+     * @param resourceNodeMap  resource nodes in the resource pool.
+     * @param nodeAppMapping   partial Siddhi apps deployed in each resource node.
+     * @param deploymentConfig re-balancing configuration.
+     * @param currentTimestamp current time.
+     * @return partial Siddhi apps to move, and the nodes to move them to.
+     */
+    public List<Migration> planMigrations(Map<String, ResourceNode> resourceNodeMap,
+                                          Map<ResourceNode, List<SiddhiAppHolder>> nodeAppMapping,
+                                          DeploymentConfig deploymentConfig, long currentTimestamp) {
+        overloadedIntervals.keySet().retainAll(resourceNodeMap.keySet());
+        sampledMetricsTimestamps.keySet().retainAll(resourceNodeMap.keySet());
+        nodeCooldowns.values().removeIf(cooldown -> cooldown <= currentTimestamp);
+        appCooldowns.values().removeIf(cooldown -> cooldown <= currentTimestamp);
+        Set<String> deployedApps = new HashSet<>();
+        nodeAppMapping.values().forEach(appHolders -> appHolders.forEach(appHolder ->
+                deployedApps.add(appHolder.getSiddhiApp())));
+        statefulApps.keySet().retainAll(deployedApps);
+        long staleTimestamp = currentTimestamp - deploymentConfig.getHeartbeatInterval() * 2L;
+        List<ResourceNode> overloadedNodes = new ArrayList<>();
+        List<ResourceNode> underloadedNodes = new ArrayList<>();
+        for (ResourceNode resourceNode : resourceNodeMap.values()) {
+            if (!resourceNode.isMetricsUpdated() || resourceNode.getMetricsTimestamp() < staleTimestamp
+                    || nodeCooldowns.containsKey(resourceNode.getId())) {
+                continue;
+            }
+            double load = getLoad(resourceNode);
+            int intervals = overloadedIntervals.getOrDefault(resourceNode.getId(), 0);
+            Long sampledTimestamp = sampledMetricsTimestamps.put(resourceNode.getId(),
+                    resourceNode.getMetricsTimestamp());
+            if (sampledTimestamp == null || sampledTimestamp != resourceNode.getMetricsTimestamp()) {
+                if (load >= deploymentConfig.getRebalanceHighWatermark()) {
+                    intervals++;
+                } else if (load < deploymentConfig.getRebalanceLowWatermark()) {
+                    intervals = 0;
+                }
+                overloadedIntervals.put(resourceNode.getId(), intervals);
+            }
+            if (intervals >= deploymentConfig.getRebalanceSustainedIntervals()) {
+                overloadedNodes.add(resourceNode);
+            } else if (intervals == 0 && load < deploymentConfig.getRebalanceLowWatermark()) {
+                underloadedNodes.add(resourceNode);
+            }
+        }
+        overloadedNodes.sort(Comparator.comparingDouble(ResourceNodeRebalancer::getLoad).reversed());
+        underloadedNodes.sort(Comparator.comparingDouble(ResourceNodeRebalancer::getLoad));
+
+        List<Migration> migrations = new ArrayList<>();
+        for (ResourceNode overloadedNode : overloadedNodes) {
+            if (migrations.size() >= deploymentConfig.getRebalanceMaxMigrations() || underloadedNodes.isEmpty()) {
+                break;
+            }
+            List<SiddhiAppHolder> nodeApps = getDeployedApps(overloadedNode, nodeAppMapping);
+            SiddhiAppHolder appHolder = chooseApp(nodeApps, deploymentConfig);
+            if (appHolder == null) {
+                if (log.isDebugEnabled()) {
+                    log.debug(overloadedNode + " is overloaded, but none of its partial Siddhi apps can be moved.");
+                }
+                continue;
+            }
+            double demand = overloadedNode.getProcessCPU() / nodeApps.size();
+            double sourceLoad = getLoad(overloadedNode) - demand;
+            for (ResourceNode underloadedNode : underloadedNodes) {
+                double targetLoad = Math.max(underloadedNode.getProcessCPU(), underloadedNode.getSystemCPU())
+                        + demand;
+                if (targetLoad < deploymentConfig.getRebalanceHighWatermark() && targetLoad < sourceLoad) {
+                    migrations.add(new Migration(appHolder, overloadedNode, underloadedNode,
+                            isStatefulApp(appHolder)));
+                    underloadedNodes.remove(underloadedNode);
+                    break;
+                }
+            }
+        }
+        return migrations;
+    }
+
+    /**
+     * Starts the cool down period of a moved partial Siddhi app and of the nodes it was moved between. The
+     * overloaded state of the node it was moved from is reset, so that it is only moved from again if it stays
+     * overloaded with metrics updated after the cool down period.
+     */
+    public void cooldown(Migration migration, long cooldownTimestamp) {
+        nodeCooldowns.put(migration.getSourceNode().getId(), cooldownTimestamp);
+        nodeCooldowns.put(migration.getTargetNode().getId(), cooldownTimestamp);
+        appCooldowns.put(migration.getAppHolder().getAppName(), cooldownTimestamp);
+        overloadedIntervals.remove(migration.getSourceNode().getId());
+    }
+
+    private List<SiddhiAppHolder> getDeployedApps(ResourceNode resourceNode,
+                                                  Map<ResourceNode, List<SiddhiAppHolder>> nodeAppMapping) {
+        for (Map.Entry<ResourceNode, List<SiddhiAppHolder>> nodeApps : nodeAppMapping.entrySet()) {
+            if (nodeApps.getKey().getId().equals(resourceNode.getId())) {
+                return nodeApps.getValue();
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Chooses the partial Siddhi app to move from an overloaded node, preferring stateless partial Siddhi apps and
+     * partial Siddhi apps with the most instances of their query group in the node.
+     */
+    private SiddhiAppHolder chooseApp(List<SiddhiAppHolder> deployedApps, DeploymentConfig deploymentConfig) {
+        Map<String, Integer> groupInstances = new HashMap<>();
+        for (SiddhiAppHolder appHolder : deployedApps) {
+            groupInstances.merge(appHolder.getGroupName(), 1, Integer::sum);
+        }
+        SiddhiAppHolder chosenApp = null;
+        for (SiddhiAppHolder appHolder : deployedApps) {
+            if (appHolder.isReceiverQueryGroup() || appHolder.getColocationGroup() != null
+                    || appCooldowns.containsKey(appHolder.getAppName())
+                    || (!deploymentConfig.isRebalanceStatefulApps() && isStatefulApp(appHolder))) {
+                continue;
+            }
+            if (chosenApp == null || (isStatefulApp(chosenApp) && !isStatefulApp(appHolder))
+                    || (isStatefulApp(chosenApp) == isStatefulApp(appHolder)
+                    && groupInstances.get(appHolder.getGroupName()) > groupInstances.get(chosenApp.getGroupName()))) {
+                chosenApp = appHolder;
+            }
+        }
+        return chosenApp;
+    }
+
+    private boolean isStatefulApp(SiddhiAppHolder appHolder) {
+        return statefulApps.computeIfAbsent(appHolder.getSiddhiApp(), ResourceNodeRebalancer::isStateful);
+    }
+
+    /**
+     * Checks whether a Siddhi app may hold state. A Siddhi app is considered stateless only if it has no tables,
+     * windows, aggregations, triggers or partitions, and all of its queries filter, transform or project the
+     * events of a single stream into another stream, without aggregating them.
+     */
+    public static boolean isStateful(String siddhiAppString) {
+        SiddhiApp siddhiApp;
+        try {
+            siddhiApp = SiddhiCompiler.parse(siddhiAppString);
+        } catch (RuntimeException e) {
+            return true;
+        }
+        if (!siddhiApp.getTableDefinitionMap().isEmpty() || !siddhiApp.getWindowDefinitionMap().isEmpty()
+                || !siddhiApp.getAggregationDefinitionMap().isEmpty()
+                || !siddhiApp.getTriggerDefinitionMap().isEmpty()) {
+            return true;
+        }
+        for (ExecutionElement executionElement : siddhiApp.getExecutionElementList()) {
+            if (!(executionElement instanceof Query)
+                    || !(((Query) executionElement).getInputStream() instanceof SingleInputStream)) {
+                return true;
+            }
+            Query query = (Query) executionElement;
+            for (StreamHandler streamHandler : ((SingleInputStream) query.getInputStream()).getStreamHandlers()) {
+                if (!(streamHandler instanceof Filter) && !(streamHandler instanceof StreamFunction)) {
+                    return true;
+                }
+            }
+            Selector selector = query.getSelector();
+            if (!selector.getGroupByList().isEmpty() || selector.getHavingExpression() != null) {
+                return true;
+            }
+            for (OutputAttribute outputAttribute : selector.getSelectionList()) {
+                if (isAggregating(outputAttribute.getExpression())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether an expression may aggregate events. Expressions other than attributes, constants and
+     * functions of them are conservatively considered aggregating.
+     */
+    private static boolean isAggregating(Expression expression) {
+        if (expression instanceof Variable || expression instanceof Constant) {
+            return false;
+        }
+        if (expression instanceof AttributeFunction) {
+            AttributeFunction function = (AttributeFunction) expression;
+            if (AGGREGATORS.contains(function.getName())) {
+                return true;
+            }
+            for (Expression parameter : function.getParameters()) {
+                if (!(parameter instanceof Variable) && !(parameter instanceof Constant)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private static double getLoad(ResourceNode resourceNode) {
+        return Math.max(resourceNode.getProcessCPU(), resourceNode.getSystemCPU());
+    }
+
+    /**
+     * Partial Siddhi app to move from an overloaded node to an underloaded node.
+     */
+    public static class Migration {
+        private final SiddhiAppHolder appHolder;
+        private final ResourceNode sourceNode;
+        private final ResourceNode targetNode;
+        private final boolean stateful;
+
+        Migration(SiddhiAppHolder appHolder, ResourceNode sourceNode, ResourceNode targetNode, boolean stateful) {
+            this.appHolder = appHolder;
+            this.sourceNode = sourceNode;
+            this.targetNode = targetNode;
+            this.stateful = stateful;
+        }
+
+        public SiddhiAppHolder getAppHolder() {
+            return appHolder;
+        }
+
+        public ResourceNode getSourceNode() {
+            return sourceNode;
+        }
+
+        public ResourceNode getTargetNode() {
+            return targetNode;
+        }
+
+        public boolean isStateful() {
+            return stateful;
+        }
+    }
+}
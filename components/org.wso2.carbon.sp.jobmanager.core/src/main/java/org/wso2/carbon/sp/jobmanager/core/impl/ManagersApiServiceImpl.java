@@ -33,20 +33,26 @@ import org.wso2.carbon.sp.jobmanager.core.api.ApiResponseMessage;
 import org.wso2.carbon.sp.jobmanager.core.api.ManagersApiService;
 import org.wso2.carbon.sp.jobmanager.core.api.NotFoundException;
 import org.wso2.carbon.sp.jobmanager.core.bean.KafkaTransportDetails;
+import org.wso2.carbon.sp.jobmanager.core.bean.TopologyAnalysis;
 import org.wso2.carbon.sp.jobmanager.core.impl.utils.Constants;
 import org.wso2.carbon.sp.jobmanager.core.internal.ServiceDataHolder;
 import org.wso2.carbon.sp.jobmanager.core.model.ManagerDetails;
 import org.wso2.carbon.sp.jobmanager.core.model.ManagerNode;
 import org.wso2.carbon.sp.jobmanager.core.model.SiddhiAppDetails;
 import org.wso2.carbon.sp.jobmanager.core.model.SiddhiAppHolder;
+import org.wso2.carbon.sp.jobmanager.core.topology.SiddhiTopologyAnalyzer;
 import org.wso2.msf4j.Request;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.query.api.SiddhiApp;
 import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.annotation.Element;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
 import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+import org.wso2.siddhi.query.compiler.exception.SiddhiParserException;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.ws.rs.core.Response;
@@ -174,6 +180,42 @@ public class ManagersApiServiceImpl extends ManagersApiService {
         }
     }
 
+    /**
+     * This method recommends the parallelism of each execution group of the given siddhi application, without
+     * deploying it.
+     *
+     * @param siddhiApp          distributed siddhi application
+     * @param inputRate          expected events per second, or null
+     * @param observedThroughput observed events per second of an instance of an execution group, given as
+     *                           execGroup:eventsPerSecond
+     * @return
+     */
+    public Response analyzeSiddhiApp(String siddhiApp, Double inputRate, List<String> observedThroughput) {
+        Map<String, Double> observedThroughputMap = new HashMap<>();
+        if (observedThroughput != null) {
+            for (String groupThroughput : observedThroughput) {
+                int separatorIndex = groupThroughput.lastIndexOf(':');
+                try {
+                    observedThroughputMap.put(groupThroughput.substring(0, separatorIndex),
+                            Double.parseDouble(groupThroughput.substring(separatorIndex + 1)));
+                } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                    return Response.status(Response.Status.BAD_REQUEST).entity(
+                            new ApiResponseMessage(ApiResponseMessage.ERROR, "Invalid observed throughput "
+                                    + groupThroughput + ", expected execGroup:eventsPerSecond")).build();
+                }
+            }
+        }
+        try {
+            TopologyAnalysis topologyAnalysis = new SiddhiTopologyAnalyzer().analyze(siddhiApp,
+                    inputRate != null ? inputRate : 0, observedThroughputMap);
+            return Response.ok().entity(topologyAnalysis).build();
+        } catch (SiddhiAppValidationException | SiddhiAppCreationException | SiddhiParserException e) {
+            logger.debug("Invalid siddhi app given for analysis.", e);
+            return Response.status(Response.Status.BAD_REQUEST).entity(
+                    new ApiResponseMessage(ApiResponseMessage.ERROR, e.getMessage())).build();
+        }
+    }
+
     /**
      * This method is to list down the child app details of the given parent siddhi application
      *
@@ -411,6 +453,20 @@ public class ManagersApiServiceImpl extends ManagersApiService {
         }
     }
 
+    @Override
+    public Response analyzeSiddhiApp(String siddhiApp, Double inputRate, List<String> observedThroughput,
+                                     Request request) throws NotFoundException {
+        if (getUserName(request) != null && !(getPermissionProvider().hasPermission(getUserName(request), new
+                Permission(Constants.PERMISSION_APP_NAME, VIEW_SIDDHI_APP_PERMISSION_STRING)) || getPermissionProvider()
+                .hasPermission(getUserName(request), new Permission(Constants.PERMISSION_APP_NAME,
+                        MANAGE_SIDDHI_APP_PERMISSION_STRING)))) {
+            return Response.status(Response.Status.FORBIDDEN).entity("Insufficient permissions to analyze the "
+                    + "siddhi app").build();
+        } else {
+            return analyzeSiddhiApp(siddhiApp, inputRate, observedThroughput);
+        }
+    }
+
     @Override
     public Response getRolesByUsername(Request request, String permissionSuffix) {
         boolean isAuthorized = getPermissionProvider().hasPermission(getUserName(request), new
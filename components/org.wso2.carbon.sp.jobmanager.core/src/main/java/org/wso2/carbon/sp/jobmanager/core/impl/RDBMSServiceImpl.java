@@ -31,24 +31,25 @@ import org.wso2.carbon.sp.jobmanager.core.exception.ResourceManagerException;
 import org.wso2.carbon.sp.jobmanager.core.internal.ServiceDataHolder;
 import org.wso2.carbon.sp.jobmanager.core.model.ResourcePool;
 import org.wso2.carbon.sp.jobmanager.core.util.ResourceManagerConstants;
+import org.wso2.carbon.sp.jobmanager.core.util.ResourcePoolEncoder;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.CustomClassLoaderConstructor;
 import org.yaml.snakeyaml.introspector.BeanAccess;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.URL;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.sql.DataSource;
 
 /**
@@ -110,88 +111,165 @@ public class RDBMSServiceImpl {
         } finally {
             close(conn, "Closing connection used to get database information.");
         }
-        createResourcePoolTable();
+        createTable(ResourceManagerConstants.CHECK_FOR_RESOURCE_MAPPING_TABLE,
+                ResourceManagerConstants.CREATE_RESOURCE_MAPPING_TABLE, "resource mapping");
+        createTable(ResourceManagerConstants.CHECK_FOR_RESOURCE_POOL_ENTRY_TABLE,
+                ResourceManagerConstants.CREATE_RESOURCE_POOL_ENTRY_TABLE, "resource pool entry");
     }
 
     /**
-     * Create resource pool persistence table.
+     * Create a resource pool persistence table if it does not exist.
+     *
+     * @param checkQuery  name of the query checking whether the table exists
+     * @param createQuery name of the query creating the table
+     * @param tableName   name of the table used in logs
      */
-    private void createResourcePoolTable() {
+    private void createTable(String checkQuery, String createQuery, String tableName) {
         Connection connection = null;
         PreparedStatement preparedStatement = null;
         try {
             connection = getConnection();
             try {
-                preparedStatement = connection.prepareStatement(
-                        queries.get(ResourceManagerConstants.CHECK_FOR_RESOURCE_MAPPING_TABLE));
+                preparedStatement = connection.prepareStatement(queries.get(checkQuery));
                 preparedStatement.execute();
             } catch (SQLException e) {
                 try {
                     // this is due to clean up the connection because postgreSQL will not terminate the execution
                     // by itself so you need to rollback manually. Or it will execute the same query again
                     connection.rollback();
-                    preparedStatement = connection.prepareStatement(
-                            queries.get(ResourceManagerConstants.CREATE_RESOURCE_MAPPING_TABLE));
+                    preparedStatement = connection.prepareStatement(queries.get(createQuery));
                     preparedStatement.execute();
                     if (log.isDebugEnabled()) {
-                        log.debug("Resource Mapping Table Created Successfully");
+                        log.debug("Created " + tableName + " table successfully");
                     }
                 } catch (SQLException ex) {
-                    throw new ResourceManagerException("Error in executing create resource mapping table query.", ex);
+                    throw new ResourceManagerException("Error in executing create " + tableName + " table query.",
+                            ex);
                 }
             } finally {
                 connection.commit();
             }
         } catch (SQLException e) {
-            throw new ResourceManagerException("Error when getting the connection for to create resource mapping " +
-                    "table.", e);
+            throw new ResourceManagerException("Error when getting the connection for to create " + tableName +
+                    " table.", e);
         } finally {
-            close(preparedStatement, "Execute query when creating resource mapping table");
-            close(connection, "Execute query when creating resource mapping table");
+            close(preparedStatement, "Execute query when creating " + tableName + " table");
+            close(connection, "Execute query when creating " + tableName + " table");
         }
     }
 
-    public void persistResourcePool(ResourcePool resourcePool) throws ResourceManagerException {
-        if (resourcePool != null && resourcePool.getGroupId() != null) {
-            Connection connection = null;
-            PreparedStatement preparedStatement = null;
-            try {
-                connection = getConnection();
-                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-                ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream);
-                objectOutputStream.writeObject(resourcePool);
-                byte[] resourceMappingAsBytes = byteArrayOutputStream.toByteArray();
-                preparedStatement = connection.prepareStatement(
-                        queries.get(ResourceManagerConstants.PS_DELETE_RESOURCE_MAPPING_ROW));
-                preparedStatement.setString(1, resourcePool.getGroupId());
-                preparedStatement.executeUpdate();
-                close(preparedStatement, "Execute delete mapping row query");
-                preparedStatement = connection.prepareStatement(
-                        queries.get(ResourceManagerConstants.PS_INSERT_RESOURCE_MAPPING_ROW));
-                preparedStatement.setString(1, resourcePool.getGroupId());
-                preparedStatement.setBinaryStream(2, new ByteArrayInputStream(resourceMappingAsBytes));
-                preparedStatement.executeUpdate();
-                connection.commit();
-                if (log.isDebugEnabled()) {
-                    log.debug(ResourceManagerConstants.TASK_UPSERT_RESOURCE_MAPPING + " " +
-                            resourcePool.getGroupId() + " executed successfully");
+    /**
+     * Writes the changed entries of a resource pool and removes the entries that no longer exist, in a single
+     * transaction. The legacy serialized resource pool of the group is removed as well, since the entries supersede it.
+     *
+     * @param groupId        group ID of the resource pool
+     * @param changedEntries entries added or changed since the last write
+     * @param removedKeys    keys of the entries removed since the last write
+     */
+    public void persistResourcePoolEntries(String groupId, Map<String, byte[]> changedEntries,
+                                           Set<String> removedKeys) throws ResourceManagerException {
+        Connection connection = null;
+        PreparedStatement updateStatement = null;
+        PreparedStatement insertStatement = null;
+        PreparedStatement deleteStatement = null;
+        try {
+            connection = getConnection();
+            updateStatement = connection.prepareStatement(
+                    queries.get(ResourceManagerConstants.PS_UPDATE_RESOURCE_POOL_ENTRY_ROW));
+            for (Map.Entry<String, byte[]> entry : changedEntries.entrySet()) {
+                updateStatement.setBinaryStream(1, new ByteArrayInputStream(entry.getValue()),
+                        entry.getValue().length);
+                updateStatement.setString(2, groupId);
+                updateStatement.setString(3, entry.getKey());
+                if (updateStatement.executeUpdate() == 0) {
+                    if (insertStatement == null) {
+                        insertStatement = connection.prepareStatement(
+                                queries.get(ResourceManagerConstants.PS_INSERT_RESOURCE_POOL_ENTRY_ROW));
+                    }
+                    insertStatement.setString(1, groupId);
+                    insertStatement.setString(2, entry.getKey());
+                    insertStatement.setBinaryStream(3, new ByteArrayInputStream(entry.getValue()),
+                            entry.getValue().length);
+                    insertStatement.executeUpdate();
                 }
-            } catch (SQLException e) {
-                rollback(connection, ResourceManagerConstants.TASK_UPSERT_RESOURCE_MAPPING);
-                throw new ResourceManagerException("Error occurred while " +
-                        ResourceManagerConstants.TASK_UPSERT_RESOURCE_MAPPING
-                        + ". Group ID" +
-                        resourcePool.getGroupId(), e);
-            } catch (IOException e) {
-                throw new ResourceManagerException(e);
-            } finally {
-                close(preparedStatement, ResourceManagerConstants.TASK_UPSERT_RESOURCE_MAPPING);
-                close(connection, ResourceManagerConstants.TASK_UPSERT_RESOURCE_MAPPING);
             }
+            if (!removedKeys.isEmpty()) {
+                deleteStatement = connection.prepareStatement(
+                        queries.get(ResourceManagerConstants.PS_DELETE_RESOURCE_POOL_ENTRY_ROW));
+                for (String key : removedKeys) {
+                    deleteStatement.setString(1, groupId);
+                    deleteStatement.setString(2, key);
+                    deleteStatement.addBatch();
+                }
+                deleteStatement.executeBatch();
+                close(deleteStatement, ResourceManagerConstants.TASK_UPSERT_RESOURCE_POOL_ENTRIES);
+            }
+            deleteStatement = connection.prepareStatement(
+                    queries.get(ResourceManagerConstants.PS_DELETE_RESOURCE_MAPPING_ROW));
+            deleteStatement.setString(1, groupId);
+            deleteStatement.executeUpdate();
+            connection.commit();
+            if (log.isDebugEnabled()) {
+                log.debug(ResourceManagerConstants.TASK_UPSERT_RESOURCE_POOL_ENTRIES + " " + groupId + " executed "
+                        + "successfully. Changed " + changedEntries.size() + " and removed " + removedKeys.size()
+                        + " entries.");
+            }
+        } catch (SQLException e) {
+            rollback(connection, ResourceManagerConstants.TASK_UPSERT_RESOURCE_POOL_ENTRIES);
+            throw new ResourceManagerException("Error occurred while " +
+                    ResourceManagerConstants.TASK_UPSERT_RESOURCE_POOL_ENTRIES + ". Group ID" + groupId, e);
+        } finally {
+            close(updateStatement, ResourceManagerConstants.TASK_UPSERT_RESOURCE_POOL_ENTRIES);
+            close(insertStatement, ResourceManagerConstants.TASK_UPSERT_RESOURCE_POOL_ENTRIES);
+            close(deleteStatement, ResourceManagerConstants.TASK_UPSERT_RESOURCE_POOL_ENTRIES);
+            close(connection, ResourceManagerConstants.TASK_UPSERT_RESOURCE_POOL_ENTRIES);
         }
     }
 
+    /**
+     * Reads the resource pool of a group from its entries, falling back to the legacy serialized resource pool when
+     * the group has no entries yet.
+     *
+     * @param groupId group ID of the resource pool
+     * @return the resource pool, or null if it was never persisted
+     */
     public ResourcePool getResourcePool(String groupId) throws ResourceManagerException {
+        Map<String, byte[]> entries = getResourcePoolEntries(groupId);
+        if (!entries.isEmpty()) {
+            ResourcePool resourcePool = ResourcePoolEncoder.decode(groupId, entries);
+            resourcePool.setPersistedEntries(entries);
+            return resourcePool;
+        }
+        return getSerializedResourcePool(groupId);
+    }
+
+    private Map<String, byte[]> getResourcePoolEntries(String groupId) throws ResourceManagerException {
+        Connection connection = null;
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        Map<String, byte[]> entries = new HashMap<>();
+        try {
+            connection = getConnection();
+            preparedStatement = connection.prepareStatement(
+                    queries.get(ResourceManagerConstants.PS_SELECT_RESOURCE_POOL_ENTRY_ROWS));
+            preparedStatement.setString(1, groupId);
+            resultSet = preparedStatement.executeQuery();
+            while (resultSet.next()) {
+                entries.put(resultSet.getString(1), resultSet.getBytes(2));
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new ResourceManagerException("Error occurred while " +
+                    ResourceManagerConstants.TASK_GET_RESOURCE_POOL_ENTRIES, e);
+        } finally {
+            close(resultSet, ResourceManagerConstants.TASK_GET_RESOURCE_POOL_ENTRIES);
+            close(preparedStatement, ResourceManagerConstants.TASK_GET_RESOURCE_POOL_ENTRIES);
+            close(connection, ResourceManagerConstants.TASK_GET_RESOURCE_POOL_ENTRIES);
+        }
+        return entries;
+    }
+
+    private ResourcePool getSerializedResourcePool(String groupId) throws ResourceManagerException {
         Connection connection = null;
         PreparedStatement preparedStatement = null;
         ResultSet resultSet = null;
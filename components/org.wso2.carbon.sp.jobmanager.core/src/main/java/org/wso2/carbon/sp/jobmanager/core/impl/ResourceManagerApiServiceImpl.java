@@ -24,6 +24,7 @@ import org.wso2.carbon.cluster.coordinator.service.ClusterCoordinator;
 import org.wso2.carbon.sp.jobmanager.core.api.ApiResponseMessage;
 import org.wso2.carbon.sp.jobmanager.core.api.ResourceManagerApiService;
 import org.wso2.carbon.sp.jobmanager.core.internal.ServiceDataHolder;
+import org.wso2.carbon.sp.jobmanager.core.model.HeartbeatDelta;
 import org.wso2.carbon.sp.jobmanager.core.model.HeartbeatResponse;
 import org.wso2.carbon.sp.jobmanager.core.model.InterfaceConfig;
 import org.wso2.carbon.sp.jobmanager.core.model.ManagerNode;
@@ -124,6 +125,7 @@ public class ResourceManagerApiServiceImpl extends ResourceManagerApiService {
                 if (nodeConfig.getWorkerMetrics() != null) {
                     resourceNode.updateResourceMetrics(nodeConfig.getWorkerMetrics());
                 }
+                resourceNode.setHeartbeatSequence(nodeConfig.getHeartbeatSequence());
                 if (isReceiverNode) {
                     resourceNode.setReceiverNode(true);
                     resourcePool.addReceiverNode(resourceNode);
@@ -138,6 +140,7 @@ public class ResourceManagerApiServiceImpl extends ResourceManagerApiService {
                         existingResourceNode.updateResourceMetrics(nodeConfig.getWorkerMetrics());
                     }
                     existingResourceNode.updateLastPingTimestamp();
+                    existingResourceNode.setHeartbeatSequence(nodeConfig.getHeartbeatSequence());
                     boolean redeploy = false;
                     if (ResourceManagerConstants.STATE_NEW.equalsIgnoreCase(existingResourceNode.getState())) {
                         joinedState = HeartbeatResponse.JoinedStateEnum.NEW;
@@ -177,4 +180,47 @@ public class ResourceManagerApiServiceImpl extends ResourceManagerApiService {
                     .build();
         }
     }
+
+    /**
+     * Updates the heartbeat of a resource node from a compact heartbeat. A compact heartbeat is only accepted if
+     * the current leader has received a full heartbeat from the node and no later heartbeat with a higher sequence
+     * number, otherwise the node is asked to send a full heartbeat so that its configuration is compared again.
+     */
+    @Override
+    public Response updateHeartbeatDelta(HeartbeatDelta heartbeatDelta) {
+        if (ServiceDataHolder.getLeaderNode() == null) {
+            return Response.status(Response.Status.CONFLICT).build();
+        }
+        if (!ServiceDataHolder.isLeader()) {
+            return Response
+                    .status(Response.Status.MOVED_PERMANENTLY)
+                    .entity(new HeartbeatResponse()
+                            .connectedManagers(null)
+                            .joinedState(null)
+                            .leader(TypeConverter.convert(ServiceDataHolder.getLeaderNode())))
+                    .build();
+        }
+        ResourcePool resourcePool = ServiceDataHolder.getResourcePool();
+        ResourceNode existingResourceNode = heartbeatDelta.isReceiverNode()
+                ? resourcePool.getReceiverNodeMap().get(heartbeatDelta.getId())
+                : resourcePool.getResourceNodeMap().get(heartbeatDelta.getId());
+        if (existingResourceNode == null || existingResourceNode.getHeartbeatSequence() <= 0
+                || heartbeatDelta.getSequence() <= existingResourceNode.getHeartbeatSequence()
+                || ResourceManagerConstants.STATE_NEW.equalsIgnoreCase(existingResourceNode.getState())) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Requesting a full heartbeat from " + heartbeatDelta.getId() + " in response to heartbeat "
+                        + heartbeatDelta.getSequence() + ".");
+            }
+            return Response.status(Response.Status.CONFLICT).build();
+        }
+        if (heartbeatDelta.getWorkerMetrics() != null) {
+            existingResourceNode.updateResourceMetrics(heartbeatDelta.getWorkerMetrics());
+        } else {
+            existingResourceNode.refreshResourceMetrics();
+        }
+        existingResourceNode.updateLastPingTimestamp();
+        existingResourceNode.setHeartbeatSequence(heartbeatDelta.getSequence());
+        resourcePool.notifyResourceNode(heartbeatDelta.getId(), false, heartbeatDelta.isReceiverNode());
+        return Response.noContent().build();
+    }
 }
@@ -38,6 +38,8 @@ public class ResourceNode implements Serializable {
     private double systemCPU;
     private double loadAverage;
     private double memoryUsage;
+    private long metricsTimestamp;
+    private transient long heartbeatSequence;
 
     public ResourceNode(String id) {
         this.id = id;
@@ -79,12 +81,23 @@ public class ResourceNode implements Serializable {
 
     public void updateResourceMetrics(WorkerMetrics workerMetrics) {
         metricsUpdated = true;
+        metricsTimestamp = System.currentTimeMillis();
         processCPU = workerMetrics.getProcessCPU();
         systemCPU = workerMetrics.getSystemCPU();
         loadAverage = workerMetrics.getLoadAverage();
         memoryUsage = workerMetrics.getTotalMemory();
     }
 
+    /**
+     * Marks the last received resource metrics as current, for heartbeats which report that the metrics of the
+     * node have not changed since then.
+     */
+    public void refreshResourceMetrics() {
+        if (metricsUpdated) {
+            metricsTimestamp = System.currentTimeMillis();
+        }
+    }
+
     public int getFailedPingAttempts() {
         return failedPingAttempts;
     }
@@ -121,6 +134,28 @@ public class ResourceNode implements Serializable {
         return loadAverage;
     }
 
+    public double getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    /**
+     * @return time at which the resource metrics were last updated, or 0 if they were never updated
+     */
+    public long getMetricsTimestamp() {
+        return metricsTimestamp;
+    }
+
+    /**
+     * @return sequence number of the last heartbeat received from the node by the current leader, or 0 if the
+     * current leader has not received a full heartbeat from it yet
+     */
+    public long getHeartbeatSequence() {
+        return heartbeatSequence;
+    }
+
+    public void setHeartbeatSequence(long heartbeatSequence) {
+        this.heartbeatSequence = heartbeatSequence;
+    }
 
     @Override
     public String toString() {
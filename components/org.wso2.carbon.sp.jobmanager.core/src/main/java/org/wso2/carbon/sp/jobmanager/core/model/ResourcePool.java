@@ -21,13 +21,20 @@ package org.wso2.carbon.sp.jobmanager.core.model;
 import org.apache.log4j.Logger;
 import org.wso2.carbon.sp.jobmanager.core.ResourcePoolChangeListener;
 import org.wso2.carbon.sp.jobmanager.core.bean.DeploymentConfig;
+import org.wso2.carbon.sp.jobmanager.core.deployment.ResourceNodeRebalancer;
 import org.wso2.carbon.sp.jobmanager.core.exception.ResourceManagerException;
 import org.wso2.carbon.sp.jobmanager.core.internal.ResourceNodeMonitor;
 import org.wso2.carbon.sp.jobmanager.core.internal.ServiceDataHolder;
+import org.wso2.carbon.sp.jobmanager.core.util.ResourcePoolEncoder;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
@@ -52,6 +59,12 @@ public class ResourcePool implements Serializable {
      */
     private Map<String, List<SiddhiAppHolder>> appsWaitingForDeploy;
     private transient List<ResourcePoolChangeListener> poolChangeListeners;
+    /**
+     * Entries last written to the database, latest entries waiting to be written, and whether a write is scheduled.
+     */
+    private transient Map<String, byte[]> persistedEntries;
+    private transient Map<String, byte[]> pendingEntries;
+    private transient boolean persistScheduled;
 
     public ResourcePool(String groupId) {
         this.groupId = groupId;
@@ -69,6 +82,11 @@ public class ResourcePool implements Serializable {
         ServiceDataHolder.getExecutorService().scheduleAtFixedRate(
                 new ResourceNodeMonitor(), deploymentConfig.getHeartbeatInterval(),
                 deploymentConfig.getHeartbeatInterval(), TimeUnit.MILLISECONDS);
+        if (deploymentConfig.isRebalanceEnabled()) {
+            ServiceDataHolder.getExecutorService().scheduleAtFixedRate(
+                    new ResourceNodeRebalancer(), deploymentConfig.getRebalanceInterval(),
+                    deploymentConfig.getRebalanceInterval(), TimeUnit.MILLISECONDS);
+        }
 
         // TODO: 11/1/17 Don't ues this for now
         //        List<String> deployedApps = new ArrayList<>();
@@ -90,6 +108,15 @@ public class ResourcePool implements Serializable {
         persist();
     }
 
+    /**
+     * Sets the leader node restored from the database, without persisting it again.
+     *
+     * @param leaderNode restored leader node.
+     */
+    public void restoreLeaderNode(ManagerNode leaderNode) {
+        this.leaderNode = leaderNode;
+    }
+
     public Map<String, ResourceNode> getResourceNodeMap() {
         return resourceNodeMap;
     }
@@ -174,9 +201,72 @@ public class ResourcePool implements Serializable {
         this.appsWaitingForDeploy = appsWaitingForDeploy;
     }
 
+    /**
+     * Persists the current state of the resource pool. The state is captured right away, while writing it to the
+     * database is deferred by the persistence window, so that the changes made within the window are written
+     * together. Only the entries that changed since the last write are written.
+     */
     public void persist() {
+        if (groupId == null) {
+            return;
+        }
+        Map<String, byte[]> entries;
+        try {
+            entries = ResourcePoolEncoder.encode(this);
+        } catch (ResourceManagerException e) {
+            LOG.error("Could not persist resource pool state to the database.", e);
+            return;
+        }
+        synchronized (this) {
+            pendingEntries = entries;
+            if (persistScheduled) {
+                return;
+            }
+            persistScheduled = true;
+        }
+        DeploymentConfig deploymentConfig = ServiceDataHolder.getDeploymentConfig();
+        long persistenceWindow = deploymentConfig != null ? deploymentConfig.getResourcePoolPersistenceWindow() : 0;
+        ServiceDataHolder.getExecutorService().schedule(this::writePendingEntries, persistenceWindow,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sets the entries the resource pool was restored from, so that they are not written again.
+     *
+     * @param entries entries read from the database.
+     */
+    public synchronized void setPersistedEntries(Map<String, byte[]> entries) {
+        this.persistedEntries = new HashMap<>(entries);
+    }
+
+    private void writePendingEntries() {
+        Map<String, byte[]> entries;
+        Map<String, byte[]> previousEntries;
+        synchronized (this) {
+            entries = pendingEntries;
+            pendingEntries = null;
+            persistScheduled = false;
+            previousEntries = persistedEntries != null ? persistedEntries : Collections.emptyMap();
+        }
+        if (entries == null) {
+            return;
+        }
+        Map<String, byte[]> changedEntries = new HashMap<>();
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            if (!Arrays.equals(entry.getValue(), previousEntries.get(entry.getKey()))) {
+                changedEntries.put(entry.getKey(), entry.getValue());
+            }
+        }
+        Set<String> removedKeys = new HashSet<>(previousEntries.keySet());
+        removedKeys.removeAll(entries.keySet());
         try {
-            ServiceDataHolder.getRdbmsService().persistResourcePool(ServiceDataHolder.getResourcePool());
+            if (!changedEntries.isEmpty() || !removedKeys.isEmpty() || persistedEntries == null) {
+                ServiceDataHolder.getRdbmsService().persistResourcePoolEntries(groupId, changedEntries,
+                        removedKeys);
+            }
+            synchronized (this) {
+                persistedEntries = entries;
+            }
         } catch (ResourceManagerException e) {
             LOG.error("Could not persist resource pool state to the database.", e);
         }
@@ -32,6 +32,7 @@ public class SiddhiAppHolder implements Serializable {
     private ResourceNode deployedNode;
     private boolean isReceiverQueryGroup;
     private int parallelism;
+    private String colocationGroup;
 
     public SiddhiAppHolder(String parentAppName, String groupName, String appName, String siddhiApp,
                            ResourceNode deployedNode, Boolean isReceiverQueryGroup, int parallelism) {
@@ -96,6 +97,18 @@ public class SiddhiAppHolder implements Serializable {
         return parallelism;
     }
 
+    /**
+     * @return name shared by the partial Siddhi apps of a parent Siddhi app which have to be deployed in the same
+     * resource node, or null if the partial Siddhi app can be deployed in any node.
+     */
+    public String getColocationGroup() {
+        return colocationGroup;
+    }
+
+    public void setColocationGroup(String colocationGroup) {
+        this.colocationGroup = colocationGroup;
+    }
+
     @Override
     public String toString() {
         return String.format("SiddhiApp { parentName: %s, groupName: %s, appName: %s }",
@@ -34,6 +34,7 @@ public class OutputStreamDataHolder {
     private boolean isUserGiven;
     private boolean isInnerGroupStream;
     private boolean isSinkBridgeAdded;
+    private boolean isInMemorySinkAdded;
 
     public OutputStreamDataHolder(String streamName, String streamDefinition, EventHolder eventHolderType,
                                   boolean isUserGiven) {
@@ -44,6 +45,7 @@ public class OutputStreamDataHolder {
         this.publishingStrategyList = new ArrayList<>();
         isInnerGroupStream = false;
         isSinkBridgeAdded = false;
+        isInMemorySinkAdded = false;
     }
 
     public String getStreamDefinition() {
@@ -89,6 +91,14 @@ public class OutputStreamDataHolder {
     public void setSinkBridgeAdded(boolean sinkBridgeAdded) {
         isSinkBridgeAdded = sinkBridgeAdded;
     }
+
+    public boolean isInMemorySinkAdded() {
+        return isInMemorySinkAdded;
+    }
+
+    public void setInMemorySinkAdded(boolean inMemorySinkAdded) {
+        isInMemorySinkAdded = inMemorySinkAdded;
+    }
 }
 
 
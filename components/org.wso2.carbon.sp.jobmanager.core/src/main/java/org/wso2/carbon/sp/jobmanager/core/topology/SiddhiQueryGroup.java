@@ -18,6 +18,8 @@
 package org.wso2.carbon.sp.jobmanager.core.topology;
 
 import org.wso2.carbon.sp.jobmanager.core.util.ResourceManagerConstants;
+import org.wso2.siddhi.query.api.definition.AggregationDefinition;
+import org.wso2.siddhi.query.api.execution.ExecutionElement;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -40,11 +42,17 @@ public class SiddhiQueryGroup {
 
     private List<String> queryList;
     private boolean isReceiverQueryGroup;
+    private String colocationGroup;
+    private boolean parallelizable = true;
+    private List<ExecutionElement> executionElements;
+    private List<AggregationDefinition> aggregationDefinitions;
 
     public SiddhiQueryGroup(String name, int parallelism) {
         this.name = name;
         this.parallelism = parallelism;
         this.queryList = new ArrayList<>();
+        this.executionElements = new ArrayList<>();
+        this.aggregationDefinitions = new ArrayList<>();
         siddhiApp = " ";
         inputStreams = new HashMap<>();
         outputStreams = new HashMap<>();
@@ -130,4 +138,44 @@ public class SiddhiQueryGroup {
     public void setParallelism(int parallelism) {
         this.parallelism = parallelism;
     }
+
+    /**
+     * @return name shared by the query groups which have to be deployed in the same resource node, or null if the
+     * query group is not colocated with any other query group.
+     */
+    public String getColocationGroup() {
+        return colocationGroup;
+    }
+
+    public void setColocationGroup(String colocationGroup) {
+        this.colocationGroup = colocationGroup;
+    }
+
+    /**
+     * @return false if the query group has queries, tables or windows which can not be deployed with parallelism
+     * greater than one.
+     */
+    public boolean isParallelizable() {
+        return parallelizable;
+    }
+
+    public void setParallelizable(boolean parallelizable) {
+        this.parallelizable = parallelizable;
+    }
+
+    public List<ExecutionElement> getExecutionElements() {
+        return executionElements;
+    }
+
+    public void addExecutionElement(ExecutionElement executionElement) {
+        executionElements.add(executionElement);
+    }
+
+    public List<AggregationDefinition> getAggregationDefinitions() {
+        return aggregationDefinitions;
+    }
+
+    public void addAggregationDefinition(AggregationDefinition aggregationDefinition) {
+        aggregationDefinitions.add(aggregationDefinition);
+    }
 }
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.sp.jobmanager.core.topology;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.sp.jobmanager.core.bean.QueryGroupAnalysis;
+import org.wso2.carbon.sp.jobmanager.core.bean.TopologyAnalysis;
+import org.wso2.siddhi.query.api.SiddhiApp;
+import org.wso2.siddhi.query.api.definition.AggregationDefinition;
+import org.wso2.siddhi.query.api.execution.ExecutionElement;
+import org.wso2.siddhi.query.api.execution.partition.Partition;
+import org.wso2.siddhi.query.api.execution.query.Query;
+import org.wso2.siddhi.query.api.execution.query.input.handler.Filter;
+import org.wso2.siddhi.query.api.execution.query.input.handler.StreamFunction;
+import org.wso2.siddhi.query.api.execution.query.input.handler.StreamHandler;
+import org.wso2.siddhi.query.api.execution.query.input.handler.Window;
+import org.wso2.siddhi.query.api.execution.query.input.stream.InputStream;
+import org.wso2.siddhi.query.api.execution.query.input.stream.JoinInputStream;
+import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
+import org.wso2.siddhi.query.api.execution.query.input.stream.StateInputStream;
+import org.wso2.siddhi.query.api.execution.query.selection.Selector;
+import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recommends the parallelism of the execution groups of a distributed Siddhi App without deploying it.
+ * <p>
+ * The processing cost of an event in each {@link SiddhiQueryGroup} of the {@link SiddhiTopology} is estimated from
+ * the shape of its queries, relative to a pass through query. The throughput of a single instance of a query group
+ * is derived from its cost, unless it was observed, in which case the observed throughput is used and the remaining
+ * query groups are scaled against it. Query groups which can not be deployed with parallelism greater than one are
+ * never recommended more than one instance, and the query group with the lowest throughput at the recommended
+ * parallelism is reported as the bottleneck.
+ */
+public class SiddhiTopologyAnalyzer {
+    private static final Logger log = Logger.getLogger(SiddhiTopologyAnalyzer.class);
+    //events per second a single instance processes, when processing an event costs one unit
+    public static final double DEFAULT_INSTANCE_CAPACITY = 100000;
+    public static final int MAX_PARALLELISM = 64;
+    //fraction of the capacity of an instance to be used at the expected input rate
+    private static final double TARGET_UTILIZATION = 0.7;
+    private static final double QUERY_COST = 1;
+    private static final double FILTER_COST = 0.2;
+    private static final double STREAM_FUNCTION_COST = 0.5;
+    private static final double WINDOW_COST = 2;
+    private static final double SORTED_WINDOW_COST = 4;
+    private static final double JOIN_COST = 3;
+    private static final double STORE_ACCESS_COST = 5;
+    private static final double STATE_COST_PER_STREAM = 2;
+    private static final double GROUP_BY_COST = 1;
+    private static final double ORDER_BY_COST = 0.5;
+    private static final double PARTITION_COST = 0.5;
+    private static final double AGGREGATION_COST_PER_DURATION = 4;
+    private static final List<String> SORTED_WINDOWS = Arrays.asList("sort", "frequent", "lossyFrequent");
+
+    /**
+     * @param userDefinedSiddhiApp distributed Siddhi App
+     * @param inputRate            expected events per second, or 0 to balance the query groups against each other
+     * @param observedThroughput   observed events per second of a single instance, keyed by execution group name
+     *                             with or without the Siddhi App name prefix
+     * @return recommended parallelism of each query group and the expected bottleneck
+     */
+    public TopologyAnalysis analyze(String userDefinedSiddhiApp, double inputRate,
+                                    Map<String, Double> observedThroughput) {
+        SiddhiTopology topology = new SiddhiTopologyCreatorImpl().createTopology(userDefinedSiddhiApp);
+        SiddhiApp siddhiApp = SiddhiCompiler.parse(userDefinedSiddhiApp);
+        Set<String> storeIds = siddhiApp.getTableDefinitionMap().keySet();
+        Set<String> aggregationIds = siddhiApp.getAggregationDefinitionMap().keySet();
+
+        List<QueryGroupAnalysis> queryGroupAnalyses = new ArrayList<>();
+        List<Double> observedCapacities = new ArrayList<>();
+        for (SiddhiQueryGroup queryGroup : topology.getQueryGroupList()) {
+            QueryGroupAnalysis queryGroupAnalysis = new QueryGroupAnalysis();
+            queryGroupAnalysis.setGroupName(queryGroup.getName());
+            queryGroupAnalysis.setConfiguredParallelism(queryGroup.getParallelism());
+            queryGroupAnalysis.setParallelizable(queryGroup.isParallelizable());
+            double cost = estimateCost(queryGroup, storeIds, aggregationIds);
+            queryGroupAnalysis.setEstimatedCost(cost);
+            Double observed = getObservedThroughput(observedThroughput, topology.getName(), queryGroup.getName());
+            if (observed != null && observed > 0) {
+                queryGroupAnalysis.setCalibrated(true);
+                queryGroupAnalysis.setThroughputPerInstance(observed);
+                observedCapacities.add(observed * cost);
+            }
+            queryGroupAnalyses.add(queryGroupAnalysis);
+        }
+
+        double instanceCapacity = median(observedCapacities);
+        double minCost = Double.MAX_VALUE;
+        for (QueryGroupAnalysis queryGroupAnalysis : queryGroupAnalyses) {
+            if (!queryGroupAnalysis.isCalibrated()) {
+                queryGroupAnalysis.setThroughputPerInstance(instanceCapacity / queryGroupAnalysis.getEstimatedCost());
+            }
+            minCost = Math.min(minCost, queryGroupAnalysis.getEstimatedCost());
+        }
+
+        TopologyAnalysis topologyAnalysis = new TopologyAnalysis();
+        topologyAnalysis.setSiddhiAppName(topology.getName());
+        topologyAnalysis.setInputRate(inputRate);
+        topologyAnalysis.setMaxThroughput(Double.MAX_VALUE);
+        for (QueryGroupAnalysis queryGroupAnalysis : queryGroupAnalyses) {
+            double parallelism;
+            if (inputRate > 0) {
+                parallelism = inputRate / (queryGroupAnalysis.getThroughputPerInstance() * TARGET_UTILIZATION);
+            } else {
+                parallelism = queryGroupAnalysis.getEstimatedCost() / minCost;
+            }
+            int maxParallelism = queryGroupAnalysis.isParallelizable() ? MAX_PARALLELISM : 1;
+            int recommendedParallelism = (int) Math.max(1, Math.min(maxParallelism, Math.ceil(parallelism)));
+            queryGroupAnalysis.setRecommendedParallelism(recommendedParallelism);
+            queryGroupAnalysis.setMaxThroughput(queryGroupAnalysis.getThroughputPerInstance()
+                    * recommendedParallelism);
+            if (queryGroupAnalysis.getMaxThroughput() < topologyAnalysis.getMaxThroughput()) {
+                topologyAnalysis.setMaxThroughput(queryGroupAnalysis.getMaxThroughput());
+                topologyAnalysis.setBottleneckGroup(queryGroupAnalysis.getGroupName());
+            }
+        }
+        topologyAnalysis.setQueryGroups(queryGroupAnalyses);
+        if (inputRate > topologyAnalysis.getMaxThroughput()) {
+            log.warn("Siddhi App " + topology.getName() + " can process at most " + topologyAnalysis
+                    .getMaxThroughput() + " events per second, which is bounded by execution group "
+                    + topologyAnalysis.getBottleneckGroup() + ", while " + inputRate + " is expected.");
+        }
+        return topologyAnalysis;
+    }
+
+    /**
+     * Estimates the processing cost of an event in the given query group, relative to a pass through query.
+     */
+    private double estimateCost(SiddhiQueryGroup queryGroup, Set<String> storeIds, Set<String> aggregationIds) {
+        double cost = 0;
+        for (ExecutionElement executionElement : queryGroup.getExecutionElements()) {
+            if (executionElement instanceof Query) {
+                cost += estimateQueryCost((Query) executionElement, storeIds, aggregationIds);
+            } else if (executionElement instanceof Partition) {
+                for (Query query : ((Partition) executionElement).getQueryList()) {
+                    cost += estimateQueryCost(query, storeIds, aggregationIds) + PARTITION_COST;
+                }
+            }
+        }
+        for (AggregationDefinition aggregationDefinition : queryGroup.getAggregationDefinitions()) {
+            cost += AGGREGATION_COST_PER_DURATION * aggregationDefinition.getTimePeriod().getDurations().size();
+        }
+        return Math.max(cost, QUERY_COST);
+    }
+
+    private double estimateQueryCost(Query query, Set<String> storeIds, Set<String> aggregationIds) {
+        double cost = QUERY_COST;
+        InputStream inputStream = query.getInputStream();
+        if (inputStream instanceof SingleInputStream) {
+            cost += estimateStreamCost((SingleInputStream) inputStream);
+        } else if (inputStream instanceof JoinInputStream) {
+            cost += JOIN_COST;
+            for (SingleInputStream joinedStream : Arrays.asList(
+                    ((JoinInputStream) inputStream).getLeftInputStream(),
+                    ((JoinInputStream) inputStream).getRightInputStream())) {
+                cost += estimateStreamCost(joinedStream);
+                if (storeIds.contains(joinedStream.getStreamId())
+                        || aggregationIds.contains(joinedStream.getStreamId())) {
+                    cost += STORE_ACCESS_COST;
+                }
+            }
+        } else if (inputStream instanceof StateInputStream) {
+            cost += STATE_COST_PER_STREAM * inputStream.getAllStreamIds().size();
+        }
+
+        Selector selector = query.getSelector();
+        if (selector != null) {
+            if (!selector.getGroupByList().isEmpty()) {
+                cost += GROUP_BY_COST;
+            }
+            if (!selector.getOrderByList().isEmpty() || selector.getLimit() != null) {
+                cost += ORDER_BY_COST;
+            }
+        }
+        if (query.getOutputStream() != null && storeIds.contains(query.getOutputStream().getId())) {
+            cost += STORE_ACCESS_COST;
+        }
+        return cost;
+    }
+
+    private double estimateStreamCost(SingleInputStream inputStream) {
+        double cost = 0;
+        for (StreamHandler streamHandler : inputStream.getStreamHandlers()) {
+            if (streamHandler instanceof Filter) {
+                cost += FILTER_COST;
+            } else if (streamHandler instanceof Window) {
+                cost += SORTED_WINDOWS.contains(((Window) streamHandler).getName()) ? SORTED_WINDOW_COST
+                        : WINDOW_COST;
+            } else if (streamHandler instanceof StreamFunction) {
+                cost += STREAM_FUNCTION_COST;
+            }
+        }
+        return cost;
+    }
+
+    private Double getObservedThroughput(Map<String, Double> observedThroughput, String siddhiAppName,
+                                         String groupName) {
+        if (observedThroughput == null) {
+            return null;
+        }
+        Double observed = observedThroughput.get(groupName);
+        if (observed == null && groupName.startsWith(siddhiAppName + "-")) {
+            observed = observedThroughput.get(groupName.substring(siddhiAppName.length() + 1));
+        }
+        return observed;
+    }
+
+    private double median(List<Double> values) {
+        if (values.isEmpty()) {
+            return DEFAULT_INSTANCE_CAPACITY;
+        }
+        Collections.sort(values);
+        int middle = values.size() / 2;
+        return values.size() % 2 == 1 ? values.get(middle) : (values.get(middle - 1) + values.get(middle)) / 2;
+    }
+}
@@ -73,6 +73,8 @@ public class SiddhiTopologyCreatorImpl implements SiddhiTopologyCreator {
     private SiddhiAppRuntime siddhiAppRuntime;
     //holds the mapping between in-memory aggregation id and set of elements which joins with the aggregations
     private Map<String, Set<ExecutionElement>> inMemoryAggregationJoins = new HashMap<>();
+    //holds the execGroups each execGroup has affinity to
+    private Map<String, Set<String>> execGroupAffinities = new HashMap<>();
     private String userDefinedSiddhiApp;
 
     @Override
@@ -97,11 +99,13 @@ public class SiddhiTopologyCreatorImpl implements SiddhiTopologyCreator {
             execGroupName = getExecGroupName(executionElement, siddhiAppName, defaultExecGroupName);
             siddhiQueryGroup = createSiddhiQueryGroup(execGroupName, parallel);
             addExecutionElement(executionElement, siddhiQueryGroup, execGroupName);
+            addExecGroupAffinities(executionElement, siddhiAppName, execGroupName);
         }
 
         createAggregationQueryGroups(inMemoryAggregationIds.size());
         //prior to assigning publishing strategies checking if a user given source stream is used in multiple execGroups
         checkUserGivenSourceDistribution();
+        assignColocationGroups();
         assignPublishingStrategyOutputStream();
         cleanInnerGroupStreams(siddhiTopologyDataHolder.getSiddhiQueryGroupMap().values());
 
@@ -212,6 +216,85 @@ public class SiddhiTopologyCreatorImpl implements SiddhiTopologyCreator {
         }
     }
 
+    /**
+     * Records the execGroups given in the affinity of the execGroup, e.g. @dist(execGroup='002', affinity='001').
+     * Multiple execGroups can be given separated by commas.
+     */
+    private void addExecGroupAffinities(ExecutionElement executionElement, String siddhiAppName,
+                                        String execGroupName) {
+        Element element = AnnotationHelper.getAnnotationElement(SiddhiTopologyCreatorConstants.DISTRIBUTED_IDENTIFIER,
+                SiddhiTopologyCreatorConstants.AFFINITY_IDENTIFIER, executionElement.getAnnotations());
+        if (element != null) {
+            Set<String> affinities = execGroupAffinities.computeIfAbsent(execGroupName, key -> new HashSet<>());
+            for (String affinity : element.getValue().split(",")) {
+                if (!affinity.trim().isEmpty()) {
+                    affinities.add(siddhiAppName + "-" + affinity.trim());
+                }
+            }
+        }
+    }
+
+    /**
+     * Assigns a common colocation group to the execGroups connected through affinities, so that they are deployed in
+     * the same resource node and exchange events in memory instead of through the messaging system. Only execGroups
+     * with parallel one can be colocated, since the apps of an execGroup with higher parallel are spread across
+     * resource nodes. Hence affinities of such execGroups are ignored.
+     */
+    private void assignColocationGroups() {
+        Map<String, SiddhiQueryGroup> siddhiQueryGroupMap = siddhiTopologyDataHolder.getSiddhiQueryGroupMap();
+        Map<String, String> parents = new HashMap<>();
+        for (Map.Entry<String, Set<String>> affinities : execGroupAffinities.entrySet()) {
+            for (String affinity : affinities.getValue()) {
+                if (!siddhiQueryGroupMap.containsKey(affinities.getKey()) || !siddhiQueryGroupMap.containsKey(
+                        affinity)) {
+                    log.warn("execGroup " + affinities.getKey() + " has affinity to execGroup " + affinity
+                            + " which does not exist. Hence ignoring the affinity.");
+                    continue;
+                }
+                String root1 = findColocationRoot(parents, affinities.getKey());
+                String root2 = findColocationRoot(parents, affinity);
+                // The smallest name is kept as the root, so that the colocation group name is deterministic
+                if (root1.compareTo(root2) < 0) {
+                    parents.put(root2, root1);
+                } else if (root1.compareTo(root2) > 0) {
+                    parents.put(root1, root2);
+                }
+            }
+        }
+        Map<String, List<SiddhiQueryGroup>> colocationGroups = new HashMap<>();
+        for (String execGroupName : new ArrayList<>(parents.keySet())) {
+            colocationGroups.computeIfAbsent(findColocationRoot(parents, execGroupName), key -> new ArrayList<>())
+                    .add(siddhiQueryGroupMap.get(execGroupName));
+        }
+        for (Map.Entry<String, List<SiddhiQueryGroup>> colocationGroup : colocationGroups.entrySet()) {
+            boolean isColocatable = true;
+            for (SiddhiQueryGroup siddhiQueryGroup : colocationGroup.getValue()) {
+                if (siddhiQueryGroup.getParallelism() != SiddhiTopologyCreatorConstants.DEFAULT_PARALLEL) {
+                    log.warn("execGroup " + siddhiQueryGroup.getName() + " has parallel greater than one, hence "
+                            + "cannot be colocated. Ignoring the affinities of execGroup "
+                            + siddhiQueryGroup.getName() + ".");
+                    isColocatable = false;
+                    break;
+                }
+            }
+            if (isColocatable) {
+                for (SiddhiQueryGroup siddhiQueryGroup : colocationGroup.getValue()) {
+                    siddhiQueryGroup.setColocationGroup(colocationGroup.getKey());
+                }
+            }
+        }
+    }
+
+    private String findColocationRoot(Map<String, String> parents, String execGroupName) {
+        String root = execGroupName;
+        parents.putIfAbsent(root, root);
+        while (!parents.get(root).equals(root)) {
+            root = parents.get(root);
+        }
+        parents.put(execGroupName, root);
+        return root;
+    }
+
     /**
      * Get user preference on creating kafka topics from {@link org.wso2.carbon.sp.jobmanager.core.SiddhiAppCreator}.
      * If no value is defined 'true' is returned
@@ -282,14 +365,21 @@ public class SiddhiTopologyCreatorImpl implements SiddhiTopologyCreator {
         InputStream inputStream = (executionElement).getInputStream();
         Map<String, InputStreamDataHolder> inputStreamDataHolderMap = new HashMap<>();
 
-        if (parallel > SiddhiTopologyCreatorConstants.DEFAULT_PARALLEL) {
-            validateQueryType(inputStream, isQuery, execGroupName);
+        String nonParallelQueryType = findNonParallelQueryType(inputStream, isQuery, execGroupName);
+        if (nonParallelQueryType != null) {
+            if (parallel > SiddhiTopologyCreatorConstants.DEFAULT_PARALLEL) {
+                throw new SiddhiAppValidationException(nonParallelQueryType);
+            }
+            siddhiQueryGroup.setParallelizable(false);
         }
 
         for (String inputStreamId : inputStream.getUniqueStreamIds()) {
             //not an inner Stream
             if (!inputStreamId.startsWith(SiddhiTopologyCreatorConstants.INNERSTREAM_IDENTIFIER)) {
                 streamDataHolder = extractStreamHolderInfo(inputStreamId, parallel, execGroupName);
+                if (isInMemoryEventHolder(streamDataHolder.getEventHolderType())) {
+                    siddhiQueryGroup.setParallelizable(false);
+                }
                 TransportStrategy transportStrategy = findStreamSubscriptionStrategy(isQuery, inputStreamId, parallel,
                         execGroupName);
 
@@ -478,11 +568,13 @@ public class SiddhiTopologyCreatorImpl implements SiddhiTopologyCreator {
     }
 
     /**
-     * Validates whether a given query is acceptable for distributed deployment.
+     * Checks whether a given query is acceptable for parallel distributed deployment.
      * eg:Join ,Sequence , Pattern , Window queries will not be allowed for parallel distributed deployment unless
      * the query consists of Partitioned or a Inner Stream.
+     *
+     * @return reason why the query can not have parallel greater than 1, or null if it can
      */
-    private void validateQueryType(InputStream inputStream, boolean isQuery, String execGroup) {
+    private String findNonParallelQueryType(InputStream inputStream, boolean isQuery, String execGroup) {
         boolean partitionStreamExist = false;
 
         for (String streamId : inputStream.getUniqueStreamIds()) {
@@ -497,23 +589,29 @@ public class SiddhiTopologyCreatorImpl implements SiddhiTopologyCreator {
 
         if (isQuery || !partitionStreamExist) {
             if (inputStream instanceof JoinInputStream && !isAggregationJoin(inputStream)) {
-                throw new SiddhiAppValidationException(execGroup
-                        + "Join queries used with parallel greater than 1 outside partitioned stream");
+                return execGroup + "Join queries used with parallel greater than 1 outside partitioned stream";
             } else if (inputStream instanceof StateInputStream) {
                 String type = ((StateInputStream) inputStream).getStateType().name();
-                throw new SiddhiAppValidationException(execGroup + type + " queries used with parallel greater than" +
-                        " 1 outside partitioned stream");
+                return execGroup + type + " queries used with parallel greater than 1 outside partitioned stream";
 
             } else if (inputStream instanceof SingleInputStream) {
                 List<StreamHandler> streamHandlers = ((SingleInputStream) inputStream).getStreamHandlers();
                 for (StreamHandler streamHandler : streamHandlers) {
                     if (streamHandler instanceof Window) {
-                        throw new SiddhiAppValidationException(execGroup
-                                + " Window queries used with parallel greater than 1 outside partitioned stream");
+                        return execGroup
+                                + " Window queries used with parallel greater than 1 outside partitioned stream";
                     }
                 }
             }
         }
+        return null;
+    }
+
+    /**
+     * In-Memory tables and (Defined) windows hold state which can not be shared among parallel instances.
+     */
+    private boolean isInMemoryEventHolder(EventHolder eventHolderType) {
+        return EventHolder.INMEMORYTABLE.equals(eventHolderType) || EventHolder.WINDOW.equals(eventHolderType);
     }
 
     /**
@@ -869,6 +967,7 @@ public class SiddhiTopologyCreatorImpl implements SiddhiTopologyCreator {
                             .replace(sourceStreamId, substitudeStreamId);
 
                     siddhiQueryGroup.addQueryAtFirst(aggregationQueryDefinition);
+                    siddhiQueryGroup.addAggregationDefinition(aggregationDefinition);
                     SubscriptionStrategyDataHolder subscriptionStrategyDataHolder = new
                             SubscriptionStrategyDataHolder(parallelism, TransportStrategy.ALL, null);
                     InputStreamDataHolder inputStreamDataHolder  = new InputStreamDataHolder(substitudeStreamId,
@@ -941,7 +1040,9 @@ public class SiddhiTopologyCreatorImpl implements SiddhiTopologyCreator {
             String aggregationQueryDefinition = removeMetaInfoAggregation(aggregationDefinition);
 
             siddhiQueryGroup.addQuery(aggregationQueryDefinition);
+            siddhiQueryGroup.addAggregationDefinition(aggregationDefinition);
             siddhiQueryGroup.setParallelism(parallelism);
+            siddhiQueryGroup.setParallelizable(false);
             SubscriptionStrategyDataHolder subscriptionStrategyDataHolder = new
                     SubscriptionStrategyDataHolder(parallelism, findStreamSubscriptionStrategy(false,
                     aggregationId, parallelism, siddhiQueryGroup.getName()), null);
@@ -991,7 +1092,7 @@ public class SiddhiTopologyCreatorImpl implements SiddhiTopologyCreator {
             siddhiQueryGroup.addInputStreams(getInputStreamHolderInfo((Query) executionElement,
                     siddhiQueryGroup, true));
             String outputStreamId = ((Query) executionElement).getOutputStream().getId();
-            siddhiQueryGroup.addOutputStream(outputStreamId, getOutputStreamHolderInfo(outputStreamId, parallelism,
+            addOutputStream(siddhiQueryGroup, outputStreamId, getOutputStreamHolderInfo(outputStreamId, parallelism,
                             queryGroupName));
 
         } else if (executionElement instanceof Partition) {
@@ -1013,14 +1114,23 @@ public class SiddhiTopologyCreatorImpl implements SiddhiTopologyCreator {
 
                 siddhiQueryGroup.addInputStreams(getInputStreamHolderInfo(query, siddhiQueryGroup, false));
                 String outputStreamId = query.getOutputStream().getId();
-                siddhiQueryGroup.addOutputStream(outputStreamId, getOutputStreamHolderInfo(outputStreamId,
+                addOutputStream(siddhiQueryGroup, outputStreamId, getOutputStreamHolderInfo(outputStreamId,
                         parallelism, queryGroupName));
             }
 
         }
+        siddhiQueryGroup.addExecutionElement(executionElement);
         siddhiTopologyDataHolder.getSiddhiQueryGroupMap().put(queryGroupName, siddhiQueryGroup);
     }
 
+    private void addOutputStream(SiddhiQueryGroup siddhiQueryGroup, String outputStreamId,
+                                 OutputStreamDataHolder outputStreamDataHolder) {
+        if (outputStreamDataHolder != null && isInMemoryEventHolder(outputStreamDataHolder.getEventHolderType())) {
+            siddhiQueryGroup.setParallelizable(false);
+        }
+        siddhiQueryGroup.addOutputStream(outputStreamId, outputStreamDataHolder);
+    }
+
     /**
      * @param aggregationId Id of the aggregation which Store value to be checked.
      * @return True if the given aggregation uses in-memory store.
@@ -1137,6 +1247,15 @@ public class SiddhiTopologyCreatorImpl implements SiddhiTopologyCreator {
                                 inputStreamDataHolder.setUserGiven(false);
                             }
 
+                            //Colocated execGroups exchange events through the in-memory broker, hence no
+                            //publishing strategy is needed for the consuming execGroup
+                            if (siddhiQueryGroup1.getColocationGroup() != null && siddhiQueryGroup1
+                                    .getColocationGroup().equals(siddhiQueryGroup2.getColocationGroup())
+                                    && inputStreamDataHolder.getStreamDefinition().contains("${" + streamId + "}")) {
+                                addInMemoryBridge(streamId, outputStreamDataHolder, inputStreamDataHolder);
+                                continue;
+                            }
+
                             SubscriptionStrategyDataHolder subscriptionStrategy = inputStreamDataHolder.
                                     getSubscriptionStrategy();
                             if (subscriptionStrategy.getStrategy().equals(TransportStrategy.FIELD_GROUPING)) {
@@ -1185,6 +1304,27 @@ public class SiddhiTopologyCreatorImpl implements SiddhiTopologyCreator {
         }
     }
 
+    /**
+     * Replaces the transport placeholder of the consuming stream with an in-memory source and adds an in-memory sink
+     * to the publishing stream, keeping its placeholder for the consumers outside the colocation group.
+     */
+    private void addInMemoryBridge(String streamId, OutputStreamDataHolder outputStreamDataHolder,
+                                   InputStreamDataHolder inputStreamDataHolder) {
+        Map<String, String> valuesMap = new HashMap<>(1);
+        valuesMap.put(SiddhiTopologyCreatorConstants.INMEMORY_TOPIC,
+                siddhiTopologyDataHolder.getSiddhiAppName() + "." + streamId);
+        StrSubstitutor substitutor = new StrSubstitutor(valuesMap);
+        String placeholder = "${" + streamId + "}";
+        if (!outputStreamDataHolder.isInMemorySinkAdded()) {
+            outputStreamDataHolder.setStreamDefinition(outputStreamDataHolder.getStreamDefinition().replace(
+                    placeholder, placeholder + substitutor.replace(SiddhiTopologyCreatorConstants
+                            .INMEMORY_SINK_TEMPLATE) + "\n"));
+            outputStreamDataHolder.setInMemorySinkAdded(true);
+        }
+        inputStreamDataHolder.setStreamDefinition(inputStreamDataHolder.getStreamDefinition().replace(placeholder,
+                substitutor.replace(SiddhiTopologyCreatorConstants.INMEMORY_SOURCE_TEMPLATE) + "\n"));
+    }
+
     /**
      * Details required while processing Partitions are stored.
      */
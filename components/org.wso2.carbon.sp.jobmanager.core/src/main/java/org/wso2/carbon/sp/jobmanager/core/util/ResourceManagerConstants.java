@@ -172,6 +172,23 @@ public class ResourceManagerConstants {
 
     public static final String PS_SELECT_RESOURCE_MAPPING_ROW = "ps_select_resource_mapping_row";
 
+    public static final String TASK_UPSERT_RESOURCE_POOL_ENTRIES = "Inserting/Updating resource pool entries of "
+            + "group";
+
+    public static final String TASK_GET_RESOURCE_POOL_ENTRIES = "Getting resource pool entries of group";
+
+    public static final String CREATE_RESOURCE_POOL_ENTRY_TABLE = "create_resource_pool_entry_table";
+
+    public static final String CHECK_FOR_RESOURCE_POOL_ENTRY_TABLE = "check_for_resource_pool_entry_table";
+
+    public static final String PS_UPDATE_RESOURCE_POOL_ENTRY_ROW = "ps_update_resource_pool_entry_row";
+
+    public static final String PS_INSERT_RESOURCE_POOL_ENTRY_ROW = "ps_insert_resource_pool_entry_row";
+
+    public static final String PS_DELETE_RESOURCE_POOL_ENTRY_ROW = "ps_delete_resource_pool_entry_row";
+
+    public static final String PS_SELECT_RESOURCE_POOL_ENTRY_ROWS = "ps_select_resource_pool_entry_rows";
+
     public static final String QUERY_YAML_FILE_NAME = "queries.yaml";
 
 }
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.sp.jobmanager.core.util;
+
+import org.wso2.carbon.sp.jobmanager.core.bean.InterfaceConfig;
+import org.wso2.carbon.sp.jobmanager.core.exception.ResourceManagerException;
+import org.wso2.carbon.sp.jobmanager.core.model.ManagerNode;
+import org.wso2.carbon.sp.jobmanager.core.model.ResourceNode;
+import org.wso2.carbon.sp.jobmanager.core.model.ResourcePool;
+import org.wso2.carbon.sp.jobmanager.core.model.SiddhiAppHolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the state of a {@link ResourcePool} as separate entries, so that each resource node and the partial Siddhi
+ * apps of each parent Siddhi app can be persisted on their own. Entries start with a format version, so that the
+ * encoding can evolve without breaking the entries persisted by earlier versions.
+ * <p>
+ * Only the state needed to restore the resource pool is encoded. Resource node metrics and ping timestamps are not,
+ * since they are refreshed by the next heartbeat.
+ */
+public final class ResourcePoolEncoder {
+    /**
+     * Version 2 added the colocation group of partial Siddhi apps.
+     */
+    private static final byte FORMAT_VERSION = 2;
+    private static final byte COLOCATION_FORMAT_VERSION = 2;
+    private static final String LEADER_KEY = "leader";
+    private static final String RESOURCE_NODE_PREFIX = "node/";
+    private static final String RECEIVER_NODE_PREFIX = "receiver/";
+    private static final String DEPLOYED_APPS_PREFIX = "app/";
+    private static final String WAITING_APPS_PREFIX = "waiting/";
+
+    private ResourcePoolEncoder() {
+    }
+
+    /**
+     * @param resourcePool resource pool to encode.
+     * @return encoded entries of the resource pool by entry key.
+     */
+    public static Map<String, byte[]> encode(ResourcePool resourcePool) {
+        Map<String, byte[]> entries = new HashMap<>();
+        try {
+            if (resourcePool.getLeaderNode() != null) {
+                entries.put(LEADER_KEY, encode(resourcePool.getLeaderNode()));
+            }
+            for (ResourceNode resourceNode : resourcePool.getResourceNodeMap().values()) {
+                entries.put(RESOURCE_NODE_PREFIX + resourceNode.getId(), encode(resourceNode));
+            }
+            for (ResourceNode resourceNode : resourcePool.getReceiverNodeMap().values()) {
+                entries.put(RECEIVER_NODE_PREFIX + resourceNode.getId(), encode(resourceNode));
+            }
+            for (Map.Entry<String, List<SiddhiAppHolder>> apps : resourcePool.getSiddhiAppHoldersMap().entrySet()) {
+                entries.put(DEPLOYED_APPS_PREFIX + apps.getKey(), encode(apps.getValue()));
+            }
+            for (Map.Entry<String, List<SiddhiAppHolder>> apps : resourcePool.getAppsWaitingForDeploy().entrySet()) {
+                entries.put(WAITING_APPS_PREFIX + apps.getKey(), encode(apps.getValue()));
+            }
+        } catch (IOException e) {
+            throw new ResourceManagerException("Error while encoding resource pool " + resourcePool.getGroupId(), e);
+        }
+        return entries;
+    }
+
+    /**
+     * @param groupId group id of the resource pool.
+     * @param entries encoded entries of the resource pool by entry key.
+     * @return the decoded resource pool.
+     */
+    public static ResourcePool decode(String groupId, Map<String, byte[]> entries) {
+        ResourcePool resourcePool = new ResourcePool(groupId);
+        Map<String, ResourceNode> nodes = new HashMap<>();
+        try {
+            // Nodes are decoded first, so that the partial Siddhi apps refer to the same node instances
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                String key = entry.getKey();
+                if (key.startsWith(RESOURCE_NODE_PREFIX)) {
+                    ResourceNode resourceNode = decodeResourceNode(entry.getValue());
+                    resourcePool.getResourceNodeMap().put(resourceNode.getId(), resourceNode);
+                    nodes.put(resourceNode.getId(), resourceNode);
+                } else if (key.startsWith(RECEIVER_NODE_PREFIX)) {
+                    ResourceNode resourceNode = decodeResourceNode(entry.getValue());
+                    resourcePool.getReceiverNodeMap().put(resourceNode.getId(), resourceNode);
+                    nodes.put(resourceNode.getId(), resourceNode);
+                }
+            }
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                String key = entry.getKey();
+                if (key.equals(LEADER_KEY)) {
+                    resourcePool.restoreLeaderNode(decodeManagerNode(entry.getValue()));
+                } else if (key.startsWith(DEPLOYED_APPS_PREFIX)) {
+                    resourcePool.getSiddhiAppHoldersMap().put(key.substring(DEPLOYED_APPS_PREFIX.length()),
+                            decodeSiddhiAppHolders(entry.getValue(), nodes));
+                } else if (key.startsWith(WAITING_APPS_PREFIX)) {
+                    resourcePool.getAppsWaitingForDeploy().put(key.substring(WAITING_APPS_PREFIX.length()),
+                            decodeSiddhiAppHolders(entry.getValue(), nodes));
+                }
+            }
+        } catch (IOException e) {
+            throw new ResourceManagerException("Error while decoding resource pool " + groupId, e);
+        }
+        return resourcePool;
+    }
+
+    private static byte[] encode(ManagerNode managerNode) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FORMAT_VERSION);
+        writeString(out, managerNode.getId());
+        writeInterface(out, managerNode.getHttpsInterface());
+        out.writeInt(managerNode.getHeartbeatInterval());
+        out.writeInt(managerNode.getHeartbeatMaxRetry());
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encode(ResourceNode resourceNode) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FORMAT_VERSION);
+        writeResourceNode(out, resourceNode);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encode(List<SiddhiAppHolder> siddhiAppHolders) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FORMAT_VERSION);
+        out.writeInt(siddhiAppHolders.size());
+        for (SiddhiAppHolder siddhiAppHolder : siddhiAppHolders) {
+            writeString(out, siddhiAppHolder.getParentAppName());
+            writeString(out, siddhiAppHolder.getGroupName());
+            writeString(out, siddhiAppHolder.getAppName());
+            writeString(out, siddhiAppHolder.getSiddhiApp());
+            out.writeBoolean(siddhiAppHolder.isReceiverQueryGroup());
+            out.writeInt(siddhiAppHolder.getParallelism());
+            writeString(out, siddhiAppHolder.getColocationGroup());
+            ResourceNode deployedNode = siddhiAppHolder.getDeployedNode();
+            out.writeBoolean(deployedNode != null);
+            if (deployedNode != null) {
+                writeResourceNode(out, deployedNode);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ManagerNode decodeManagerNode(byte[] entry) throws IOException {
+        DataInputStream in = open(entry);
+        return new ManagerNode().setId(readString(in))
+                .setHttpsInterface(readInterface(in))
+                .setHeartbeatInterval(in.readInt())
+                .setHeartbeatMaxRetry(in.readInt());
+    }
+
+    private static ResourceNode decodeResourceNode(byte[] entry) throws IOException {
+        return readResourceNode(open(entry));
+    }
+
+    private static List<SiddhiAppHolder> decodeSiddhiAppHolders(byte[] entry, Map<String, ResourceNode> nodes)
+            throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry));
+        byte version = readVersion(in);
+        int count = in.readInt();
+        List<SiddhiAppHolder> siddhiAppHolders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String parentAppName = readString(in);
+            String groupName = readString(in);
+            String appName = readString(in);
+            String siddhiApp = readString(in);
+            boolean receiverQueryGroup = in.readBoolean();
+            int parallelism = in.readInt();
+            String colocationGroup = version >= COLOCATION_FORMAT_VERSION ? readString(in) : null;
+            ResourceNode deployedNode = null;
+            if (in.readBoolean()) {
+                deployedNode = readResourceNode(in);
+                deployedNode = nodes.getOrDefault(deployedNode.getId(), deployedNode);
+            }
+            SiddhiAppHolder siddhiAppHolder = new SiddhiAppHolder(parentAppName, groupName, appName, siddhiApp,
+                    deployedNode, receiverQueryGroup, parallelism);
+            siddhiAppHolder.setColocationGroup(colocationGroup);
+            siddhiAppHolders.add(siddhiAppHolder);
+        }
+        return siddhiAppHolders;
+    }
+
+    private static DataInputStream open(byte[] entry) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry));
+        readVersion(in);
+        return in;
+    }
+
+    private static byte readVersion(DataInputStream in) throws IOException {
+        byte version = in.readByte();
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new IOException("Unsupported resource pool entry format version " + version);
+        }
+        return version;
+    }
+
+    private static void writeResourceNode(DataOutputStream out, ResourceNode resourceNode) throws IOException {
+        writeString(out, resourceNode.getId());
+        writeString(out, resourceNode.getState());
+        writeInterface(out, resourceNode.getHttpsInterface());
+        out.writeBoolean(resourceNode.isReceiverNode());
+    }
+
+    private static ResourceNode readResourceNode(DataInputStream in) throws IOException {
+        ResourceNode resourceNode = new ResourceNode(readString(in));
+        resourceNode.setState(readString(in));
+        resourceNode.setHttpsInterface(readInterface(in));
+        resourceNode.setReceiverNode(in.readBoolean());
+        return resourceNode;
+    }
+
+    private static void writeInterface(DataOutputStream out, InterfaceConfig interfaceConfig) throws IOException {
+        out.writeBoolean(interfaceConfig != null);
+        if (interfaceConfig != null) {
+            writeString(out, interfaceConfig.getHost());
+            out.writeInt(interfaceConfig.getPort());
+            writeString(out, interfaceConfig.getUsername());
+            writeString(out, interfaceConfig.getPassword());
+        }
+    }
+
+    private static InterfaceConfig readInterface(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return new InterfaceConfig(readString(in), in.readInt(), readString(in), readString(in));
+    }
+
+    /**
+     * Writes a nullable string of any length, unlike {@link DataOutputStream#writeUTF(String)}.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -42,6 +42,8 @@ public class SiddhiTopologyCreatorConstants {
 
     public static final String EXECGROUP_IDENTIFIER = "execGroup";
 
+    public static final String AFFINITY_IDENTIFIER = "affinity";
+
     public static final String INFO_IDENTIFIER = "info";
 
     public static final String SIDDHIAPP_NAME_IDENTIFIER = "name";
@@ -61,5 +63,13 @@ public class SiddhiTopologyCreatorConstants {
 
     public static final String INMEMORY = "in-memory";
 
+    public static final String INMEMORY_TOPIC = "inMemoryTopic";
+
+    public static final String INMEMORY_SOURCE_TEMPLATE = "@source(type='inMemory', topic='${" + INMEMORY_TOPIC
+            + "}', @map(type='passThrough'))";
+
+    public static final String INMEMORY_SINK_TEMPLATE = "@sink(type='inMemory', topic='${" + INMEMORY_TOPIC
+            + "}', @map(type='passThrough'))";
+
     public static final String EXECUTION_ELEMENT = "Query/Partition";
 }
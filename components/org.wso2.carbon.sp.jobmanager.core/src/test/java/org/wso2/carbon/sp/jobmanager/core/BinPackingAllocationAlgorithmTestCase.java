@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.sp.jobmanager.core;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.sp.jobmanager.core.allocation.BinPackingAllocationAlgorithm;
+import org.wso2.carbon.sp.jobmanager.core.bean.DeploymentConfig;
+import org.wso2.carbon.sp.jobmanager.core.bean.InterfaceConfig;
+import org.wso2.carbon.sp.jobmanager.core.internal.ServiceDataHolder;
+import org.wso2.carbon.sp.jobmanager.core.model.ResourceNode;
+import org.wso2.carbon.sp.jobmanager.core.model.ResourcePool;
+import org.wso2.carbon.sp.jobmanager.core.model.SiddhiAppHolder;
+import org.wso2.carbon.sp.jobmanager.core.model.WorkerMetrics;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class BinPackingAllocationAlgorithmTestCase {
+    private static final int HEARTBEAT_INTERVAL = 200;
+    private static final String FILTER_APP = "@App:name('filterApp')\n"
+            + "define stream stockStream(symbol string, price float, volume long);\n"
+            + "from stockStream[price > 100] select symbol, price insert into filteredStream;";
+
+    private DeploymentConfig previousDeploymentConfig;
+    private ResourcePool previousResourcePool;
+    private ResourcePool resourcePool;
+    private Map<String, ResourceNode> resourceNodeMap;
+
+    @BeforeMethod
+    public void setUp() {
+        previousDeploymentConfig = ServiceDataHolder.getDeploymentConfig();
+        previousResourcePool = ServiceDataHolder.getResourcePool();
+        DeploymentConfig deploymentConfig = new DeploymentConfig();
+        deploymentConfig.setHeartbeatInterval(HEARTBEAT_INTERVAL);
+        ServiceDataHolder.setDeploymentConfig(deploymentConfig);
+        resourcePool = new ResourcePool("binPackingTest");
+        ServiceDataHolder.setResourcePool(resourcePool);
+        resourceNodeMap = new LinkedHashMap<>();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        ServiceDataHolder.setDeploymentConfig(previousDeploymentConfig);
+        ServiceDataHolder.setResourcePool(previousResourcePool);
+    }
+
+    @Test
+    public void testScoring() {
+        ResourceNode cpuBoundNode = addNode("cpuBoundNode", 0.6, 0.2);
+        ResourceNode idleNode = addNode("idleNode", 0.2, 0.2);
+        BinPackingAllocationAlgorithm algorithm = new BinPackingAllocationAlgorithm();
+        Assert.assertEquals(algorithm.getNextResourceNode(resourceNodeMap, 1), idleNode);
+
+        // Memory usage is weighted as much as the process CPU usage
+        cpuBoundNode.updateResourceMetrics(new WorkerMetrics().setProcessCPU(0.4).setSystemCPU(0.4)
+                .setTotalMemory(0.3));
+        idleNode.updateResourceMetrics(new WorkerMetrics().setProcessCPU(0.1).setSystemCPU(0.1)
+                .setTotalMemory(0.8));
+        Assert.assertEquals(algorithm.getNextResourceNode(resourceNodeMap, 1), cpuBoundNode);
+
+        // A node with capacity left is preferred over a node which would exceed the capacity limit, even though
+        // the system CPU usage of the latter is weighted less
+        cpuBoundNode.updateResourceMetrics(new WorkerMetrics().setProcessCPU(0.1).setSystemCPU(0.95)
+                .setTotalMemory(0.1));
+        idleNode.updateResourceMetrics(new WorkerMetrics().setProcessCPU(0.5).setSystemCPU(0.5)
+                .setTotalMemory(0.6));
+        Assert.assertEquals(algorithm.getNextResourceNode(resourceNodeMap, 1), idleNode);
+
+        Assert.assertNull(algorithm.getNextResourceNode(resourceNodeMap, 3));
+    }
+
+    @Test
+    public void testReservation() throws InterruptedException {
+        ResourceNode firstNode = addNode("firstNode", 0.4, 0.2);
+        ResourceNode secondNode = addNode("secondNode", 0.4, 0.2);
+        // Each partial Siddhi app is estimated to use 0.2 CPU and 0.1 memory
+        List<SiddhiAppHolder> appHolders = new ArrayList<>();
+        for (ResourceNode resourceNode : resourceNodeMap.values()) {
+            for (int i = 0; i < 2; i++) {
+                appHolders.add(new SiddhiAppHolder("app", "app-group1", "app-group1-" + appHolders.size(),
+                        FILTER_APP, resourceNode, false, 4));
+            }
+        }
+        resourcePool.getSiddhiAppHoldersMap().put("app", appHolders);
+        BinPackingAllocationAlgorithm algorithm = new BinPackingAllocationAlgorithm();
+
+        Assert.assertEquals(algorithm.getNextResourceNode(resourceNodeMap, 1), firstNode);
+        Assert.assertEquals(algorithm.getNextResourceNode(resourceNodeMap, 1), secondNode);
+        Assert.assertEquals(algorithm.getNextResourceNode(resourceNodeMap, 1), firstNode);
+        Assert.assertEquals(algorithm.getNextResourceNode(resourceNodeMap, 1), secondNode);
+
+        // The reservations of a node are released once its metrics are updated
+        Thread.sleep(2);
+        firstNode.updateResourceMetrics(new WorkerMetrics().setProcessCPU(0.4).setSystemCPU(0.4)
+                .setTotalMemory(0.2));
+        Assert.assertEquals(algorithm.getNextResourceNode(resourceNodeMap, 1), firstNode);
+        Assert.assertEquals(algorithm.getNextResourceNode(resourceNodeMap, 1), firstNode);
+    }
+
+    @Test
+    public void testStaleMetrics() throws InterruptedException {
+        ResourceNode staleNode = addNode("staleNode", 0.05, 0.05);
+        ResourceNode newNode = new ResourceNode("newNode");
+        newNode.setHttpsInterface(new InterfaceConfig("localhost", 9443, "admin", "admin"));
+        resourceNodeMap.put(newNode.getId(), newNode);
+        Thread.sleep(HEARTBEAT_INTERVAL * 3);
+        ResourceNode currentNode = addNode("currentNode", 0.5, 0.5);
+        BinPackingAllocationAlgorithm algorithm = new BinPackingAllocationAlgorithm();
+
+        // Nodes without up to date metrics are left out, rather than allocating every node round robin
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(algorithm.getNextResourceNode(resourceNodeMap, 3), currentNode);
+        }
+
+        // A node is considered again once its metrics are refreshed
+        staleNode.refreshResourceMetrics();
+        Assert.assertEquals(algorithm.getNextResourceNode(resourceNodeMap, 3), staleNode);
+
+        // Nodes are allocated round robin if the metrics of none of them are up to date
+        Thread.sleep(HEARTBEAT_INTERVAL * 3);
+        Set<ResourceNode> allocatedNodes = new HashSet<>();
+        for (int i = 0; i < resourceNodeMap.size(); i++) {
+            allocatedNodes.add(algorithm.getNextResourceNode(resourceNodeMap, 3));
+        }
+        Assert.assertEquals(allocatedNodes, new HashSet<>(resourceNodeMap.values()));
+    }
+
+    private ResourceNode addNode(String id, double cpu, double memory) {
+        ResourceNode resourceNode = new ResourceNode(id);
+        resourceNode.setHttpsInterface(new InterfaceConfig("localhost", 9443, "admin", "admin"));
+        resourceNode.updateResourceMetrics(new WorkerMetrics().setProcessCPU(cpu).setSystemCPU(cpu)
+                .setTotalMemory(memory));
+        resourceNodeMap.put(id, resourceNode);
+        return resourceNode;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.sp.jobmanager.core;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.sp.jobmanager.core.allocation.BinPackingAllocationAlgorithm;
+import org.wso2.carbon.sp.jobmanager.core.bean.DeploymentConfig;
+import org.wso2.carbon.sp.jobmanager.core.bean.InterfaceConfig;
+import org.wso2.carbon.sp.jobmanager.core.impl.ResourceManagerApiServiceImpl;
+import org.wso2.carbon.sp.jobmanager.core.internal.ServiceDataHolder;
+import org.wso2.carbon.sp.jobmanager.core.model.HeartbeatDelta;
+import org.wso2.carbon.sp.jobmanager.core.model.ManagerNode;
+import org.wso2.carbon.sp.jobmanager.core.model.ResourceNode;
+import org.wso2.carbon.sp.jobmanager.core.model.ResourcePool;
+import org.wso2.carbon.sp.jobmanager.core.model.SiddhiAppHolder;
+import org.wso2.carbon.sp.jobmanager.core.model.WorkerMetrics;
+import org.wso2.carbon.sp.jobmanager.core.util.ResourceManagerConstants;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.core.Response;
+
+public class HeartbeatDeltaTestCase {
+    private static final int HEARTBEAT_INTERVAL = 200;
+    private static final String FILTER_APP = "@App:name('filterApp')\n"
+            + "define stream stockStream(symbol string, price float, volume long);\n"
+            + "from stockStream[price > 100] select symbol, price insert into filteredStream;";
+
+    private ManagerNode previousLeaderNode;
+    private boolean previousLeader;
+    private ResourcePool previousResourcePool;
+    private DeploymentConfig previousDeploymentConfig;
+    private ResourcePool resourcePool;
+    private ResourceManagerApiServiceImpl resourceManagerApiService;
+
+    @BeforeMethod
+    public void setUp() {
+        previousLeaderNode = ServiceDataHolder.getLeaderNode();
+        previousLeader = ServiceDataHolder.isLeader();
+        previousResourcePool = ServiceDataHolder.getResourcePool();
+        previousDeploymentConfig = ServiceDataHolder.getDeploymentConfig();
+        ServiceDataHolder.setLeaderNode(new ManagerNode().setId("manager1")
+                .setHttpsInterface(new InterfaceConfig("localhost", 9543, "admin", "admin")));
+        ServiceDataHolder.isLeader(true);
+        DeploymentConfig deploymentConfig = new DeploymentConfig();
+        deploymentConfig.setHeartbeatInterval(HEARTBEAT_INTERVAL);
+        ServiceDataHolder.setDeploymentConfig(deploymentConfig);
+        resourcePool = new ResourcePool(null);
+        ServiceDataHolder.setResourcePool(resourcePool);
+        resourceManagerApiService = new ResourceManagerApiServiceImpl();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        ServiceDataHolder.setLeaderNode(previousLeaderNode);
+        ServiceDataHolder.isLeader(previousLeader);
+        ServiceDataHolder.setResourcePool(previousResourcePool);
+        ServiceDataHolder.setDeploymentConfig(previousDeploymentConfig);
+    }
+
+    @Test
+    public void testDeltaHeartbeat() {
+        ResourceNode resourceNode = addNode("worker1", 5, 0.2);
+        long lastPingTimestamp = resourceNode.getLastPingTimestamp();
+
+        Assert.assertEquals(sendDelta("worker1", 6, null), 204);
+        Assert.assertEquals(resourceNode.getHeartbeatSequence(), 6);
+        Assert.assertTrue(resourceNode.getLastPingTimestamp() >= lastPingTimestamp);
+        Assert.assertEquals(resourceNode.getProcessCPU(), 0.2);
+
+        Assert.assertEquals(sendDelta("worker1", 8, new WorkerMetrics().setProcessCPU(0.4).setSystemCPU(0.5)
+                .setTotalMemory(0.3)), 204);
+        Assert.assertEquals(resourceNode.getHeartbeatSequence(), 8);
+        Assert.assertEquals(resourceNode.getProcessCPU(), 0.4);
+        Assert.assertEquals(resourceNode.getSystemCPU(), 0.5);
+        Assert.assertEquals(resourceNode.getMemoryUsage(), 0.3);
+    }
+
+    @Test
+    public void testNoFullHeartbeat() {
+        // A leader which has not received a full heartbeat from the node in its session asks for one
+        ResourceNode resourceNode = addNode("worker1", 0, 0.2);
+        Assert.assertEquals(sendDelta("worker1", 6, null), 409);
+        Assert.assertEquals(resourceNode.getHeartbeatSequence(), 0);
+
+        Assert.assertEquals(sendDelta("unknownWorker", 6, null), 409);
+        // Receiver nodes are looked up among the receiver nodes only
+        resourceNode.setHeartbeatSequence(5);
+        Assert.assertEquals(resourceManagerApiService.updateHeartbeatDelta(new HeartbeatDelta().id("worker1")
+                .sequence(6).receiverNode(true)).getStatus(), 409);
+    }
+
+    @Test
+    public void testSequenceNotNewer() {
+        ResourceNode resourceNode = addNode("worker1", 5, 0.2);
+        Assert.assertEquals(sendDelta("worker1", 5, null), 409);
+        Assert.assertEquals(sendDelta("worker1", 4, new WorkerMetrics().setProcessCPU(0.9)), 409);
+        Assert.assertEquals(resourceNode.getHeartbeatSequence(), 5);
+        Assert.assertEquals(resourceNode.getProcessCPU(), 0.2);
+    }
+
+    @Test
+    public void testNewState() {
+        ResourceNode resourceNode = addNode("worker1", 5, 0.2);
+        resourceNode.setState(ResourceManagerConstants.STATE_NEW);
+        Assert.assertEquals(sendDelta("worker1", 6, null), 409);
+        Assert.assertEquals(resourceNode.getHeartbeatSequence(), 5);
+    }
+
+    @Test
+    public void testNotLeader() {
+        addNode("worker1", 5, 0.2);
+        ServiceDataHolder.isLeader(false);
+        Assert.assertEquals(sendDelta("worker1", 6, null), 301);
+        ServiceDataHolder.setLeaderNode(null);
+        Assert.assertEquals(sendDelta("worker1", 6, null), 409);
+    }
+
+    @Test
+    public void testMetricsRefresh() throws InterruptedException {
+        ResourceNode idleNode = addNode("idleNode", 5, 0.1);
+        Thread.sleep(HEARTBEAT_INTERVAL * 3);
+        ResourceNode busyNode = addNode("busyNode", 5, 0.6);
+        Map<String, ResourceNode> resourceNodeMap = new LinkedHashMap<>(resourcePool.getResourceNodeMap());
+        BinPackingAllocationAlgorithm algorithm = new BinPackingAllocationAlgorithm();
+        // The metrics of the idle node are stale, hence it is not considered
+        Assert.assertEquals(algorithm.getNextResourceNode(resourceNodeMap, 1), busyNode);
+
+        // A delta heartbeat without metrics reports that the metrics of the node have not changed
+        long metricsTimestamp = idleNode.getMetricsTimestamp();
+        Assert.assertEquals(sendDelta("idleNode", 6, null), 204);
+        Assert.assertTrue(idleNode.getMetricsTimestamp() > metricsTimestamp);
+        Assert.assertEquals(idleNode.getProcessCPU(), 0.1);
+        Assert.assertEquals(algorithm.getNextResourceNode(resourceNodeMap, 1), idleNode);
+
+        // Metrics are not marked as current for a node which never reported them
+        ResourceNode resourceNode = new ResourceNode("worker1");
+        resourceNode.refreshResourceMetrics();
+        Assert.assertFalse(resourceNode.isMetricsUpdated());
+        Assert.assertEquals(resourceNode.getMetricsTimestamp(), 0);
+    }
+
+    private int sendDelta(String nodeId, long sequence, WorkerMetrics workerMetrics) {
+        Response response = resourceManagerApiService.updateHeartbeatDelta(new HeartbeatDelta().id(nodeId)
+                .sequence(sequence).workerMetrics(workerMetrics));
+        return response.getStatus();
+    }
+
+    private ResourceNode addNode(String id, long heartbeatSequence, double cpu) {
+        ResourceNode resourceNode = new ResourceNode(id);
+        resourceNode.setHttpsInterface(new InterfaceConfig("localhost", 9443, "admin", "admin"));
+        resourceNode.setState(ResourceManagerConstants.STATE_EXISTS);
+        resourceNode.setHeartbeatSequence(heartbeatSequence);
+        resourceNode.updateResourceMetrics(new WorkerMetrics().setProcessCPU(cpu).setSystemCPU(cpu)
+                .setTotalMemory(0.2));
+        resourcePool.getResourceNodeMap().put(id, resourceNode);
+        // A node with deployed partial Siddhi apps is not offered the waiting Siddhi apps on each heartbeat
+        List<SiddhiAppHolder> appHolders = new ArrayList<>();
+        appHolders.add(new SiddhiAppHolder(id + "App", id + "App-group1", id + "App-group1-1", FILTER_APP,
+                resourceNode, false, 1));
+        resourcePool.getSiddhiAppHoldersMap().put(id + "App", appHolders);
+        return resourceNode;
+    }
+}
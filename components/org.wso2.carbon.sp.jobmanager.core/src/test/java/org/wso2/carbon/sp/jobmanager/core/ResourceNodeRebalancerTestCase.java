@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.sp.jobmanager.core;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.sp.jobmanager.core.appcreator.SiddhiQuery;
+import org.wso2.carbon.sp.jobmanager.core.bean.DeploymentConfig;
+import org.wso2.carbon.sp.jobmanager.core.bean.InterfaceConfig;
+import org.wso2.carbon.sp.jobmanager.core.deployment.DeploymentManagerImpl;
+import org.wso2.carbon.sp.jobmanager.core.deployment.ResourceNodeRebalancer;
+import org.wso2.carbon.sp.jobmanager.core.internal.ServiceDataHolder;
+import org.wso2.carbon.sp.jobmanager.core.model.ResourceNode;
+import org.wso2.carbon.sp.jobmanager.core.model.ResourcePool;
+import org.wso2.carbon.sp.jobmanager.core.model.SiddhiAppHolder;
+import org.wso2.carbon.sp.jobmanager.core.model.WorkerMetrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ResourceNodeRebalancerTestCase {
+    private static final String STREAMS = "define stream stockStream(symbol string, price float, volume long);\n";
+    private static final String FILTER_APP = "@App:name('filterApp')\n" + STREAMS
+            + "from stockStream[price > 100] select symbol, price insert into filteredStream;";
+    private static final String WINDOW_APP = "@App:name('windowApp')\n" + STREAMS
+            + "from stockStream#window.length(10) select symbol, price insert into windowStream;";
+
+    private DeploymentConfig deploymentConfig;
+    private ResourceNode hotNode;
+    private ResourceNode coldNode;
+    private Map<String, ResourceNode> resourceNodeMap;
+    private Map<ResourceNode, List<SiddhiAppHolder>> nodeAppMapping;
+    private DeploymentConfig previousDeploymentConfig;
+    private ResourcePool previousResourcePool;
+
+    @BeforeMethod
+    public void setUp() {
+        previousDeploymentConfig = ServiceDataHolder.getDeploymentConfig();
+        previousResourcePool = ServiceDataHolder.getResourcePool();
+        deploymentConfig = new DeploymentConfig();
+        hotNode = createNode("hotNode");
+        coldNode = createNode("coldNode");
+        resourceNodeMap = new HashMap<>();
+        resourceNodeMap.put(hotNode.getId(), hotNode);
+        resourceNodeMap.put(coldNode.getId(), coldNode);
+        nodeAppMapping = new HashMap<>();
+        nodeAppMapping.put(hotNode, new ArrayList<>(Arrays.asList(
+                new SiddhiAppHolder("app", "app-group1", "app-group1-1", FILTER_APP, hotNode, false, 2),
+                new SiddhiAppHolder("app", "app-group1", "app-group1-2", FILTER_APP, hotNode, false, 2),
+                new SiddhiAppHolder("app", "app-group2", "app-group2-1", WINDOW_APP, hotNode, false, 1))));
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        ServiceDataHolder.setDeploymentConfig(previousDeploymentConfig);
+        ServiceDataHolder.setResourcePool(previousResourcePool);
+    }
+
+    @Test
+    public void testSustainedOverload() throws InterruptedException {
+        ResourceNodeRebalancer rebalancer = new ResourceNodeRebalancer();
+        for (int i = 1; i < deploymentConfig.getRebalanceSustainedIntervals(); i++) {
+            Assert.assertTrue(plan(rebalancer, 0.9, 0.2).isEmpty(), "Moved before the overload was sustained");
+        }
+        List<ResourceNodeRebalancer.Migration> migrations = plan(rebalancer, 0.9, 0.2);
+        Assert.assertEquals(migrations.size(), 1);
+        ResourceNodeRebalancer.Migration migration = migrations.get(0);
+        Assert.assertEquals(migration.getAppHolder().getGroupName(), "app-group1");
+        Assert.assertFalse(migration.isStateful());
+        Assert.assertEquals(migration.getSourceNode(), hotNode);
+        Assert.assertEquals(migration.getTargetNode(), coldNode);
+
+        rebalancer.cooldown(migration, System.currentTimeMillis() + deploymentConfig.getRebalanceCooldown());
+        for (int i = 0; i <= deploymentConfig.getRebalanceSustainedIntervals(); i++) {
+            Assert.assertTrue(plan(rebalancer, 0.9, 0.2).isEmpty(), "Moved during the cool down period");
+        }
+    }
+
+    @Test
+    public void testHysteresis() throws InterruptedException {
+        ResourceNodeRebalancer rebalancer = new ResourceNodeRebalancer();
+        // Overloaded intervals are kept between the watermarks, and reset below the low watermark
+        Assert.assertTrue(plan(rebalancer, 0.9, 0.2).isEmpty());
+        Assert.assertTrue(plan(rebalancer, 0.7, 0.2).isEmpty());
+        Assert.assertTrue(plan(rebalancer, 0.9, 0.2).isEmpty());
+        Assert.assertTrue(plan(rebalancer, 0.5, 0.2).isEmpty());
+        Assert.assertTrue(plan(rebalancer, 0.9, 0.2).isEmpty());
+        Assert.assertTrue(plan(rebalancer, 0.9, 0.2).isEmpty());
+        Assert.assertEquals(plan(rebalancer, 0.9, 0.2).size(), 1);
+    }
+
+    @Test
+    public void testNoImprovement() throws InterruptedException {
+        ResourceNodeRebalancer rebalancer = new ResourceNodeRebalancer();
+        // Moving a third of the load of the overloaded node would overload the other node
+        for (int i = 0; i <= deploymentConfig.getRebalanceSustainedIntervals(); i++) {
+            Assert.assertTrue(plan(rebalancer, 0.9, 0.58).isEmpty());
+        }
+    }
+
+    @Test
+    public void testStatefulApps() throws InterruptedException {
+        nodeAppMapping.get(hotNode).forEach(appHolder -> appHolder.setSiddhiApp(WINDOW_APP));
+        ResourceNodeRebalancer rebalancer = new ResourceNodeRebalancer();
+        for (int i = 0; i <= deploymentConfig.getRebalanceSustainedIntervals(); i++) {
+            Assert.assertTrue(plan(rebalancer, 0.9, 0.1).isEmpty(), "Moved a stateful partial Siddhi app");
+        }
+        deploymentConfig.setRebalanceStatefulApps(true);
+        List<ResourceNodeRebalancer.Migration> migrations = plan(rebalancer, 0.9, 0.1);
+        Assert.assertEquals(migrations.size(), 1);
+        Assert.assertTrue(migrations.get(0).isStateful());
+    }
+
+    @Test
+    public void testStatefulDetection() {
+        Assert.assertFalse(ResourceNodeRebalancer.isStateful(FILTER_APP));
+        Assert.assertFalse(ResourceNodeRebalancer.isStateful(STREAMS
+                + "from stockStream select symbol, convert(price, 'double') as price insert into outStream;"));
+        Assert.assertTrue(ResourceNodeRebalancer.isStateful(WINDOW_APP));
+        Assert.assertTrue(ResourceNodeRebalancer.isStateful(STREAMS
+                + "from stockStream select symbol, sum(price) as total insert into outStream;"));
+        Assert.assertTrue(ResourceNodeRebalancer.isStateful(STREAMS
+                + "from stockStream select symbol, price group by symbol insert into outStream;"));
+        Assert.assertTrue(ResourceNodeRebalancer.isStateful(STREAMS
+                + "define table stockTable(symbol string, price float, volume long);\n"
+                + "from stockStream insert into stockTable;"));
+        Assert.assertTrue(ResourceNodeRebalancer.isStateful(STREAMS
+                + "from every e1=stockStream -> e2=stockStream[price > e1.price] "
+                + "select e1.symbol insert into outStream;"));
+    }
+
+    @Test
+    public void testStatelessMigration() {
+        SiddhiAppHolder appHolder = setUpMigration();
+        RecordingDeploymentManager deploymentManager = new RecordingDeploymentManager();
+        Assert.assertTrue(deploymentManager.migrate(appHolder, coldNode, false));
+        // The partial Siddhi app keeps running in the source node until it runs in the target node
+        Assert.assertEquals(deploymentManager.calls, Arrays.asList("deploy coldNode app-group2-1",
+                "undeploy hotNode app-group2-1"));
+        Assert.assertEquals(appHolder.getDeployedNode(), coldNode);
+    }
+
+    @Test
+    public void testStatefulMigration() {
+        SiddhiAppHolder appHolder = setUpMigration();
+        RecordingDeploymentManager deploymentManager = new RecordingDeploymentManager();
+        Assert.assertTrue(deploymentManager.migrate(appHolder, coldNode, true));
+        // The partial Siddhi app is stopped in the source node before it is started in the target node
+        Assert.assertEquals(deploymentManager.calls, Arrays.asList("backup hotNode app-group2-1",
+                "undeploy hotNode app-group2-1", "deploy coldNode app-group2-1",
+                "restore coldNode app-group2-1 revision1"));
+        Assert.assertEquals(appHolder.getDeployedNode(), coldNode);
+    }
+
+    @Test
+    public void testFailedStatefulMigration() {
+        SiddhiAppHolder appHolder = setUpMigration();
+        RecordingDeploymentManager deploymentManager = new RecordingDeploymentManager();
+        deploymentManager.failedCalls.add("restore coldNode app-group2-1 revision1");
+        Assert.assertFalse(deploymentManager.migrate(appHolder, coldNode, true));
+        Assert.assertEquals(deploymentManager.calls, Arrays.asList("backup hotNode app-group2-1",
+                "undeploy hotNode app-group2-1", "deploy coldNode app-group2-1",
+                "restore coldNode app-group2-1 revision1", "undeploy coldNode app-group2-1",
+                "deploy hotNode app-group2-1", "restore hotNode app-group2-1 revision1"));
+        Assert.assertEquals(appHolder.getDeployedNode(), hotNode);
+
+        deploymentManager.calls.clear();
+        deploymentManager.failedCalls.add("deploy coldNode app-group2-1");
+        Assert.assertFalse(deploymentManager.migrate(appHolder, coldNode, true));
+        Assert.assertEquals(deploymentManager.calls, Arrays.asList("backup hotNode app-group2-1",
+                "undeploy hotNode app-group2-1", "deploy coldNode app-group2-1", "deploy hotNode app-group2-1",
+                "restore hotNode app-group2-1 revision1"));
+        Assert.assertEquals(appHolder.getDeployedNode(), hotNode);
+
+        // Nothing is moved if the state could not be backed up
+        deploymentManager.calls.clear();
+        deploymentManager.failedCalls.add("backup hotNode app-group2-1");
+        Assert.assertFalse(deploymentManager.migrate(appHolder, coldNode, true));
+        Assert.assertEquals(deploymentManager.calls, Collections.singletonList("backup hotNode app-group2-1"));
+        Assert.assertEquals(appHolder.getDeployedNode(), hotNode);
+    }
+
+    private SiddhiAppHolder setUpMigration() {
+        ServiceDataHolder.setDeploymentConfig(deploymentConfig);
+        ResourcePool resourcePool = new ResourcePool(null);
+        resourcePool.setResourceNodeMap(resourceNodeMap);
+        resourcePool.getSiddhiAppHoldersMap().put("app", nodeAppMapping.get(hotNode));
+        ServiceDataHolder.setResourcePool(resourcePool);
+        return nodeAppMapping.get(hotNode).get(2);
+    }
+
+    private List<ResourceNodeRebalancer.Migration> plan(ResourceNodeRebalancer rebalancer, double hotNodeCPU,
+                                                        double coldNodeCPU) throws InterruptedException {
+        // Metrics are only considered once per update
+        Thread.sleep(2);
+        hotNode.updateResourceMetrics(new WorkerMetrics().setProcessCPU(hotNodeCPU).setSystemCPU(hotNodeCPU));
+        coldNode.updateResourceMetrics(new WorkerMetrics().setProcessCPU(coldNodeCPU).setSystemCPU(coldNodeCPU));
+        return rebalancer.planMigrations(resourceNodeMap, nodeAppMapping, deploymentConfig,
+                System.currentTimeMillis());
+    }
+
+    private ResourceNode createNode(String id) {
+        ResourceNode resourceNode = new ResourceNode(id);
+        resourceNode.setHttpsInterface(new InterfaceConfig("localhost", 9443, "admin", "admin"));
+        return resourceNode;
+    }
+
+    /**
+     * Deployment manager which records the calls made to the resource nodes instead of making them.
+     */
+    private static class RecordingDeploymentManager extends DeploymentManagerImpl {
+        private final List<String> calls = new ArrayList<>();
+        private final Set<String> failedCalls = new HashSet<>();
+
+        private boolean call(String call) {
+            calls.add(call);
+            return !failedCalls.contains(call);
+        }
+
+        @Override
+        protected String deployApp(ResourceNode resourceNode, SiddhiQuery siddhiQuery) {
+            return call("deploy " + resourceNode.getId() + " " + siddhiQuery.getAppName())
+                    ? siddhiQuery.getAppName() : null;
+        }
+
+        @Override
+        protected boolean unDeployApp(ResourceNode resourceNode, String siddhiAppName) {
+            return call("undeploy " + resourceNode.getId() + " " + siddhiAppName);
+        }
+
+        @Override
+        protected String backupApp(ResourceNode resourceNode, String siddhiAppName) {
+            return call("backup " + resourceNode.getId() + " " + siddhiAppName) ? "revision1" : null;
+        }
+
+        @Override
+        protected boolean restoreApp(ResourceNode resourceNode, String siddhiAppName, String revision) {
+            return call("restore " + resourceNode.getId() + " " + siddhiAppName + " " + revision);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.sp.jobmanager.core;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.sp.jobmanager.core.bean.InterfaceConfig;
+import org.wso2.carbon.sp.jobmanager.core.exception.ResourceManagerException;
+import org.wso2.carbon.sp.jobmanager.core.model.ManagerNode;
+import org.wso2.carbon.sp.jobmanager.core.model.ResourceNode;
+import org.wso2.carbon.sp.jobmanager.core.model.ResourcePool;
+import org.wso2.carbon.sp.jobmanager.core.model.SiddhiAppHolder;
+import org.wso2.carbon.sp.jobmanager.core.model.WorkerMetrics;
+import org.wso2.carbon.sp.jobmanager.core.util.ResourcePoolEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ResourcePoolEncoderTestCase {
+    private static final String FILTER_APP = "@App:name('filterApp')\n"
+            + "define stream stockStream(symbol string, price float, volume long);\n"
+            + "from stockStream[price > 100] select symbol, price insert into filteredStream;";
+
+    @Test
+    public void testRoundTrip() {
+        ResourcePool resourcePool = new ResourcePool("group1");
+        resourcePool.restoreLeaderNode(new ManagerNode().setId("manager1")
+                .setHttpsInterface(new InterfaceConfig("manager-host", 9543, "admin", "secret"))
+                .setHeartbeatInterval(1000)
+                .setHeartbeatMaxRetry(3));
+        ResourceNode worker1 = createNode("worker1", "worker1-host", false);
+        worker1.setState("RUNNING");
+        worker1.updateResourceMetrics(new WorkerMetrics().setProcessCPU(0.5).setTotalMemory(0.4));
+        ResourceNode worker2 = createNode("worker2", "worker2-host", false);
+        ResourceNode receiver = createNode("receiver1", "receiver1-host", true);
+        resourcePool.getResourceNodeMap().put(worker1.getId(), worker1);
+        resourcePool.getResourceNodeMap().put(worker2.getId(), worker2);
+        resourcePool.getReceiverNodeMap().put(receiver.getId(), receiver);
+
+        SiddhiAppHolder receiverGroup = new SiddhiAppHolder("app", "app-group1", "app-group1-1", FILTER_APP,
+                receiver, true, 1);
+        SiddhiAppHolder colocatedGroup = new SiddhiAppHolder("app", "app-group2", "app-group2-1", FILTER_APP,
+                worker1, false, 2);
+        colocatedGroup.setColocationGroup("app-colocation1");
+        SiddhiAppHolder undeployedGroup = new SiddhiAppHolder("app", "app-group2", "app-group2-2", FILTER_APP,
+                null, false, 2);
+        resourcePool.getSiddhiAppHoldersMap().put("app", new ArrayList<>(Arrays.asList(receiverGroup,
+                colocatedGroup, undeployedGroup)));
+        // A Siddhi app with multi byte characters, longer than the 64KB limit of DataOutputStream#writeUTF
+        StringBuilder largeApp = new StringBuilder(FILTER_APP);
+        while (largeApp.length() <= 70000) {
+            largeApp.append("\n-- ").append("\u0dc3\u0dd2\u0daf\u0dca\u0db0\u0dd2");
+        }
+        SiddhiAppHolder waitingGroup = new SiddhiAppHolder("largeApp", "largeApp-group1", "largeApp-group1-1",
+                largeApp.toString(), worker2, false, 1);
+        resourcePool.getAppsWaitingForDeploy().put("largeApp", new ArrayList<>(Collections.singletonList(
+                waitingGroup)));
+
+        Map<String, byte[]> entries = ResourcePoolEncoder.encode(resourcePool);
+        Assert.assertEquals(entries.size(), 6);
+        ResourcePool decodedPool = ResourcePoolEncoder.decode("group1", entries);
+
+        Assert.assertEquals(decodedPool.getGroupId(), "group1");
+        ManagerNode leaderNode = decodedPool.getLeaderNode();
+        Assert.assertEquals(leaderNode, resourcePool.getLeaderNode());
+        Assert.assertEquals(leaderNode.getHeartbeatInterval(), 1000);
+        Assert.assertEquals(leaderNode.getHeartbeatMaxRetry(), 3);
+        assertInterface(leaderNode.getHttpsInterface(), resourcePool.getLeaderNode().getHttpsInterface());
+
+        Assert.assertEquals(decodedPool.getResourceNodeMap(), resourcePool.getResourceNodeMap());
+        Assert.assertEquals(decodedPool.getReceiverNodeMap(), resourcePool.getReceiverNodeMap());
+        ResourceNode decodedWorker1 = decodedPool.getResourceNodeMap().get("worker1");
+        Assert.assertEquals(decodedWorker1.getState(), "RUNNING");
+        assertInterface(decodedWorker1.getHttpsInterface(), worker1.getHttpsInterface());
+        Assert.assertTrue(decodedPool.getReceiverNodeMap().get("receiver1").isReceiverNode());
+        // Metrics are refreshed by the next heartbeat rather than restored
+        Assert.assertFalse(decodedWorker1.isMetricsUpdated());
+
+        List<SiddhiAppHolder> decodedHolders = decodedPool.getSiddhiAppHoldersMap().get("app");
+        Assert.assertEquals(decodedHolders, resourcePool.getSiddhiAppHoldersMap().get("app"));
+        Assert.assertTrue(decodedHolders.get(0).isReceiverQueryGroup());
+        Assert.assertEquals(decodedHolders.get(1).getParallelism(), 2);
+        Assert.assertEquals(decodedHolders.get(1).getColocationGroup(), "app-colocation1");
+        Assert.assertNull(decodedHolders.get(0).getColocationGroup());
+        Assert.assertNull(decodedHolders.get(2).getDeployedNode());
+        // Partial Siddhi apps refer to the decoded node instances of the resource pool
+        Assert.assertSame(decodedHolders.get(0).getDeployedNode(), decodedPool.getReceiverNodeMap().get("receiver1"));
+        Assert.assertSame(decodedHolders.get(1).getDeployedNode(), decodedWorker1);
+
+        List<SiddhiAppHolder> decodedWaitingHolders = decodedPool.getAppsWaitingForDeploy().get("largeApp");
+        Assert.assertEquals(decodedWaitingHolders, Collections.singletonList(waitingGroup));
+        Assert.assertEquals(decodedWaitingHolders.get(0).getSiddhiApp(), largeApp.toString());
+        Assert.assertSame(decodedWaitingHolders.get(0).getDeployedNode(),
+                decodedPool.getResourceNodeMap().get("worker2"));
+    }
+
+    @Test
+    public void testEmptyPool() {
+        Map<String, byte[]> entries = ResourcePoolEncoder.encode(new ResourcePool("group1"));
+        Assert.assertTrue(entries.isEmpty());
+        ResourcePool decodedPool = ResourcePoolEncoder.decode("group1", entries);
+        Assert.assertNull(decodedPool.getLeaderNode());
+        Assert.assertTrue(decodedPool.getResourceNodeMap().isEmpty());
+        Assert.assertTrue(decodedPool.getSiddhiAppHoldersMap().isEmpty());
+    }
+
+    @Test
+    public void testVersion1Entries() throws IOException {
+        ResourcePool resourcePool = new ResourcePool("group1");
+        ResourceNode worker1 = createNode("worker1", "worker1-host", false);
+        resourcePool.getResourceNodeMap().put(worker1.getId(), worker1);
+        Map<String, byte[]> entries = new HashMap<>(ResourcePoolEncoder.encode(resourcePool));
+        // Partial Siddhi apps persisted before the colocation group was added
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(1);
+        out.writeInt(1);
+        writeString(out, "app");
+        writeString(out, "app-group1");
+        writeString(out, "app-group1-1");
+        writeString(out, FILTER_APP);
+        out.writeBoolean(false);
+        out.writeInt(1);
+        out.writeBoolean(true);
+        writeString(out, "worker1");
+        writeString(out, null);
+        out.writeBoolean(true);
+        writeString(out, "worker1-host");
+        out.writeInt(9443);
+        writeString(out, "admin");
+        writeString(out, "admin");
+        out.writeBoolean(false);
+        entries.put("app/app", bytes.toByteArray());
+
+        ResourcePool decodedPool = ResourcePoolEncoder.decode("group1", entries);
+        List<SiddhiAppHolder> decodedHolders = decodedPool.getSiddhiAppHoldersMap().get("app");
+        Assert.assertEquals(decodedHolders.size(), 1);
+        SiddhiAppHolder decodedHolder = decodedHolders.get(0);
+        Assert.assertEquals(decodedHolder.getAppName(), "app-group1-1");
+        Assert.assertEquals(decodedHolder.getSiddhiApp(), FILTER_APP);
+        Assert.assertEquals(decodedHolder.getParallelism(), 1);
+        Assert.assertNull(decodedHolder.getColocationGroup());
+        Assert.assertSame(decodedHolder.getDeployedNode(), decodedPool.getResourceNodeMap().get("worker1"));
+    }
+
+    @Test
+    public void testUnsupportedVersion() {
+        ResourcePool resourcePool = new ResourcePool("group1");
+        resourcePool.getResourceNodeMap().put("worker1", createNode("worker1", "worker1-host", false));
+        for (byte version : new byte[]{0, 3}) {
+            Map<String, byte[]> entries = ResourcePoolEncoder.encode(resourcePool);
+            entries.get("node/worker1")[0] = version;
+            try {
+                ResourcePoolEncoder.decode("group1", entries);
+                Assert.fail("Decoded an entry of format version " + version);
+            } catch (ResourceManagerException e) {
+                Assert.assertEquals(e.getCause().getMessage(), "Unsupported resource pool entry format version "
+                        + version);
+            }
+        }
+    }
+
+    private static ResourceNode createNode(String id, String host, boolean receiverNode) {
+        ResourceNode resourceNode = new ResourceNode(id);
+        resourceNode.setHttpsInterface(new InterfaceConfig(host, 9443, "admin", "admin"));
+        resourceNode.setReceiverNode(receiverNode);
+        return resourceNode;
+    }
+
+    private static void assertInterface(InterfaceConfig actual, InterfaceConfig expected) {
+        Assert.assertEquals(actual.getHost(), expected.getHost());
+        Assert.assertEquals(actual.getPort(), expected.getPort());
+        Assert.assertEquals(actual.getUsername(), expected.getUsername());
+        Assert.assertEquals(actual.getPassword(), expected.getPassword());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.sp.jobmanager.core;
+
+import org.apache.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.sp.jobmanager.core.bean.QueryGroupAnalysis;
+import org.wso2.carbon.sp.jobmanager.core.bean.TopologyAnalysis;
+import org.wso2.carbon.sp.jobmanager.core.topology.SiddhiTopologyAnalyzer;
+import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SiddhiTopologyAnalyzerTestCase {
+    private static final Logger log = Logger.getLogger(SiddhiTopologyAnalyzerTestCase.class);
+    private static final String SIDDHI_APP = "@App:name('AnalyzerTestPlan') "
+            + "@source(type='http', receiver.url='http://localhost:9055/endpoints/stockQuote', "
+            + "@map(type='json')) "
+            + "define stream stockStream(symbol string, price float, quantity int, tier string);\n"
+            + "@info(name = 'query1') @dist(execGroup='001', parallel='1')\n"
+            + "from stockStream[price > 100]\n"
+            + "select *\n"
+            + "insert into filteredStockStream;\n"
+            + "@info(name = 'query2') @dist(execGroup='002', parallel='1')\n"
+            + "from filteredStockStream#window.time(1 min)\n"
+            + "select symbol, avg(price) as avgPrice\n"
+            + "group by symbol\n"
+            + "insert into avgPriceStream;\n"
+            + "@info(name = 'query3') @dist(execGroup='003', parallel='2')\n"
+            + "partition with (symbol of filteredStockStream)\n"
+            + "begin\n"
+            + "from filteredStockStream#window.length(10)\n"
+            + "select symbol, max(price) as maxPrice\n"
+            + "insert into maxPriceStream;\n"
+            + "end;\n";
+
+    /**
+     * Without an input rate, query groups should be balanced against the cheapest query group, except the ones
+     * which can not be deployed in parallel.
+     */
+    @Test
+    public void testRelativeParallelismRecommendation() {
+        TopologyAnalysis topologyAnalysis = new SiddhiTopologyAnalyzer().analyze(SIDDHI_APP, 0,
+                Collections.emptyMap());
+        Map<String, QueryGroupAnalysis> queryGroups = getQueryGroups(topologyAnalysis);
+        Assert.assertEquals(queryGroups.size(), 3);
+
+        QueryGroupAnalysis filterGroup = queryGroups.get("AnalyzerTestPlan-001");
+        Assert.assertEquals(filterGroup.getEstimatedCost(), 1.2, 0.0001);
+        Assert.assertEquals(filterGroup.getRecommendedParallelism(), 1);
+        Assert.assertTrue(filterGroup.isParallelizable());
+
+        QueryGroupAnalysis windowGroup = queryGroups.get("AnalyzerTestPlan-002");
+        Assert.assertEquals(windowGroup.getEstimatedCost(), 4, 0.0001);
+        Assert.assertFalse(windowGroup.isParallelizable());
+        Assert.assertEquals(windowGroup.getRecommendedParallelism(), 1);
+
+        QueryGroupAnalysis partitionGroup = queryGroups.get("AnalyzerTestPlan-003");
+        Assert.assertEquals(partitionGroup.getEstimatedCost(), 3.5, 0.0001);
+        Assert.assertTrue(partitionGroup.isParallelizable());
+        Assert.assertEquals(partitionGroup.getConfiguredParallelism(), 2);
+        Assert.assertEquals(partitionGroup.getRecommendedParallelism(), 3);
+
+        Assert.assertEquals(topologyAnalysis.getBottleneckGroup(), "AnalyzerTestPlan-002");
+        Assert.assertEquals(topologyAnalysis.getMaxThroughput(),
+                SiddhiTopologyAnalyzer.DEFAULT_INSTANCE_CAPACITY / 4, 0.0001);
+    }
+
+    /**
+     * Observed throughput of a query group should calibrate the throughput of the other query groups, and the
+     * parallelism should be recommended to sustain the given input rate.
+     */
+    @Test
+    public void testCalibratedParallelismRecommendation() {
+        Map<String, Double> observedThroughput = new HashMap<>();
+        observedThroughput.put("001", 60000d);
+        TopologyAnalysis topologyAnalysis = new SiddhiTopologyAnalyzer().analyze(SIDDHI_APP, 50000,
+                observedThroughput);
+        Map<String, QueryGroupAnalysis> queryGroups = getQueryGroups(topologyAnalysis);
+
+        QueryGroupAnalysis filterGroup = queryGroups.get("AnalyzerTestPlan-001");
+        Assert.assertTrue(filterGroup.isCalibrated());
+        Assert.assertEquals(filterGroup.getThroughputPerInstance(), 60000, 0.0001);
+        Assert.assertEquals(filterGroup.getRecommendedParallelism(), 2);
+
+        QueryGroupAnalysis windowGroup = queryGroups.get("AnalyzerTestPlan-002");
+        Assert.assertFalse(windowGroup.isCalibrated());
+        Assert.assertEquals(windowGroup.getThroughputPerInstance(), 18000, 0.0001);
+        Assert.assertEquals(windowGroup.getRecommendedParallelism(), 1);
+
+        QueryGroupAnalysis partitionGroup = queryGroups.get("AnalyzerTestPlan-003");
+        Assert.assertEquals(partitionGroup.getRecommendedParallelism(), 4);
+
+        Assert.assertEquals(topologyAnalysis.getBottleneckGroup(), "AnalyzerTestPlan-002");
+        Assert.assertEquals(topologyAnalysis.getMaxThroughput(), 18000, 0.0001);
+    }
+
+    /**
+     * Siddhi apps which can not be deployed should not be analyzed.
+     */
+    @Test(expectedExceptions = SiddhiAppValidationException.class)
+    public void testInvalidParallelism() {
+        String siddhiApp = SIDDHI_APP.replace("@dist(execGroup='002', parallel='1')",
+                "@dist(execGroup='002', parallel='2')");
+        new SiddhiTopologyAnalyzer().analyze(siddhiApp, 0, null);
+    }
+
+    private Map<String, QueryGroupAnalysis> getQueryGroups(TopologyAnalysis topologyAnalysis) {
+        Map<String, QueryGroupAnalysis> queryGroups = new HashMap<>();
+        for (QueryGroupAnalysis queryGroupAnalysis : topologyAnalysis.getQueryGroups()) {
+            log.info(queryGroupAnalysis.getGroupName() + " cost: " + queryGroupAnalysis.getEstimatedCost()
+                    + " recommended parallelism: " + queryGroupAnalysis.getRecommendedParallelism());
+            queryGroups.put(queryGroupAnalysis.getGroupName(), queryGroupAnalysis);
+        }
+        return queryGroups;
+    }
+}
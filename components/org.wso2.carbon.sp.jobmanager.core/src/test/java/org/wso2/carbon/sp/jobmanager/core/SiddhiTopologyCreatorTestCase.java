@@ -1749,6 +1749,74 @@ public class SiddhiTopologyCreatorTestCase {
     }
 
 
+    /**
+     * Test colocating execGroups with affinity, which exchange events through the in-memory broker.
+     */
+    @Test(dependsOnMethods = "testTriggersInExecutionGroups")
+    public void testColocatedExecGroups() {
+        String siddhiApp = "@App:name('TestPlan20') \n"
+                + "@source(type='kafka', topic.list='custom_topic', group.id='1', threading.option='single.thread', "
+                + "bootstrap.servers='localhost:9092', @map(type='xml'))"
+                + "Define stream stockStream(symbol string, price float, quantity int);\n"
+                + "@info(name = 'query1')@dist(parallel='1', execGroup='001')\n"
+                + "From stockStream[price > 100]\n"
+                + "Select *\n"
+                + "Insert into filteredStockStream;\n"
+                + "@info(name = 'query2')@dist(parallel='1', execGroup='002', affinity='001')\n"
+                + "From filteredStockStream\n"
+                + "Select symbol, price\n"
+                + "Insert into outputStream;\n"
+                + "@info(name = 'query3')@dist(parallel='2', execGroup='003')\n"
+                + "From filteredStockStream\n"
+                + "Select symbol, quantity\n"
+                + "Insert into quantityStream;\n";
+        SiddhiTopologyCreatorImpl siddhiTopologyCreator = new SiddhiTopologyCreatorImpl();
+        SiddhiTopology topology = siddhiTopologyCreator.createTopology(siddhiApp);
+        SiddhiAppCreator appCreator = new KafkaSiddhiAppCreator();
+        List<DeployableSiddhiQueryGroup> queryGroupList = appCreator.createApps(topology);
+
+        Map<String, DeployableSiddhiQueryGroup> queryGroupMap = new HashMap<>();
+        for (DeployableSiddhiQueryGroup queryGroup : queryGroupList) {
+            queryGroupMap.put(queryGroup.getGroupName(), queryGroup);
+        }
+        Assert.assertEquals(queryGroupMap.get("TestPlan20-001").getColocationGroup(), "TestPlan20-001");
+        Assert.assertEquals(queryGroupMap.get("TestPlan20-002").getColocationGroup(), "TestPlan20-001");
+        Assert.assertNull(queryGroupMap.get("TestPlan20-003").getColocationGroup());
+        String producerApp = queryGroupMap.get("TestPlan20-001").getSiddhiQueries().get(0).getApp();
+        Assert.assertTrue(producerApp.contains("@sink(type='inMemory', topic='TestPlan20.filteredStockStream'"),
+                "In-memory sink should be added for the colocated execGroup");
+        Assert.assertTrue(producerApp.contains("@sink(type='kafka', topic='TestPlan20.filteredStockStream'"),
+                "Kafka sink should be kept for the execGroup which is not colocated");
+        String consumerApp = queryGroupMap.get("TestPlan20-002").getSiddhiQueries().get(0).getApp();
+        Assert.assertTrue(consumerApp.contains("@source(type='inMemory', topic='TestPlan20.filteredStockStream'"),
+                "In-memory source should be used by the colocated execGroup");
+        Assert.assertFalse(consumerApp.contains("type='kafka'"), "Colocated execGroup should not consume from Kafka");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        try {
+            Map<String, List<SiddhiAppRuntime>> siddhiAppRuntimeMap = createSiddhiAppRuntimes(siddhiManager,
+                    queryGroupList);
+            siddhiAppRuntimeMap.get("TestPlan20-002").get(0).addCallback("outputStream", new StreamCallback() {
+                @Override
+                public void receive(Event[] events) {
+                    EventPrinter.print(events);
+                    count.addAndGet(events.length);
+                }
+            });
+            InputHandler stockStreamHandler = siddhiAppRuntimeMap.get("TestPlan20-001").get(0)
+                    .getInputHandler("stockStream");
+            stockStreamHandler.send(new Object[]{"WSO2", 150F, 2});
+            stockStreamHandler.send(new Object[]{"WSO2", 50F, 2});
+            SiddhiTestHelper.waitForEvents(100, 1, count, 3000);
+            Assert.assertEquals(count.intValue(), 1);
+        } catch (InterruptedException e) {
+            log.error(e.getMessage(), e);
+        } finally {
+            siddhiManager.shutdown();
+        }
+    }
+
+
     private Map<String, List<SiddhiAppRuntime>> createSiddhiAppRuntimes(
             SiddhiManager siddhiManager, List<DeployableSiddhiQueryGroup> queryGroupList) {
         Map<String, List<SiddhiAppRuntime>> siddhiAppRuntimeMap = new HashMap<>(queryGroupList.size());
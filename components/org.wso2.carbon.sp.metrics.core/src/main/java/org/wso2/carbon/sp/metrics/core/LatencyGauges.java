@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core;
+
+import org.wso2.carbon.metrics.core.Gauge;
+import org.wso2.carbon.metrics.core.Level;
+import org.wso2.carbon.metrics.core.MetricManagementService;
+import org.wso2.carbon.metrics.core.MetricService;
+import org.wso2.carbon.sp.metrics.core.internal.SPMetricsDataHolder;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carbon Metrics gauges exporting the merged snapshot of a {@link LatencyHistogram}. The gauge with the name of the
+ * latency tracker reports the mean, and the gauges with the suffixes below report the count, the percentiles and the
+ * maximum. Latencies are reported in milliseconds.
+ * <p>
+ * The snapshot is taken at most once per second and shared by all gauges, so a reporter reading every gauge merges
+ * the recorders of the histogram once.
+ */
+public class LatencyGauges {
+    public static final String METRIC_SUFFIX_COUNT = ".count";
+    public static final String METRIC_SUFFIX_P50 = ".p50";
+    public static final String METRIC_SUFFIX_P95 = ".p95";
+    public static final String METRIC_SUFFIX_P99 = ".p99";
+    public static final String METRIC_SUFFIX_MAX = ".max";
+    private static final long SNAPSHOT_MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double NANOS_PER_MILLI = 1000000d;
+
+    private final LatencyHistogram latencyHistogram;
+    private final MetricService metricService;
+    private final Map<String, Gauge<? extends Number>> gauges = new LinkedHashMap<>();
+    private LatencyHistogram.Snapshot snapshot;
+    private long snapshotTime;
+    private boolean enabled;
+
+    public LatencyGauges(String name, LatencyHistogram latencyHistogram, MetricService metricService) {
+        this.latencyHistogram = latencyHistogram;
+        this.metricService = metricService;
+        gauges.put(name, new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                return getSnapshot().getMean() / NANOS_PER_MILLI;
+            }
+        });
+        gauges.put(name + METRIC_SUFFIX_COUNT, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return getSnapshot().getCount();
+            }
+        });
+        gauges.put(name + METRIC_SUFFIX_P50, percentileGauge(50));
+        gauges.put(name + METRIC_SUFFIX_P95, percentileGauge(95));
+        gauges.put(name + METRIC_SUFFIX_P99, percentileGauge(99));
+        gauges.put(name + METRIC_SUFFIX_MAX, percentileGauge(100));
+        setEnabled(true);
+    }
+
+    /**
+     * Registers the gauges with Carbon Metrics, or removes them so that they are not reported.
+     *
+     * @param enabled whether the gauges are reported
+     */
+    public synchronized void setEnabled(boolean enabled) {
+        MetricManagementService metricManagementService =
+                SPMetricsDataHolder.getInstance().getMetricManagementService();
+        for (Map.Entry<String, Gauge<? extends Number>> gauge : gauges.entrySet()) {
+            if (enabled) {
+                // Replaces the gauge of a previous tracker with the same name, such as the one of a hot swapped app
+                metricService.remove(gauge.getKey());
+                metricService.gauge(gauge.getKey(), Level.INFO, gauge.getValue());
+                if (metricManagementService != null) {
+                    metricManagementService.setMetricLevel(gauge.getKey(), Level.INFO);
+                }
+            } else {
+                metricService.remove(gauge.getKey());
+            }
+        }
+        this.enabled = enabled;
+    }
+
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return gauges by their Carbon Metrics names
+     */
+    public Map<String, Gauge<? extends Number>> getGauges() {
+        return Collections.unmodifiableMap(gauges);
+    }
+
+    private Gauge<Double> percentileGauge(final double percentile) {
+        return new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                return getSnapshot().getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+            }
+        };
+    }
+
+    private synchronized LatencyHistogram.Snapshot getSnapshot() {
+        long currentTime = System.nanoTime();
+        if (snapshot == null || currentTime - snapshotTime >= SNAPSHOT_MAX_AGE_NANOS) {
+            snapshot = latencyHistogram.getSnapshot();
+            snapshotTime = currentTime;
+        }
+        return snapshot;
+    }
+}
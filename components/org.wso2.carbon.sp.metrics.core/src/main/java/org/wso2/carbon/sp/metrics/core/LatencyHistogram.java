@@ -0,0 +1,349 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear latency histogram with one single-writer recorder per thread. Recording does not allocate or contend
+ * between threads, and the recorders are merged when the histogram is read.
+ * <p>
+ * Values are kept in buckets with 16 linear sub-buckets per power of two, which bounds the relative error of the
+ * reported values to about 6%. The recorders of threads that have terminated are folded into the histogram when it
+ * is next read, so that short lived threads do not leave their recorders behind. The merged values are exported to
+ * Carbon Metrics through {@link LatencyGauges}.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_VALUE_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+    private static final int SUM_INDEX = BUCKET_COUNT;
+    private static final int MAX_INDEX = BUCKET_COUNT + 1;
+
+    private final List<Recorder> recorders = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Recorder> recorder = ThreadLocal.withInitial(this::createRecorder);
+    // Values of the recorders of terminated threads, which are only accessed while holding the lock of the histogram
+    private final long[] retiredValues = new long[BUCKET_COUNT + 2];
+
+    /**
+     * @return the recorder of the calling thread. The recorder must only be used by that thread.
+     */
+    public Recorder getRecorder() {
+        return recorder.get();
+    }
+
+    /**
+     * Records a latency value in nanoseconds on behalf of the calling thread.
+     *
+     * @param nanos latency in nanoseconds
+     */
+    public void record(long nanos) {
+        recorder.get().record(nanos);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (long bucket : getMergedCounts()) {
+            count += bucket;
+        }
+        return count;
+    }
+
+    /**
+     * @return mean of the recorded values in nanoseconds, or 0 if no value is recorded
+     */
+    public double getMean() {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        return (double) getSum() / count;
+    }
+
+    /**
+     * @return sum of the recorded values in nanoseconds
+     */
+    public synchronized long getSum() {
+        retireRecorders();
+        long sum = retiredValues[SUM_INDEX];
+        for (Recorder recorder : recorders) {
+            sum += recorder.values.get(SUM_INDEX);
+        }
+        return sum;
+    }
+
+    /**
+     * @return maximum recorded value in nanoseconds
+     */
+    public synchronized long getMax() {
+        retireRecorders();
+        long max = retiredValues[MAX_INDEX];
+        for (Recorder recorder : recorders) {
+            max = Math.max(max, recorder.values.get(MAX_INDEX));
+        }
+        return max;
+    }
+
+    /**
+     * @param percentile percentile in the range [0, 100]
+     * @return approximate recorded value at the given percentile in nanoseconds
+     */
+    public long getValueAtPercentile(double percentile) {
+        return getSnapshot().getValueAtPercentile(percentile);
+    }
+
+    /**
+     * @return point in time copy of the recorded values, which can be diffed with an earlier snapshot to get the
+     * values recorded in between
+     */
+    public synchronized Snapshot getSnapshot() {
+        return new Snapshot(getMergedCounts(), getSum());
+    }
+
+    /**
+     * @return number of recorders of threads that are alive, or were alive when the histogram was last read
+     */
+    public int getRecorderCount() {
+        return recorders.size();
+    }
+
+    private synchronized long[] getMergedCounts() {
+        retireRecorders();
+        long[] counts = new long[BUCKET_COUNT];
+        System.arraycopy(retiredValues, 0, counts, 0, BUCKET_COUNT);
+        for (Recorder recorder : recorders) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] += recorder.values.get(i);
+            }
+        }
+        return counts;
+    }
+
+    private Recorder createRecorder() {
+        Recorder recorder = new Recorder(Thread.currentThread());
+        recorders.add(recorder);
+        return recorder;
+    }
+
+    /**
+     * Folds the values of the recorders of terminated threads into the retired values and drops the recorders.
+     * Seeing a thread terminated guarantees that all of its writes are visible, so no value is lost.
+     */
+    private void retireRecorders() {
+        for (Recorder recorder : recorders) {
+            Thread owner = recorder.owner.get();
+            if (owner == null || !owner.isAlive()) {
+                for (int i = 0; i < BUCKET_COUNT; i++) {
+                    retiredValues[i] += recorder.values.get(i);
+                }
+                retiredValues[SUM_INDEX] += recorder.values.get(SUM_INDEX);
+                retiredValues[MAX_INDEX] = Math.max(retiredValues[MAX_INDEX], recorder.values.get(MAX_INDEX));
+                recorders.remove(recorder);
+            }
+        }
+    }
+
+    static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) Math.max(value, 0);
+        }
+        long boundedValue = Math.min(value, MAX_VALUE);
+        int shift = 63 - Long.numberOfLeadingZeros(boundedValue) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) ((boundedValue >>> shift) - SUB_BUCKET_COUNT);
+    }
+
+    static long getRepresentativeValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowerBound + ((1L << shift) >> 1);
+    }
+
+    /**
+     * Immutable bucket counts of a histogram. Snapshots are mergeable, so that values recorded over several intervals
+     * can be combined without losing the percentiles.
+     */
+    public static class Snapshot {
+        private final long[] counts;
+        private final long sum;
+        private final long count;
+
+        private Snapshot(long[] counts, long sum) {
+            this.counts = counts;
+            this.sum = sum;
+            long count = 0;
+            for (long bucket : counts) {
+                count += bucket;
+            }
+            this.count = count;
+        }
+
+        public static Snapshot empty() {
+            return new Snapshot(new long[BUCKET_COUNT], 0);
+        }
+
+        /**
+         * @param previous snapshot taken earlier from the same histogram
+         * @return values recorded after the previous snapshot was taken
+         */
+        public Snapshot minus(Snapshot previous) {
+            long[] deltaCounts = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                deltaCounts[i] = Math.max(counts[i] - previous.counts[i], 0);
+            }
+            return new Snapshot(deltaCounts, Math.max(sum - previous.sum, 0));
+        }
+
+        /**
+         * @param other snapshot of values recorded in another interval
+         * @return values of both snapshots
+         */
+        public Snapshot plus(Snapshot other) {
+            long[] mergedCounts = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                mergedCounts[i] = counts[i] + other.counts[i];
+            }
+            return new Snapshot(mergedCounts, sum + other.sum);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return sum of the values in nanoseconds
+         */
+        public long getSum() {
+            return sum;
+        }
+
+        /**
+         * @return mean of the values in nanoseconds, or 0 if there are no values
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * @return approximate standard deviation of the values in nanoseconds
+         */
+        public double getStdDev() {
+            if (count < 2) {
+                return 0;
+            }
+            double mean = getMean();
+            double variance = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                if (counts[i] > 0) {
+                    double deviation = getRepresentativeValue(i) - mean;
+                    variance += deviation * deviation * counts[i];
+                }
+            }
+            return Math.sqrt(variance / (count - 1));
+        }
+
+        /**
+         * @return approximate minimum value in nanoseconds
+         */
+        public long getMin() {
+            return getValueAtPercentile(0);
+        }
+
+        /**
+         * @return approximate maximum value in nanoseconds
+         */
+        public long getMax() {
+            return getValueAtPercentile(100);
+        }
+
+        /**
+         * @param percentile percentile in the range [0, 100]
+         * @return approximate value at the given percentile in nanoseconds
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return getRepresentativeValue(i);
+                }
+            }
+            return getRepresentativeValue(BUCKET_COUNT - 1);
+        }
+    }
+
+    /**
+     * Recorder owned by a single thread. Values are published with ordered writes, so that readers on other threads
+     * see them without the owner paying for a CAS.
+     */
+    public static class Recorder {
+        private final AtomicLongArray values = new AtomicLongArray(BUCKET_COUNT + 2);
+        private final WeakReference<Thread> owner;
+        private long startTime;
+        private boolean started;
+
+        private Recorder(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        public void record(long nanos) {
+            int index = getBucketIndex(nanos);
+            values.lazySet(index, values.get(index) + 1);
+            values.lazySet(SUM_INDEX, values.get(SUM_INDEX) + nanos);
+            if (nanos > values.get(MAX_INDEX)) {
+                values.lazySet(MAX_INDEX, nanos);
+            }
+        }
+
+        /**
+         * Marks the start of a measurement by the owner thread.
+         *
+         * @return false if a measurement is already in progress
+         */
+        public boolean start() {
+            if (started) {
+                return false;
+            }
+            startTime = System.nanoTime();
+            started = true;
+            return true;
+        }
+
+        /**
+         * Records the time elapsed since {@link #start()}, if a measurement is in progress.
+         */
+        public void stop() {
+            if (started) {
+                record(System.nanoTime() - startTime);
+                started = false;
+            }
+        }
+    }
+}
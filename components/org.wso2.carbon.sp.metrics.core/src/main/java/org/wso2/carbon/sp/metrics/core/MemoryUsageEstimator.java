@@ -0,0 +1,141 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.siddhi.core.util.statistics.memory.ObjectSizeCalculator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes the memory usage of the objects tracked by {@link SPMemoryUsageMetric} on a low priority background
+ * thread, so that metric reporters only read cached sizes.
+ * <p>
+ * Objects are tracked from the time they are registered, so their gauges have a size by the time they are first
+ * read. Each estimation cycle recomputes the sizes older than the configured TTL, oldest first, until the per cycle
+ * time budget is spent. Objects whose gauge has not been read for a few TTL periods are no longer recomputed until
+ * they are read again, and objects that have been garbage collected are dropped.
+ */
+final class MemoryUsageEstimator {
+    private static final Logger log = LoggerFactory.getLogger(MemoryUsageEstimator.class);
+
+    static final String MEMORY_USAGE_TTL = "memoryUsageMetricsTTL";
+    static final String MEMORY_USAGE_INTERVAL = "memoryUsageMetricsInterval";
+    static final String MEMORY_USAGE_BUDGET = "memoryUsageMetricsBudget";
+    private static final long IDLE_TTL_COUNT = 3;
+
+    private static final MemoryUsageEstimator instance = new MemoryUsageEstimator(
+            Long.getLong(MEMORY_USAGE_TTL, 30000), Long.getLong(MEMORY_USAGE_INTERVAL, 5000),
+            Long.getLong(MEMORY_USAGE_BUDGET, 100));
+
+    private final Set<SPMemoryUsageMetric.ObjectMetric> trackedObjects = ConcurrentHashMap.newKeySet();
+    private final long ttlMillis;
+    private final long intervalMillis;
+    private final long budgetNanos;
+    private volatile ScheduledExecutorService executorService;
+
+    private MemoryUsageEstimator(long ttlMillis, long intervalMillis, long budgetMillis) {
+        this.ttlMillis = ttlMillis;
+        this.intervalMillis = intervalMillis;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    }
+
+    static MemoryUsageEstimator getInstance() {
+        return instance;
+    }
+
+    void track(SPMemoryUsageMetric.ObjectMetric objectMetric) {
+        if (trackedObjects.add(objectMetric)) {
+            start();
+        }
+    }
+
+    boolean isTracked(SPMemoryUsageMetric.ObjectMetric objectMetric) {
+        return trackedObjects.contains(objectMetric);
+    }
+
+    private void start() {
+        if (executorService == null) {
+            synchronized (this) {
+                if (executorService == null) {
+                    ScheduledExecutorService scheduledExecutorService =
+                            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                                Thread thread = new Thread(runnable, "Siddhi-MemoryUsageEstimator");
+                                thread.setDaemon(true);
+                                thread.setPriority(Thread.MIN_PRIORITY);
+                                return thread;
+                            });
+                    scheduledExecutorService.scheduleWithFixedDelay(this::estimate, 0, intervalMillis,
+                            TimeUnit.MILLISECONDS);
+                    executorService = scheduledExecutorService;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a single estimation cycle. At least one stale object is sized per cycle, so that objects larger than the
+     * budget are still measured eventually.
+     */
+    void estimate() {
+        try {
+            long now = System.currentTimeMillis();
+            List<SPMemoryUsageMetric.ObjectMetric> staleObjects = new ArrayList<>();
+            for (SPMemoryUsageMetric.ObjectMetric objectMetric : trackedObjects) {
+                if (objectMetric.getObject() == null
+                        || now - objectMetric.getLastReadTime() > IDLE_TTL_COUNT * ttlMillis) {
+                    trackedObjects.remove(objectMetric);
+                } else if (now - objectMetric.getLastEstimatedTime() >= ttlMillis) {
+                    staleObjects.add(objectMetric);
+                }
+            }
+            staleObjects.sort(Comparator.comparingLong(SPMemoryUsageMetric.ObjectMetric::getLastEstimatedTime));
+            long deadline = System.nanoTime() + budgetNanos;
+            for (SPMemoryUsageMetric.ObjectMetric objectMetric : staleObjects) {
+                Object object = objectMetric.getObject();
+                if (object == null) {
+                    trackedObjects.remove(objectMetric);
+                    continue;
+                }
+                objectMetric.setEstimatedSize(calculateSize(object));
+                if (System.nanoTime() - deadline >= 0) {
+                    break;
+                }
+            }
+        } catch (Throwable t) {
+            log.error("Error while estimating memory usage of Siddhi components.", t);
+        }
+    }
+
+    private static long calculateSize(Object object) {
+        try {
+            return ObjectSizeCalculator.getObjectSize(object);
+        } catch (UnsupportedOperationException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically samples the Siddhi metric trackers which need samples at regular intervals, such as the event buffers,
+ * whose oldest event age is derived from the history of the sampled counts. Trackers whose values can be computed when
+ * they are reported, such as the throughput trackers, are not drained. Trackers are weakly referenced and are dropped
+ * once their Siddhi App is garbage collected.
+ */
+final class MetricsDrainer {
+    private static final Logger log = LoggerFactory.getLogger(MetricsDrainer.class);
+    private static final long DRAIN_INTERVAL_MILLIS = 1000;
+
+    private static final Set<Drainable> drainables =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private static volatile ScheduledExecutorService executorService;
+
+    private MetricsDrainer() {
+    }
+
+    static void register(Drainable drainable) {
+        drainables.add(drainable);
+        if (executorService == null) {
+            synchronized (MetricsDrainer.class) {
+                if (executorService == null) {
+                    ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
+                            runnable -> {
+                                Thread thread = new Thread(runnable, "Siddhi-MetricsDrainer");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                    scheduledExecutorService.scheduleWithFixedDelay(MetricsDrainer::drainAll, DRAIN_INTERVAL_MILLIS,
+                            DRAIN_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    executorService = scheduledExecutorService;
+                }
+            }
+        }
+    }
+
+    private static void drainAll() {
+        List<Drainable> registered;
+        synchronized (drainables) {
+            registered = new ArrayList<>(drainables);
+        }
+        for (Drainable drainable : registered) {
+            try {
+                drainable.drain();
+            } catch (Throwable t) {
+                log.error("Error while sampling Siddhi statistics.", t);
+            }
+        }
+    }
+
+    /**
+     * Tracker sampled at regular intervals.
+     */
+    interface Drainable {
+        void drain();
+    }
+}
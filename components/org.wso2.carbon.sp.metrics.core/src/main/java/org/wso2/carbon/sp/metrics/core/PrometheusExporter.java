@@ -0,0 +1,204 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core;
+
+import org.wso2.carbon.metrics.core.Gauge;
+import org.wso2.carbon.sp.metrics.core.internal.SPMetricsManagement;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Renders the enabled metrics registered in {@link SPMetricsManagement} in the Prometheus text exposition format.
+ * <p>
+ * The output is rendered straight from the in memory trackers and is cached for a configurable period, so that
+ * concurrent or frequent scrapes render it only once.
+ */
+public class PrometheusExporter {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    public static final String CACHE_PERIOD = "prometheusMetricsCachePeriod";
+
+    private static final String SIDDHI_APP_METRIC_PREFIX = "org.wso2.siddhi.SiddhiApps.";
+    private static final double NANOS_PER_SECOND = 1000000000d;
+    private static final double MILLIS_PER_SECOND = 1000d;
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    private static final String THROUGHPUT = "sp_throughput_events_total";
+    private static final String LATENCY = "sp_latency_seconds";
+    private static final String END_TO_END_LATENCY = "sp_end_to_end_latency_seconds";
+    private static final String DURATION = "sp_duration_seconds";
+    private static final String MEMORY = "sp_memory_bytes";
+    private static final String BUFFERED_EVENTS = "sp_buffered_events";
+    private static final String CPU_USAGE = "sp_cpu_usage_cores";
+    private static final String ALLOCATION_RATE = "sp_allocation_rate_bytes";
+    private static final String BUFFER_CAPACITY = "sp_buffer_capacity_events";
+    private static final String BUFFER_ENQUEUE_RATE = "sp_buffer_enqueue_rate_events";
+    private static final String BUFFER_DEQUEUE_RATE = "sp_buffer_dequeue_rate_events";
+    private static final String BUFFER_BLOCKED_TIME = "sp_buffer_blocked_seconds";
+    private static final String BUFFER_OLDEST_EVENT_AGE = "sp_buffer_oldest_event_age_seconds";
+    private static final String GAUGE = "sp_gauge";
+
+    private static final PrometheusExporter instance = new PrometheusExporter(Long.getLong(CACHE_PERIOD, 1000));
+
+    private final long cachePeriodMillis;
+    private volatile byte[] cachedOutput;
+    private volatile long renderedTime;
+    private int lastOutputSize = 4096;
+
+    public PrometheusExporter(long cachePeriodMillis) {
+        this.cachePeriodMillis = cachePeriodMillis;
+    }
+
+    public static PrometheusExporter getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return UTF-8 encoded metrics in the Prometheus text format, rendered at most once per cache period
+     */
+    public byte[] scrape() {
+        byte[] output = cachedOutput;
+        if (output != null && System.currentTimeMillis() - renderedTime < cachePeriodMillis) {
+            return output;
+        }
+        synchronized (this) {
+            if (cachedOutput != null && System.currentTimeMillis() - renderedTime < cachePeriodMillis) {
+                return cachedOutput;
+            }
+            output = render().getBytes(StandardCharsets.UTF_8);
+            lastOutputSize = output.length;
+            cachedOutput = output;
+            renderedTime = System.currentTimeMillis();
+            return output;
+        }
+    }
+
+    private String render() {
+        Map<String, StringBuilder> families = new TreeMap<>();
+        SPMetricsManagement metricsManagement = SPMetricsManagement.getInstance();
+        for (Map.Entry<String, ? extends Map<String, Object>> component :
+                metricsManagement.getRegisteredMetrics().entrySet()) {
+            if (!metricsManagement.isMetricsEnabled(component.getKey())) {
+                continue;
+            }
+            for (Map.Entry<String, Object> metric : component.getValue().entrySet()) {
+                // Disabled metrics are not read, as reading some gauges starts their tracking
+                SPMetricsManagement.MetricType metricType =
+                        metricsManagement.getMetricType(component.getKey(), metric.getKey());
+                if (metricType != null && metricsManagement.isMetricsEnabled(component.getKey(), metricType)) {
+                    renderMetric(families, component.getKey(), metric.getKey(), metric.getValue());
+                }
+            }
+        }
+        StringBuilder output = new StringBuilder(lastOutputSize + lastOutputSize / 8);
+        for (Map.Entry<String, StringBuilder> family : families.entrySet()) {
+            output.append(family.getValue());
+        }
+        return output.toString();
+    }
+
+    private void renderMetric(Map<String, StringBuilder> families, String componentName, String metricName,
+                              Object metric) {
+        if (metric instanceof SPThroughputMetric) {
+            String labels = labels(componentName, elementName(componentName, metricName));
+            sample(family(families, THROUGHPUT, "counter"), THROUGHPUT, labels,
+                    ((SPThroughputMetric) metric).getCount());
+        } else if (metric instanceof SPLatencyMetric) {
+            renderSummary(family(families, LATENCY, "summary"), LATENCY,
+                    labels(componentName, elementName(componentName, metricName)),
+                    ((SPLatencyMetric) metric).getLatencyHistogram());
+        } else if (metric instanceof SPEndToEndLatencyMetric) {
+            renderSummary(family(families, END_TO_END_LATENCY, "summary"), END_TO_END_LATENCY,
+                    labels(componentName, elementName(componentName, metricName)),
+                    ((SPEndToEndLatencyMetric) metric).getLatencyHistogram());
+        } else if (metric instanceof LatencyHistogram) {
+            renderSummary(family(families, DURATION, "summary"), DURATION, labels(componentName, metricName),
+                    (LatencyHistogram) metric);
+        } else if (metric instanceof Gauge) {
+            Object value = ((Gauge<?>) metric).getValue();
+            if (!(value instanceof Number)) {
+                return;
+            }
+            String familyName = metricName.endsWith(".memory") ? MEMORY :
+                    metricName.endsWith(".size") ? BUFFERED_EVENTS :
+                    metricName.endsWith(".capacity") ? BUFFER_CAPACITY :
+                    metricName.endsWith(".enqueueRate") ? BUFFER_ENQUEUE_RATE :
+                    metricName.endsWith(".dequeueRate") ? BUFFER_DEQUEUE_RATE :
+                    metricName.endsWith(".blockedTime") ? BUFFER_BLOCKED_TIME :
+                    metricName.endsWith(".oldestEventAge") ? BUFFER_OLDEST_EVENT_AGE :
+                    metricName.endsWith(".ResourceUsage.cpu") ? CPU_USAGE :
+                    metricName.endsWith(".ResourceUsage.allocation") ? ALLOCATION_RATE : GAUGE;
+            String name = familyName.equals(GAUGE) ? metricName : elementName(componentName, metricName);
+            double sampleValue = ((Number) value).doubleValue();
+            if (familyName.equals(BUFFER_BLOCKED_TIME) || familyName.equals(BUFFER_OLDEST_EVENT_AGE)) {
+                sampleValue /= MILLIS_PER_SECOND;
+            }
+            sample(family(families, familyName, "gauge"), familyName, labels(componentName, name), sampleValue);
+        }
+    }
+
+    private static void renderSummary(StringBuilder family, String familyName, String labels,
+                                      LatencyHistogram latencyHistogram) {
+        for (double quantile : QUANTILES) {
+            String quantileLabels = labels.substring(0, labels.length() - 1) + ",quantile=\"" + quantile + "\"}";
+            sample(family, familyName, quantileLabels,
+                    latencyHistogram.getValueAtPercentile(quantile * 100) / NANOS_PER_SECOND);
+        }
+        sample(family, familyName + "_sum", labels, latencyHistogram.getSum() / NANOS_PER_SECOND);
+        sample(family, familyName + "_count", labels, latencyHistogram.getCount());
+    }
+
+    private static StringBuilder family(Map<String, StringBuilder> families, String familyName, String type) {
+        return families.computeIfAbsent(familyName, key ->
+                new StringBuilder("# TYPE ").append(familyName).append(' ').append(type).append('\n'));
+    }
+
+    private static void sample(StringBuilder family, String sampleName, String labels, double value) {
+        family.append(sampleName).append(labels).append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            family.append((long) value);
+        } else {
+            family.append(value);
+        }
+        family.append('\n');
+    }
+
+    /**
+     * Strips the Siddhi App prefix and the metric type suffix from Siddhi metric names, e.g.
+     * org.wso2.siddhi.SiddhiApps.App.Siddhi.Queries.query1.latency becomes Siddhi.Queries.query1
+     */
+    private static String elementName(String componentName, String metricName) {
+        String name = metricName;
+        String prefix = SIDDHI_APP_METRIC_PREFIX + componentName + ".";
+        if (name.startsWith(prefix)) {
+            name = name.substring(prefix.length());
+        }
+        int suffixIndex = name.lastIndexOf('.');
+        return suffixIndex > 0 ? name.substring(0, suffixIndex) : name;
+    }
+
+    private static String labels(String componentName, String name) {
+        return "{component=\"" + escape(componentName) + "\",name=\"" + escape(name) + "\"}";
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core;
+
+/**
+ * Derives the mean and the exponentially weighted one, five and fifteen minute rates of a counter from its
+ * sampled values. Timestamps are in milliseconds. Not thread safe.
+ */
+public final class RateTracker {
+    private static final double[] WINDOWS_SECONDS = {60, 300, 900};
+
+    private final long startCount;
+    private final long startTime;
+    private final double[] movingRates = new double[WINDOWS_SECONDS.length];
+    private long lastCount;
+    private long lastTime;
+    private boolean initialized;
+
+    public RateTracker(long count, long timestamp) {
+        this.startCount = count;
+        this.startTime = timestamp;
+        this.lastCount = count;
+        this.lastTime = timestamp;
+    }
+
+    /**
+     * @return mean, one minute, five minute and fifteen minute rates in events per second
+     */
+    public double[] update(long count, long timestamp) {
+        double intervalSeconds = (timestamp - lastTime) / 1000d;
+        if (intervalSeconds > 0) {
+            double rate = Math.max(count - lastCount, 0) / intervalSeconds;
+            for (int i = 0; i < WINDOWS_SECONDS.length; i++) {
+                if (initialized) {
+                    double alpha = 1 - Math.exp(-intervalSeconds / WINDOWS_SECONDS[i]);
+                    movingRates[i] += alpha * (rate - movingRates[i]);
+                } else {
+                    movingRates[i] = rate;
+                }
+            }
+            initialized = true;
+            lastCount = count;
+            lastTime = timestamp;
+        }
+        double elapsedSeconds = (timestamp - startTime) / 1000d;
+        double meanRate = elapsedSeconds > 0 ? Math.max(count - startCount, 0) / elapsedSeconds : 0;
+        return new double[]{meanRate, movingRates[0], movingRates[1], movingRates[2]};
+    }
+}
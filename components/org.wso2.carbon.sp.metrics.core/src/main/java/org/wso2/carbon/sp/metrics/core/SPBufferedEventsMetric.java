@@ -22,16 +22,37 @@ import org.wso2.carbon.metrics.core.Gauge;
 import org.wso2.carbon.metrics.core.Level;
 import org.wso2.carbon.metrics.core.MetricService;
 import org.wso2.carbon.sp.metrics.core.internal.SPMetricsManagement;
+import org.wso2.carbon.sp.metrics.core.internal.SPMetricsManagement.MetricType;
 import org.wso2.siddhi.core.util.statistics.BufferedEventsTracker;
 import org.wso2.siddhi.core.util.statistics.EventBufferHolder;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Siddhi Memory usage MMetrics Tracker.
+ * Siddhi buffered events metrics tracker. Reports the depth of every event buffer of a Siddhi App, and for the buffers
+ * backed by a ring buffer such as the async stream junctions, also the capacity, the enqueue and dequeue rates, the
+ * estimated time producers were blocked on a full buffer and the age of the oldest buffered event.
+ * <p>
+ * Nothing is measured on the processing threads. The buffers are sampled once per drain interval of
+ * {@link MetricsDrainer} while the buffered events metrics of the Siddhi App are enabled, and the oldest event age is
+ * derived from the times at which the enqueued event count was sampled.
  */
-public class SPBufferedEventsMetric implements BufferedEventsTracker {
+public class SPBufferedEventsMetric implements BufferedEventsTracker, MetricsDrainer.Drainable {
+    private static final String METRIC_SUFFIX_SIZE = ".size";
+    private static final String METRIC_SUFFIX_CAPACITY = ".capacity";
+    private static final String METRIC_SUFFIX_ENQUEUE_RATE = ".enqueueRate";
+    private static final String METRIC_SUFFIX_DEQUEUE_RATE = ".dequeueRate";
+    private static final String METRIC_SUFFIX_BLOCKED_TIME = ".blockedTime";
+    private static final String METRIC_SUFFIX_OLDEST_EVENT_AGE = ".oldestEventAge";
+    private static final int HISTORY_SIZE = 64;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final Map<Class<?>, RingBufferAccessor> ringBufferAccessors = new ConcurrentHashMap<>();
+
     private ConcurrentMap<Object, ObjectMetric> registeredObjects = new ConcurrentHashMap<Object, ObjectMetric>();
     private MetricService metricService;
     private String siddhiAppName;
@@ -50,25 +71,35 @@ public class SPBufferedEventsMetric implements BufferedEventsTracker {
     @Override
     public void registerEventBufferHolder(EventBufferHolder eventBufferHolder, String bufferedEventsTrackerId) {
         if (registeredObjects.get(eventBufferHolder) == null) {
-            registeredObjects.put(eventBufferHolder, new ObjectMetric(eventBufferHolder, bufferedEventsTrackerId));
-            SPMetricsManagement.getInstance().addComponent(siddhiAppName, bufferedEventsTrackerId);
+            ObjectMetric objectMetric = new ObjectMetric(eventBufferHolder, bufferedEventsTrackerId);
+            if (registeredObjects.putIfAbsent(eventBufferHolder, objectMetric) != null) {
+                return;
+            }
+            SPMetricsManagement metricsManagement = SPMetricsManagement.getInstance();
+            metricsManagement.registerMetric(siddhiAppName, bufferedEventsTrackerId, objectMetric.getGauge(),
+                    MetricType.BUFFERED_EVENTS);
+            metricsManagement.registerMetric(siddhiAppName, objectMetric.baseName + METRIC_SUFFIX_CAPACITY,
+                    objectMetric.capacityGauge, MetricType.BUFFERED_EVENTS);
+            metricsManagement.registerMetric(siddhiAppName, objectMetric.baseName + METRIC_SUFFIX_ENQUEUE_RATE,
+                    objectMetric.enqueueRateGauge, MetricType.BUFFERED_EVENTS);
+            metricsManagement.registerMetric(siddhiAppName, objectMetric.baseName + METRIC_SUFFIX_DEQUEUE_RATE,
+                    objectMetric.dequeueRateGauge, MetricType.BUFFERED_EVENTS);
+            metricsManagement.registerMetric(siddhiAppName, objectMetric.baseName + METRIC_SUFFIX_BLOCKED_TIME,
+                    objectMetric.blockedTimeGauge, MetricType.BUFFERED_EVENTS);
+            metricsManagement.registerMetric(siddhiAppName, objectMetric.baseName + METRIC_SUFFIX_OLDEST_EVENT_AGE,
+                    objectMetric.oldestEventAgeGauge, MetricType.BUFFERED_EVENTS);
+            MetricsDrainer.register(this);
         }
     }
 
     @Override
     public void enableEventBufferHolderMetrics() {
-        for (ConcurrentMap.Entry<Object, ObjectMetric> entry :
-                registeredObjects.entrySet()) {
-            metricService.gauge(entry.getValue().getName(), Level.INFO,  entry.getValue().getGauge());
-        }
+        SPMetricsManagement.getInstance().setMetricsEnabled(siddhiAppName, MetricType.BUFFERED_EVENTS, true);
     }
 
     @Override
     public void disableEventBufferHolderMetrics() {
-        for (ConcurrentMap.Entry<Object, ObjectMetric> entry :
-                registeredObjects.entrySet()) {
-            metricService.remove(entry.getValue().getName());
-        }
+        SPMetricsManagement.getInstance().setMetricsEnabled(siddhiAppName, MetricType.BUFFERED_EVENTS, false);
     }
 
     /**
@@ -82,12 +113,90 @@ public class SPBufferedEventsMetric implements BufferedEventsTracker {
             return null;
         }
     }
-    
-    class ObjectMetric {
+
+    /**
+     * @param eventBufferHolder Buffered object.
+     * @return the metrics of the buffered object, or null if it is not registered
+     */
+    public ObjectMetric getObjectMetric(EventBufferHolder eventBufferHolder) {
+        return registeredObjects.get(eventBufferHolder);
+    }
+
+    /**
+     * Samples the registered buffers while the buffered events metrics of the Siddhi App are enabled.
+     */
+    @Override
+    public void drain() {
+        if (!SPMetricsManagement.getInstance().isMetricsEnabled(siddhiAppName, MetricType.BUFFERED_EVENTS)) {
+            for (ObjectMetric objectMetric : registeredObjects.values()) {
+                objectMetric.reset();
+            }
+            return;
+        }
+        long now = System.nanoTime();
+        for (ObjectMetric objectMetric : registeredObjects.values()) {
+            objectMetric.sample(now);
+        }
+    }
+
+    private static RingBufferAccessor getRingBufferAccessor(Class<?> holderClass) {
+        return ringBufferAccessors.computeIfAbsent(holderClass, RingBufferAccessor::find);
+    }
+
+    /**
+     * Metrics of a single buffered object. The sampled values are only written by the drainer thread.
+     */
+    public class ObjectMetric {
         private String name;
+        private String baseName;
         private Gauge<Long> gauge;
+        private final EventBufferHolder eventBufferHolder;
+        private final Gauge<Long> capacityGauge = new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return getCapacity();
+            }
+        };
+        private final Gauge<Double> enqueueRateGauge = new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                return getEnqueueRate();
+            }
+        };
+        private final Gauge<Double> dequeueRateGauge = new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                return getDequeueRate();
+            }
+        };
+        private final Gauge<Long> blockedTimeGauge = new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return getBlockedTime();
+            }
+        };
+        private final Gauge<Long> oldestEventAgeGauge = new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return getOldestEventAge();
+            }
+        };
+        private volatile long capacity;
+        private volatile double enqueueRate;
+        private volatile double dequeueRate;
+        private volatile long blockedNanos;
+        private volatile long oldestEventAgeNanos;
+        private final long[] sampleTimes = new long[HISTORY_SIZE];
+        private final long[] sampleEnqueued = new long[HISTORY_SIZE];
+        private final long[] sampleDequeued = new long[HISTORY_SIZE];
+        private int sampleCount;
+        private boolean full;
+
         public ObjectMetric(final EventBufferHolder eventBufferHolder, String name) {
             this.name = name;
+            this.baseName = name.endsWith(METRIC_SUFFIX_SIZE) ?
+                    name.substring(0, name.length() - METRIC_SUFFIX_SIZE.length()) : name;
+            this.eventBufferHolder = eventBufferHolder;
             this.gauge = new Gauge<Long>() {
                 @Override
                 public Long getValue() {
@@ -103,7 +212,13 @@ public class SPBufferedEventsMetric implements BufferedEventsTracker {
                 }
             };
             metricService.gauge(name, Level.INFO, gauge);
+            metricService.gauge(baseName + METRIC_SUFFIX_CAPACITY, Level.INFO, capacityGauge);
+            metricService.gauge(baseName + METRIC_SUFFIX_ENQUEUE_RATE, Level.INFO, enqueueRateGauge);
+            metricService.gauge(baseName + METRIC_SUFFIX_DEQUEUE_RATE, Level.INFO, dequeueRateGauge);
+            metricService.gauge(baseName + METRIC_SUFFIX_BLOCKED_TIME, Level.INFO, blockedTimeGauge);
+            metricService.gauge(baseName + METRIC_SUFFIX_OLDEST_EVENT_AGE, Level.INFO, oldestEventAgeGauge);
         }
+
         public String getName() {
             return name;
         }
@@ -111,5 +226,158 @@ public class SPBufferedEventsMetric implements BufferedEventsTracker {
         public Gauge<Long> getGauge() {
             return gauge;
         }
+
+        /**
+         * @return capacity of the buffer in events, or 0 if it is unbounded or not known
+         */
+        public long getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * @return events added to the buffer per second over the last sampling interval
+         */
+        public double getEnqueueRate() {
+            return enqueueRate;
+        }
+
+        /**
+         * @return events taken from the buffer per second over the last sampling interval
+         */
+        public double getDequeueRate() {
+            return dequeueRate;
+        }
+
+        /**
+         * @return estimated time in milliseconds the buffer was full, and its producers blocked, while the metrics
+         * were enabled
+         */
+        public long getBlockedTime() {
+            return TimeUnit.NANOSECONDS.toMillis(blockedNanos);
+        }
+
+        /**
+         * @return approximate time in milliseconds the oldest buffered event has spent in the buffer, accurate to a
+         * sampling interval
+         */
+        public long getOldestEventAge() {
+            return TimeUnit.NANOSECONDS.toMillis(oldestEventAgeNanos);
+        }
+
+        void sample(long now) {
+            RingBufferAccessor accessor = getRingBufferAccessor(eventBufferHolder.getClass());
+            long[] counters = accessor != null ? accessor.read(eventBufferHolder) : null;
+            if (counters == null) {
+                capacity = 0;
+                return;
+            }
+            long bufferSize = counters[0];
+            long enqueued = counters[1];
+            long depth = Math.max(bufferSize - counters[2], 0);
+            long dequeued = enqueued - depth;
+            capacity = bufferSize;
+
+            boolean wasFull = full;
+            full = depth >= bufferSize;
+            if (sampleCount > 0) {
+                int previous = (sampleCount - 1) % HISTORY_SIZE;
+                long elapsed = now - sampleTimes[previous];
+                if (elapsed > 0) {
+                    enqueueRate = (double) (enqueued - sampleEnqueued[previous]) * NANOS_PER_SECOND / elapsed;
+                    dequeueRate = (double) (dequeued - sampleDequeued[previous]) * NANOS_PER_SECOND / elapsed;
+                    // Counts the whole interval if the buffer was full at both ends, and half of it at one end
+                    blockedNanos += wasFull && full ? elapsed : wasFull || full ? elapsed / 2 : 0;
+                }
+            }
+            int index = sampleCount % HISTORY_SIZE;
+            sampleTimes[index] = now;
+            sampleEnqueued[index] = enqueued;
+            sampleDequeued[index] = dequeued;
+            sampleCount++;
+            oldestEventAgeNanos = depth == 0 ? 0 : now - getEnqueueTime(dequeued);
+        }
+
+        /**
+         * @return time of the earliest retained sample at which the event following the given number of dequeued
+         * events had already been enqueued
+         */
+        private long getEnqueueTime(long dequeued) {
+            int retained = Math.min(sampleCount, HISTORY_SIZE);
+            long enqueueTime = sampleTimes[(sampleCount - 1) % HISTORY_SIZE];
+            for (int i = 1; i <= retained; i++) {
+                int index = (sampleCount - i) % HISTORY_SIZE;
+                if (sampleEnqueued[index] <= dequeued) {
+                    break;
+                }
+                enqueueTime = sampleTimes[index];
+            }
+            return enqueueTime;
+        }
+
+        void reset() {
+            if (sampleCount > 0) {
+                sampleCount = 0;
+                full = false;
+                enqueueRate = 0;
+                dequeueRate = 0;
+                oldestEventAgeNanos = 0;
+            }
+        }
+    }
+
+    /**
+     * Reads the counters of the ring buffer backing a buffered object, such as the Disruptor ring buffer of an async
+     * stream junction. The ring buffer is looked up by its methods, so that no dependency on Disruptor is needed.
+     */
+    private static class RingBufferAccessor {
+        private final Field field;
+        private final Method getBufferSize;
+        private final Method getCursor;
+        private final Method remainingCapacity;
+
+        private RingBufferAccessor(Field field, Method getBufferSize, Method getCursor, Method remainingCapacity) {
+            this.field = field;
+            this.getBufferSize = getBufferSize;
+            this.getCursor = getCursor;
+            this.remainingCapacity = remainingCapacity;
+        }
+
+        private static RingBufferAccessor find(Class<?> holderClass) {
+            for (Class<?> clazz = holderClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                for (Field field : clazz.getDeclaredFields()) {
+                    try {
+                        Method getBufferSize = field.getType().getMethod("getBufferSize");
+                        Method getCursor = field.getType().getMethod("getCursor");
+                        Method remainingCapacity = field.getType().getMethod("remainingCapacity");
+                        field.setAccessible(true);
+                        getBufferSize.setAccessible(true);
+                        getCursor.setAccessible(true);
+                        remainingCapacity.setAccessible(true);
+                        return new RingBufferAccessor(field, getBufferSize, getCursor, remainingCapacity);
+                    } catch (NoSuchMethodException | RuntimeException e) {
+                        // Not a ring buffer, or not accessible
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return buffer size, number of events enqueued and remaining capacity of the ring buffer, or null if the
+         * ring buffer is not created yet
+         */
+        private long[] read(Object holder) {
+            try {
+                Object ringBuffer = field.get(holder);
+                if (ringBuffer == null) {
+                    return null;
+                }
+                return new long[]{((Number) getBufferSize.invoke(ringBuffer)).longValue(),
+                        ((Number) getCursor.invoke(ringBuffer)).longValue() + 1,
+                        ((Number) remainingCapacity.invoke(ringBuffer)).longValue()};
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
     }
 }
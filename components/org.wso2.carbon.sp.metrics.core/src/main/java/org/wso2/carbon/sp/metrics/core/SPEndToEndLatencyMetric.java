@@ -0,0 +1,91 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core;
+
+import org.wso2.carbon.metrics.core.MetricService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Siddhi end to end latency metrics tracker. Measures the time from the ingestion of an event to the emission of
+ * the resulting events at the sinks of a Siddhi App, including the time spent in the async junctions.
+ * <p>
+ * Siddhi stamps the events with their ingestion time unless the source mapping provides an event timestamp, so the
+ * latency is measured against the timestamp of the emitted event. Values are only recorded while the statistics of
+ * the Siddhi App are being reported.
+ */
+public class SPEndToEndLatencyMetric {
+    private static final String METRIC_PREFIX = "org.wso2.siddhi";
+    private static final String METRIC_INFIX_SIDDHI_APPS = "SiddhiApps";
+    private static final String METRIC_INFIX_SIDDHI = "Siddhi";
+    private static final String METRIC_INFIX_END_TO_END = "EndToEnd";
+    private static final String METRIC_SUFFIX_LATENCY = "latency";
+
+    private String endToEndLatencyTrackerId;
+    private LatencyHistogram latencyHistogram;
+    private LatencyGauges latencyGauges;
+    private volatile boolean enabled;
+
+    public SPEndToEndLatencyMetric(String siddhiAppName, MetricService metricService) {
+        this.endToEndLatencyTrackerId = MetricService.name(METRIC_PREFIX, METRIC_INFIX_SIDDHI_APPS, siddhiAppName,
+                METRIC_INFIX_SIDDHI, METRIC_INFIX_END_TO_END, METRIC_SUFFIX_LATENCY);
+        this.latencyHistogram = new LatencyHistogram();
+        this.latencyGauges = new LatencyGauges(endToEndLatencyTrackerId, latencyHistogram, metricService);
+    }
+
+    /**
+     * This is called when an event is emitted from a sink of the Siddhi App.
+     *
+     * @param eventTimestamp timestamp of the emitted event in milliseconds
+     */
+    public void markOut(long eventTimestamp) {
+        if (enabled) {
+            latencyHistogram.record(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - eventTimestamp));
+        }
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return Name of the end to end latency tracker.
+     */
+    public String getName() {
+        return endToEndLatencyTrackerId;
+    }
+
+    /**
+     * @return Latency values recorded by this tracker, in nanoseconds.
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    /**
+     * @return Carbon Metrics gauges exporting the recorded values.
+     */
+    public LatencyGauges getLatencyGauges() {
+        return latencyGauges;
+    }
+}
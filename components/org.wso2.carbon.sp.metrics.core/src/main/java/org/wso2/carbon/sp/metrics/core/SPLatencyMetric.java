@@ -19,41 +19,23 @@
 
 package org.wso2.carbon.sp.metrics.core;
 
-import org.wso2.carbon.metrics.core.Level;
 import org.wso2.carbon.metrics.core.MetricService;
-import org.wso2.carbon.metrics.core.Timer;
-import org.wso2.carbon.sp.metrics.core.internal.SPMetricsDataHolder;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 
-import static org.wso2.carbon.metrics.core.Level.INFO;
-import static org.wso2.carbon.metrics.core.Level.OFF;
-
 /**
  * Siddhi Latency metrics tracker.
  */
 public class SPLatencyMetric implements LatencyTracker {
-    // Using thread local variables to keep the timer track
-    // the time of the same execution path by different threads.
-    private ThreadLocal<Timer> execLatencyTimer;
-    private ThreadLocal<Timer.Context> context;
+    // Each thread measures the execution path it runs with its own recorder, so no state is shared between
+    // threads on the processing path. The merged values are exported through gauges when they are read.
+    private LatencyHistogram latencyHistogram;
+    private LatencyGauges latencyGauges;
     private String latencyTrackerId;
     
     public SPLatencyMetric(String latencyTrackerId, MetricService metricService) {
         this.latencyTrackerId = latencyTrackerId;
-        Timer timer = metricService.timer(this.latencyTrackerId, Level.INFO);
-        execLatencyTimer = new ThreadLocal<Timer>() {
-            protected Timer initialValue() {
-                SPMetricsDataHolder.getInstance().getMetricManagementService().setMetricLevel
-                        (SPLatencyMetric.this.latencyTrackerId, Level.INFO);
-                return timer;
-            }
-        };
-        context = new ThreadLocal<Timer.Context>() {
-            protected Timer.Context initialValue() {
-                return null;
-            }
-        };
-        
+        this.latencyHistogram = new LatencyHistogram();
+        this.latencyGauges = new LatencyGauges(latencyTrackerId, latencyHistogram, metricService);
     }
     
     /**
@@ -61,11 +43,10 @@ public class SPLatencyMetric implements LatencyTracker {
      * ProcessStreamReceiver#receive before the event is passed into process chain.
      */
     public void markIn() {
-        if (context.get() != null) {
+        if (!latencyHistogram.getRecorder().start()) {
             throw new IllegalStateException("MarkIn consecutively called without calling markOut in " +
                     this.latencyTrackerId);
         }
-        context.set(execLatencyTimer.get().start());
     }
     
     /**
@@ -76,10 +57,21 @@ public class SPLatencyMetric implements LatencyTracker {
      */
     @Override
     public void markOut() {
-        if (context.get() != null) {
-            context.get().stop();
-            context.set(null);
-        }
+        latencyHistogram.getRecorder().stop();
+    }
+    
+    /**
+     * @return Latency values recorded by this tracker.
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    /**
+     * @return Carbon Metrics gauges exporting the recorded values.
+     */
+    public LatencyGauges getLatencyGauges() {
+        return latencyGauges;
     }
     
     /**
@@ -23,9 +23,10 @@ import org.wso2.carbon.metrics.core.Level;
 import org.wso2.carbon.metrics.core.MetricService;
 import org.wso2.carbon.sp.metrics.core.internal.SPMetricsDataHolder;
 import org.wso2.carbon.sp.metrics.core.internal.SPMetricsManagement;
+import org.wso2.carbon.sp.metrics.core.internal.SPMetricsManagement.MetricType;
 import org.wso2.siddhi.core.util.statistics.MemoryUsageTracker;
-import org.wso2.siddhi.core.util.statistics.memory.ObjectSizeCalculator;
 
+import java.lang.ref.WeakReference;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -53,25 +54,21 @@ public class SPMemoryUsageMetric implements MemoryUsageTracker {
     @Override
     public void registerObject(Object object, String memoryTrackerId) {
         if (registeredObjects.get(object) == null) {
-            registeredObjects.put(object, new ObjectMetric(object, memoryTrackerId));
-            SPMetricsManagement.getInstance().addComponent(siddhiAppName, memoryTrackerId);
+            ObjectMetric objectMetric = new ObjectMetric(object, memoryTrackerId);
+            registeredObjects.put(object, objectMetric);
+            SPMetricsManagement.getInstance().registerMetric(siddhiAppName, memoryTrackerId, objectMetric.getGauge(),
+                    MetricType.MEMORY);
         }
     }
 
     @Override
     public void enableMemoryUsageMetrics() {
-        for (ConcurrentMap.Entry<Object, ObjectMetric> entry :
-                registeredObjects.entrySet()) {
-            metricService.gauge(entry.getValue().getName(), Level.INFO,  entry.getValue().getGauge());
-        }
+        SPMetricsManagement.getInstance().setMetricsEnabled(siddhiAppName, MetricType.MEMORY, true);
     }
 
     @Override
     public void disableMemoryUsageMetrics() {
-        for (ConcurrentMap.Entry<Object, ObjectMetric> entry :
-                registeredObjects.entrySet()) {
-            metricService.remove(entry.getValue().getName());
-        }
+        SPMetricsManagement.getInstance().setMetricsEnabled(siddhiAppName, MetricType.MEMORY, false);
     }
 
     /**
@@ -86,23 +83,32 @@ public class SPMemoryUsageMetric implements MemoryUsageTracker {
         }
     }
     
+    /**
+     * Memory usage gauge of a registered object. The object is only weakly referenced, so that the background
+     * estimation does not keep it alive once the Siddhi app has released it.
+     */
     class ObjectMetric {
+        private final WeakReference<Object> objectReference;
         private String name;
         private Gauge<Long> gauge;
+        private volatile long estimatedSize;
+        private volatile long lastEstimatedTime;
+        private volatile long lastReadTime;
 
         public ObjectMetric(final Object object, String name) {
+            this.objectReference = new WeakReference<>(object);
             this.name = name;
+            this.lastReadTime = System.currentTimeMillis();
             this.gauge = new Gauge<Long>() {
                 @Override
                 public Long getValue() {
-                    try {
-                        return ObjectSizeCalculator.getObjectSize(object);
-                    } catch (UnsupportedOperationException e) {
-                        return 0L;
-                    }
+                    lastReadTime = System.currentTimeMillis();
+                    MemoryUsageEstimator.getInstance().track(ObjectMetric.this);
+                    return estimatedSize;
                 }
             };
             metricService.gauge(name, Level.INFO, gauge);
+            MemoryUsageEstimator.getInstance().track(this);
         }
 
         public String getName() {
@@ -112,5 +118,22 @@ public class SPMemoryUsageMetric implements MemoryUsageTracker {
         public Gauge<Long> getGauge() {
             return gauge;
         }
+
+        Object getObject() {
+            return objectReference.get();
+        }
+
+        long getLastEstimatedTime() {
+            return lastEstimatedTime;
+        }
+
+        long getLastReadTime() {
+            return lastReadTime;
+        }
+
+        void setEstimatedSize(long estimatedSize) {
+            this.estimatedSize = estimatedSize;
+            this.lastEstimatedTime = System.currentTimeMillis();
+        }
     }
 }
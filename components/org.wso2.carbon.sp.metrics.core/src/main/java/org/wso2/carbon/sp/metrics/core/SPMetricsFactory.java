@@ -47,15 +47,17 @@ public class SPMetricsFactory implements StatisticsTrackerFactory {
     public LatencyTracker createLatencyTracker(String name, StatisticsManager statisticsManager) {
         SPStatisticsManager SPStatisticsManager = (SPStatisticsManager) statisticsManager;
         SPLatencyMetric SPLatencyMetric = new SPLatencyMetric(name, this.metricService);
-        this.metricsManagement.addComponent(SPStatisticsManager.getComponentName(), SPLatencyMetric.getName());
+        this.metricsManagement.registerMetric(SPStatisticsManager.getComponentName(), SPLatencyMetric.getName(),
+                SPLatencyMetric);
         return SPLatencyMetric;
     }
     
     public ThroughputTracker createThroughputTracker(String name, StatisticsManager statisticsManager) {
         SPStatisticsManager SPStatisticsManager = (SPStatisticsManager) statisticsManager;
-        SPThroughputMetric SPThroughputMetric = new SPThroughputMetric(name, this.metricService);
-        this.metricsManagement.addComponent(SPStatisticsManager.getComponentName(),
-                SPThroughputMetric.getName());
+        SPThroughputMetric SPThroughputMetric = new SPThroughputMetric(name, this.metricService,
+                SPStatisticsManager.getThroughputSamplingRate());
+        this.metricsManagement.registerMetric(SPStatisticsManager.getComponentName(), SPThroughputMetric.getName(),
+                SPThroughputMetric);
         return SPThroughputMetric;
     }
     
@@ -69,8 +71,35 @@ public class SPMetricsFactory implements StatisticsTrackerFactory {
         return new SPMemoryUsageMetric(this.metricService, SPStatisticsManager.getComponentName());
     }
 
+    /**
+     * Returns the end to end latency tracker shared by the sinks of a Siddhi App.
+     *
+     * @param siddhiAppName name of the Siddhi App
+     * @return end to end latency tracker of the Siddhi App
+     */
+    public SPEndToEndLatencyMetric createEndToEndLatencyTracker(String siddhiAppName) {
+        return this.metricsManagement.getOrCreateEndToEndLatencyMetric(siddhiAppName);
+    }
+
+    /**
+     * @param siddhiAppName name of the Siddhi App
+     * @return end to end latency tracker of the Siddhi App, or null if it is not tracked
+     */
+    public SPEndToEndLatencyMetric getEndToEndLatencyTracker(String siddhiAppName) {
+        return this.metricsManagement.getEndToEndLatencyMetric(siddhiAppName);
+    }
+
+    /**
+     * @param siddhiAppName name of the Siddhi App
+     * @return CPU and allocation tracker of the Siddhi App, or null if the Siddhi App is not deployed
+     */
+    public SPResourceUsageMetric getResourceUsageTracker(String siddhiAppName) {
+        return this.metricsManagement.getResourceUsageMetric(siddhiAppName);
+    }
+
     @Override
     public StatisticsManager createStatisticsManager(String prefix, String componentName, List<Element> elements) {
-        return new SPStatisticsManager(componentName);
+        this.metricsManagement.getOrCreateResourceUsageMetric(componentName);
+        return new SPStatisticsManager(componentName, elements);
     }
 }
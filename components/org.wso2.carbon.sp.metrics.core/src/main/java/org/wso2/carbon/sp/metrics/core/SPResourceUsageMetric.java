@@ -0,0 +1,163 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core;
+
+import org.wso2.carbon.metrics.core.Gauge;
+import org.wso2.carbon.metrics.core.Level;
+import org.wso2.carbon.metrics.core.MetricService;
+
+/**
+ * CPU time and memory allocated by the threads of a Siddhi App. The values are sampled in the background by
+ * {@link ThreadResourceAccountant} while the statistics of the Siddhi App are being reported.
+ * <p>
+ * The executor and scheduler threads Siddhi creates for the Siddhi App are attributed to it by their names. Other
+ * threads can be attributed to the Siddhi App with {@link #tagThread(Thread)}. Events processed synchronously on
+ * threads owned by the sources are not accounted.
+ */
+public class SPResourceUsageMetric {
+    private static final String METRIC_PREFIX = "org.wso2.siddhi";
+    private static final String METRIC_INFIX_SIDDHI_APPS = "SiddhiApps";
+    private static final String METRIC_INFIX_SIDDHI = "Siddhi";
+    private static final String METRIC_INFIX_RESOURCE_USAGE = "ResourceUsage";
+    private static final String METRIC_SUFFIX_CPU_USAGE = "cpu";
+    private static final String METRIC_SUFFIX_ALLOCATION_RATE = "allocation";
+
+    private final String siddhiAppName;
+    private final String cpuUsageTrackerId;
+    private final String allocationRateTrackerId;
+    private final Gauge<Double> cpuUsageGauge;
+    private final Gauge<Double> allocationRateGauge;
+    private volatile boolean enabled;
+    private volatile int threadCount;
+    private volatile long cpuTime;
+    private volatile long allocatedBytes;
+    private volatile double cpuUsage;
+    private volatile double allocationRate;
+
+    public SPResourceUsageMetric(String siddhiAppName, MetricService metricService) {
+        this.siddhiAppName = siddhiAppName;
+        this.cpuUsageTrackerId = MetricService.name(METRIC_PREFIX, METRIC_INFIX_SIDDHI_APPS, siddhiAppName,
+                METRIC_INFIX_SIDDHI, METRIC_INFIX_RESOURCE_USAGE, METRIC_SUFFIX_CPU_USAGE);
+        this.allocationRateTrackerId = MetricService.name(METRIC_PREFIX, METRIC_INFIX_SIDDHI_APPS, siddhiAppName,
+                METRIC_INFIX_SIDDHI, METRIC_INFIX_RESOURCE_USAGE, METRIC_SUFFIX_ALLOCATION_RATE);
+        this.cpuUsageGauge = new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                return cpuUsage;
+            }
+        };
+        this.allocationRateGauge = new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                return allocationRate;
+            }
+        };
+        metricService.gauge(cpuUsageTrackerId, Level.INFO, cpuUsageGauge);
+        metricService.gauge(allocationRateTrackerId, Level.INFO, allocationRateGauge);
+        ThreadResourceAccountant.getInstance().track(this);
+    }
+
+    /**
+     * Attributes the CPU time and the allocations of a thread to the Siddhi App, for as long as the thread is alive.
+     *
+     * @param thread thread processing the events of the Siddhi App only
+     */
+    public void tagThread(Thread thread) {
+        ThreadResourceAccountant.getInstance().tagThread(thread, siddhiAppName);
+    }
+
+    /**
+     * Stops accounting the resource usage of the Siddhi App.
+     */
+    public void close() {
+        ThreadResourceAccountant.getInstance().untrack(this);
+    }
+
+    void update(int threadCount, long cpuTimeDelta, long allocatedBytesDelta, long elapsedNanos) {
+        this.threadCount = threadCount;
+        this.cpuTime += cpuTimeDelta;
+        this.allocatedBytes += allocatedBytesDelta;
+        this.cpuUsage = elapsedNanos > 0 ? (double) cpuTimeDelta / elapsedNanos : 0;
+        this.allocationRate = elapsedNanos > 0 ? allocatedBytesDelta * 1e9 / elapsedNanos : 0;
+    }
+
+    public String getSiddhiAppName() {
+        return siddhiAppName;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return number of live threads attributed to the Siddhi App at the last sample
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * @return CPU time used by the threads of the Siddhi App while it was accounted, in nanoseconds
+     */
+    public long getCpuTime() {
+        return cpuTime;
+    }
+
+    /**
+     * @return bytes allocated by the threads of the Siddhi App while it was accounted
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return CPU cores used by the threads of the Siddhi App between the last two samples, e.g. 1.5 for one and a
+     * half cores
+     */
+    public double getCpuUsage() {
+        return cpuUsage;
+    }
+
+    /**
+     * @return bytes allocated per second by the threads of the Siddhi App between the last two samples
+     */
+    public double getAllocationRate() {
+        return allocationRate;
+    }
+
+    public String getCpuUsageName() {
+        return cpuUsageTrackerId;
+    }
+
+    public String getAllocationRateName() {
+        return allocationRateTrackerId;
+    }
+
+    public Gauge<Double> getCpuUsageGauge() {
+        return cpuUsageGauge;
+    }
+
+    public Gauge<Double> getAllocationRateGauge() {
+        return allocationRateGauge;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in sampling profiler for Siddhi Apps. While a Siddhi App is being profiled, the stack traces of the runnable
+ * threads attributed to it by {@link ThreadResourceAccountant} are sampled on a background thread and counted by
+ * stack, in the folded format used to render flame graphs.
+ * <p>
+ * Nothing is sampled while no Siddhi App is being profiled. The number of distinct stacks kept per Siddhi App is
+ * bounded, and the samples of further stacks are counted under a single truncated stack.
+ */
+public class SPStackProfiler {
+    private static final Logger log = LoggerFactory.getLogger(SPStackProfiler.class);
+
+    public static final String PROFILER_INTERVAL = "profilerSamplingInterval";
+    public static final String PROFILER_MAX_STACK_DEPTH = "profilerMaxStackDepth";
+    public static final String PROFILER_MAX_STACKS = "profilerMaxStacks";
+    private static final String TRUNCATED_STACK = "[truncated]";
+    private static final long ATTRIBUTION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final SPStackProfiler instance = new SPStackProfiler(Long.getLong(PROFILER_INTERVAL, 20),
+            Integer.getInteger(PROFILER_MAX_STACK_DEPTH, 64), Integer.getInteger(PROFILER_MAX_STACKS, 10000));
+
+    private final Map<String, Profile> profiles = new ConcurrentHashMap<>();
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final long intervalMillis;
+    private final int maxStackDepth;
+    private final int maxStacks;
+    private volatile ScheduledExecutorService executorService;
+    private volatile long lastAttributionTime;
+
+    private SPStackProfiler(long intervalMillis, int maxStackDepth, int maxStacks) {
+        this.intervalMillis = intervalMillis;
+        this.maxStackDepth = maxStackDepth;
+        this.maxStacks = maxStacks;
+    }
+
+    public static SPStackProfiler getInstance() {
+        return instance;
+    }
+
+    /**
+     * Starts profiling the Siddhi App, discarding the samples of any earlier profiling.
+     *
+     * @param siddhiAppName name of the Siddhi App
+     */
+    public void start(String siddhiAppName) {
+        profiles.put(siddhiAppName, new Profile());
+        if (executorService == null) {
+            synchronized (this) {
+                if (executorService == null) {
+                    ScheduledExecutorService scheduledExecutorService =
+                            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                                Thread thread = new Thread(runnable, "Siddhi-StackProfiler");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                    scheduledExecutorService.scheduleWithFixedDelay(this::sample, 0, intervalMillis,
+                            TimeUnit.MILLISECONDS);
+                    executorService = scheduledExecutorService;
+                }
+            }
+        }
+        lastAttributionTime = 0;
+    }
+
+    /**
+     * Stops profiling the Siddhi App and discards its samples.
+     *
+     * @param siddhiAppName name of the Siddhi App
+     */
+    public void stop(String siddhiAppName) {
+        profiles.remove(siddhiAppName);
+    }
+
+    public boolean isProfiling(String siddhiAppName) {
+        return profiles.containsKey(siddhiAppName);
+    }
+
+    /**
+     * @param siddhiAppName name of the Siddhi App
+     * @return one line per sampled stack, with the frames from the thread entry point to the sampled frame separated
+     * by semicolons followed by the number of samples, or null if the Siddhi App is not being profiled
+     */
+    public String getFoldedStacks(String siddhiAppName) {
+        Profile profile = profiles.get(siddhiAppName);
+        if (profile == null) {
+            return null;
+        }
+        StringBuilder foldedStacks = new StringBuilder();
+        for (Map.Entry<String, LongAdder> stack : profile.stacks.entrySet()) {
+            foldedStacks.append(stack.getKey()).append(' ').append(stack.getValue().sum()).append('\n');
+        }
+        return foldedStacks.toString();
+    }
+
+    /**
+     * @param siddhiAppName name of the Siddhi App
+     * @return number of stack samples taken since profiling of the Siddhi App started
+     */
+    public long getSampleCount(String siddhiAppName) {
+        Profile profile = profiles.get(siddhiAppName);
+        return profile != null ? profile.sampleCount.sum() : 0;
+    }
+
+    /**
+     * Takes a single stack sample of the threads of the Siddhi Apps being profiled.
+     */
+    void sample() {
+        if (profiles.isEmpty()) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            if (lastAttributionTime == 0 || now - lastAttributionTime >= ATTRIBUTION_INTERVAL_NANOS) {
+                // Picks up the threads started since the last resource usage sample
+                ThreadResourceAccountant.getInstance().attributeThreads();
+                lastAttributionTime = now;
+            }
+            for (Map.Entry<String, Profile> profile : profiles.entrySet()) {
+                long[] threadIds = ThreadResourceAccountant.getInstance().getThreadIds(profile.getKey());
+                if (threadIds.length == 0) {
+                    continue;
+                }
+                for (ThreadInfo threadInfo : threadMXBean.getThreadInfo(threadIds, maxStackDepth)) {
+                    if (threadInfo != null && threadInfo.getThreadState() == Thread.State.RUNNABLE &&
+                            threadInfo.getStackTrace().length > 0) {
+                        profile.getValue().add(fold(threadInfo.getStackTrace()), maxStacks);
+                    }
+                }
+            }
+        } catch (Throwable t) {
+            log.error("Error while sampling the stacks of Siddhi Apps.", t);
+        }
+    }
+
+    private static String fold(StackTraceElement[] stackTrace) {
+        StringBuilder stack = new StringBuilder(stackTrace.length * 48);
+        for (int i = stackTrace.length - 1; i >= 0; i--) {
+            stack.append(stackTrace[i].getClassName()).append('.').append(stackTrace[i].getMethodName());
+            if (i > 0) {
+                stack.append(';');
+            }
+        }
+        return stack.toString();
+    }
+
+    /**
+     * Sample counts of a Siddhi App by folded stack.
+     */
+    private static class Profile {
+        private final Map<String, LongAdder> stacks = new ConcurrentHashMap<>();
+        private final LongAdder sampleCount = new LongAdder();
+
+        private void add(String stack, int maxStacks) {
+            LongAdder count = stacks.get(stack);
+            if (count == null) {
+                count = stacks.computeIfAbsent(stacks.size() < maxStacks ? stack : TRUNCATED_STACK,
+                        key -> new LongAdder());
+            }
+            count.increment();
+            sampleCount.increment();
+        }
+    }
+}
@@ -18,22 +18,34 @@
  */
 package org.wso2.carbon.sp.metrics.core;
 
-import org.wso2.carbon.metrics.core.Level;
-import org.wso2.carbon.metrics.core.Meter;
 import org.wso2.carbon.metrics.core.MetricService;
 import org.wso2.siddhi.core.util.statistics.ThroughputTracker;
 
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
 
 /**
  * Siddhi throughput metric tracker.
+ * <p>
+ * Events are counted in a striped {@link LongAdder}, and the rates are only computed from the count when they are
+ * reported, by the {@link ThroughputGauges} of the tracker or by the Stream Processor reporters. With a sampling rate
+ * of N, only about one in N events is counted, and each counted event adds N.
  */
 public class SPThroughputMetric implements ThroughputTracker {
-    private Meter eventMeter = null;
     private String throughputTrackerId;
+    private final LongAdder eventCount = new LongAdder();
+    private final int samplingRate;
+    private ThroughputGauges throughputGauges;
     
     public SPThroughputMetric(String throughputTrackerId, MetricService metricService) {
+        this(throughputTrackerId, metricService, 1);
+    }
+    
+    public SPThroughputMetric(String throughputTrackerId, MetricService metricService, int samplingRate) {
         this.throughputTrackerId = throughputTrackerId;
-        eventMeter = metricService.meter(this.throughputTrackerId, Level.INFO);
+        this.samplingRate = Math.max(samplingRate, 1);
+        this.throughputGauges = new ThroughputGauges(this.throughputTrackerId, this, metricService);
     }
 
     /**
@@ -41,7 +53,11 @@ public class SPThroughputMetric implements ThroughputTracker {
      */
     @Override
     public void eventIn() {
-        eventMeter.mark();
+        if (samplingRate == 1) {
+            eventCount.increment();
+        } else if (ThreadLocalRandom.current().nextInt(samplingRate) == 0) {
+            eventCount.add(samplingRate);
+        }
     }
     
     /**
@@ -51,7 +67,22 @@ public class SPThroughputMetric implements ThroughputTracker {
      */
     @Override
     public void eventsIn(int eventCount) {
-        eventMeter.mark(eventCount);
+        this.eventCount.add(eventCount);
+    }
+    
+    /**
+     * @return total number of events counted by this tracker
+     */
+    public long getCount() {
+        return eventCount.sum();
+    }
+    
+    public int getSamplingRate() {
+        return samplingRate;
+    }
+    
+    public ThroughputGauges getThroughputGauges() {
+        return throughputGauges;
     }
     
     /**
@@ -0,0 +1,342 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attributes the CPU time and the allocated bytes of threads to the Siddhi Apps tracked by
+ * {@link SPResourceUsageMetric}, sampling {@link ThreadMXBean} on a background thread.
+ * <p>
+ * Threads are attributed once, when they are first seen, either by an explicit tag or by the name Siddhi gives to the
+ * executor and scheduler threads of a Siddhi App, e.g. Siddhi-App-executor-thread-1. Only the threads of the Siddhi
+ * Apps whose statistics are enabled are read, with one bulk call per sample.
+ */
+final class ThreadResourceAccountant {
+    private static final Logger log = LoggerFactory.getLogger(ThreadResourceAccountant.class);
+
+    static final String RESOURCE_USAGE_INTERVAL = "resourceUsageMetricsInterval";
+    private static final String SIDDHI_THREAD_NAME_PREFIX = "Siddhi-";
+
+    private static final ThreadResourceAccountant instance =
+            new ThreadResourceAccountant(Long.getLong(RESOURCE_USAGE_INTERVAL, 5000));
+
+    private final Map<String, SPResourceUsageMetric> trackedApps = new ConcurrentHashMap<>();
+    private final Map<Long, String> taggedThreads = new ConcurrentHashMap<>();
+    private final long intervalMillis;
+    private final ThreadMXBean threadMXBean;
+    private final com.sun.management.ThreadMXBean extendedThreadMXBean;
+    private volatile ScheduledExecutorService executorService;
+    private volatile boolean trackedAppsChanged;
+    private volatile Map<String, long[]> appThreadIds = new HashMap<>();
+
+    // Guarded by this
+    private final Map<Long, ThreadUsage> threadUsages = new HashMap<>();
+    private final Set<Long> unattributedThreads = new HashSet<>();
+    private final Map<String, AppUsage> appUsages = new HashMap<>();
+    private long lastSampleTime = System.nanoTime();
+
+    private ThreadResourceAccountant(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+        this.threadMXBean = ManagementFactory.getThreadMXBean();
+        this.extendedThreadMXBean = threadMXBean instanceof com.sun.management.ThreadMXBean ?
+                (com.sun.management.ThreadMXBean) threadMXBean : null;
+    }
+
+    static ThreadResourceAccountant getInstance() {
+        return instance;
+    }
+
+    void track(SPResourceUsageMetric resourceUsageMetric) {
+        trackedApps.put(resourceUsageMetric.getSiddhiAppName(), resourceUsageMetric);
+        trackedAppsChanged = true;
+        start();
+    }
+
+    void untrack(SPResourceUsageMetric resourceUsageMetric) {
+        trackedApps.remove(resourceUsageMetric.getSiddhiAppName(), resourceUsageMetric);
+        trackedAppsChanged = true;
+    }
+
+    void tagThread(Thread thread, String siddhiAppName) {
+        taggedThreads.put(thread.getId(), siddhiAppName);
+        trackedAppsChanged = true;
+    }
+
+    private void start() {
+        if (executorService == null) {
+            synchronized (this) {
+                if (executorService == null) {
+                    if (!threadMXBean.isThreadCpuTimeSupported()) {
+                        log.warn("Thread CPU time is not supported by the JVM. Hence the CPU usage of Siddhi Apps " +
+                                "will not be reported.");
+                    }
+                    ScheduledExecutorService scheduledExecutorService =
+                            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                                Thread thread = new Thread(runnable, "Siddhi-ThreadResourceAccountant");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                    scheduledExecutorService.scheduleWithFixedDelay(this::sample, intervalMillis, intervalMillis,
+                            TimeUnit.MILLISECONDS);
+                    executorService = scheduledExecutorService;
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes a single sample and updates the resource usage of the tracked Siddhi Apps.
+     */
+    synchronized void sample() {
+        try {
+            long now = System.nanoTime();
+            long elapsedNanos = now - lastSampleTime;
+            lastSampleTime = now;
+            long[] threadIds = attributeThreads();
+            if (trackedApps.values().stream().noneMatch(SPResourceUsageMetric::isEnabled)) {
+                resetDisabledThreads();
+                return;
+            }
+
+            long[] sampledThreadIds = new long[threadIds.length];
+            int sampledThreadCount = 0;
+            for (long threadId : threadIds) {
+                ThreadUsage usage = threadUsages.get(threadId);
+                if (usage != null && isEnabled(usage.siddhiAppName)) {
+                    sampledThreadIds[sampledThreadCount++] = threadId;
+                }
+            }
+            long[] ids = new long[sampledThreadCount];
+            System.arraycopy(sampledThreadIds, 0, ids, 0, sampledThreadCount);
+            long[] cpuTimes = getThreadCpuTimes(ids);
+            long[] allocatedBytes = getThreadAllocatedBytes(ids);
+
+            appUsages.clear();
+            for (int i = 0; i < ids.length; i++) {
+                ThreadUsage usage = threadUsages.get(ids[i]);
+                AppUsage appUsage = appUsages.computeIfAbsent(usage.siddhiAppName, key -> new AppUsage());
+                appUsage.threadCount++;
+                if (cpuTimes[i] >= 0) {
+                    if (usage.cpuTime >= 0) {
+                        appUsage.cpuTime += Math.max(cpuTimes[i] - usage.cpuTime, 0);
+                    }
+                    usage.cpuTime = cpuTimes[i];
+                }
+                if (allocatedBytes[i] >= 0) {
+                    if (usage.allocatedBytes >= 0) {
+                        appUsage.allocatedBytes += Math.max(allocatedBytes[i] - usage.allocatedBytes, 0);
+                    }
+                    usage.allocatedBytes = allocatedBytes[i];
+                }
+            }
+            for (SPResourceUsageMetric resourceUsageMetric : trackedApps.values()) {
+                AppUsage appUsage = appUsages.get(resourceUsageMetric.getSiddhiAppName());
+                if (appUsage != null) {
+                    resourceUsageMetric.update(appUsage.threadCount, appUsage.cpuTime, appUsage.allocatedBytes,
+                            elapsedNanos);
+                } else {
+                    resourceUsageMetric.update(0, 0, 0, elapsedNanos);
+                }
+            }
+            resetDisabledThreads();
+        } catch (Throwable t) {
+            log.error("Error while accounting the resource usage of Siddhi Apps.", t);
+        }
+    }
+
+    /**
+     * Attributes the threads started since the previous call and drops the threads that are no longer alive.
+     *
+     * @return ids of the live threads
+     */
+    synchronized long[] attributeThreads() {
+        if (trackedAppsChanged) {
+            // Threads that were not attributed before may belong to a Siddhi App tracked since
+            trackedAppsChanged = false;
+            unattributedThreads.clear();
+            threadUsages.values().removeIf(usage -> !trackedApps.containsKey(usage.siddhiAppName));
+        }
+        long[] threadIds = threadMXBean.getAllThreadIds();
+        attributeNewThreads(threadIds);
+        Set<Long> liveThreadIds = new HashSet<>(threadIds.length);
+        for (long threadId : threadIds) {
+            liveThreadIds.add(threadId);
+        }
+        threadUsages.keySet().retainAll(liveThreadIds);
+        unattributedThreads.retainAll(liveThreadIds);
+        taggedThreads.keySet().retainAll(liveThreadIds);
+
+        Map<String, List<Long>> threadIdsByApp = new HashMap<>();
+        for (Map.Entry<Long, ThreadUsage> threadUsage : threadUsages.entrySet()) {
+            threadIdsByApp.computeIfAbsent(threadUsage.getValue().siddhiAppName, key -> new ArrayList<>())
+                    .add(threadUsage.getKey());
+        }
+        Map<String, long[]> appThreadIds = new HashMap<>();
+        for (Map.Entry<String, List<Long>> appThreads : threadIdsByApp.entrySet()) {
+            long[] ids = new long[appThreads.getValue().size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = appThreads.getValue().get(i);
+            }
+            appThreadIds.put(appThreads.getKey(), ids);
+        }
+        this.appThreadIds = appThreadIds;
+        return threadIds;
+    }
+
+    /**
+     * @param siddhiAppName name of the Siddhi App
+     * @return ids of the threads attributed to the Siddhi App as of the last sample
+     */
+    long[] getThreadIds(String siddhiAppName) {
+        long[] threadIds = appThreadIds.get(siddhiAppName);
+        return threadIds != null ? threadIds : new long[0];
+    }
+
+    private void attributeNewThreads(long[] threadIds) {
+        List<Long> newThreadIds = new ArrayList<>();
+        for (long threadId : threadIds) {
+            if (!threadUsages.containsKey(threadId) && !unattributedThreads.contains(threadId)) {
+                String siddhiAppName = taggedThreads.get(threadId);
+                if (siddhiAppName != null && trackedApps.containsKey(siddhiAppName)) {
+                    threadUsages.put(threadId, new ThreadUsage(siddhiAppName));
+                } else {
+                    newThreadIds.add(threadId);
+                }
+            }
+        }
+        if (newThreadIds.isEmpty()) {
+            return;
+        }
+        long[] ids = new long[newThreadIds.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = newThreadIds.get(i);
+        }
+        ThreadInfo[] threadInfos = threadMXBean.getThreadInfo(ids, 0);
+        for (int i = 0; i < ids.length; i++) {
+            String siddhiAppName = threadInfos[i] != null ? getSiddhiAppName(threadInfos[i].getThreadName()) : null;
+            if (siddhiAppName != null) {
+                threadUsages.put(ids[i], new ThreadUsage(siddhiAppName));
+            } else {
+                unattributedThreads.add(ids[i]);
+            }
+        }
+    }
+
+    /**
+     * Makes the threads of disabled Siddhi Apps start from a fresh baseline once they are enabled again.
+     */
+    private void resetDisabledThreads() {
+        for (ThreadUsage usage : threadUsages.values()) {
+            if (!isEnabled(usage.siddhiAppName)) {
+                usage.cpuTime = -1;
+                usage.allocatedBytes = -1;
+            }
+        }
+    }
+
+    /**
+     * @return name of the tracked Siddhi App the thread is named after, preferring the longest matching name
+     */
+    private String getSiddhiAppName(String threadName) {
+        if (!threadName.startsWith(SIDDHI_THREAD_NAME_PREFIX)) {
+            return null;
+        }
+        String siddhiAppName = null;
+        for (String trackedAppName : trackedApps.keySet()) {
+            if (threadName.startsWith(trackedAppName + "-", SIDDHI_THREAD_NAME_PREFIX.length()) &&
+                    (siddhiAppName == null || trackedAppName.length() > siddhiAppName.length())) {
+                siddhiAppName = trackedAppName;
+            }
+        }
+        return siddhiAppName;
+    }
+
+    private boolean isEnabled(String siddhiAppName) {
+        SPResourceUsageMetric resourceUsageMetric = trackedApps.get(siddhiAppName);
+        return resourceUsageMetric != null && resourceUsageMetric.isEnabled();
+    }
+
+    private long[] getThreadCpuTimes(long[] threadIds) {
+        if (!threadMXBean.isThreadCpuTimeSupported() || !threadMXBean.isThreadCpuTimeEnabled()) {
+            return filled(threadIds.length);
+        }
+        if (extendedThreadMXBean != null) {
+            return extendedThreadMXBean.getThreadCpuTime(threadIds);
+        }
+        long[] cpuTimes = new long[threadIds.length];
+        for (int i = 0; i < threadIds.length; i++) {
+            cpuTimes[i] = threadMXBean.getThreadCpuTime(threadIds[i]);
+        }
+        return cpuTimes;
+    }
+
+    private long[] getThreadAllocatedBytes(long[] threadIds) {
+        if (extendedThreadMXBean == null || !extendedThreadMXBean.isThreadAllocatedMemorySupported() ||
+                !extendedThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return filled(threadIds.length);
+        }
+        return extendedThreadMXBean.getThreadAllocatedBytes(threadIds);
+    }
+
+    private static long[] filled(int length) {
+        long[] values = new long[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = -1;
+        }
+        return values;
+    }
+
+    /**
+     * Values of a thread at the previous sample, or -1 if the thread is not sampled yet.
+     */
+    private static class ThreadUsage {
+        private final String siddhiAppName;
+        private long cpuTime = -1;
+        private long allocatedBytes = -1;
+
+        private ThreadUsage(String siddhiAppName) {
+            this.siddhiAppName = siddhiAppName;
+        }
+    }
+
+    /**
+     * Usage of a Siddhi App since the previous sample.
+     */
+    private static class AppUsage {
+        private int threadCount;
+        private long cpuTime;
+        private long allocatedBytes;
+    }
+}
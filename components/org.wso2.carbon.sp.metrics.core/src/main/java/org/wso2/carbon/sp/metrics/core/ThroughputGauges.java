@@ -0,0 +1,127 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core;
+
+import org.wso2.carbon.metrics.core.Gauge;
+import org.wso2.carbon.metrics.core.Level;
+import org.wso2.carbon.metrics.core.MetricManagementService;
+import org.wso2.carbon.metrics.core.MetricService;
+import org.wso2.carbon.sp.metrics.core.internal.SPMetricsDataHolder;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carbon Metrics gauges exporting the count and the rates of a {@link SPThroughputMetric}. The gauge with the name of
+ * the throughput tracker reports the one minute rate, and the gauges with the suffixes below report the count, the
+ * mean rate and the five and fifteen minute rates. Rates are reported in events per second.
+ * <p>
+ * The rates are computed from the count of the tracker when a gauge is read, at most once per second, and shared by
+ * all gauges, so nothing is computed between two reports.
+ */
+public class ThroughputGauges {
+    public static final String METRIC_SUFFIX_COUNT = ".count";
+    public static final String METRIC_SUFFIX_MEAN_RATE = ".meanRate";
+    public static final String METRIC_SUFFIX_M5_RATE = ".m5Rate";
+    public static final String METRIC_SUFFIX_M15_RATE = ".m15Rate";
+    private static final long RATES_MAX_AGE_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private final SPThroughputMetric throughputMetric;
+    private final MetricService metricService;
+    private final Map<String, Gauge<? extends Number>> gauges = new LinkedHashMap<>();
+    private final RateTracker rateTracker;
+    private double[] rates = new double[4];
+    private long ratesTime;
+    private boolean enabled;
+
+    public ThroughputGauges(String name, SPThroughputMetric throughputMetric, MetricService metricService) {
+        this.throughputMetric = throughputMetric;
+        this.metricService = metricService;
+        this.ratesTime = System.currentTimeMillis();
+        this.rateTracker = new RateTracker(throughputMetric.getCount(), ratesTime);
+        gauges.put(name, rateGauge(1));
+        gauges.put(name + METRIC_SUFFIX_COUNT, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return throughputMetric.getCount();
+            }
+        });
+        gauges.put(name + METRIC_SUFFIX_MEAN_RATE, rateGauge(0));
+        gauges.put(name + METRIC_SUFFIX_M5_RATE, rateGauge(2));
+        gauges.put(name + METRIC_SUFFIX_M15_RATE, rateGauge(3));
+        setEnabled(true);
+    }
+
+    /**
+     * Registers the gauges with Carbon Metrics, or removes them so that they are not reported.
+     *
+     * @param enabled whether the gauges are reported
+     */
+    public synchronized void setEnabled(boolean enabled) {
+        MetricManagementService metricManagementService =
+                SPMetricsDataHolder.getInstance().getMetricManagementService();
+        for (Map.Entry<String, Gauge<? extends Number>> gauge : gauges.entrySet()) {
+            if (enabled) {
+                // Replaces the gauge of a previous tracker with the same name, such as the one of a hot swapped app
+                metricService.remove(gauge.getKey());
+                metricService.gauge(gauge.getKey(), Level.INFO, gauge.getValue());
+                if (metricManagementService != null) {
+                    metricManagementService.setMetricLevel(gauge.getKey(), Level.INFO);
+                }
+            } else {
+                metricService.remove(gauge.getKey());
+            }
+        }
+        this.enabled = enabled;
+    }
+
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return gauges by their Carbon Metrics names
+     */
+    public Map<String, Gauge<? extends Number>> getGauges() {
+        return Collections.unmodifiableMap(gauges);
+    }
+
+    private Gauge<Double> rateGauge(final int index) {
+        return new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                return getRates()[index];
+            }
+        };
+    }
+
+    /**
+     * @return mean, one minute, five minute and fifteen minute rates in events per second
+     */
+    private synchronized double[] getRates() {
+        long currentTime = System.currentTimeMillis();
+        if (currentTime - ratesTime >= RATES_MAX_AGE_MILLIS) {
+            rates = rateTracker.update(throughputMetric.getCount(), currentTime);
+            ratesTime = currentTime;
+        }
+        return rates;
+    }
+}
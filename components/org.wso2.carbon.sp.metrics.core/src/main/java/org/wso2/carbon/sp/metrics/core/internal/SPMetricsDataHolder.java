@@ -19,8 +19,11 @@
 
 package org.wso2.carbon.sp.metrics.core.internal;
 
+import org.wso2.carbon.config.provider.ConfigProvider;
+import org.wso2.carbon.datasource.core.api.DataSourceService;
 import org.wso2.carbon.metrics.core.MetricManagementService;
 import org.wso2.carbon.metrics.core.MetricService;
+import org.wso2.carbon.sp.metrics.core.jdbc.JDBCReporter;
 
 /**
  * Class which holds the OSGI Service references.
@@ -30,6 +33,9 @@ public class SPMetricsDataHolder {
     
     private MetricService metricService;
     private MetricManagementService metricManagementService;
+    private ConfigProvider configProvider;
+    private DataSourceService dataSourceService;
+    private JDBCReporter jdbcReporter;
     
     private SPMetricsDataHolder() {
     
@@ -79,4 +85,31 @@ public class SPMetricsDataHolder {
     public void setMetricManagementService(MetricManagementService metricManagementService) {
         this.metricManagementService = metricManagementService;
     }
+
+    public ConfigProvider getConfigProvider() {
+        return configProvider;
+    }
+
+    public void setConfigProvider(ConfigProvider configProvider) {
+        this.configProvider = configProvider;
+    }
+
+    public DataSourceService getDataSourceService() {
+        return dataSourceService;
+    }
+
+    public void setDataSourceService(DataSourceService dataSourceService) {
+        this.dataSourceService = dataSourceService;
+    }
+
+    /**
+     * @return the running Stream Processor JDBC metrics reporter, or null if it is not enabled
+     */
+    public JDBCReporter getJDBCReporter() {
+        return jdbcReporter;
+    }
+
+    public void setJDBCReporter(JDBCReporter jdbcReporter) {
+        this.jdbcReporter = jdbcReporter;
+    }
 }
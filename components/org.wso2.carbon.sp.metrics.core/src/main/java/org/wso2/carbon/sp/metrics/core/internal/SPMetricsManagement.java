@@ -18,70 +18,482 @@
  */
 package org.wso2.carbon.sp.metrics.core.internal;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.metrics.core.Gauge;
 import org.wso2.carbon.metrics.core.MetricManagementService;
 import org.wso2.carbon.metrics.core.MetricService;
+import org.wso2.carbon.sp.metrics.core.LatencyGauges;
+import org.wso2.carbon.sp.metrics.core.SPEndToEndLatencyMetric;
+import org.wso2.carbon.sp.metrics.core.SPLatencyMetric;
+import org.wso2.carbon.sp.metrics.core.SPResourceUsageMetric;
+import org.wso2.carbon.sp.metrics.core.SPStackProfiler;
+import org.wso2.carbon.sp.metrics.core.SPThroughputMetric;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.wso2.carbon.metrics.core.Level.INFO;
 import static org.wso2.carbon.metrics.core.Level.OFF;
 
 /**
  * Manages the statistics management functions.
+ * <p>
+ * Metrics are indexed by Siddhi App and metric type. Enabling or disabling the statistics of a Siddhi App, or of one
+ * metric type within it, only flips a flag on the caller's thread. The levels of the affected Carbon Metrics are then
+ * brought in line by a background thread, which only visits the metrics of the Siddhi Apps that were changed and
+ * skips the metrics that are already in the requested state.
+ * <p>
+ * While a Siddhi App is hot swapped, the runtimes before and after the update register metrics under the same names.
+ * Each metric is therefore owned by the statistics manager of the runtime that registered it last, and stopping or
+ * cleaning up the metrics of a runtime whose metrics were taken over by a newer runtime only affects the metrics it
+ * still owns.
  */
 public class SPMetricsManagement {
-    private Map<String, List<String>> componentMap;
+    private static final Logger log = LoggerFactory.getLogger(SPMetricsManagement.class);
+
+    private ConcurrentMap<String, AppMetrics> appMetrics = new ConcurrentHashMap<>();
+    private ConcurrentMap<String, SPEndToEndLatencyMetric> endToEndLatencyMetrics = new ConcurrentHashMap<>();
+    private ConcurrentMap<String, SPResourceUsageMetric> resourceUsageMetrics = new ConcurrentHashMap<>();
+    private ConcurrentMap<String, ConcurrentMap<String, Object>> registeredMetrics = new ConcurrentHashMap<>();
     private MetricManagementService metricManagementService;
     private MetricService metricService;
+    private volatile ExecutorService levelUpdater;
     private static SPMetricsManagement instance = new SPMetricsManagement();
 
     private SPMetricsManagement() {
         metricManagementService = SPMetricsDataHolder.getInstance().getMetricManagementService();
         metricService = SPMetricsDataHolder.getInstance().getMetricService();
-        componentMap = new HashMap<>();
     }
 
     public static SPMetricsManagement getInstance() {
         return instance;
     }
 
-    public void addComponent(String siddhiAppName, String componentMetricsName) {
-        List<String> registeredComponent = componentMap.get(siddhiAppName);
-        if (registeredComponent == null) {
-            List<String> newComponentAppList = new ArrayList<>();
-            newComponentAppList.add(componentMetricsName);
-            componentMap.put(siddhiAppName, newComponentAppList);
-        } else {
-            componentMap.get(siddhiAppName).add(componentMetricsName);
+    /**
+     * Returns the end to end latency tracker of the Siddhi App, creating it if it does not exist.
+     *
+     * @param siddhiAppName name of the Siddhi App
+     * @return end to end latency tracker of the Siddhi App
+     */
+    public SPEndToEndLatencyMetric getOrCreateEndToEndLatencyMetric(String siddhiAppName) {
+        SPEndToEndLatencyMetric endToEndLatencyMetric = endToEndLatencyMetrics.get(siddhiAppName);
+        if (endToEndLatencyMetric == null) {
+            synchronized (this) {
+                endToEndLatencyMetric = endToEndLatencyMetrics.get(siddhiAppName);
+                if (endToEndLatencyMetric == null) {
+                    endToEndLatencyMetric = new SPEndToEndLatencyMetric(siddhiAppName, metricService);
+                    registerMetric(siddhiAppName, endToEndLatencyMetric.getName(), endToEndLatencyMetric,
+                            MetricType.END_TO_END_LATENCY, null);
+                    endToEndLatencyMetric.setEnabled(getAppMetrics(siddhiAppName).enabled);
+                    endToEndLatencyMetrics.put(siddhiAppName, endToEndLatencyMetric);
+                }
+            }
         }
+        return endToEndLatencyMetric;
     }
 
-    public void startMetrics(String siddhiAppName) {
-        List<String> registeredComponent = componentMap.get(siddhiAppName);
-        if (registeredComponent != null) {
-            for (String component : registeredComponent) {
-                this.metricManagementService.setMetricLevel(component, INFO);
+    /**
+     * @param siddhiAppName name of the Siddhi App
+     * @return end to end latency tracker of the Siddhi App, or null if none of its sinks tracks the latency
+     */
+    public SPEndToEndLatencyMetric getEndToEndLatencyMetric(String siddhiAppName) {
+        return endToEndLatencyMetrics.get(siddhiAppName);
+    }
+
+    /**
+     * Returns the CPU and allocation tracker of the Siddhi App, creating it if it does not exist.
+     *
+     * @param siddhiAppName name of the Siddhi App
+     * @return CPU and allocation tracker of the Siddhi App
+     */
+    public SPResourceUsageMetric getOrCreateResourceUsageMetric(String siddhiAppName) {
+        SPResourceUsageMetric resourceUsageMetric = resourceUsageMetrics.get(siddhiAppName);
+        if (resourceUsageMetric == null) {
+            synchronized (this) {
+                resourceUsageMetric = resourceUsageMetrics.get(siddhiAppName);
+                if (resourceUsageMetric == null) {
+                    resourceUsageMetric = new SPResourceUsageMetric(siddhiAppName, metricService);
+                    registerMetric(siddhiAppName, resourceUsageMetric.getCpuUsageName(),
+                            resourceUsageMetric.getCpuUsageGauge(), MetricType.RESOURCE_USAGE, null);
+                    registerMetric(siddhiAppName, resourceUsageMetric.getAllocationRateName(),
+                            resourceUsageMetric.getAllocationRateGauge(), MetricType.RESOURCE_USAGE, null);
+                    resourceUsageMetric.setEnabled(getAppMetrics(siddhiAppName).enabled);
+                    resourceUsageMetrics.put(siddhiAppName, resourceUsageMetric);
+                }
             }
         }
+        return resourceUsageMetric;
+    }
+
+    /**
+     * @param siddhiAppName name of the Siddhi App
+     * @return CPU and allocation tracker of the Siddhi App, or null if it is not tracked
+     */
+    public SPResourceUsageMetric getResourceUsageMetric(String siddhiAppName) {
+        return resourceUsageMetrics.get(siddhiAppName);
+    }
+
+    /**
+     * Registers a metric of the Siddhi App or component, with the metric type inferred from the metric.
+     *
+     * @param componentName name of the Siddhi App or the component the metric belongs to
+     * @param metricName    name of the metric
+     * @param metric        the metric tracker, histogram or gauge
+     */
+    public void registerMetric(String componentName, String metricName, Object metric) {
+        registerMetric(componentName, metricName, metric, MetricType.of(metric));
+    }
+
+    /**
+     * Registers a metric of the Siddhi App or component, so that it is enabled and disabled along with the Siddhi
+     * App and can be exposed without going through Carbon Metrics.
+     *
+     * @param componentName name of the Siddhi App or the component the metric belongs to
+     * @param metricName    name of the metric
+     * @param metric        the metric tracker, histogram or gauge
+     * @param metricType    type of the metric, which can be enabled and disabled on its own
+     */
+    public void registerMetric(String componentName, String metricName, Object metric, MetricType metricType) {
+        registerMetric(componentName, metricName, metric, metricType, getAppMetrics(componentName).owner);
+    }
+
+    private void registerMetric(String componentName, String metricName, Object metric, MetricType metricType,
+                                Object owner) {
+        getAppMetrics(componentName).metrics.get(metricType).put(metricName,
+                new MetricEntry(metricName, metric, owner));
+        registeredMetrics.computeIfAbsent(componentName, key -> new ConcurrentHashMap<>()).put(metricName, metric);
+    }
+
+    /**
+     * Makes the given statistics manager the owner of the metrics registered for the Siddhi App from now on, which
+     * is done when a runtime of the Siddhi App is created. The end to end latency and resource usage metrics are
+     * shared by all runtimes of the Siddhi App and are not owned by any of them.
+     *
+     * @param siddhiAppName name of the Siddhi App
+     * @param owner         statistics manager of the runtime being created
+     */
+    public void setMetricsOwner(String siddhiAppName, Object owner) {
+        getAppMetrics(siddhiAppName).owner = owner;
+    }
+
+    /**
+     * @return metrics registered through {@link #registerMetric(String, String, Object)}, by component name
+     */
+    public Map<String, ? extends Map<String, Object>> getRegisteredMetrics() {
+        return Collections.unmodifiableMap(registeredMetrics);
+    }
+
+    public void startMetrics(String siddhiAppName) {
+        setMetricsEnabled(siddhiAppName, true);
     }
 
     public void stopMetrics(String siddhiAppName) {
-        List<String> registeredComponents = componentMap.get(siddhiAppName);
-        for (String component : registeredComponents) {
-            this.metricManagementService.setMetricLevel(component, OFF);
+        setMetricsEnabled(siddhiAppName, false);
+    }
+
+    /**
+     * Disables the metrics of the Siddhi App on behalf of one of its runtimes. Nothing is done if another runtime
+     * of the Siddhi App owns some of its metrics, as is the case for the old runtime of a hot swapped Siddhi App.
+     *
+     * @param siddhiAppName name of the Siddhi App
+     * @param owner         statistics manager of the runtime
+     */
+    public void stopMetrics(String siddhiAppName, Object owner) {
+        AppMetrics metrics = appMetrics.get(siddhiAppName);
+        if (metrics == null || !hasOtherOwners(metrics, owner)) {
+            stopMetrics(siddhiAppName);
+        }
+    }
+
+    /**
+     * Enables or disables the metrics of the given Siddhi Apps, without visiting the metrics of any other Siddhi App.
+     *
+     * @param siddhiAppNames names of the Siddhi Apps
+     * @param enabled        whether the metrics are reported
+     */
+    public void setMetricsEnabled(Collection<String> siddhiAppNames, boolean enabled) {
+        for (String siddhiAppName : siddhiAppNames) {
+            setMetricsEnabled(siddhiAppName, enabled);
         }
     }
 
+    /**
+     * Enables or disables all metrics of the Siddhi App. The Carbon Metrics levels are updated in the background.
+     *
+     * @param siddhiAppName name of the Siddhi App
+     * @param enabled       whether the metrics are reported
+     */
+    public void setMetricsEnabled(String siddhiAppName, boolean enabled) {
+        SPEndToEndLatencyMetric endToEndLatencyMetric = endToEndLatencyMetrics.get(siddhiAppName);
+        if (endToEndLatencyMetric != null) {
+            endToEndLatencyMetric.setEnabled(enabled);
+        }
+        SPResourceUsageMetric resourceUsageMetric = resourceUsageMetrics.get(siddhiAppName);
+        if (resourceUsageMetric != null) {
+            resourceUsageMetric.setEnabled(enabled);
+        }
+        AppMetrics metrics = getAppMetrics(siddhiAppName);
+        metrics.enabled = enabled;
+        scheduleLevelUpdate(metrics);
+    }
+
+    /**
+     * Enables or disables one type of metrics of the Siddhi App. Metrics of the type are only reported while the
+     * Siddhi App metrics are enabled as well.
+     *
+     * @param siddhiAppName name of the Siddhi App
+     * @param metricType    type of the metrics
+     * @param enabled       whether the metrics of the type are reported
+     */
+    public void setMetricsEnabled(String siddhiAppName, MetricType metricType, boolean enabled) {
+        AppMetrics metrics = getAppMetrics(siddhiAppName);
+        metrics.typeEnabled.put(metricType, enabled);
+        scheduleLevelUpdate(metrics);
+    }
+
+    public boolean isMetricsEnabled(String siddhiAppName) {
+        AppMetrics metrics = appMetrics.get(siddhiAppName);
+        return metrics != null && metrics.enabled;
+    }
+
+    /**
+     * @param siddhiAppName name of the Siddhi App
+     * @param metricType    type of the metrics
+     * @return whether the metrics of the type are reported
+     */
+    public boolean isMetricsEnabled(String siddhiAppName, MetricType metricType) {
+        AppMetrics metrics = appMetrics.get(siddhiAppName);
+        return metrics != null && metrics.enabled && metrics.typeEnabled.get(metricType);
+    }
+
+    /**
+     * @param siddhiAppName name of the Siddhi App or the component the metric belongs to
+     * @param metricName    name of the metric
+     * @return type the metric was registered with, or null if no such metric is registered
+     */
+    public MetricType getMetricType(String siddhiAppName, String metricName) {
+        AppMetrics metrics = appMetrics.get(siddhiAppName);
+        if (metrics != null) {
+            for (Map.Entry<MetricType, ConcurrentMap<String, MetricEntry>> typeMetrics : metrics.metrics.entrySet()) {
+                if (typeMetrics.getValue().containsKey(metricName)) {
+                    return typeMetrics.getKey();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the metrics of the Siddhi App on behalf of one of its runtimes. If another runtime of the Siddhi App
+     * owns some of its metrics, only the metrics still owned by the given runtime are removed, and the shared
+     * metrics are kept for the other runtime.
+     *
+     * @param siddhiAppName name of the Siddhi App
+     * @param owner         statistics manager of the runtime
+     */
+    public void cleanUpMetrics(String siddhiAppName, Object owner) {
+        AppMetrics metrics = appMetrics.get(siddhiAppName);
+        if (metrics == null) {
+            cleanUpMetrics(siddhiAppName);
+            return;
+        }
+        synchronized (metrics) {
+            if (!metrics.removed && hasOtherOwners(metrics, owner)) {
+                Map<String, Object> componentMetrics = registeredMetrics.get(siddhiAppName);
+                for (Map<String, MetricEntry> entries : metrics.metrics.values()) {
+                    for (MetricEntry entry : entries.values()) {
+                        if (entry.owner == owner && entries.remove(entry.name, entry)) {
+                            removeMetric(entry);
+                            if (componentMetrics != null) {
+                                componentMetrics.remove(entry.name, entry.metric);
+                            }
+                        }
+                    }
+                }
+                if (metrics.owner == owner) {
+                    metrics.owner = null;
+                }
+                return;
+            }
+        }
+        cleanUpMetrics(siddhiAppName);
+    }
+
     public void cleanUpMetrics(String siddhiAppName) {
-        if (componentMap.containsKey(siddhiAppName)) {
-            List<String> registeredComponents = componentMap.get(siddhiAppName);
-            for (String component : registeredComponents) {
-                metricService.remove(component);
+        AppMetrics metrics = appMetrics.remove(siddhiAppName);
+        if (metrics != null) {
+            synchronized (metrics) {
+                metrics.removed = true;
+                for (Map<String, MetricEntry> entries : metrics.metrics.values()) {
+                    for (MetricEntry entry : entries.values()) {
+                        removeMetric(entry);
+                    }
+                }
+            }
+        }
+        endToEndLatencyMetrics.remove(siddhiAppName);
+        SPResourceUsageMetric resourceUsageMetric = resourceUsageMetrics.remove(siddhiAppName);
+        if (resourceUsageMetric != null) {
+            resourceUsageMetric.close();
+        }
+        SPStackProfiler.getInstance().stop(siddhiAppName);
+        registeredMetrics.remove(siddhiAppName);
+    }
+
+    private boolean hasOtherOwners(AppMetrics metrics, Object owner) {
+        for (Map<String, MetricEntry> entries : metrics.metrics.values()) {
+            for (MetricEntry entry : entries.values()) {
+                if (entry.owner != null && entry.owner != owner) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private AppMetrics getAppMetrics(String siddhiAppName) {
+        return appMetrics.computeIfAbsent(siddhiAppName, key -> new AppMetrics());
+    }
+
+    private void scheduleLevelUpdate(AppMetrics metrics) {
+        if (metrics.updatePending.compareAndSet(false, true)) {
+            getLevelUpdater().execute(() -> {
+                metrics.updatePending.set(false);
+                updateLevels(metrics);
+            });
+        }
+    }
+
+    private ExecutorService getLevelUpdater() {
+        if (levelUpdater == null) {
+            synchronized (this) {
+                if (levelUpdater == null) {
+                    levelUpdater = Executors.newSingleThreadExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "Siddhi-MetricsLevelUpdater");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return levelUpdater;
+    }
+
+    private void updateLevels(AppMetrics metrics) {
+        synchronized (metrics) {
+            if (metrics.removed) {
+                return;
+            }
+            for (Map.Entry<MetricType, ConcurrentMap<String, MetricEntry>> typeMetrics : metrics.metrics.entrySet()) {
+                boolean enabled = metrics.enabled && metrics.typeEnabled.get(typeMetrics.getKey());
+                for (MetricEntry entry : typeMetrics.getValue().values()) {
+                    if (entry.applied != null && entry.applied == enabled) {
+                        continue;
+                    }
+                    try {
+                        LatencyGauges latencyGauges = getLatencyGauges(entry.metric);
+                        if (latencyGauges != null) {
+                            latencyGauges.setEnabled(enabled);
+                        } else if (entry.metric instanceof SPThroughputMetric) {
+                            ((SPThroughputMetric) entry.metric).getThroughputGauges().setEnabled(enabled);
+                        } else if (entry.metric instanceof Gauge) {
+                            if (enabled) {
+                                metricService.gauge(entry.name, INFO, (Gauge<?>) entry.metric);
+                                metricManagementService.setMetricLevel(entry.name, INFO);
+                            } else {
+                                metricService.remove(entry.name);
+                            }
+                        } else {
+                            metricManagementService.setMetricLevel(entry.name, enabled ? INFO : OFF);
+                        }
+                        entry.applied = enabled;
+                    } catch (RuntimeException e) {
+                        log.error("Error while updating the level of the metric " + entry.name + ".", e);
+                    }
+                }
             }
-            componentMap.remove(siddhiAppName);
+        }
+    }
+
+    private void removeMetric(MetricEntry entry) {
+        LatencyGauges latencyGauges = getLatencyGauges(entry.metric);
+        if (latencyGauges != null) {
+            latencyGauges.setEnabled(false);
+        } else if (entry.metric instanceof SPThroughputMetric) {
+            ((SPThroughputMetric) entry.metric).getThroughputGauges().setEnabled(false);
+        } else {
+            metricService.remove(entry.name);
+        }
+    }
+
+    private static LatencyGauges getLatencyGauges(Object metric) {
+        if (metric instanceof SPLatencyMetric) {
+            return ((SPLatencyMetric) metric).getLatencyGauges();
+        } else if (metric instanceof SPEndToEndLatencyMetric) {
+            return ((SPEndToEndLatencyMetric) metric).getLatencyGauges();
+        }
+        return null;
+    }
+
+    /**
+     * Type of the metrics of a Siddhi App.
+     */
+    public enum MetricType {
+        LATENCY, THROUGHPUT, MEMORY, BUFFERED_EVENTS, END_TO_END_LATENCY, RESOURCE_USAGE, OTHER;
+
+        static MetricType of(Object metric) {
+            if (metric instanceof SPLatencyMetric) {
+                return LATENCY;
+            } else if (metric instanceof SPThroughputMetric) {
+                return THROUGHPUT;
+            } else if (metric instanceof SPEndToEndLatencyMetric) {
+                return END_TO_END_LATENCY;
+            }
+            return OTHER;
+        }
+    }
+
+    /**
+     * Metrics of a Siddhi App by type, along with the requested state.
+     */
+    private static class AppMetrics {
+        private final Map<MetricType, ConcurrentMap<String, MetricEntry>> metrics = new EnumMap<>(MetricType.class);
+        private final Map<MetricType, Boolean> typeEnabled = new ConcurrentHashMap<>();
+        private final AtomicBoolean updatePending = new AtomicBoolean();
+        private volatile boolean enabled;
+        private volatile Object owner;
+        private boolean removed;
+
+        private AppMetrics() {
+            for (MetricType metricType : MetricType.values()) {
+                metrics.put(metricType, new ConcurrentHashMap<>());
+                typeEnabled.put(metricType, true);
+            }
+        }
+    }
+
+    /**
+     * Registered metric along with its owner, if any, and the state last applied to Carbon Metrics, which is only
+     * accessed by the level updater and is null until the metric is first enabled or disabled.
+     */
+    private static class MetricEntry {
+        private final String name;
+        private final Object metric;
+        private final Object owner;
+        private Boolean applied;
+
+        private MetricEntry(String name, Object metric, Object owner) {
+            this.name = name;
+            this.metric = metric;
+            this.owner = owner;
         }
     }
 }
@@ -18,19 +18,46 @@
  */
 package org.wso2.carbon.sp.metrics.core.internal;
 
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.util.statistics.StatisticsManager;
+import org.wso2.siddhi.query.api.annotation.Element;
+
+import java.util.List;
 
 /**
  * Functionality of SPStatisticsManager is not required to be implemented,
  * since the reporting will be handled according the Carbon Metrics configuration.
  */
 public class SPStatisticsManager implements StatisticsManager {
+    public static final String THROUGHPUT_SAMPLING_RATE = "throughput.sampling.rate";
+    private static final int DEFAULT_THROUGHPUT_SAMPLING_RATE =
+            Integer.getInteger("throughputMetricsSamplingRate", 1);
+
     private String componentName;
     private SPMetricsManagement metricsManagement;
+    private int throughputSamplingRate = DEFAULT_THROUGHPUT_SAMPLING_RATE;
 
     public SPStatisticsManager(String componentName) {
         this.componentName = componentName;
         this.metricsManagement = SPMetricsManagement.getInstance();
+        this.metricsManagement.setMetricsOwner(componentName, this);
+    }
+
+    public SPStatisticsManager(String componentName, List<Element> elements) {
+        this(componentName);
+        if (elements != null) {
+            for (Element element : elements) {
+                if (THROUGHPUT_SAMPLING_RATE.equalsIgnoreCase(element.getKey())) {
+                    try {
+                        throughputSamplingRate = Integer.parseInt(element.getValue().trim());
+                    } catch (NumberFormatException e) {
+                        throw new SiddhiAppCreationException("Invalid value '" + element.getValue() + "' for '" +
+                                THROUGHPUT_SAMPLING_RATE + "' in the statistics configuration of " + componentName,
+                                e);
+                    }
+                }
+            }
+        }
     }
     
     @Override
@@ -40,16 +67,23 @@ public class SPStatisticsManager implements StatisticsManager {
     
     @Override
     public void stopReporting() {
-        this.metricsManagement.stopMetrics(componentName);
+        this.metricsManagement.stopMetrics(componentName, this);
     }
     
     @Override
     public void cleanup() {
-        this.metricsManagement.cleanUpMetrics(componentName);
+        this.metricsManagement.cleanUpMetrics(componentName, this);
     }
     
     public String getComponentName() {
         return componentName;
     }
 
+    /**
+     * @return N where one in N events is counted by the throughput trackers of the component
+     */
+    public int getThroughputSamplingRate() {
+        return throughputSamplingRate;
+    }
+
 }
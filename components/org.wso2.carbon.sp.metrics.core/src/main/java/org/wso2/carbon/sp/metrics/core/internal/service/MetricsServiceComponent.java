@@ -27,10 +27,18 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.provider.ConfigProvider;
+import org.wso2.carbon.datasource.core.api.DataSourceService;
+import org.wso2.carbon.datasource.core.exception.DataSourceException;
 import org.wso2.carbon.metrics.core.MetricManagementService;
 import org.wso2.carbon.metrics.core.MetricService;
 import org.wso2.carbon.sp.metrics.core.internal.SPMetricsDataHolder;
 import org.wso2.carbon.sp.metrics.core.internal.SPMetricsManagement;
+import org.wso2.carbon.sp.metrics.core.jdbc.JDBCReporter;
+import org.wso2.carbon.sp.metrics.core.jdbc.JDBCReporterConfig;
+
+import javax.sql.DataSource;
 
 /**
  * Service component for getting the wso2 carbon metrics service.
@@ -49,12 +57,14 @@ public class MetricsServiceComponent {
     @Activate
     protected void start(BundleContext bundleContext) {
         bundleContext.registerService(SPMetricsManagement.class.getName(), SPMetricsManagement.getInstance(),null);
+        startJDBCReporter();
         log.debug("MetricsServiceComponent has been activated.");
     }
     
     
     @Deactivate
     protected void stop() throws Exception {
+        stopJDBCReporter();
         log.debug("MetricsServiceComponent has been stop.");
     }
     
@@ -109,4 +119,76 @@ public class MetricsServiceComponent {
     protected void unsetMetricManagementService(MetricManagementService metricManagementService) {
         SPMetricsDataHolder.getInstance().setMetricManagementService(null);
     }
+
+    @Reference(
+            name = "carbon.config.provider",
+            service = ConfigProvider.class,
+            cardinality = ReferenceCardinality.MANDATORY,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unregisterConfigProvider"
+    )
+    protected void registerConfigProvider(ConfigProvider configProvider) {
+        SPMetricsDataHolder.getInstance().setConfigProvider(configProvider);
+    }
+
+    protected void unregisterConfigProvider(ConfigProvider configProvider) {
+        SPMetricsDataHolder.getInstance().setConfigProvider(null);
+    }
+
+    /**
+     * The data source service is only needed by the Stream Processor JDBC metrics reporter, which is started once
+     * the service is available.
+     *
+     * @param dataSourceService the data source service that is registered as a service.
+     */
+    @Reference(
+            name = "org.wso2.carbon.datasource.DataSourceService",
+            service = DataSourceService.class,
+            cardinality = ReferenceCardinality.OPTIONAL,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unregisterDataSourceService"
+    )
+    protected void registerDataSourceService(DataSourceService dataSourceService) {
+        SPMetricsDataHolder.getInstance().setDataSourceService(dataSourceService);
+        startJDBCReporter();
+    }
+
+    protected void unregisterDataSourceService(DataSourceService dataSourceService) {
+        stopJDBCReporter();
+        SPMetricsDataHolder.getInstance().setDataSourceService(null);
+    }
+
+    private synchronized void startJDBCReporter() {
+        SPMetricsDataHolder dataHolder = SPMetricsDataHolder.getInstance();
+        if (dataHolder.getJDBCReporter() != null || dataHolder.getConfigProvider() == null ||
+                dataHolder.getDataSourceService() == null) {
+            return;
+        }
+        try {
+            JDBCReporterConfig config = dataHolder.getConfigProvider().getConfigurationObject(
+                    JDBCReporterConfig.class);
+            if (config.isEnabled()) {
+                DataSource dataSource = (DataSource) dataHolder.getDataSourceService()
+                        .getDataSource(config.getDataSource());
+                if (dataSource == null) {
+                    log.error("Data source '" + config.getDataSource() + "' of the Stream Processor JDBC metrics " +
+                            "reporter is not defined. Hence the reporter is not started.");
+                    return;
+                }
+                JDBCReporter jdbcReporter = new JDBCReporter(config, dataSource);
+                jdbcReporter.start();
+                dataHolder.setJDBCReporter(jdbcReporter);
+            }
+        } catch (ConfigurationException | DataSourceException | ClassCastException e) {
+            log.error("Error while starting the Stream Processor JDBC metrics reporter.", e);
+        }
+    }
+
+    private synchronized void stopJDBCReporter() {
+        JDBCReporter jdbcReporter = SPMetricsDataHolder.getInstance().getJDBCReporter();
+        if (jdbcReporter != null) {
+            jdbcReporter.stop();
+            SPMetricsDataHolder.getInstance().setJDBCReporter(null);
+        }
+    }
 }
@@ -0,0 +1,441 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.metrics.core.Gauge;
+import org.wso2.carbon.sp.metrics.core.LatencyGauges;
+import org.wso2.carbon.sp.metrics.core.LatencyHistogram;
+import org.wso2.carbon.sp.metrics.core.RateTracker;
+import org.wso2.carbon.sp.metrics.core.SPEndToEndLatencyMetric;
+import org.wso2.carbon.sp.metrics.core.SPLatencyMetric;
+import org.wso2.carbon.sp.metrics.core.SPThroughputMetric;
+import org.wso2.carbon.sp.metrics.core.ThroughputGauges;
+import org.wso2.carbon.sp.metrics.core.internal.SPMetricsManagement;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+/**
+ * Writes the Stream Processor metrics registered in {@link SPMetricsManagement} to the metrics database.
+ * <p>
+ * Metrics are sampled on one thread and written on another, so a slow database never delays sampling. Each sample
+ * is folded into one minute and one hour rollups, which are written to the METRIC_*_1M and METRIC_*_1H tables once
+ * their interval completes, so that long ranges of history can be read without scanning the raw tables. Rows are
+ * written with JDBC batches, one transaction per batch, and rows older than the configured retention periods are
+ * deleted periodically.
+ */
+public class JDBCReporter {
+    private static final Logger log = LoggerFactory.getLogger(JDBCReporter.class);
+
+    static final String MINUTE_ROLLUP_SUFFIX = "_1M";
+    static final String HOUR_ROLLUP_SUFFIX = "_1H";
+    private static final String RATE_UNIT_EVENTS = "events/second";
+    private static final String RATE_UNIT_CALLS = "calls/second";
+    private static final String DURATION_UNIT = "milliseconds";
+    private static final double NANOS_PER_MILLI = 1000000d;
+    private static final int VALUE_COLUMN_LENGTH = 100;
+    private static final long WRITER_POLL_TIMEOUT = 1000;
+    private static final long SHUTDOWN_TIMEOUT = 10000;
+    /**
+     * Name patterns of the metrics reported by this reporter, used to delete raw rows without touching the other
+     * metrics of the node.
+     */
+    private static final String[] RAW_DATA_NAME_PATTERNS = {"org.wso2.siddhi.%", "org.wso2.ha.%", "org.wso2.sp.%"};
+
+    private final JDBCReporterConfig config;
+    private final DataSource dataSource;
+    private final String source;
+    private final BlockingQueue<MetricSample> pendingRows;
+    private final MetricRollup minuteRollup = new MetricRollup(TimeUnit.MINUTES.toMillis(1), MINUTE_ROLLUP_SUFFIX);
+    private final MetricRollup hourRollup = new MetricRollup(TimeUnit.HOURS.toMillis(1), HOUR_ROLLUP_SUFFIX);
+    private Map<String, RateTracker> rateTrackers = new HashMap<>();
+    private Map<String, LatencyHistogram.Snapshot> latencySnapshots = new HashMap<>();
+    private ScheduledExecutorService samplingExecutor;
+    private ExecutorService writerExecutor;
+    private volatile boolean running;
+    private long droppedRows;
+
+    public JDBCReporter(JDBCReporterConfig config, DataSource dataSource) {
+        this.config = config;
+        this.dataSource = dataSource;
+        this.source = config.getSource() != null && !config.getSource().isEmpty() ? config.getSource() :
+                getHostName();
+        this.pendingRows = new LinkedBlockingQueue<>(config.getMaxPendingRows());
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        samplingExecutor = Executors.newSingleThreadScheduledExecutor(runnable ->
+                createThread(runnable, "Siddhi-MetricsJDBCReporter"));
+        samplingExecutor.scheduleWithFixedDelay(this::report, config.getPollingPeriod(), config.getPollingPeriod(),
+                TimeUnit.SECONDS);
+        writerExecutor = Executors.newSingleThreadExecutor(runnable ->
+                createThread(runnable, "Siddhi-MetricsJDBCWriter"));
+        writerExecutor.execute(this::write);
+        log.info("Stream Processor JDBC metrics reporter started for source '" + source + "'.");
+    }
+
+    /**
+     * Stops sampling, writes the incomplete rollup intervals and the pending rows, and stops the writer.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        samplingExecutor.execute(() -> {
+            List<MetricSample> rows = new ArrayList<>();
+            minuteRollup.flush(rows);
+            hourRollup.flush(rows);
+            enqueue(rows);
+        });
+        samplingExecutor.shutdown();
+        try {
+            samplingExecutor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+            running = false;
+            writerExecutor.shutdown();
+            writerExecutor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running = false;
+            writerExecutor.shutdownNow();
+        }
+        log.info("Stream Processor JDBC metrics reporter stopped.");
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Samples the registered metrics which are enabled and queues the raw rows and the completed rollup rows.
+     */
+    void report() {
+        try {
+            long timestamp = System.currentTimeMillis();
+            List<MetricSample> samples = sample(timestamp);
+            List<MetricSample> rows = new ArrayList<>();
+            if (config.isReportRawData()) {
+                rows.addAll(samples);
+            }
+            for (MetricSample sample : samples) {
+                minuteRollup.add(sample, rows);
+                hourRollup.add(sample, rows);
+            }
+            enqueue(rows);
+        } catch (Throwable t) {
+            log.error("Error while sampling the Stream Processor metrics.", t);
+        }
+    }
+
+    List<MetricSample> sample(long timestamp) {
+        Map<String, RateTracker> currentRateTrackers = new HashMap<>();
+        Map<String, LatencyHistogram.Snapshot> currentLatencySnapshots = new HashMap<>();
+        List<MetricSample> samples = new ArrayList<>();
+        SPMetricsManagement metricsManagement = SPMetricsManagement.getInstance();
+        for (Map.Entry<String, ? extends Map<String, Object>> metrics :
+                metricsManagement.getRegisteredMetrics().entrySet()) {
+            String siddhiAppName = metrics.getKey();
+            if (!metricsManagement.isMetricsEnabled(siddhiAppName)) {
+                continue;
+            }
+            for (Map.Entry<String, Object> metric : metrics.getValue().entrySet()) {
+                String name = metric.getKey();
+                // Reading the gauges of disabled metrics would start their tracking, such as memory estimation
+                SPMetricsManagement.MetricType metricType = metricsManagement.getMetricType(siddhiAppName, name);
+                if (metricType == null || !metricsManagement.isMetricsEnabled(siddhiAppName, metricType)) {
+                    continue;
+                }
+                Object value = metric.getValue();
+                if (value instanceof SPThroughputMetric) {
+                    long count = ((SPThroughputMetric) value).getCount();
+                    double[] rates = trackRate(name, count, timestamp, currentRateTrackers);
+                    samples.add(MetricSample.meter(name, timestamp, count, rates));
+                    addThroughputGauges(name, timestamp, count, rates, samples);
+                } else if (value instanceof Gauge) {
+                    Object gaugeValue = ((Gauge<?>) value).getValue();
+                    if (gaugeValue != null) {
+                        String stringValue = String.valueOf(gaugeValue);
+                        samples.add(MetricSample.gauge(name, timestamp, stringValue.length() > VALUE_COLUMN_LENGTH ?
+                                stringValue.substring(0, VALUE_COLUMN_LENGTH) : stringValue));
+                    }
+                } else {
+                    LatencyHistogram latencyHistogram = getLatencyHistogram(value);
+                    if (latencyHistogram != null) {
+                        LatencyHistogram.Snapshot snapshot = latencyHistogram.getSnapshot();
+                        LatencyHistogram.Snapshot previousSnapshot = latencySnapshots.get(name);
+                        currentLatencySnapshots.put(name, snapshot);
+                        samples.add(MetricSample.timer(name, timestamp, snapshot.getCount(),
+                                trackRate(name, snapshot.getCount(), timestamp, currentRateTrackers),
+                                previousSnapshot != null ? snapshot.minus(previousSnapshot) : snapshot));
+                        addLatencyGauges(name, timestamp, snapshot, samples);
+                    }
+                }
+            }
+        }
+        rateTrackers = currentRateTrackers;
+        latencySnapshots = currentLatencySnapshots;
+        return samples;
+    }
+
+    private double[] trackRate(String name, long count, long timestamp, Map<String, RateTracker> currentRateTrackers) {
+        RateTracker rateTracker = rateTrackers.get(name);
+        if (rateTracker == null) {
+            rateTracker = new RateTracker(count, timestamp);
+        }
+        currentRateTrackers.put(name, rateTracker);
+        return rateTracker.update(count, timestamp);
+    }
+
+    /**
+     * Adds the rows of the gauges {@link LatencyGauges} exports for a latency tracker, which the status dashboard reads
+     * the latencies from, so that they are available when the Carbon Metrics reporters are disabled.
+     */
+    private static void addLatencyGauges(String name, long timestamp, LatencyHistogram.Snapshot snapshot,
+                                         List<MetricSample> samples) {
+        samples.add(MetricSample.gauge(name, timestamp, String.valueOf(snapshot.getMean() / NANOS_PER_MILLI)));
+        samples.add(MetricSample.gauge(name + LatencyGauges.METRIC_SUFFIX_COUNT, timestamp,
+                String.valueOf(snapshot.getCount())));
+        samples.add(MetricSample.gauge(name + LatencyGauges.METRIC_SUFFIX_P50, timestamp,
+                String.valueOf(snapshot.getValueAtPercentile(50) / NANOS_PER_MILLI)));
+        samples.add(MetricSample.gauge(name + LatencyGauges.METRIC_SUFFIX_P95, timestamp,
+                String.valueOf(snapshot.getValueAtPercentile(95) / NANOS_PER_MILLI)));
+        samples.add(MetricSample.gauge(name + LatencyGauges.METRIC_SUFFIX_P99, timestamp,
+                String.valueOf(snapshot.getValueAtPercentile(99) / NANOS_PER_MILLI)));
+        samples.add(MetricSample.gauge(name + LatencyGauges.METRIC_SUFFIX_MAX, timestamp,
+                String.valueOf(snapshot.getMax() / NANOS_PER_MILLI)));
+    }
+
+    /**
+     * Adds the rows of the gauges {@link ThroughputGauges} exports for a throughput tracker, which the status dashboard
+     * reads the throughput from, so that it is available when the Carbon Metrics reporters are disabled.
+     */
+    private static void addThroughputGauges(String name, long timestamp, long count, double[] rates,
+                                            List<MetricSample> samples) {
+        samples.add(MetricSample.gauge(name, timestamp, String.valueOf(rates[1])));
+        samples.add(MetricSample.gauge(name + ThroughputGauges.METRIC_SUFFIX_COUNT, timestamp,
+                String.valueOf(count)));
+        samples.add(MetricSample.gauge(name + ThroughputGauges.METRIC_SUFFIX_MEAN_RATE, timestamp,
+                String.valueOf(rates[0])));
+        samples.add(MetricSample.gauge(name + ThroughputGauges.METRIC_SUFFIX_M5_RATE, timestamp,
+                String.valueOf(rates[2])));
+        samples.add(MetricSample.gauge(name + ThroughputGauges.METRIC_SUFFIX_M15_RATE, timestamp,
+                String.valueOf(rates[3])));
+    }
+
+    private static LatencyHistogram getLatencyHistogram(Object metric) {
+        if (metric instanceof SPLatencyMetric) {
+            return ((SPLatencyMetric) metric).getLatencyHistogram();
+        } else if (metric instanceof SPEndToEndLatencyMetric) {
+            return ((SPEndToEndLatencyMetric) metric).getLatencyHistogram();
+        } else if (metric instanceof LatencyHistogram) {
+            return (LatencyHistogram) metric;
+        }
+        return null;
+    }
+
+    private void enqueue(List<MetricSample> rows) {
+        for (MetricSample row : rows) {
+            if (!pendingRows.offer(row)) {
+                droppedRows++;
+            }
+        }
+        if (droppedRows > 0) {
+            log.warn("Dropped " + droppedRows + " metric rows as the metrics database could not keep up. Consider " +
+                    "increasing the polling period or the maximum pending rows of the JDBC reporter.");
+            droppedRows = 0;
+        }
+    }
+
+    /**
+     * Writer loop, which writes the queued rows in batches and deletes the expired rows when due.
+     */
+    private void write() {
+        List<MetricSample> batch = new ArrayList<>(config.getBatchSize());
+        long nextCleanupTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(config.getPollingPeriod());
+        while (running || !pendingRows.isEmpty()) {
+            try {
+                MetricSample row = pendingRows.poll(WRITER_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                if (row != null) {
+                    batch.add(row);
+                    pendingRows.drainTo(batch, config.getBatchSize() - 1);
+                    writeBatch(batch);
+                    batch.clear();
+                }
+                if (running && System.currentTimeMillis() >= nextCleanupTime) {
+                    cleanup(System.currentTimeMillis());
+                    nextCleanupTime = System.currentTimeMillis() +
+                            TimeUnit.SECONDS.toMillis(config.getScheduledCleanupPeriod());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable t) {
+                log.error("Error while writing the Stream Processor metrics to the database.", t);
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<MetricSample> batch) throws SQLException {
+        Map<MetricSample.MetricTable, Map<String, List<MetricSample>>> rowsByTable =
+                new EnumMap<>(MetricSample.MetricTable.class);
+        for (MetricSample row : batch) {
+            rowsByTable.computeIfAbsent(row.getTable(), key -> new HashMap<>())
+                    .computeIfAbsent(row.getTableSuffix(), key -> new ArrayList<>()).add(row);
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (Map.Entry<MetricSample.MetricTable, Map<String, List<MetricSample>>> tableRows :
+                        rowsByTable.entrySet()) {
+                    for (Map.Entry<String, List<MetricSample>> rows : tableRows.getValue().entrySet()) {
+                        try (PreparedStatement statement = connection.prepareStatement(
+                                tableRows.getKey().getInsertQuery(rows.getKey()))) {
+                            for (MetricSample row : rows.getValue()) {
+                                bind(statement, row);
+                                statement.addBatch();
+                            }
+                            statement.executeBatch();
+                        }
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void bind(PreparedStatement statement, MetricSample row) throws SQLException {
+        int index = 1;
+        statement.setString(index++, source);
+        statement.setLong(index++, row.getTimestamp());
+        statement.setString(index++, row.getName());
+        if (row.getTable() == MetricSample.MetricTable.GAUGE) {
+            statement.setString(index, row.getValue());
+            return;
+        }
+        statement.setLong(index++, row.getCount());
+        if (row.getTable() == MetricSample.MetricTable.TIMER) {
+            LatencyHistogram.Snapshot snapshot = row.getSnapshot();
+            statement.setDouble(index++, snapshot.getMax() / NANOS_PER_MILLI);
+            statement.setDouble(index++, snapshot.getMean() / NANOS_PER_MILLI);
+            statement.setDouble(index++, snapshot.getMin() / NANOS_PER_MILLI);
+            statement.setDouble(index++, snapshot.getStdDev() / NANOS_PER_MILLI);
+            for (double percentile : new double[]{50, 75, 95, 98, 99, 99.9}) {
+                statement.setDouble(index++, snapshot.getValueAtPercentile(percentile) / NANOS_PER_MILLI);
+            }
+        }
+        statement.setDouble(index++, row.getMeanRate());
+        statement.setDouble(index++, row.getOneMinuteRate());
+        statement.setDouble(index++, row.getFiveMinuteRate());
+        statement.setDouble(index++, row.getFifteenMinuteRate());
+        if (row.getTable() == MetricSample.MetricTable.TIMER) {
+            statement.setString(index++, RATE_UNIT_CALLS);
+            statement.setString(index, DURATION_UNIT);
+        } else {
+            statement.setString(index, RATE_UNIT_EVENTS);
+        }
+    }
+
+    /**
+     * Deletes the raw rows of the reported metrics, if raw data is reported, and the rollup rows which are older than
+     * their retention periods.
+     */
+    private void cleanup(long currentTime) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (MetricSample.MetricTable table : MetricSample.MetricTable.values()) {
+                    // Raw rows are only owned by this reporter when it writes them, as the Carbon Metrics JDBC
+                    // reporter may write rows with the same names otherwise
+                    if (config.isReportRawData() && config.getRawDataHoursToKeep() > 0) {
+                        long rawDataExpiryTime = currentTime - TimeUnit.HOURS.toMillis(config.getRawDataHoursToKeep());
+                        for (String namePattern : RAW_DATA_NAME_PATTERNS) {
+                            delete(connection, "DELETE FROM " + table.getTableName() +
+                                    " WHERE SOURCE = ? AND TIMESTAMP < ? AND NAME LIKE ?", rawDataExpiryTime,
+                                    namePattern);
+                        }
+                    }
+                    delete(connection, "DELETE FROM " + table.getTableName() + MINUTE_ROLLUP_SUFFIX +
+                                    " WHERE SOURCE = ? AND TIMESTAMP < ?",
+                            currentTime - TimeUnit.DAYS.toMillis(config.getMinuteRollupDaysToKeep()), null);
+                    delete(connection, "DELETE FROM " + table.getTableName() + HOUR_ROLLUP_SUFFIX +
+                                    " WHERE SOURCE = ? AND TIMESTAMP < ?",
+                            currentTime - TimeUnit.DAYS.toMillis(config.getHourRollupDaysToKeep()), null);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void delete(Connection connection, String query, long expiryTime, String namePattern)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, source);
+            statement.setLong(2, expiryTime);
+            if (namePattern != null) {
+                statement.setString(3, namePattern);
+            }
+            int deletedRows = statement.executeUpdate();
+            if (log.isDebugEnabled() && deletedRows > 0) {
+                log.debug("Deleted " + deletedRows + " expired metric rows with '" + query + "'.");
+            }
+        }
+    }
+
+    private static Thread createThread(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static String getHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "Carbon";
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core.jdbc;
+
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Element;
+
+/**
+ * Configuration of the Stream Processor JDBC metrics reporter.
+ */
+@Configuration(namespace = "wso2.sp.metrics.jdbc", description = "Stream Processor JDBC metrics reporter configuration")
+public class JDBCReporterConfig {
+    @Element(description = "Enable the Stream Processor JDBC metrics reporter")
+    private boolean enabled = false;
+
+    @Element(description = "Name of the data source the metrics are written to")
+    private String dataSource = "WSO2_METRICS_DB";
+
+    @Element(description = "Source of the metrics, which identifies this node in the database. Hostname is used " +
+            "if not set")
+    private String source = "";
+
+    @Element(description = "Period in seconds at which the metrics are sampled")
+    private int pollingPeriod = 15;
+
+    @Element(description = "Write the sampled values to the raw metrics tables as well as to the rollup tables. " +
+            "Keep this disabled while the Carbon Metrics JDBC reporter reports the same metrics")
+    private boolean reportRawData = false;
+
+    @Element(description = "Maximum number of rows written in a single JDBC batch")
+    private int batchSize = 500;
+
+    @Element(description = "Maximum number of rows waiting to be written, after which new rows are dropped")
+    private int maxPendingRows = 100000;
+
+    @Element(description = "Hours the raw Stream Processor metrics are kept for. Raw data is not deleted if zero")
+    private int rawDataHoursToKeep = 24;
+
+    @Element(description = "Days the one minute rollups are kept for")
+    private int minuteRollupDaysToKeep = 7;
+
+    @Element(description = "Days the one hour rollups are kept for")
+    private int hourRollupDaysToKeep = 90;
+
+    @Element(description = "Period in seconds at which expired metrics are deleted")
+    private int scheduledCleanupPeriod = 3600;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDataSource() {
+        return dataSource;
+    }
+
+    public void setDataSource(String dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public int getPollingPeriod() {
+        return pollingPeriod;
+    }
+
+    public void setPollingPeriod(int pollingPeriod) {
+        this.pollingPeriod = pollingPeriod;
+    }
+
+    public boolean isReportRawData() {
+        return reportRawData;
+    }
+
+    public void setReportRawData(boolean reportRawData) {
+        this.reportRawData = reportRawData;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxPendingRows() {
+        return maxPendingRows;
+    }
+
+    public void setMaxPendingRows(int maxPendingRows) {
+        this.maxPendingRows = maxPendingRows;
+    }
+
+    public int getRawDataHoursToKeep() {
+        return rawDataHoursToKeep;
+    }
+
+    public void setRawDataHoursToKeep(int rawDataHoursToKeep) {
+        this.rawDataHoursToKeep = rawDataHoursToKeep;
+    }
+
+    public int getMinuteRollupDaysToKeep() {
+        return minuteRollupDaysToKeep;
+    }
+
+    public void setMinuteRollupDaysToKeep(int minuteRollupDaysToKeep) {
+        this.minuteRollupDaysToKeep = minuteRollupDaysToKeep;
+    }
+
+    public int getHourRollupDaysToKeep() {
+        return hourRollupDaysToKeep;
+    }
+
+    public void setHourRollupDaysToKeep(int hourRollupDaysToKeep) {
+        this.hourRollupDaysToKeep = hourRollupDaysToKeep;
+    }
+
+    public int getScheduledCleanupPeriod() {
+        return scheduledCleanupPeriod;
+    }
+
+    public void setScheduledCleanupPeriod(int scheduledCleanupPeriod) {
+        this.scheduledCleanupPeriod = scheduledCleanupPeriod;
+    }
+}
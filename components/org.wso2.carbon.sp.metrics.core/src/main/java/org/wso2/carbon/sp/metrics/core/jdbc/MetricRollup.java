@@ -0,0 +1,139 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core.jdbc;
+
+import org.wso2.carbon.sp.metrics.core.LatencyHistogram;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates metric samples into fixed time buckets. A bucket is emitted as one row per metric once a sample of a
+ * later bucket arrives, with the bucket start as its timestamp.
+ * <p>
+ * Latency histograms are merged, so the percentiles of a rollup row are computed over all the values of the bucket
+ * rather than averaged. Rates and numeric gauges are averaged, and counts keep their last value. Instances are not
+ * thread safe.
+ */
+final class MetricRollup {
+    private final long resolution;
+    private final String tableSuffix;
+    private final Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+    private long bucketStart = -1;
+
+    /**
+     * @param resolution  bucket length in milliseconds
+     * @param tableSuffix suffix of the rollup tables the rows are written to
+     */
+    MetricRollup(long resolution, String tableSuffix) {
+        this.resolution = resolution;
+        this.tableSuffix = tableSuffix;
+    }
+
+    /**
+     * @param sample        sample to be added to the bucket of its timestamp
+     * @param completedRows receives the rows of the previous bucket, if the sample starts a new bucket
+     */
+    void add(MetricSample sample, List<MetricSample> completedRows) {
+        long sampleBucketStart = sample.getTimestamp() - sample.getTimestamp() % resolution;
+        if (sampleBucketStart > bucketStart) {
+            flush(completedRows);
+            bucketStart = sampleBucketStart;
+        } else if (sampleBucketStart < bucketStart) {
+            return;
+        }
+        accumulators.computeIfAbsent(sample.getTable() + sample.getName(), key -> new Accumulator(sample))
+                .add(sample);
+    }
+
+    /**
+     * Emits the rows of the current bucket, even though the bucket may not be complete yet.
+     *
+     * @param completedRows receives the rows of the current bucket
+     */
+    void flush(List<MetricSample> completedRows) {
+        for (Accumulator accumulator : accumulators.values()) {
+            MetricSample row = accumulator.toRow(bucketStart);
+            row.setTableSuffix(tableSuffix);
+            completedRows.add(row);
+        }
+        accumulators.clear();
+    }
+
+    private static final class Accumulator {
+        private final MetricSample.MetricTable table;
+        private final String name;
+        private int sampleCount;
+        private int numericSampleCount;
+        private double numericSum;
+        private String lastValue;
+        private long lastCount;
+        private double lastMeanRate;
+        private double oneMinuteRateSum;
+        private double fiveMinuteRateSum;
+        private double fifteenMinuteRateSum;
+        private LatencyHistogram.Snapshot snapshot = LatencyHistogram.Snapshot.empty();
+
+        private Accumulator(MetricSample sample) {
+            this.table = sample.getTable();
+            this.name = sample.getName();
+        }
+
+        private void add(MetricSample sample) {
+            sampleCount++;
+            if (table == MetricSample.MetricTable.GAUGE) {
+                lastValue = sample.getValue();
+                try {
+                    numericSum += Double.parseDouble(lastValue);
+                    numericSampleCount++;
+                } catch (NumberFormatException e) {
+                    // Non numeric gauges keep their last value
+                }
+                return;
+            }
+            lastCount = sample.getCount();
+            lastMeanRate = sample.getMeanRate();
+            oneMinuteRateSum += sample.getOneMinuteRate();
+            fiveMinuteRateSum += sample.getFiveMinuteRate();
+            fifteenMinuteRateSum += sample.getFifteenMinuteRate();
+            if (sample.getSnapshot() != null) {
+                snapshot = snapshot.plus(sample.getSnapshot());
+            }
+        }
+
+        private MetricSample toRow(long timestamp) {
+            if (table == MetricSample.MetricTable.GAUGE) {
+                String value = lastValue;
+                if (numericSampleCount == sampleCount) {
+                    double mean = numericSum / numericSampleCount;
+                    value = BigDecimal.valueOf(mean).stripTrailingZeros().toPlainString();
+                }
+                return MetricSample.gauge(name, timestamp, value);
+            }
+            double[] rates = {lastMeanRate, oneMinuteRateSum / sampleCount, fiveMinuteRateSum / sampleCount,
+                    fifteenMinuteRateSum / sampleCount};
+            if (table == MetricSample.MetricTable.METER) {
+                return MetricSample.meter(name, timestamp, lastCount, rates);
+            }
+            return MetricSample.timer(name, timestamp, lastCount, rates, snapshot);
+        }
+    }
+}
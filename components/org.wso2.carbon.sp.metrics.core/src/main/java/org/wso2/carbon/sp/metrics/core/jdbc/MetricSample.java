@@ -0,0 +1,158 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core.jdbc;
+
+import org.wso2.carbon.sp.metrics.core.LatencyHistogram;
+
+/**
+ * Value of a metric at a point in time, or of a rollup interval, in the shape of a row of the metrics tables.
+ */
+final class MetricSample {
+    private final MetricTable table;
+    private final String name;
+    private final long timestamp;
+    private String value;
+    private long count;
+    private double meanRate;
+    private double oneMinuteRate;
+    private double fiveMinuteRate;
+    private double fifteenMinuteRate;
+    private LatencyHistogram.Snapshot snapshot;
+    private String tableSuffix = "";
+
+    private MetricSample(MetricTable table, String name, long timestamp) {
+        this.table = table;
+        this.name = name;
+        this.timestamp = timestamp;
+    }
+
+    static MetricSample gauge(String name, long timestamp, String value) {
+        MetricSample sample = new MetricSample(MetricTable.GAUGE, name, timestamp);
+        sample.value = value;
+        return sample;
+    }
+
+    static MetricSample meter(String name, long timestamp, long count, double[] rates) {
+        MetricSample sample = new MetricSample(MetricTable.METER, name, timestamp);
+        sample.setCount(count, rates);
+        return sample;
+    }
+
+    /**
+     * @param snapshot latency values recorded within the sampled interval
+     */
+    static MetricSample timer(String name, long timestamp, long count, double[] rates,
+                              LatencyHistogram.Snapshot snapshot) {
+        MetricSample sample = new MetricSample(MetricTable.TIMER, name, timestamp);
+        sample.setCount(count, rates);
+        sample.snapshot = snapshot;
+        return sample;
+    }
+
+    private void setCount(long count, double[] rates) {
+        this.count = count;
+        this.meanRate = rates[0];
+        this.oneMinuteRate = rates[1];
+        this.fiveMinuteRate = rates[2];
+        this.fifteenMinuteRate = rates[3];
+    }
+
+    MetricTable getTable() {
+        return table;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    long getTimestamp() {
+        return timestamp;
+    }
+
+    String getValue() {
+        return value;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    double getMeanRate() {
+        return meanRate;
+    }
+
+    double getOneMinuteRate() {
+        return oneMinuteRate;
+    }
+
+    double getFiveMinuteRate() {
+        return fiveMinuteRate;
+    }
+
+    double getFifteenMinuteRate() {
+        return fifteenMinuteRate;
+    }
+
+    LatencyHistogram.Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return suffix of the rollup table the sample belongs to, or an empty string for raw samples
+     */
+    String getTableSuffix() {
+        return tableSuffix;
+    }
+
+    void setTableSuffix(String tableSuffix) {
+        this.tableSuffix = tableSuffix;
+    }
+
+    /**
+     * Tables of the metrics database written by the reporter. The rollup tables share the columns of these tables,
+     * apart from the generated id, and are named with the suffix of the rollup resolution.
+     */
+    enum MetricTable {
+        GAUGE("METRIC_GAUGE", "SOURCE, TIMESTAMP, NAME, VALUE"),
+        METER("METRIC_METER", "SOURCE, TIMESTAMP, NAME, COUNT, MEAN_RATE, M1_RATE, M5_RATE, M15_RATE, RATE_UNIT"),
+        TIMER("METRIC_TIMER", "SOURCE, TIMESTAMP, NAME, COUNT, MAX, MEAN, MIN, STDDEV, P50, P75, P95, P98, P99, " +
+                "P999, MEAN_RATE, M1_RATE, M5_RATE, M15_RATE, RATE_UNIT, DURATION_UNIT");
+
+        private final String tableName;
+        private final String columns;
+
+        MetricTable(String tableName, String columns) {
+            this.tableName = tableName;
+            this.columns = columns;
+        }
+
+        String getTableName() {
+            return tableName;
+        }
+
+        String getInsertQuery(String tableSuffix) {
+            StringBuilder query = new StringBuilder("INSERT INTO ").append(tableName).append(tableSuffix)
+                    .append(" (").append(columns).append(") VALUES (?");
+            for (int i = columns.split(",").length; i > 1; i--) {
+                query.append(", ?");
+            }
+            return query.append(')').toString();
+        }
+    }
+}
@@ -27,11 +27,13 @@ import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.Test;
+import org.wso2.carbon.metrics.core.Gauge;
 import org.wso2.carbon.metrics.core.Level;
 import org.wso2.carbon.metrics.core.MetricManagementService;
 import org.wso2.carbon.metrics.core.MetricService;
 import org.wso2.carbon.metrics.core.Metrics;
 import org.wso2.carbon.sp.metrics.core.internal.SPMetricsDataHolder;
+import org.wso2.carbon.sp.metrics.core.internal.SPMetricsManagement;
 import org.wso2.carbon.sp.metrics.core.internal.SPStatisticsManager;
 import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
@@ -41,8 +43,12 @@ import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.statistics.EventBufferHolder;
+import org.wso2.siddhi.core.util.statistics.ThroughputTracker;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Test case for carbon metrics inside siddhi.
@@ -261,6 +267,409 @@ public class StatisticsTestCase {
         metricManagementService.stopReporter("Console");
     }
     
+    @Test
+    public void memoryUsageEstimationTest() {
+        SPMemoryUsageMetric memoryUsageTracker = new SPMemoryUsageMetric(metricService, "MetricsTest3");
+        mockmoryObject object = new mockmoryObject("test.memory.estimation");
+        SPMemoryUsageMetric.ObjectMetric objectMetric = memoryUsageTracker.new ObjectMetric(
+                object, "test.memory.estimation");
+        AssertJUnit.assertTrue(MemoryUsageEstimator.getInstance().isTracked(objectMetric));
+        MemoryUsageEstimator.getInstance().estimate();
+        long estimatedSize = objectMetric.getGauge().getValue();
+        AssertJUnit.assertTrue(estimatedSize > 0);
+        metricService.remove("test.memory.estimation");
+    }
+
+    @Test
+    public void memoryUsageEstimationReleaseTest() {
+        SPMemoryUsageMetric memoryUsageTracker = new SPMemoryUsageMetric(metricService, "MetricsTest3");
+        SPMemoryUsageMetric.ObjectMetric objectMetric = memoryUsageTracker.new ObjectMetric(
+                new mockmoryObject("test.memory.release"), "test.memory.release");
+        AssertJUnit.assertTrue(MemoryUsageEstimator.getInstance().isTracked(objectMetric));
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> {
+            System.gc();
+            return objectMetric.getObject() == null;
+        });
+        MemoryUsageEstimator.getInstance().estimate();
+        AssertJUnit.assertFalse(MemoryUsageEstimator.getInstance().isTracked(objectMetric));
+        metricService.remove("test.memory.release");
+    }
+
+    @Test
+    public void latencyHistogramTest() throws InterruptedException {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            latencyHistogram.record(i * 1000);
+        }
+        Thread thread = new Thread(() -> latencyHistogram.record(2000000));
+        thread.start();
+        thread.join();
+        AssertJUnit.assertEquals(1001, latencyHistogram.getCount());
+        AssertJUnit.assertEquals(1, latencyHistogram.getRecorderCount());
+        AssertJUnit.assertEquals(2000000, latencyHistogram.getMax());
+        long median = latencyHistogram.getValueAtPercentile(50);
+        AssertJUnit.assertTrue(Math.abs(median - 500000) <= 500000 / 16);
+        long highest = latencyHistogram.getValueAtPercentile(100);
+        AssertJUnit.assertTrue(Math.abs(highest - 2000000) <= 2000000 / 16);
+    }
+
+    @Test
+    public void latencyGaugesTest() throws InterruptedException {
+        String name = "org.wso2.siddhi.SiddhiApps.MetricsTest12.Siddhi.Queries.query1.latency";
+        SPLatencyMetric latencyTracker = new SPLatencyMetric(name, metricService);
+        LatencyHistogram latencyHistogram = latencyTracker.getLatencyHistogram();
+        for (int i = 0; i < 10; i++) {
+            Thread thread = new Thread(() -> {
+                for (long j = 1; j <= 100; j++) {
+                    latencyHistogram.record(j * 1000000);
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+        Map<String, Gauge<? extends Number>> gauges = latencyTracker.getLatencyGauges().getGauges();
+        AssertJUnit.assertEquals(1000L, gauges.get(name + LatencyGauges.METRIC_SUFFIX_COUNT).getValue());
+        AssertJUnit.assertEquals(0, latencyHistogram.getRecorderCount());
+        AssertJUnit.assertEquals(50.5, gauges.get(name).getValue().doubleValue(), 0.001);
+        AssertJUnit.assertEquals(50, gauges.get(name + LatencyGauges.METRIC_SUFFIX_P50).getValue().doubleValue(),
+                50 / 16d);
+        AssertJUnit.assertEquals(99, gauges.get(name + LatencyGauges.METRIC_SUFFIX_P99).getValue().doubleValue(),
+                99 / 16d);
+        AssertJUnit.assertEquals(100, gauges.get(name + LatencyGauges.METRIC_SUFFIX_MAX).getValue().doubleValue(),
+                100 / 16d);
+        AssertJUnit.assertEquals("INFO", metricManagementService.getMetricLevel(name + LatencyGauges
+                .METRIC_SUFFIX_P99).name());
+
+        // Values recorded afterwards only show up once the shared snapshot is refreshed
+        latencyHistogram.record(1000000);
+        AssertJUnit.assertEquals(1000L, gauges.get(name + LatencyGauges.METRIC_SUFFIX_COUNT).getValue());
+        AssertJUnit.assertEquals(1001, latencyHistogram.getCount());
+        latencyTracker.getLatencyGauges().setEnabled(false);
+        AssertJUnit.assertFalse(latencyTracker.getLatencyGauges().isEnabled());
+    }
+
+    @Test
+    public void throughputGaugesTest() throws InterruptedException {
+        String name = "test.throughput.gauges";
+        SPThroughputMetric throughputTracker = new SPThroughputMetric(name, metricService);
+        Map<String, Gauge<? extends Number>> gauges = throughputTracker.getThroughputGauges().getGauges();
+        for (int i = 0; i < 1000; i++) {
+            throughputTracker.eventIn();
+        }
+        throughputTracker.eventsIn(500);
+        AssertJUnit.assertEquals(1500L, gauges.get(name + ThroughputGauges.METRIC_SUFFIX_COUNT).getValue());
+        AssertJUnit.assertEquals("INFO", metricManagementService.getMetricLevel(name + ThroughputGauges
+                .METRIC_SUFFIX_M15_RATE).name());
+
+        // The rates are computed from the count when they are read, at most once per second
+        AssertJUnit.assertEquals(0.0, gauges.get(name).getValue().doubleValue());
+        Thread.sleep(1100);
+        double oneMinuteRate = gauges.get(name).getValue().doubleValue();
+        AssertJUnit.assertTrue(oneMinuteRate > 0 && oneMinuteRate <= 1500);
+        AssertJUnit.assertEquals(oneMinuteRate, gauges.get(name + ThroughputGauges.METRIC_SUFFIX_M5_RATE).getValue()
+                .doubleValue());
+        AssertJUnit.assertTrue(gauges.get(name + ThroughputGauges.METRIC_SUFFIX_MEAN_RATE).getValue()
+                .doubleValue() > 0);
+        throughputTracker.getThroughputGauges().setEnabled(false);
+        AssertJUnit.assertFalse(throughputTracker.getThroughputGauges().isEnabled());
+    }
+
+    @Test
+    public void throughputConcurrentTest() throws InterruptedException {
+        String name = "test.throughput.concurrent";
+        SPThroughputMetric throughputTracker = new SPThroughputMetric(name, metricService);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    throughputTracker.eventIn();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        AssertJUnit.assertEquals(40000, throughputTracker.getCount());
+        AssertJUnit.assertEquals(40000L, throughputTracker.getThroughputGauges().getGauges()
+                .get(name + ThroughputGauges.METRIC_SUFFIX_COUNT).getValue());
+        throughputTracker.getThroughputGauges().setEnabled(false);
+    }
+
+    @Test
+    public void endToEndLatencyTest() {
+        SPMetricsFactory metricsFactory = new SPMetricsFactory();
+        SPEndToEndLatencyMetric latencyTracker = metricsFactory.createEndToEndLatencyTracker("MetricsTest4");
+        AssertJUnit.assertSame(latencyTracker, metricsFactory.getEndToEndLatencyTracker("MetricsTest4"));
+        AssertJUnit.assertEquals("org.wso2.siddhi.SiddhiApps.MetricsTest4.Siddhi.EndToEnd.latency",
+                latencyTracker.getName());
+        latencyTracker.markOut(System.currentTimeMillis() - 5);
+        AssertJUnit.assertEquals(0, latencyTracker.getLatencyHistogram().getCount());
+        new SPStatisticsManager("MetricsTest4").startReporting();
+        latencyTracker.markOut(System.currentTimeMillis() - 5);
+        AssertJUnit.assertEquals(1, latencyTracker.getLatencyHistogram().getCount());
+        AssertJUnit.assertTrue(latencyTracker.getLatencyHistogram().getValueAtPercentile(50) >= 4000000);
+        new SPStatisticsManager("MetricsTest4").cleanup();
+        AssertJUnit.assertNull(metricsFactory.getEndToEndLatencyTracker("MetricsTest4"));
+    }
+
+    @Test
+    public void prometheusExporterTest() {
+        SPMetricsFactory metricsFactory = new SPMetricsFactory();
+        SPStatisticsManager statisticsManager = new SPStatisticsManager("MetricsTest5");
+        ThroughputTracker throughputTracker = metricsFactory.createThroughputTracker(
+                "org.wso2.siddhi.SiddhiApps.MetricsTest5.Siddhi.Streams.cseEventStream.throughput", statisticsManager);
+        throughputTracker.eventsIn(10);
+        SPLatencyMetric latencyTracker = (SPLatencyMetric) metricsFactory.createLatencyTracker(
+                "org.wso2.siddhi.SiddhiApps.MetricsTest5.Siddhi.Queries.query1.latency", statisticsManager);
+        latencyTracker.getLatencyHistogram().record(2000000);
+        String output = new String(new PrometheusExporter(0).scrape(), StandardCharsets.UTF_8);
+        AssertJUnit.assertFalse(output.contains("MetricsTest5"));
+        statisticsManager.startReporting();
+        output = new String(new PrometheusExporter(0).scrape(), StandardCharsets.UTF_8);
+        AssertJUnit.assertTrue(output.contains("# TYPE sp_throughput_events_total counter\n"));
+        AssertJUnit.assertTrue(output.contains("sp_throughput_events_total{component=\"MetricsTest5\"," +
+                "name=\"Siddhi.Streams.cseEventStream\"} 10\n"));
+        AssertJUnit.assertTrue(output.contains("sp_latency_seconds_count{component=\"MetricsTest5\"," +
+                "name=\"Siddhi.Queries.query1\"} 1\n"));
+        SPMetricsManagement.getInstance().setMetricsEnabled("MetricsTest5", SPMetricsManagement.MetricType.LATENCY,
+                false);
+        output = new String(new PrometheusExporter(0).scrape(), StandardCharsets.UTF_8);
+        AssertJUnit.assertTrue(output.contains("sp_throughput_events_total{component=\"MetricsTest5\""));
+        AssertJUnit.assertFalse(output.contains("sp_latency_seconds_count{component=\"MetricsTest5\""));
+        statisticsManager.cleanup();
+        output = new String(new PrometheusExporter(0).scrape(), StandardCharsets.UTF_8);
+        AssertJUnit.assertFalse(output.contains("MetricsTest5"));
+    }
+
+    @Test
+    public void latencySnapshotTest() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        latencyHistogram.record(1000);
+        LatencyHistogram.Snapshot first = latencyHistogram.getSnapshot();
+        latencyHistogram.record(3000000);
+        latencyHistogram.record(3000000);
+        LatencyHistogram.Snapshot delta = latencyHistogram.getSnapshot().minus(first);
+        AssertJUnit.assertEquals(2, delta.getCount());
+        AssertJUnit.assertEquals(6000000, delta.getSum());
+        AssertJUnit.assertTrue(delta.getMin() > 2800000);
+        LatencyHistogram.Snapshot merged = first.plus(delta);
+        AssertJUnit.assertEquals(3, merged.getCount());
+        AssertJUnit.assertTrue(merged.getMin() < 1100);
+        AssertJUnit.assertEquals(latencyHistogram.getValueAtPercentile(99), merged.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void metricsToggleTest() {
+        SPMetricsFactory metricsFactory = new SPMetricsFactory();
+        SPStatisticsManager statisticsManager1 = new SPStatisticsManager("MetricsTest6");
+        SPStatisticsManager statisticsManager2 = new SPStatisticsManager("MetricsTest7");
+        String name1 = "org.wso2.siddhi.SiddhiApps.MetricsTest6.Siddhi.Queries.query1.latency";
+        String name2 = "org.wso2.siddhi.SiddhiApps.MetricsTest7.Siddhi.Queries.query1.latency";
+        SPLatencyMetric latencyTracker1 = (SPLatencyMetric) metricsFactory.createLatencyTracker(name1,
+                statisticsManager1);
+        SPLatencyMetric latencyTracker2 = (SPLatencyMetric) metricsFactory.createLatencyTracker(name2,
+                statisticsManager2);
+        statisticsManager1.startReporting();
+        statisticsManager2.startReporting();
+        statisticsManager1.stopReporting();
+        AssertJUnit.assertFalse(SPMetricsManagement.getInstance().isMetricsEnabled("MetricsTest6"));
+        AssertJUnit.assertTrue(SPMetricsManagement.getInstance().isMetricsEnabled("MetricsTest7"));
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> !latencyTracker1.getLatencyGauges().isEnabled());
+        AssertJUnit.assertTrue(latencyTracker2.getLatencyGauges().isEnabled());
+        AssertJUnit.assertEquals("INFO", metricManagementService.getMetricLevel(name2).name());
+        statisticsManager1.cleanup();
+        statisticsManager2.cleanup();
+        AssertJUnit.assertFalse(SPMetricsManagement.getInstance().isMetricsEnabled("MetricsTest7"));
+    }
+
+    @Test
+    public void resourceUsageTest() throws InterruptedException {
+        SPMetricsFactory metricsFactory = new SPMetricsFactory();
+        SPStatisticsManager statisticsManager = (SPStatisticsManager) metricsFactory.createStatisticsManager(null,
+                "MetricsTest8", null);
+        SPResourceUsageMetric resourceUsageTracker = metricsFactory.getResourceUsageTracker("MetricsTest8");
+        AssertJUnit.assertNotNull(resourceUsageTracker);
+        statisticsManager.startReporting();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread thread = new Thread(() -> {
+            while (running.get()) {
+                count += new byte[128].length;
+            }
+        }, "Siddhi-MetricsTest8-executor-thread-1");
+        thread.start();
+        ThreadResourceAccountant.getInstance().sample();
+        Thread.sleep(200);
+        ThreadResourceAccountant.getInstance().sample();
+        running.set(false);
+        thread.join();
+        AssertJUnit.assertTrue(resourceUsageTracker.getCpuTime() > 0);
+        AssertJUnit.assertTrue(resourceUsageTracker.getCpuUsage() > 0);
+        statisticsManager.cleanup();
+        AssertJUnit.assertNull(metricsFactory.getResourceUsageTracker("MetricsTest8"));
+    }
+
+    @Test
+    public void stackProfilerTest() throws InterruptedException {
+        SPMetricsFactory metricsFactory = new SPMetricsFactory();
+        SPStatisticsManager statisticsManager = (SPStatisticsManager) metricsFactory.createStatisticsManager(null,
+                "MetricsTest9", null);
+        AssertJUnit.assertNull(SPStackProfiler.getInstance().getFoldedStacks("MetricsTest9"));
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread thread = new Thread(() -> {
+            while (running.get()) {
+                count += new byte[128].length;
+            }
+        }, "Siddhi-MetricsTest9-executor-thread-1");
+        thread.start();
+        SPStackProfiler.getInstance().start("MetricsTest9");
+        for (int i = 0; i < 10; i++) {
+            SPStackProfiler.getInstance().sample();
+            Thread.sleep(10);
+        }
+        running.set(false);
+        thread.join();
+        AssertJUnit.assertTrue(SPStackProfiler.getInstance().getSampleCount("MetricsTest9") > 0);
+        AssertJUnit.assertTrue(SPStackProfiler.getInstance().getFoldedStacks("MetricsTest9")
+                .contains("java.lang.Thread.run;"));
+        statisticsManager.cleanup();
+        AssertJUnit.assertFalse(SPStackProfiler.getInstance().isProfiling("MetricsTest9"));
+    }
+
+    @Test
+    public void bufferedEventsTest() throws InterruptedException {
+        SPMetricsFactory metricsFactory = new SPMetricsFactory();
+        SPStatisticsManager statisticsManager = (SPStatisticsManager) metricsFactory.createStatisticsManager(null,
+                "MetricsTest10", null);
+        SPBufferedEventsMetric bufferedEventsTracker = (SPBufferedEventsMetric) metricsFactory
+                .createBufferSizeTracker(statisticsManager);
+        MockRingBufferHolder eventBufferHolder = new MockRingBufferHolder(4);
+        bufferedEventsTracker.registerEventBufferHolder(eventBufferHolder, "MetricsTest10.Streams.test.size");
+        SPBufferedEventsMetric.ObjectMetric objectMetric = bufferedEventsTracker.getObjectMetric(eventBufferHolder);
+        statisticsManager.startReporting();
+        bufferedEventsTracker.drain();
+        AssertJUnit.assertEquals(4, objectMetric.getCapacity());
+
+        eventBufferHolder.ringBuffer.publish(4);
+        Thread.sleep(20);
+        bufferedEventsTracker.drain();
+        AssertJUnit.assertTrue(objectMetric.getEnqueueRate() > 0);
+        AssertJUnit.assertEquals(0.0, objectMetric.getDequeueRate());
+        Thread.sleep(20);
+        bufferedEventsTracker.drain();
+        AssertJUnit.assertTrue(objectMetric.getBlockedTime() > 0);
+        AssertJUnit.assertTrue(objectMetric.getOldestEventAge() > 0);
+
+        eventBufferHolder.ringBuffer.consume(4);
+        Thread.sleep(20);
+        bufferedEventsTracker.drain();
+        AssertJUnit.assertTrue(objectMetric.getDequeueRate() > 0);
+        AssertJUnit.assertEquals(0, objectMetric.getOldestEventAge());
+        statisticsManager.cleanup();
+    }
+
+    @Test
+    public void hotSwapTest() {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setStatisticsConfiguration(new StatisticsConfiguration(new SPMetricsFactory()));
+        String siddhiApp = "@app:name('MetricsTest11')" +
+                "@app:statistics(reporter = 'console', interval = '1' )" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+        SiddhiAppRuntime oldSiddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp +
+                "@info(name = 'query2') " +
+                "from cseEventStream[volume > 90] " +
+                "select * " +
+                "insert into outputStream ;");
+        oldSiddhiAppRuntime.start();
+        String throughputName = "org.wso2.siddhi.SiddhiApps.MetricsTest11.Siddhi.Streams.cseEventStream.throughput";
+        String latencyName1 = "org.wso2.siddhi.SiddhiApps.MetricsTest11.Siddhi.Queries.query1.latency";
+        String latencyName2 = "org.wso2.siddhi.SiddhiApps.MetricsTest11.Siddhi.Queries.query2.latency";
+        AssertJUnit.assertTrue(SPMetricsManagement.getInstance().getRegisteredMetrics().get("MetricsTest11")
+                .containsKey(latencyName2));
+
+        // Same order as the hot swap of the Stream Processor: the updated runtime is started before the old runtime
+        // is shut down
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        oldSiddhiAppRuntime.shutdown();
+
+        SPMetricsFactory metricsFactory = new SPMetricsFactory();
+        Map<String, Object> registeredMetrics = SPMetricsManagement.getInstance().getRegisteredMetrics()
+                .get("MetricsTest11");
+        AssertJUnit.assertNotNull(registeredMetrics);
+        AssertJUnit.assertTrue(registeredMetrics.containsKey(throughputName));
+        AssertJUnit.assertTrue(registeredMetrics.containsKey(latencyName1));
+        AssertJUnit.assertFalse(registeredMetrics.containsKey(latencyName2));
+        AssertJUnit.assertTrue(SPMetricsManagement.getInstance().isMetricsEnabled("MetricsTest11"));
+        AssertJUnit.assertNotNull(metricsFactory.getResourceUsageTracker("MetricsTest11"));
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() ->
+                "INFO".equals(metricManagementService.getMetricLevel(latencyName1).name()));
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() ->
+                "INFO".equals(metricManagementService.getMetricLevel(throughputName).name()));
+        SPThroughputMetric throughputTracker = (SPThroughputMetric) registeredMetrics.get(throughputName);
+        AssertJUnit.assertTrue(throughputTracker.getThroughputGauges().isEnabled());
+        throughputTracker.eventIn();
+        AssertJUnit.assertEquals(1L, throughputTracker.getThroughputGauges().getGauges()
+                .get(throughputName + ThroughputGauges.METRIC_SUFFIX_COUNT).getValue());
+
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertNull(SPMetricsManagement.getInstance().getRegisteredMetrics().get("MetricsTest11"));
+        AssertJUnit.assertFalse(SPMetricsManagement.getInstance().isMetricsEnabled("MetricsTest11"));
+        AssertJUnit.assertNull(metricsFactory.getResourceUsageTracker("MetricsTest11"));
+    }
+
+    private static class MockRingBuffer {
+        private final int bufferSize;
+        private long cursor = -1;
+        private long consumed;
+
+        private MockRingBuffer(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public long getCursor() {
+            return cursor;
+        }
+
+        public long remainingCapacity() {
+            return bufferSize - (cursor + 1 - consumed);
+        }
+
+        private void publish(int count) {
+            cursor += count;
+        }
+
+        private void consume(int count) {
+            consumed += count;
+        }
+    }
+
+    private static class MockRingBufferHolder implements EventBufferHolder {
+        private final MockRingBuffer ringBuffer;
+
+        private MockRingBufferHolder(int bufferSize) {
+            this.ringBuffer = new MockRingBuffer(bufferSize);
+        }
+
+        @Override
+        public long getBufferedEvents() {
+            return ringBuffer.bufferSize - ringBuffer.remainingCapacity();
+        }
+
+        @Override
+        public boolean containsBufferedEvents() {
+            return getBufferedEvents() > 0;
+        }
+    }
+
     private class mockmoryObject {
         String name;
         
@@ -0,0 +1,466 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied. See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.sp.metrics.core.jdbc;
+
+import org.awaitility.Awaitility;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.testng.AssertJUnit;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.metrics.core.Gauge;
+import org.wso2.carbon.metrics.core.MetricService;
+import org.wso2.carbon.sp.metrics.core.LatencyGauges;
+import org.wso2.carbon.sp.metrics.core.LatencyHistogram;
+import org.wso2.carbon.sp.metrics.core.RateTracker;
+import org.wso2.carbon.sp.metrics.core.SPThroughputMetric;
+import org.wso2.carbon.sp.metrics.core.ThroughputGauges;
+import org.wso2.carbon.sp.metrics.core.internal.SPMetricsManagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+public class JDBCReporterTestCase {
+    private static final String COMPONENT_NAME = "JDBCReporterTest";
+    private static final String GAUGE_NAME = "org.wso2.sp.JDBCReporterTest.gauge";
+    private static final String LATENCY_NAME = "org.wso2.sp.JDBCReporterTest.latency";
+    private static final String THROUGHPUT_NAME = "org.wso2.sp.JDBCReporterTest.throughput";
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @BeforeMethod
+    public void setUp() {
+        SPMetricsManagement.getInstance().startMetrics(COMPONENT_NAME);
+    }
+
+    @AfterMethod
+    public void cleanUp() {
+        SPMetricsManagement.getInstance().cleanUpMetrics(COMPONENT_NAME);
+    }
+
+    @Test
+    public void rateTrackerTest() {
+        RateTracker rateTracker = new RateTracker(0, 0);
+
+        // The first interval initializes the moving rates with the rate of the interval
+        assertRates(new double[]{10, 10, 10, 10}, rateTracker.update(600, MINUTE));
+
+        // Later intervals decay towards the rate of the interval, with alpha = 1 - e^(-interval / window)
+        assertRates(new double[]{5, 10 * Math.exp(-1), 10 * Math.exp(-0.2), 10 * Math.exp(-1d / 15)},
+                rateTracker.update(600, 2 * MINUTE));
+
+        // A sample without elapsed time leaves the moving rates untouched
+        assertRates(new double[]{700 / 120d, 10 * Math.exp(-1), 10 * Math.exp(-0.2), 10 * Math.exp(-1d / 15)},
+                rateTracker.update(700, 2 * MINUTE));
+
+        // A counter which was reset is not reported with a negative rate
+        double[] rates = rateTracker.update(100, 3 * MINUTE);
+        AssertJUnit.assertEquals(100 / 180d, rates[0], 0.0001);
+        AssertJUnit.assertEquals(10 * Math.exp(-2), rates[1], 0.0001);
+    }
+
+    @Test
+    public void minuteRollupBoundaryTest() {
+        MetricRollup rollup = new MetricRollup(MINUTE, JDBCReporter.MINUTE_ROLLUP_SUFFIX);
+        List<MetricSample> rows = new ArrayList<>();
+        rollup.add(MetricSample.gauge(GAUGE_NAME, MINUTE, "2"), rows);
+        rollup.add(MetricSample.gauge(GAUGE_NAME, 2 * MINUTE - 1, "5"), rows);
+        rollup.add(MetricSample.gauge("non.numeric", MINUTE + 10, "a"), rows);
+        rollup.add(MetricSample.gauge("non.numeric", MINUTE + 20, "b"), rows);
+        AssertJUnit.assertTrue(rows.isEmpty());
+
+        // The first sample of the next minute completes the bucket
+        rollup.add(MetricSample.gauge(GAUGE_NAME, 2 * MINUTE, "10"), rows);
+        AssertJUnit.assertEquals(2, rows.size());
+        MetricSample row = rows.get(0);
+        AssertJUnit.assertEquals(GAUGE_NAME, row.getName());
+        AssertJUnit.assertEquals(MINUTE, row.getTimestamp());
+        AssertJUnit.assertEquals("3.5", row.getValue());
+        AssertJUnit.assertEquals(JDBCReporter.MINUTE_ROLLUP_SUFFIX, row.getTableSuffix());
+        AssertJUnit.assertEquals("b", rows.get(1).getValue());
+
+        // Samples of a completed bucket are ignored
+        rows.clear();
+        rollup.add(MetricSample.gauge(GAUGE_NAME, 2 * MINUTE - 1, "100"), rows);
+        rollup.flush(rows);
+        AssertJUnit.assertEquals(1, rows.size());
+        AssertJUnit.assertEquals(2 * MINUTE, rows.get(0).getTimestamp());
+        AssertJUnit.assertEquals("10", rows.get(0).getValue());
+
+        rows.clear();
+        rollup.flush(rows);
+        AssertJUnit.assertTrue(rows.isEmpty());
+    }
+
+    @Test
+    public void hourRollupBoundaryTest() {
+        MetricRollup rollup = new MetricRollup(HOUR, JDBCReporter.HOUR_ROLLUP_SUFFIX);
+        List<MetricSample> rows = new ArrayList<>();
+        rollup.add(MetricSample.meter("meter", HOUR, 100, new double[]{1, 2, 4, 6}), rows);
+        rollup.add(MetricSample.meter("meter", 2 * HOUR - MINUTE, 200, new double[]{3, 4, 6, 8}), rows);
+        AssertJUnit.assertTrue(rows.isEmpty());
+
+        rollup.add(MetricSample.meter("meter", 2 * HOUR, 300, new double[]{5, 6, 8, 10}), rows);
+        AssertJUnit.assertEquals(1, rows.size());
+        MetricSample row = rows.get(0);
+        AssertJUnit.assertEquals(MetricSample.MetricTable.METER, row.getTable());
+        AssertJUnit.assertEquals(HOUR, row.getTimestamp());
+        AssertJUnit.assertEquals(JDBCReporter.HOUR_ROLLUP_SUFFIX, row.getTableSuffix());
+        AssertJUnit.assertEquals(200, row.getCount());
+        AssertJUnit.assertEquals(3, row.getMeanRate(), 0.0001);
+        AssertJUnit.assertEquals(3, row.getOneMinuteRate(), 0.0001);
+        AssertJUnit.assertEquals(5, row.getFiveMinuteRate(), 0.0001);
+        AssertJUnit.assertEquals(7, row.getFifteenMinuteRate(), 0.0001);
+    }
+
+    @Test
+    public void timerRollupTest() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (long i = 1; i <= 100; i++) {
+            latencyHistogram.record(i * 1000000);
+        }
+        LatencyHistogram.Snapshot firstSnapshot = latencyHistogram.getSnapshot();
+        for (long i = 1; i <= 100; i++) {
+            latencyHistogram.record(i * 10000000);
+        }
+        LatencyHistogram.Snapshot secondSnapshot = latencyHistogram.getSnapshot().minus(firstSnapshot);
+
+        MetricRollup rollup = new MetricRollup(MINUTE, JDBCReporter.MINUTE_ROLLUP_SUFFIX);
+        List<MetricSample> rows = new ArrayList<>();
+        double[] rates = {1, 1, 1, 1};
+        rollup.add(MetricSample.timer(LATENCY_NAME, MINUTE, 100, rates, firstSnapshot), rows);
+        rollup.add(MetricSample.timer(LATENCY_NAME, MINUTE + 30000, 200, rates, secondSnapshot), rows);
+        rollup.flush(rows);
+
+        AssertJUnit.assertEquals(1, rows.size());
+        LatencyHistogram.Snapshot snapshot = rows.get(0).getSnapshot();
+        AssertJUnit.assertEquals(200, rows.get(0).getCount());
+        AssertJUnit.assertEquals(200, snapshot.getCount());
+        AssertJUnit.assertEquals(firstSnapshot.getSum() + secondSnapshot.getSum(), snapshot.getSum());
+        AssertJUnit.assertEquals(1000000000, snapshot.getMax(), 1000000000 / 16d);
+    }
+
+    @Test
+    public void latencyGaugesTest() throws SQLException {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (int i = 0; i < 10; i++) {
+            latencyHistogram.record(2000000);
+        }
+        SPMetricsManagement.getInstance().registerMetric(COMPONENT_NAME, LATENCY_NAME, latencyHistogram);
+        JDBCReporter reporter = new JDBCReporter(new JDBCReporterConfig(), new MockDatabase().dataSource);
+
+        // The latency is written as a timer and as the gauges the status dashboard reads
+        Map<String, String> gauges = new HashMap<>();
+        for (MetricSample sample : reporter.sample(MINUTE)) {
+            if (sample.getTable() == MetricSample.MetricTable.GAUGE) {
+                gauges.put(sample.getName(), sample.getValue());
+            } else {
+                AssertJUnit.assertEquals(MetricSample.MetricTable.TIMER, sample.getTable());
+                AssertJUnit.assertEquals(LATENCY_NAME, sample.getName());
+            }
+        }
+        AssertJUnit.assertEquals(6, gauges.size());
+        AssertJUnit.assertEquals(2, Double.parseDouble(gauges.get(LATENCY_NAME)), 0.2);
+        AssertJUnit.assertEquals("10", gauges.get(LATENCY_NAME + LatencyGauges.METRIC_SUFFIX_COUNT));
+        AssertJUnit.assertEquals(2, Double.parseDouble(gauges.get(LATENCY_NAME + LatencyGauges.METRIC_SUFFIX_P99)),
+                0.2);
+        AssertJUnit.assertEquals(2, Double.parseDouble(gauges.get(LATENCY_NAME + LatencyGauges.METRIC_SUFFIX_MAX)),
+                0.2);
+    }
+
+    @Test
+    public void throughputGaugesTest() throws SQLException {
+        SPThroughputMetric throughputTracker = new SPThroughputMetric(THROUGHPUT_NAME,
+                Mockito.mock(MetricService.class));
+        SPMetricsManagement.getInstance().registerMetric(COMPONENT_NAME, THROUGHPUT_NAME, throughputTracker);
+        JDBCReporter reporter = new JDBCReporter(new JDBCReporterConfig(), new MockDatabase().dataSource);
+        reporter.sample(MINUTE);
+        throughputTracker.eventsIn(600);
+
+        // The throughput is written as a meter and as the gauges the status dashboard reads
+        Map<String, String> gauges = new HashMap<>();
+        for (MetricSample sample : reporter.sample(2 * MINUTE)) {
+            if (sample.getTable() == MetricSample.MetricTable.GAUGE) {
+                gauges.put(sample.getName(), sample.getValue());
+            } else {
+                AssertJUnit.assertEquals(MetricSample.MetricTable.METER, sample.getTable());
+                AssertJUnit.assertEquals(THROUGHPUT_NAME, sample.getName());
+            }
+        }
+        AssertJUnit.assertEquals(5, gauges.size());
+        AssertJUnit.assertEquals(10, Double.parseDouble(gauges.get(THROUGHPUT_NAME)), 0.0001);
+        AssertJUnit.assertEquals("600", gauges.get(THROUGHPUT_NAME + ThroughputGauges.METRIC_SUFFIX_COUNT));
+        AssertJUnit.assertEquals(10, Double.parseDouble(gauges.get(THROUGHPUT_NAME +
+                ThroughputGauges.METRIC_SUFFIX_MEAN_RATE)), 0.0001);
+        AssertJUnit.assertEquals(10, Double.parseDouble(gauges.get(THROUGHPUT_NAME +
+                ThroughputGauges.METRIC_SUFFIX_M15_RATE)), 0.0001);
+    }
+
+    @Test
+    public void disabledMetricsTest() throws SQLException {
+        AtomicInteger memoryReads = new AtomicInteger();
+        SPMetricsManagement.getInstance().registerMetric(COMPONENT_NAME, GAUGE_NAME, gauge(5));
+        SPMetricsManagement.getInstance().registerMetric(COMPONENT_NAME, GAUGE_NAME + ".memory", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return memoryReads.incrementAndGet();
+            }
+        }, SPMetricsManagement.MetricType.MEMORY);
+        JDBCReporter reporter = new JDBCReporter(new JDBCReporterConfig(), new MockDatabase().dataSource);
+        AssertJUnit.assertEquals(2, reporter.sample(MINUTE).size());
+        AssertJUnit.assertEquals(1, memoryReads.get());
+
+        // The gauges of a disabled metric type are not read
+        SPMetricsManagement.getInstance().setMetricsEnabled(COMPONENT_NAME, SPMetricsManagement.MetricType.MEMORY,
+                false);
+        List<MetricSample> samples = reporter.sample(2 * MINUTE);
+        AssertJUnit.assertEquals(1, samples.size());
+        AssertJUnit.assertEquals(GAUGE_NAME, samples.get(0).getName());
+        AssertJUnit.assertEquals(1, memoryReads.get());
+
+        // Nothing is sampled for a Siddhi App with disabled metrics
+        SPMetricsManagement.getInstance().stopMetrics(COMPONENT_NAME);
+        AssertJUnit.assertTrue(reporter.sample(3 * MINUTE).isEmpty());
+    }
+
+    @Test
+    public void flushOnStopTest() throws SQLException {
+        SPMetricsManagement.getInstance().registerMetric(COMPONENT_NAME, GAUGE_NAME, gauge(5));
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        latencyHistogram.record(1000000);
+        SPMetricsManagement.getInstance().registerMetric(COMPONENT_NAME, LATENCY_NAME, latencyHistogram);
+        MockDatabase database = new MockDatabase();
+        JDBCReporterConfig config = new JDBCReporterConfig();
+        config.setPollingPeriod(3600);
+        config.setReportRawData(false);
+        JDBCReporter reporter = new JDBCReporter(config, database.dataSource);
+
+        reporter.start();
+        reporter.report();
+        // The rollup intervals are still open, so nothing is written until the reporter is stopped
+        AssertJUnit.assertTrue(database.getQueries().isEmpty());
+        reporter.stop();
+
+        List<String> queries = database.getQueries();
+        AssertJUnit.assertTrue(queries.contains(MetricSample.MetricTable.GAUGE.getInsertQuery("_1M")));
+        AssertJUnit.assertTrue(queries.contains(MetricSample.MetricTable.GAUGE.getInsertQuery("_1H")));
+        AssertJUnit.assertTrue(queries.contains(MetricSample.MetricTable.TIMER.getInsertQuery("_1M")));
+        AssertJUnit.assertTrue(queries.contains(MetricSample.MetricTable.TIMER.getInsertQuery("_1H")));
+        AssertJUnit.assertFalse(queries.contains(MetricSample.MetricTable.GAUGE.getInsertQuery("")));
+        AssertJUnit.assertFalse(database.getCommittedRows().isEmpty());
+        AssertJUnit.assertFalse(reporter.isRunning());
+    }
+
+    @Test
+    public void batchedWriterTest() throws SQLException {
+        for (int i = 0; i < 5; i++) {
+            SPMetricsManagement.getInstance().registerMetric(COMPONENT_NAME, GAUGE_NAME + i, gauge(i));
+        }
+        MockDatabase database = new MockDatabase();
+        JDBCReporterConfig config = new JDBCReporterConfig();
+        config.setPollingPeriod(3600);
+        config.setReportRawData(true);
+        config.setBatchSize(2);
+        JDBCReporter reporter = new JDBCReporter(config, database.dataSource);
+
+        reporter.start();
+        try {
+            reporter.report();
+            Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> database.getAddedRows() >= 5);
+        } finally {
+            reporter.stop();
+        }
+
+        // Rows are written in transactions of at most one batch, with one statement per table
+        List<Integer> committedRows = database.getCommittedRows();
+        AssertJUnit.assertTrue(committedRows.size() >= 3);
+        for (int rows : committedRows) {
+            AssertJUnit.assertTrue(rows <= 2);
+        }
+        AssertJUnit.assertTrue(database.getQueries().contains(MetricSample.MetricTable.GAUGE.getInsertQuery("")));
+        AssertJUnit.assertEquals(database.getQueries().size(), database.getExecutedBatches());
+    }
+
+    @Test
+    public void cleanupTest() throws SQLException {
+        MockDatabase database = new MockDatabase();
+        JDBCReporterConfig config = new JDBCReporterConfig();
+        config.setPollingPeriod(1);
+        config.setSource("node1");
+        config.setReportRawData(true);
+        config.setRawDataHoursToKeep(2);
+        config.setMinuteRollupDaysToKeep(7);
+        config.setHourRollupDaysToKeep(30);
+        JDBCReporter reporter = new JDBCReporter(config, database.dataSource);
+        long startTime = System.currentTimeMillis();
+
+        reporter.start();
+        try {
+            Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() ->
+                    database.getQueries().contains("DELETE FROM METRIC_TIMER_1H WHERE SOURCE = ? AND TIMESTAMP < ?"));
+        } finally {
+            reporter.stop();
+        }
+
+        List<String> queries = database.getQueries();
+        for (MetricSample.MetricTable table : MetricSample.MetricTable.values()) {
+            AssertJUnit.assertTrue(queries.contains("DELETE FROM " + table.getTableName() +
+                    " WHERE SOURCE = ? AND TIMESTAMP < ? AND NAME LIKE ?"));
+            AssertJUnit.assertTrue(queries.contains("DELETE FROM " + table.getTableName() +
+                    "_1M WHERE SOURCE = ? AND TIMESTAMP < ?"));
+            AssertJUnit.assertTrue(queries.contains("DELETE FROM " + table.getTableName() +
+                    "_1H WHERE SOURCE = ? AND TIMESTAMP < ?"));
+        }
+        assertExpiryTime(database.getExpiryTime("DELETE FROM METRIC_GAUGE_1M WHERE SOURCE = ? AND TIMESTAMP < ?"),
+                startTime - TimeUnit.DAYS.toMillis(7));
+        assertExpiryTime(database.getExpiryTime("DELETE FROM METRIC_GAUGE_1H WHERE SOURCE = ? AND TIMESTAMP < ?"),
+                startTime - TimeUnit.DAYS.toMillis(30));
+        assertExpiryTime(database.getExpiryTime("DELETE FROM METRIC_GAUGE WHERE SOURCE = ? AND TIMESTAMP < ? " +
+                "AND NAME LIKE ?"), startTime - TimeUnit.HOURS.toMillis(2));
+    }
+
+    @Test
+    public void cleanupWithoutRawDataTest() throws SQLException {
+        MockDatabase database = new MockDatabase();
+        JDBCReporterConfig config = new JDBCReporterConfig();
+        config.setPollingPeriod(1);
+        config.setReportRawData(false);
+        config.setRawDataHoursToKeep(2);
+        JDBCReporter reporter = new JDBCReporter(config, database.dataSource);
+
+        reporter.start();
+        try {
+            Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() ->
+                    database.getQueries().contains("DELETE FROM METRIC_TIMER_1H WHERE SOURCE = ? AND TIMESTAMP < ?"));
+        } finally {
+            reporter.stop();
+        }
+
+        // The raw rows may have been written by the Carbon Metrics JDBC reporter, so they are left untouched
+        for (String query : database.getQueries()) {
+            AssertJUnit.assertFalse(query, query.endsWith("NAME LIKE ?"));
+        }
+    }
+
+    private static Gauge<Integer> gauge(int value) {
+        return new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return value;
+            }
+        };
+    }
+
+    private static void assertRates(double[] expected, double[] actual) {
+        AssertJUnit.assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            AssertJUnit.assertEquals(expected[i], actual[i], 0.0001);
+        }
+    }
+
+    private static void assertExpiryTime(long expiryTime, long expectedExpiryTime) {
+        AssertJUnit.assertTrue(expiryTime >= expectedExpiryTime &&
+                expiryTime <= expectedExpiryTime + TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Mocked data source which records the statements prepared by the reporter and the rows of each transaction.
+     */
+    private static class MockDatabase {
+        private final DataSource dataSource = Mockito.mock(DataSource.class);
+        private final List<String> queries = Collections.synchronizedList(new ArrayList<>());
+        private final List<Integer> committedRows = Collections.synchronizedList(new ArrayList<>());
+        private final List<Object[]> expiryTimes = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger addedRows = new AtomicInteger();
+        private final AtomicInteger executedBatches = new AtomicInteger();
+        private final AtomicInteger uncommittedRows = new AtomicInteger();
+
+        private MockDatabase() throws SQLException {
+            Connection connection = Mockito.mock(Connection.class);
+            Mockito.when(dataSource.getConnection()).thenReturn(connection);
+            Mockito.when(connection.prepareStatement(Matchers.anyString())).thenAnswer(invocation -> {
+                String query = (String) invocation.getArguments()[0];
+                queries.add(query);
+                PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+                Mockito.doAnswer(addBatch -> {
+                    addedRows.incrementAndGet();
+                    uncommittedRows.incrementAndGet();
+                    return null;
+                }).when(statement).addBatch();
+                Mockito.doAnswer(executeBatch -> {
+                    executedBatches.incrementAndGet();
+                    return new int[0];
+                }).when(statement).executeBatch();
+                Mockito.doAnswer(setLong -> {
+                    expiryTimes.add(new Object[]{query, setLong.getArguments()[1]});
+                    return null;
+                }).when(statement).setLong(Matchers.eq(2), Matchers.anyLong());
+                return statement;
+            });
+            Mockito.doAnswer(commit -> {
+                committedRows.add(uncommittedRows.getAndSet(0));
+                return null;
+            }).when(connection).commit();
+        }
+
+        private List<String> getQueries() {
+            synchronized (queries) {
+                return new ArrayList<>(queries);
+            }
+        }
+
+        private List<Integer> getCommittedRows() {
+            synchronized (committedRows) {
+                List<Integer> rows = new ArrayList<>(committedRows);
+                // Transactions of the cleanup do not add any rows
+                rows.removeIf(count -> count == 0);
+                return rows;
+            }
+        }
+
+        private int getAddedRows() {
+            return addedRows.get();
+        }
+
+        private int getExecutedBatches() {
+            return executedBatches.get();
+        }
+
+        private long getExpiryTime(String query) {
+            synchronized (expiryTimes) {
+                for (Object[] expiryTime : expiryTimes) {
+                    if (query.equals(expiryTime[0])) {
+                        return (Long) expiryTime[1];
+                    }
+                }
+            }
+            throw new AssertionError("No expiry time was set for '" + query + "'");
+        }
+    }
+}
@@ -45,10 +45,13 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.AGG_AVG_COLUMN_COUNT;
 import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.AGG_COLUMN_COUNT;
@@ -60,11 +63,12 @@ import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants
 import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.COLUMN_VALUE;
 import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.EXPR_SUM_FROM_M1_RATE;
 import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.EXPR_SUM_FROM_STRING;
+import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.LATENCY_COUNT_SUFFIX;
+import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.LATENCY_METRIC_SUFFIX;
 import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.METRICS_TABLE_METRIC_COUNTER;
 import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.METRICS_TABLE_METRIC_GAUGE;
 import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.METRICS_TABLE_METRIC_HISTOGRAM;
 import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.METRICS_TABLE_METRIC_METER;
-import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.METRICS_TABLE_METRIC_TIMER;
 import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.METRICS_TYPE_LATENCY;
 import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.METRICS_TYPE_THROUGHPUT;
 import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.PACKAGE_NAME_SEPARATOR;
@@ -79,7 +83,8 @@ import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants
 import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.QUESTION_MARK;
 import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.SEPARATOR;
 import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.SEPARATOR_REGEX;
-import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.STRING_TEMPLATE;
+import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.THROUGHPUT_COUNT_SUFFIX;
+import static org.wso2.carbon.status.dashboard.core.dbhandler.utils.SQLConstants.THROUGHPUT_METRIC_SUFFIX;
 
 /**
  * This class represents key database operations related to metrics data.
@@ -89,8 +94,24 @@ public class StatusDashboardMetricsDBHandler {
     private static final String DATASOURCE_ID = MonitoringDataHolder.getInstance().getStatusDashboardDeploymentConfigs()
             .getMetricsDatasourceName();
     private static final String[] METRICS_TABLE_NAMES = {METRICS_TABLE_METRIC_COUNTER, METRICS_TABLE_METRIC_GAUGE,
-            METRICS_TABLE_METRIC_HISTOGRAM, METRICS_TABLE_METRIC_METER, METRICS_TABLE_METRIC_TIMER};
+            METRICS_TABLE_METRIC_HISTOGRAM};
     private static final String APP_NAME_PREFIX = "org.wso2.siddhi.SiddhiApps.";
+    private static final String COMPONENT_LATENCY_PATTERN = ".Siddhi.%.%" + LATENCY_METRIC_SUFFIX;
+    /**
+     * Suffixes of the gauges holding the mean, the 50th, 95th and 99th percentiles and the maximum of a latency.
+     */
+    private static final String[] LATENCY_SERIES_SUFFIXES = {"", ".p50", ".p95", ".p99", ".max"};
+    private static final String COMPONENT_THROUGHPUT_PATTERN = ".Siddhi.%.%" + THROUGHPUT_METRIC_SUFFIX;
+    /**
+     * Suffixes of the gauges holding the mean, the one minute, the five minute and the fifteen minute rates of a
+     * throughput.
+     */
+    private static final String[] THROUGHPUT_SERIES_SUFFIXES = {".meanRate", "", ".m5Rate", ".m15Rate"};
+    private static final String[] ROLLUP_TABLE_NAMES = {METRICS_TABLE_METRIC_GAUGE, METRICS_TABLE_METRIC_METER};
+    private static final String MINUTE_ROLLUP_SUFFIX = "_1M";
+    private static final String HOUR_ROLLUP_SUFFIX = "_1H";
+    private static final long MINUTE_ROLLUP_MIN_INTERVAL = 3600000;
+    private static final long HOUR_ROLLUP_MIN_INTERVAL = 86400000;
     private String selectAppMetricsQuery;
     private String recordSelectHAMetricsQuery;
     private String recordSelectAggregatedAppMetricsQuery;
@@ -98,13 +119,12 @@ public class StatusDashboardMetricsDBHandler {
     private String selectWorkerMetricsQuery;
     private String selectWorkerAggregatedMetricsQuery;
     private String selectAppComponentList;
-    private String selectWorkerAggregatedThroughputQuery;
-    private String selectWorkerThroughputQuery;
     private String selectAppComponentHistory;
     private String selectAppComponentAggregatedHistory;
     private HikariDataSource dataSource;
     private Map<String, Map<String, String>> workerAttributeTypeMap;
     private QueryManager metricsQueryManager;
+    private Set<String> rollupTables = new HashSet<>();
     
     public StatusDashboardMetricsDBHandler() {
         Connection conn = null;
@@ -119,12 +139,8 @@ public class StatusDashboardMetricsDBHandler {
                 selectAppMetricsQuery = metricsQueryManager.getQuery(SQLConstants.SELECT_APP_METRICS_QUERY);
                 recordSelectHAMetricsQuery = metricsQueryManager.getQuery(SQLConstants.SELECT_HA_WORKER_METRICS_QUERY);
                 selectWorkerMetricsQuery = metricsQueryManager.getQuery(SQLConstants.SELECT_WORKER_METRICS_QUERY);
-                selectWorkerThroughputQuery = metricsQueryManager.getQuery(SQLConstants.
-                        SELECT_WORKER_THROUGHPUT_QUERY);
                 selectWorkerAggregatedMetricsQuery = metricsQueryManager.getQuery(SQLConstants
                         .SELECT_WORKER_AGGREGATE_METRICS_QUERY);
-                selectWorkerAggregatedThroughputQuery = metricsQueryManager.getQuery(SQLConstants.
-                        SELECT_WORKER_AGGREGATE_THROUGHPUT_QUERY);
                 selectAppComponentList = metricsQueryManager.getQuery(SQLConstants.
                         SELECT_COMPONENT_LIST);
                 selectAppComponentHistory = metricsQueryManager.getQuery(SQLConstants.
@@ -135,6 +151,7 @@ public class StatusDashboardMetricsDBHandler {
                         SELECT_HA_WORKER_AGGREGATE_METRICS_QUERY);
                 selectAppComponentAggregatedHistory = metricsQueryManager.getQuery(SQLConstants.
                         SELECT_COMPONENT_AGG_METRICS_HISTORY);
+                loadRollupTables(conn, metricsQueryManager.getQuery(SQLConstants.ISTABLE_EXISTS_QUERY));
             } catch (SQLException | ConfigurationException | QueryMappingNotAvailableException e) {
                 throw new StatusDashboardRuntimeException("Error initializing connection. ", e);
             } finally {
@@ -152,6 +169,84 @@ public class StatusDashboardMetricsDBHandler {
     }
     
     
+    /**
+     * Finds the rollup tables written by the Stream Processor JDBC metrics reporter, if they have been created.
+     *
+     * @param conn           connection to the metrics database.
+     * @param tableCheckQuery query to check the existence of a table.
+     */
+    private void loadRollupTables(Connection conn, String tableCheckQuery) {
+        for (String tableName : ROLLUP_TABLE_NAMES) {
+            for (String rollupSuffix : new String[] {MINUTE_ROLLUP_SUFFIX, HOUR_ROLLUP_SUFFIX}) {
+                String rollupTableName = tableName + rollupSuffix;
+                if (DBHandler.getInstance().isTableExist(conn, resolveTableName(tableCheckQuery,
+                        rollupTableName))) {
+                    rollupTables.add(rollupTableName);
+                }
+            }
+        }
+    }
+
+    /**
+     * Selects aggregated metrics from the coarsest rollup table that suits the time interval, which is much smaller
+     * than the raw table for long intervals. The raw table is used if there are no rollups for the interval, e.g.
+     * when the worker does not run the Stream Processor JDBC metrics reporter.
+     *
+     * @param query        selection query with the table name placeholder.
+     * @param columns      column labels that needed to select.
+     * @param tableName    raw metrics table name.
+     * @param parameters   query parameters.
+     * @param timeInterval time interval of the selection.
+     * @return the selected object.
+     */
+    private List<List<Object>> selectAggregated(String query, String columns, String tableName, Object[] parameters,
+                                                long timeInterval) {
+        String rollupTableName = getRollupTableName(tableName, timeInterval);
+        if (rollupTableName != null) {
+            List<List<Object>> rollupRecords = select(resolveTableName(query, rollupTableName), columns, tableName,
+                    parameters);
+            if (!rollupRecords.isEmpty()) {
+                return rollupRecords;
+            }
+        }
+        return select(resolveTableName(query, tableName), columns, tableName, parameters);
+    }
+
+    /**
+     * @return the coarsest rollup table of the raw table that suits the time interval, or null if there is none.
+     */
+    private String getRollupTableName(String tableName, long timeInterval) {
+        if (timeInterval > HOUR_ROLLUP_MIN_INTERVAL && rollupTables.contains(tableName + HOUR_ROLLUP_SUFFIX)) {
+            return tableName + HOUR_ROLLUP_SUFFIX;
+        } else if (timeInterval > MINUTE_ROLLUP_MIN_INTERVAL &&
+                rollupTables.contains(tableName + MINUTE_ROLLUP_SUFFIX)) {
+            return tableName + MINUTE_ROLLUP_SUFFIX;
+        }
+        return null;
+    }
+
+    /**
+     * Selects the sums of gauges aggregated by time from the coarsest rollup table of the gauges that suits the time
+     * interval, or from the raw table if there are no rollups for the interval.
+     *
+     * @param query        aggregated selection query with the table name placeholder.
+     * @param parameters   query parameters.
+     * @param timeInterval time interval of the selection.
+     * @return the selected rows.
+     */
+    private List<List<Object>> selectAggregatedGaugeSum(String query, Object[] parameters, long timeInterval) {
+        String rollupTableName = getRollupTableName(METRICS_TABLE_METRIC_GAUGE, timeInterval);
+        if (rollupTableName != null) {
+            List<List<Object>> rollupRecords = selectAppMemory(resolveTableName(query, rollupTableName),
+                    METRICS_TABLE_METRIC_GAUGE, parameters, COLUMN_AGG_TIMESTAMP);
+            if (!rollupRecords.isEmpty()) {
+                return rollupRecords;
+            }
+        }
+        return selectAppMemory(resolveTableName(query, METRICS_TABLE_METRIC_GAUGE), METRICS_TABLE_METRIC_GAUGE,
+                parameters, COLUMN_AGG_TIMESTAMP);
+    }
+
     /**
      * This resolve the table name in generic tables.
      *
@@ -212,6 +307,12 @@ public class StatusDashboardMetricsDBHandler {
                 QUESTION_MARK).replace(PLACEHOLDER_NAME, QUESTION_MARK).replace
                 (PLACEHOLDER_WORKER_ID, QUESTION_MARK).replace(SQLConstants.PLACEHOLDER_CURRENT_TIME,
                 QUESTION_MARK);
+        if (METRICS_TYPE_LATENCY.equals(metricsType) || METRICS_TYPE_THROUGHPUT.equals(metricsType)) {
+            Map<String, String> tableColumn = DBTableUtils.getInstance().loadMetricsAllValueSelection();
+            return selectGaugeHistory(resolvedQuery.replace(PLACEHOLDER_COLUMNS, tableColumn.get(tableName)),
+                    tableColumn.get(tableName), workerId, metricsType, componentName, timeInterval,
+                    currentTimeMilli, isCount, false);
+        }
         if (!isCount) {
             Map<String, String> tableColumn = DBTableUtils.getInstance().loadMetricsAllValueSelection();
             resolvedQuery = resolvedQuery.replace(PLACEHOLDER_COLUMNS, tableColumn.get(tableName));
@@ -244,14 +345,18 @@ public class StatusDashboardMetricsDBHandler {
         String componentName = APP_NAME_PREFIX + appName + PACKAGE_NAME_SEPARATOR + "Siddhi" +
                 PACKAGE_NAME_SEPARATOR + componentType + PACKAGE_NAME_SEPARATOR + componentId +
                 PACKAGE_NAME_SEPARATOR + metricsType;
-        String resolvedSelectWorkerMetricsHistoryQuery = resolveTableName
-                (selectAppComponentAggregatedHistory, tableName);
-        String resolvedQuery = resolvedSelectWorkerMetricsHistoryQuery
+        String resolvedQuery = selectAppComponentAggregatedHistory
                 .replace(SQLConstants.PLACEHOLDER_BEGIN_TIME, QUESTION_MARK)
                 .replace(PLACEHOLDER_NAME, QUESTION_MARK)
                 .replace(PLACEHOLDER_WORKER_ID, QUESTION_MARK)
                 .replace(SQLConstants.PLACEHOLDER_CURRENT_TIME, QUESTION_MARK)
                 .replace(PLACEHOLDER_AGGREGATION_TIME, Long.toString(aggregationTime));
+        if (METRICS_TYPE_LATENCY.equals(metricsType) || METRICS_TYPE_THROUGHPUT.equals(metricsType)) {
+            String aggregatedColumns = DBTableUtils.getInstance().loadAggMetricsAllValueSelection().get(tableName);
+            return selectGaugeHistory(resolvedQuery.replace(PLACEHOLDER_AGGREGATION_COMPONENT_COLOUM,
+                    aggregatedColumns), DBTableUtils.getInstance().loadAggRowMetricsAllValueSelection().get(tableName),
+                    workerId, metricsType, componentName, timeInterval, currentTimeMilli, isCount, true);
+        }
         if (!isCount) {
             Map<String, String> tableAggColumn = DBTableUtils.getInstance().loadAggMetricsAllValueSelection();
             Map<String, String> tableColumn = DBTableUtils.getInstance().loadAggRowMetricsAllValueSelection();
@@ -259,15 +364,78 @@ public class StatusDashboardMetricsDBHandler {
                     .get(tableName));
             Object[] parameters = new Object[] {workerId, componentName + PERCENTAGE_MARK,
                     currentTimeMilli - timeInterval, currentTimeMilli};
-            return select(resolvedQuery, tableColumn.get(tableName), tableName, parameters);
+            return selectAggregated(resolvedQuery, tableColumn.get(tableName), tableName, parameters,
+                    timeInterval);
         } else {
             resolvedQuery = resolvedQuery.replace(PLACEHOLDER_AGGREGATION_COMPONENT_COLOUM, AGG_AVG_COLUMN_COUNT);
             Object[] parameters = new Object[] {workerId, componentName + PERCENTAGE_MARK,
                     currentTimeMilli - timeInterval, currentTimeMilli};
-            return select(resolvedQuery, AGG_COLUMN_COUNT, tableName, parameters);
+            return selectAggregated(resolvedQuery, AGG_COLUMN_COUNT, tableName, parameters, timeInterval);
         }
     }
     
+    /**
+     * Selects the latency or throughput history of a component from the gauges exporting its tracker. The series of
+     * the gauges are merged into one row per timestamp, which holds the mean, the 50th, 95th and 99th percentiles and
+     * the maximum of the latency in milliseconds, or the mean, one minute, five minute and fifteen minute rates of the
+     * throughput in events per second. If only the count is needed, the rows hold the number of events.
+     *
+     * @param query            selection query of a single gauge, with the table name resolved.
+     * @param columns          column labels that needed to select.
+     * @param workerId         ID of the worker
+     * @param metricsType      latency or throughput.
+     * @param metricName       name of the tracker of the component.
+     * @param timeInterval     time interval that needed to be taken.
+     * @param currentTimeMilli current time in milliseconds.
+     * @param isCount          whether only the count is needed.
+     * @param isAggregated     whether the query aggregates the values by time.
+     * @return the selected rows.
+     */
+    private List<List<Object>> selectGaugeHistory(String query, String columns, String workerId, String metricsType,
+                                                  String metricName, long timeInterval, long currentTimeMilli,
+                                                  boolean isCount, boolean isAggregated) {
+        boolean isLatency = METRICS_TYPE_LATENCY.equals(metricsType);
+        if (isCount) {
+            List<List<Object>> counts = selectGaugeSeries(query, columns, workerId,
+                    metricName + (isLatency ? LATENCY_COUNT_SUFFIX : THROUGHPUT_COUNT_SUFFIX), timeInterval,
+                    currentTimeMilli, isAggregated);
+            for (List<Object> row : counts) {
+                row.set(1, ((Double) row.get(1)).longValue());
+            }
+            return counts;
+        }
+        String[] seriesSuffixes = isLatency ? LATENCY_SERIES_SUFFIXES : THROUGHPUT_SERIES_SUFFIXES;
+        Map<Object, Object[]> rows = new LinkedHashMap<>();
+        for (int i = 0; i < seriesSuffixes.length; i++) {
+            for (List<Object> seriesRow : selectGaugeSeries(query, columns, workerId,
+                    metricName + seriesSuffixes[i], timeInterval, currentTimeMilli, isAggregated)) {
+                Object[] row = i == 0 ? new Object[seriesSuffixes.length + 1] : rows.get(seriesRow.get(0));
+                if (row != null) {
+                    row[0] = seriesRow.get(0);
+                    row[i + 1] = seriesRow.get(1);
+                    rows.put(seriesRow.get(0), row);
+                }
+            }
+        }
+        List<List<Object>> history = new ArrayList<>();
+        for (Object[] row : rows.values()) {
+            List<Object> values = new ArrayList<>(Arrays.asList(row));
+            if (!values.contains(null)) {
+                history.add(values);
+            }
+        }
+        return history;
+    }
+
+    private List<List<Object>> selectGaugeSeries(String query, String columns, String workerId, String metricName,
+                                                 long timeInterval, long currentTimeMilli, boolean isAggregated) {
+        Object[] parameters = new Object[] {workerId, metricName, currentTimeMilli - timeInterval, currentTimeMilli};
+        if (isAggregated) {
+            return selectAggregated(query, columns, METRICS_TABLE_METRIC_GAUGE, parameters, timeInterval);
+        }
+        return select(query, columns, METRICS_TABLE_METRIC_GAUGE, parameters);
+    }
+
     /**
      * Select the component list of the siddhi app.
      *
@@ -277,9 +445,15 @@ public class StatusDashboardMetricsDBHandler {
      * @param currentTimeMilli current time in milliseconds expression in db type
      * @return component List
      */
-    public Map<String, List<String>> selectAppComponentsList(String workerId, String appName, int timeInterval, long
-            currentTimeMilli) {
-        Map<String, List<String>> allComponentsNames = new LinkedHashMap<>();
+    public Map<String, Map<String, String>> selectAppComponentsList(String workerId, String appName,
+                                                                     int timeInterval, long currentTimeMilli) {
+        Map<String, String> tableMetricsMap = new HashMap<>();
+        for (Map.Entry<String, String> entry : DBTableUtils.getInstance().loadMetricsTypeSelection().entrySet()) {
+            if (!METRICS_TYPE_LATENCY.equals(entry.getKey()) && !METRICS_TYPE_THROUGHPUT.equals(entry.getKey())) {
+                tableMetricsMap.put(entry.getValue(), entry.getKey());
+            }
+        }
+        Map<String, Map<String, String>> allComponentsNames = new LinkedHashMap<>();
         for (String tableName : METRICS_TABLE_NAMES) {
             List<String> subComponentsList = new ArrayList<>();
             String resolvedSelectWorkerMetricsQuery = resolveTableName(selectAppComponentList, tableName);
@@ -297,21 +471,50 @@ public class StatusDashboardMetricsDBHandler {
                 }
             }
             for (String componentMetricsName : subComponentsList) {
-                String componentName = componentMetricsName.substring(0, componentMetricsName.lastIndexOf("."));
-                List<String> existingList = allComponentsNames.get(componentName);
-                if (existingList == null) {
-                    List<String> newList = new ArrayList<>();
-                    newList.add(tableName);
-                    allComponentsNames.put(componentName, newList);
-                } else {
-                    existingList.add(tableName);
-                    allComponentsNames.put(componentName, existingList);
+                String metricType = getMetricType(componentMetricsName, tableName, tableMetricsMap);
+                if (metricType == null) {
+                    continue;
                 }
+                String componentName = componentMetricsName.substring(0, componentMetricsName.lastIndexOf("."));
+                allComponentsNames.computeIfAbsent(componentName, key -> new LinkedHashMap<>())
+                        .put(componentMetricsName, metricType);
             }
         }
         return allComponentsNames;
     }
+
+    /**
+     * Finds the type of a metric. The latency and the throughput of a component are exported as sets of gauges, of
+     * which the gauge named after the tracker reports the mean latency or the one minute rate, and the others report
+     * the count, the percentiles or the other rates.
+     *
+     * @param metricName      name of the metric.
+     * @param tableName       table the metric is stored in.
+     * @param tableMetricsMap metrics types by their tables, other than latency and throughput.
+     * @return metrics type, or null if the metric is read along with the gauge named after its tracker or has no type.
+     */
+    private static String getMetricType(String metricName, String tableName, Map<String, String> tableMetricsMap) {
+        if (METRICS_TABLE_METRIC_GAUGE.equals(tableName)) {
+            if (metricName.endsWith(LATENCY_METRIC_SUFFIX)) {
+                return METRICS_TYPE_LATENCY;
+            } else if (metricName.endsWith(THROUGHPUT_METRIC_SUFFIX)) {
+                return METRICS_TYPE_THROUGHPUT;
+            } else if (metricName.contains(LATENCY_METRIC_SUFFIX + PACKAGE_NAME_SEPARATOR) ||
+                    metricName.contains(THROUGHPUT_METRIC_SUFFIX + PACKAGE_NAME_SEPARATOR)) {
+                return null;
+            }
+        }
+        return tableMetricsMap.get(tableName);
+    }
     
+    /**
+     * @return pattern of the names of the latency or throughput gauges of the components of a Siddhi App, following
+     * the name of the Siddhi App.
+     */
+    private static String getComponentMetricPattern(String metricsType) {
+        return METRICS_TYPE_LATENCY.equals(metricsType) ? COMPONENT_LATENCY_PATTERN : COMPONENT_THROUGHPUT_PATTERN;
+    }
+
     /**
      * Select the last Metrics value of components in a particular table.
      *
@@ -319,21 +522,27 @@ public class StatusDashboardMetricsDBHandler {
      * @param components component list of the worker.
      * @return
      */
-    public List selectComponentsLastMetric(String carbonId, String appName, Map<String, List<String>> components,
-                                           long timeInterval, long currentTimeMilli) {
-        Map<String, String> tableMetricsMap = new HashMap<>();
-        for (Map.Entry<String, String> entry : DBTableUtils.getInstance().loadMetricsTypeSelection().entrySet()) {
-            tableMetricsMap.put(entry.getValue(), entry.getKey());
-        }
+    public List selectComponentsLastMetric(String carbonId, String appName,
+                                           Map<String, Map<String, String>> components, long timeInterval,
+                                           long currentTimeMilli) {
+        Map<String, String> typeTableMap = DBTableUtils.getInstance().loadMetricsTypeSelection();
         Map<String, String> tableMetricsUnitsMap = DBTableUtils.getInstance().loadMetricsUnitsSelection();
         Map<String, String> tableColumn = DBTableUtils.getInstance().loadMetricsValueSelection();
         List<TypeMetrics> componentsRecentMetrics = new ArrayList<>();
         MetricElement metricElement = new MetricElement();
         ComponentMetrics componentMetrics = new ComponentMetrics();
         TypeMetrics typeMetrics = new TypeMetrics();
-        for (Map.Entry componentEntry : components.entrySet()) {
-            List<String> componentsTableList = (List<String>) componentEntry.getValue();
-            for (String tableEntry : componentsTableList) {
+        for (Map.Entry<String, Map<String, String>> componentEntry : components.entrySet()) {
+            String[] componentElements = componentEntry.getKey().replace(APP_NAME_PREFIX + appName
+                    + PACKAGE_NAME_SEPARATOR + "Siddhi" + PACKAGE_NAME_SEPARATOR, "")
+                    .split("\\.", 2);
+            if (componentElements.length < 2) {
+                // App level metrics, such as the end to end latency, are not shown as components
+                continue;
+            }
+            for (Map.Entry<String, String> metricEntry : componentEntry.getValue().entrySet()) {
+                String metricType = metricEntry.getValue();
+                String tableEntry = typeTableMap.get(metricType);
                 String columnListString = tableColumn.get(tableEntry);
                 String resolvedSelectWorkerRecentMetricsQuery = resolveTableName(selectAppComponentHistory,
                         tableEntry);
@@ -342,9 +551,7 @@ public class StatusDashboardMetricsDBHandler {
                         .replace(PLACEHOLDER_COLUMNS, columnListString)
                         .replace(SQLConstants.PLACEHOLDER_BEGIN_TIME, QUESTION_MARK)
                         .replace(SQLConstants.PLACEHOLDER_CURRENT_TIME, QUESTION_MARK);
-                Object[] recentQueryParameters = new Object[] {carbonId,
-                        String.format(STRING_TEMPLATE + STRING_TEMPLATE + STRING_TEMPLATE
-                                , componentEntry.getKey(), PACKAGE_NAME_SEPARATOR, PERCENTAGE_MARK),
+                Object[] recentQueryParameters = new Object[] {carbonId, metricEntry.getKey(),
                         currentTimeMilli - timeInterval, currentTimeMilli};
                 String[] columnList = columnListString.split(SEPARATOR_REGEX);
                 List<List<Object>> selectionRecent =
@@ -353,10 +560,6 @@ public class StatusDashboardMetricsDBHandler {
                 if (selectionRecent.size() > 0) {
                     selection = selectionRecent.get(selectionRecent.size() - 1);
                 }
-                String[] componentElements = ((String) componentEntry.getKey()).replace(APP_NAME_PREFIX + appName
-                        + PACKAGE_NAME_SEPARATOR + "Siddhi" + PACKAGE_NAME_SEPARATOR, "")
-                        .split("\\.", 2);
-                String metricType = tableMetricsMap.get(tableEntry).toLowerCase();
                 if ((selection != null) && (!selection.isEmpty())) {
                     Attribute attribute;
                     if ((!("Streams".equalsIgnoreCase(componentElements[0]))) &&
@@ -506,29 +709,19 @@ public class StatusDashboardMetricsDBHandler {
                 return selectAppMemory(resolvedQueryTable, METRICS_TABLE_METRIC_GAUGE, parameters,
                         COLUMN_TIMESTAMP);
             }
-            case "throughput": {
-                String resolvedQueryTable = selectAppMetricsQuery.replace(SQLConstants.PLACEHOLDER_COLUMNS,
-                        EXPR_SUM_FROM_M1_RATE).replace(SQLConstants.PLACEHOLDER_BEGIN_TIME, QUESTION_MARK)
-                        .replace(PLACEHOLDER_NAME, QUESTION_MARK).replace(PLACEHOLDER_WORKER_ID, QUESTION_MARK)
-                        .replace(SQLConstants.PLACEHOLDER_CURRENT_TIME, QUESTION_MARK)
-                        .replace(PLACEHOLDER_RESULT, COLUMN_M1_RATE)
-                        .replace(PLACEHOLDER_TABLE_NAME, METRICS_TABLE_METRIC_METER);
-                Object[] parameters = new Object[] {workerId, APP_NAME_PREFIX + appName + PACKAGE_NAME_SEPARATOR +
-                        PERCENTAGE_MARK, currentTime - timeInterval, currentTime};
-                return select(resolvedQueryTable, COLUMN_TIMESTAMP + SEPARATOR + COLUMN_M1_RATE,
-                        METRICS_TABLE_METRIC_METER, parameters);
-            }
+            case "throughput":
             case "latency": {
+                // Sums the gauges named after the trackers of the components, leaving out their other gauges
                 String resolvedQueryTable = selectAppMetricsQuery.replace(SQLConstants.PLACEHOLDER_COLUMNS,
-                        EXPR_SUM_FROM_M1_RATE).replace(SQLConstants.PLACEHOLDER_BEGIN_TIME, QUESTION_MARK)
+                        EXPR_SUM_FROM_STRING).replace(SQLConstants.PLACEHOLDER_BEGIN_TIME, QUESTION_MARK)
                         .replace(PLACEHOLDER_NAME, QUESTION_MARK).replace(PLACEHOLDER_WORKER_ID, QUESTION_MARK)
                         .replace(SQLConstants.PLACEHOLDER_CURRENT_TIME, QUESTION_MARK)
-                        .replace(PLACEHOLDER_RESULT, COLUMN_M1_RATE)
-                        .replace(PLACEHOLDER_TABLE_NAME, METRICS_TABLE_METRIC_TIMER);
-                Object[] parameters = new Object[] {workerId, APP_NAME_PREFIX + appName + PACKAGE_NAME_SEPARATOR +
-                        PERCENTAGE_MARK, currentTime - timeInterval, currentTime};
-                return select(resolvedQueryTable, COLUMN_TIMESTAMP + SEPARATOR + COLUMN_M1_RATE
-                        , METRICS_TABLE_METRIC_TIMER, parameters);
+                        .replace(PLACEHOLDER_RESULT, COLUMN_VALUE)
+                        .replace(PLACEHOLDER_TABLE_NAME, METRICS_TABLE_METRIC_GAUGE);
+                Object[] parameters = new Object[] {workerId, APP_NAME_PREFIX + appName +
+                        getComponentMetricPattern(metricsType), currentTime - timeInterval, currentTime};
+                return selectAppMemory(resolvedQueryTable, METRICS_TABLE_METRIC_GAUGE, parameters,
+                        COLUMN_TIMESTAMP);
             }
             default: {
                 logger.error("Invalid parameters type: " + removeCRLFCharacters(workerId) + ":"
@@ -575,7 +768,6 @@ public class StatusDashboardMetricsDBHandler {
         long aggregationTime = DBTableUtils.getAggregation(timeInterval);
         switch (metricsType) {
             case "memory": {
-                String tableName = METRICS_TABLE_METRIC_GAUGE;
                 String resolvedQueryTable = recordSelectAggregatedAppMetricsQuery
                         .replace(SQLConstants.PLACEHOLDER_COLUMNS,
                                 EXPR_SUM_FROM_STRING).replace(SQLConstants.PLACEHOLDER_BEGIN_TIME, QUESTION_MARK)
@@ -583,39 +775,23 @@ public class StatusDashboardMetricsDBHandler {
                         .replace(PLACEHOLDER_WORKER_ID, QUESTION_MARK)
                         .replace(SQLConstants.PLACEHOLDER_CURRENT_TIME, QUESTION_MARK)
                         .replace(PLACEHOLDER_RESULT, COLUMN_VALUE)
-                        .replace(PLACEHOLDER_TABLE_NAME, tableName)
-                        .replace(PLACEHOLDER_AGGREGATION_TIME, Long.toString(aggregationTime));
-                Object[] parameters = new Object[] {workerId, APP_NAME_PREFIX + appName + PACKAGE_NAME_SEPARATOR
-                        + PERCENTAGE_MARK, currentTime - timeInterval, currentTime};
-                return selectAppMemory(resolvedQueryTable, tableName, parameters, COLUMN_AGG_TIMESTAMP);
-            }
-            case "throughput": {
-                String resolvedQueryTable = recordSelectAggregatedAppMetricsQuery
-                        .replace(SQLConstants.PLACEHOLDER_COLUMNS,
-                                EXPR_SUM_FROM_M1_RATE).replace(SQLConstants.PLACEHOLDER_BEGIN_TIME, QUESTION_MARK)
-                        .replace(PLACEHOLDER_NAME, QUESTION_MARK).replace
-                                (PLACEHOLDER_WORKER_ID, QUESTION_MARK).replace(SQLConstants.PLACEHOLDER_CURRENT_TIME,
-                                QUESTION_MARK).replace(PLACEHOLDER_RESULT, COLUMN_M1_RATE)
-                        .replace(PLACEHOLDER_TABLE_NAME, METRICS_TABLE_METRIC_METER)
                         .replace(PLACEHOLDER_AGGREGATION_TIME, Long.toString(aggregationTime));
                 Object[] parameters = new Object[] {workerId, APP_NAME_PREFIX + appName + PACKAGE_NAME_SEPARATOR
                         + PERCENTAGE_MARK, currentTime - timeInterval, currentTime};
-                return select(resolvedQueryTable, COLUMN_AGG_TIMESTAMP + SEPARATOR + COLUMN_M1_RATE
-                        , METRICS_TABLE_METRIC_METER, parameters);
+                return selectAggregatedGaugeSum(resolvedQueryTable, parameters, timeInterval);
             }
+            case "throughput":
             case "latency": {
                 String resolvedQueryTable = recordSelectAggregatedAppMetricsQuery
                         .replace(SQLConstants.PLACEHOLDER_COLUMNS,
-                                EXPR_SUM_FROM_M1_RATE).replace(SQLConstants.PLACEHOLDER_BEGIN_TIME, QUESTION_MARK)
+                                EXPR_SUM_FROM_STRING).replace(SQLConstants.PLACEHOLDER_BEGIN_TIME, QUESTION_MARK)
                         .replace(PLACEHOLDER_NAME, QUESTION_MARK).replace
                                 (PLACEHOLDER_WORKER_ID, QUESTION_MARK).replace(SQLConstants.PLACEHOLDER_CURRENT_TIME,
-                                QUESTION_MARK).replace(PLACEHOLDER_RESULT, COLUMN_M1_RATE)
-                        .replace(PLACEHOLDER_TABLE_NAME, METRICS_TABLE_METRIC_TIMER)
+                                QUESTION_MARK).replace(PLACEHOLDER_RESULT, COLUMN_VALUE)
                         .replace(PLACEHOLDER_AGGREGATION_TIME, Long.toString(aggregationTime));
-                Object[] parameters = new Object[] {workerId, APP_NAME_PREFIX + appName + PACKAGE_NAME_SEPARATOR
-                        + PERCENTAGE_MARK, currentTime - timeInterval, currentTime};
-                return select(resolvedQueryTable, COLUMN_AGG_TIMESTAMP + SEPARATOR + COLUMN_M1_RATE,
-                        METRICS_TABLE_METRIC_TIMER, parameters);
+                Object[] parameters = new Object[] {workerId, APP_NAME_PREFIX + appName +
+                        getComponentMetricPattern(metricsType), currentTime - timeInterval, currentTime};
+                return selectAggregatedGaugeSum(resolvedQueryTable, parameters, timeInterval);
             }
             default: {
                 logger.error("Invalid parameters type: " + removeCRLFCharacters(workerId) + ":"
@@ -642,12 +818,11 @@ public class StatusDashboardMetricsDBHandler {
                 replace(PLACEHOLDER_WORKER_ID, QUESTION_MARK).
                 replace(SQLConstants.PLACEHOLDER_CURRENT_TIME,QUESTION_MARK).
                 replace(PLACEHOLDER_RESULT, COLUMN_M1_RATE).
-                replace(PLACEHOLDER_TABLE_NAME, METRICS_TABLE_METRIC_METER).
                 replace(PLACEHOLDER_AGGREGATION_TIME, Long.toString(aggregationTime));
         Object[] parameters = new Object[] {workerId, SiddhiAppProcessorConstants.HA_METRICS_PREFIX +
                 SiddhiConstants.METRIC_DELIMITER + PERCENTAGE_MARK, currentTime - timeInterval, currentTime};
-        return select(resolvedQueryTable, COLUMN_AGG_TIMESTAMP + SEPARATOR + COLUMN_M1_RATE + SEPARATOR +
-                        COLUMN_NAME, METRICS_TABLE_METRIC_METER, parameters);
+        return selectAggregated(resolvedQueryTable, COLUMN_AGG_TIMESTAMP + SEPARATOR + COLUMN_M1_RATE + SEPARATOR +
+                        COLUMN_NAME, METRICS_TABLE_METRIC_METER, parameters, timeInterval);
     }
 
     /**
@@ -704,17 +879,17 @@ public class StatusDashboardMetricsDBHandler {
      * @return List<List<Object>> of metrics data because charts needed in that format
      */
     public List selectWorkerThroughput(String workerId, long timeInterval, long currentTime) {
-        String resolvedSelectWorkerThroughputQuery = resolveTableName(selectWorkerThroughputQuery,
-                METRICS_TABLE_METRIC_METER);
-        String resolvedQuery = resolvedSelectWorkerThroughputQuery
-                .replace(SQLConstants.PLACEHOLDER_COLUMNS, EXPR_SUM_FROM_M1_RATE)
+        String resolvedQuery = selectAppMetricsQuery
+                .replace(SQLConstants.PLACEHOLDER_COLUMNS, EXPR_SUM_FROM_STRING)
                 .replace(SQLConstants.PLACEHOLDER_BEGIN_TIME, QUESTION_MARK)
+                .replace(PLACEHOLDER_NAME, QUESTION_MARK)
                 .replace(PLACEHOLDER_WORKER_ID, QUESTION_MARK)
                 .replace(SQLConstants.PLACEHOLDER_CURRENT_TIME, QUESTION_MARK)
-                .replace(PLACEHOLDER_RESULT, COLUMN_M1_RATE);
-        Object[] parameters = new Object[] {workerId, currentTime - timeInterval, currentTime};
-        return select(resolvedQuery, COLUMN_TIMESTAMP + SEPARATOR + COLUMN_M1_RATE,
-                METRICS_TABLE_METRIC_METER, parameters);
+                .replace(PLACEHOLDER_RESULT, COLUMN_VALUE)
+                .replace(PLACEHOLDER_TABLE_NAME, METRICS_TABLE_METRIC_GAUGE);
+        Object[] parameters = new Object[] {workerId, APP_NAME_PREFIX + PERCENTAGE_MARK + COMPONENT_THROUGHPUT_PATTERN,
+                currentTime - timeInterval, currentTime};
+        return selectAppMemory(resolvedQuery, METRICS_TABLE_METRIC_GAUGE, parameters, COLUMN_TIMESTAMP);
     }
     
     /**
@@ -727,18 +902,17 @@ public class StatusDashboardMetricsDBHandler {
      */
     public List selectWorkerAggregatedThroughput(String workerId, long timeInterval, long currentTime) {
         long aggregationTime = DBTableUtils.getAggregation(timeInterval);
-        String resolvedSelectWorkerThroughputQuery = resolveTableName(selectWorkerAggregatedThroughputQuery,
-                METRICS_TABLE_METRIC_METER);
-        String resolvedQuery = resolvedSelectWorkerThroughputQuery
-                .replace(SQLConstants.PLACEHOLDER_COLUMNS, EXPR_SUM_FROM_M1_RATE)
+        String resolvedQuery = recordSelectAggregatedAppMetricsQuery
+                .replace(SQLConstants.PLACEHOLDER_COLUMNS, EXPR_SUM_FROM_STRING)
                 .replace(SQLConstants.PLACEHOLDER_BEGIN_TIME, QUESTION_MARK)
+                .replace(PLACEHOLDER_NAME, QUESTION_MARK)
                 .replace(PLACEHOLDER_WORKER_ID, QUESTION_MARK)
                 .replace(SQLConstants.PLACEHOLDER_CURRENT_TIME, QUESTION_MARK)
-                .replace(PLACEHOLDER_RESULT, COLUMN_M1_RATE)
+                .replace(PLACEHOLDER_RESULT, COLUMN_VALUE)
                 .replace(PLACEHOLDER_AGGREGATION_TIME, Long.toString(aggregationTime));
-        Object[] parameters = new Object[] {workerId, currentTime - timeInterval, currentTime};
-        return select(resolvedQuery, COLUMN_AGG_TIMESTAMP + SEPARATOR + COLUMN_M1_RATE,
-                METRICS_TABLE_METRIC_METER, parameters);
+        Object[] parameters = new Object[] {workerId, APP_NAME_PREFIX + PERCENTAGE_MARK + COMPONENT_THROUGHPUT_PATTERN,
+                currentTime - timeInterval, currentTime};
+        return selectAggregatedGaugeSum(resolvedQuery, parameters, timeInterval);
     }
     
     /**
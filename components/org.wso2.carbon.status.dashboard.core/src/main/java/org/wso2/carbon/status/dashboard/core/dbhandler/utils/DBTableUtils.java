@@ -78,8 +78,8 @@ public class DBTableUtils {
     public Map<String, String> loadMetricsTypeSelection() {
         Map<String, String> attributeSelection = new HashMap<>();
         attributeSelection.put("memory", METRICS_TABLE_METRIC_GAUGE);
-        attributeSelection.put("throughput", METRICS_TABLE_METRIC_METER);
-        attributeSelection.put("latency", METRICS_TABLE_METRIC_TIMER);
+        attributeSelection.put("throughput", METRICS_TABLE_METRIC_GAUGE);
+        attributeSelection.put("latency", METRICS_TABLE_METRIC_GAUGE);
         attributeSelection.put("events", METRICS_TABLE_METRIC_HISTOGRAM);
         return attributeSelection;
     }
@@ -168,7 +168,6 @@ public class DBTableUtils {
         attributeSelection.put(METRICS_TABLE_METRIC_GAUGE, "TIMESTAMP,VALUE");
         attributeSelection.put(METRICS_TABLE_METRIC_HISTOGRAM, "TIMESTAMP,MEAN");
         attributeSelection.put(METRICS_TABLE_METRIC_METER, "TIMESTAMP,M1_RATE");
-        attributeSelection.put(METRICS_TABLE_METRIC_TIMER, "TIMESTAMP,M1_RATE");
         return attributeSelection;
     }
     
@@ -178,8 +177,6 @@ public class DBTableUtils {
         attributeSelection.put(METRICS_TABLE_METRIC_GAUGE, "TIMESTAMP,VALUE");
         attributeSelection.put(METRICS_TABLE_METRIC_HISTOGRAM, "TIMESTAMP,MAX,MEAN,MIN,STDDEV,P75,P95,P99,P999");
         attributeSelection.put(METRICS_TABLE_METRIC_METER, "TIMESTAMP,MEAN_RATE,M1_RATE,M5_RATE,M15_RATE");
-        attributeSelection.put(METRICS_TABLE_METRIC_TIMER, "TIMESTAMP,MAX,MEAN,MIN,STDDEV,P75,P95,P99,P999,MEAN_RATE," +
-                "M1_RATE,M5_RATE,M15_RATE");
         return attributeSelection;
     }
     
@@ -189,8 +186,6 @@ public class DBTableUtils {
         attributeSelection.put(METRICS_TABLE_METRIC_GAUGE, "AGG_TIMESTAMP,VALUE");
         attributeSelection.put(METRICS_TABLE_METRIC_HISTOGRAM, "AGG_TIMESTAMP,MEAN,MAX,MIN,STDDEV,P75,P95,P99,P999");
         attributeSelection.put(METRICS_TABLE_METRIC_METER, "AGG_TIMESTAMP,M1_RATE,MEAN_RATE,M5_RATE,M15_RATE");
-        attributeSelection.put(METRICS_TABLE_METRIC_TIMER, "AGG_TIMESTAMP,MEAN,MAX,MIN,STDDEV,P75,P95,P99,P999,MEAN_RATE," +
-                "M1_RATE,M5_RATE,M15_RATE");
         return attributeSelection;
     }
     
@@ -203,10 +198,6 @@ public class DBTableUtils {
                 "AVG(P999) as P999");
         attributeSelection.put(METRICS_TABLE_METRIC_METER, "AVG(MEAN_RATE) as MEAN_RATE,AVG(M1_RATE) " +
                 "as M1_RATE,AVG(M5_RATE) as M5_RATE,AVG(M15_RATE) as M15_RATE");
-        attributeSelection.put(METRICS_TABLE_METRIC_TIMER, "AVG(MAX) as MAX, AVG(MEAN) as MEAN, AVG(MIN) as" +
-                " MIN, AVG(STDDEV) as STDDEV, AVG(P75) as P75, AVG(P95) as P95, AVG(P99) as P99, AVG(P999) as P999, " +
-                "AVG(MEAN_RATE) as MEAN_RATE, AVG(M1_RATE) as M1_RATE, AVG(M5_RATE) as M5_RATE," +
-                " AVG(M15_RATE) as M15_RATE");
         return attributeSelection;
     }
     
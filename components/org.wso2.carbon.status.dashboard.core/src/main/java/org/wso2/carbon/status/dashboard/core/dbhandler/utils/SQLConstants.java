@@ -31,9 +31,7 @@ public class SQLConstants {
     public static final String SELECT_APP_METRICS_QUERY = "recordSelectAppMetricsQuery";
     public static final String SELECT_HA_WORKER_METRICS_QUERY = "recordSelectHAMetricsQuery";
     public static final String SELECT_WORKER_METRICS_QUERY = "recordSelectWorkerMetricsQuery";
-    public static final String SELECT_WORKER_THROUGHPUT_QUERY = "recordSelectWorkerThroughputQuery";
     public static final String SELECT_WORKER_AGGREGATE_METRICS_QUERY = "recordSelectWorkerAggregateMetricsQuery";
-    public static final String SELECT_WORKER_AGGREGATE_THROUGHPUT_QUERY = "recordSelectWorkerAggregateThroughputQuery";
     public static final String SELECT_COMPONENT_LIST = "selectAppComponentList";
     public static final String SELECT_COMPONENT_METRICS_HISTORY = "selectAppComponentHistory";
     public static final String SELECT_APP_AGG_METRICS_HISTORY = "recordSelectAgregatedAppMetricsQuery";
@@ -80,6 +78,12 @@ public class SQLConstants {
     public static final String METRICS_TYPE_MEMORY = "memory";
     public static final String METRICS_TYPE_THROUGHPUT = "throughput";
     public static final String METRICS_TYPE_THROUGHPUT_COUNT = "throughput_count";
+    //latency gauges, which are named after the latency tracker of the component
+    public static final String LATENCY_METRIC_SUFFIX = PACKAGE_NAME_SEPARATOR + METRICS_TYPE_LATENCY;
+    public static final String LATENCY_COUNT_SUFFIX = ".count";
+    //throughput gauges, which are named after the throughput tracker of the component
+    public static final String THROUGHPUT_METRIC_SUFFIX = PACKAGE_NAME_SEPARATOR + METRICS_TYPE_THROUGHPUT;
+    public static final String THROUGHPUT_COUNT_SUFFIX = ".count";
     //metrics table names
     public static final String METRICS_TABLE_METRIC_COUNTER = "METRIC_COUNTER";
     public static final String METRICS_TABLE_METRIC_GAUGE = "METRIC_GAUGE";
@@ -1079,7 +1079,7 @@ public class MonitoringApiServiceImpl extends MonitoringApiService {
                 if (carbonId == null) {
                     carbonId = getCarbonID(workerId);
                 }
-                Map<String, List<String>> components = metricStore.selectAppComponentsList(carbonId, appName,
+                Map<String, Map<String, String>> components = metricStore.selectAppComponentsList(carbonId, appName,
                         Constants.DEFAULT_TIME_INTERVAL_MILLIS, System.currentTimeMillis());
                 List componentsRecentMetrics = metricStore.selectComponentsLastMetric
                         (carbonId, appName, components, Constants.DEFAULT_TIME_INTERVAL_MILLIS,
@@ -90,3 +90,98 @@ CREATE INDEX IDX_TIMESTAMP_COUNTER ON METRIC_COUNTER (TIMESTAMP);
 CREATE INDEX IDX_TIMESTAMP_METER ON METRIC_METER (TIMESTAMP);
 CREATE INDEX IDX_TIMESTAMP_HISTOGRAM ON METRIC_HISTOGRAM (TIMESTAMP);
 CREATE INDEX IDX_TIMESTAMP_TIMER ON METRIC_TIMER (TIMESTAMP);
+
+-- One minute and one hour rollups of the Stream Processor metrics, written by the Stream Processor JDBC
+-- metrics reporter. Rollup tables have the columns of the raw tables, and the timestamp of a row is the start of
+-- its interval.
+
+CREATE TABLE IF NOT EXISTS METRIC_GAUGE_1M (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    VALUE VARCHAR(100) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS METRIC_GAUGE_1H (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    VALUE VARCHAR(100) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS METRIC_METER_1M (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT BIGINT NOT NULL,
+    MEAN_RATE DOUBLE NOT NULL,
+    M1_RATE DOUBLE NOT NULL,
+    M5_RATE DOUBLE NOT NULL,
+    M15_RATE DOUBLE NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS METRIC_METER_1H (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT BIGINT NOT NULL,
+    MEAN_RATE DOUBLE NOT NULL,
+    M1_RATE DOUBLE NOT NULL,
+    M5_RATE DOUBLE NOT NULL,
+    M15_RATE DOUBLE NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS METRIC_TIMER_1M (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT BIGINT NOT NULL,
+    MAX DOUBLE NOT NULL,
+    MEAN DOUBLE NOT NULL,
+    MIN DOUBLE NOT NULL,
+    STDDEV DOUBLE NOT NULL,
+    P50 DOUBLE NOT NULL,
+    P75 DOUBLE NOT NULL,
+    P95 DOUBLE NOT NULL,
+    P98 DOUBLE NOT NULL,
+    P99 DOUBLE NOT NULL,
+    P999 DOUBLE NOT NULL,
+    MEAN_RATE DOUBLE NOT NULL,
+    M1_RATE DOUBLE NOT NULL,
+    M5_RATE DOUBLE NOT NULL,
+    M15_RATE DOUBLE NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL,
+    DURATION_UNIT VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS METRIC_TIMER_1H (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT BIGINT NOT NULL,
+    MAX DOUBLE NOT NULL,
+    MEAN DOUBLE NOT NULL,
+    MIN DOUBLE NOT NULL,
+    STDDEV DOUBLE NOT NULL,
+    P50 DOUBLE NOT NULL,
+    P75 DOUBLE NOT NULL,
+    P95 DOUBLE NOT NULL,
+    P98 DOUBLE NOT NULL,
+    P99 DOUBLE NOT NULL,
+    P999 DOUBLE NOT NULL,
+    MEAN_RATE DOUBLE NOT NULL,
+    M1_RATE DOUBLE NOT NULL,
+    M5_RATE DOUBLE NOT NULL,
+    M15_RATE DOUBLE NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL,
+    DURATION_UNIT VARCHAR(50) NOT NULL
+);
+
+CREATE INDEX IDX_SOURCE_TIMESTAMP_GAUGE_1M ON METRIC_GAUGE_1M (SOURCE, TIMESTAMP);
+CREATE INDEX IDX_SOURCE_TIMESTAMP_GAUGE_1H ON METRIC_GAUGE_1H (SOURCE, TIMESTAMP);
+CREATE INDEX IDX_SOURCE_TIMESTAMP_METER_1M ON METRIC_METER_1M (SOURCE, TIMESTAMP);
+CREATE INDEX IDX_SOURCE_TIMESTAMP_METER_1H ON METRIC_METER_1H (SOURCE, TIMESTAMP);
+CREATE INDEX IDX_SOURCE_TIMESTAMP_TIMER_1M ON METRIC_TIMER_1M (SOURCE, TIMESTAMP);
+CREATE INDEX IDX_SOURCE_TIMESTAMP_TIMER_1H ON METRIC_TIMER_1H (SOURCE, TIMESTAMP);
@@ -95,3 +95,104 @@ CREATE INDEX IDX_TIMESTAMP_COUNTER ON METRIC_COUNTER (TIMESTAMP);
 CREATE INDEX IDX_TIMESTAMP_METER ON METRIC_METER (TIMESTAMP);
 CREATE INDEX IDX_TIMESTAMP_HISTOGRAM ON METRIC_HISTOGRAM (TIMESTAMP);
 CREATE INDEX IDX_TIMESTAMP_TIMER ON METRIC_TIMER (TIMESTAMP);
+
+-- One minute and one hour rollups of the Stream Processor metrics, written by the Stream Processor JDBC
+-- metrics reporter. Rollup tables have the columns of the raw tables, and the timestamp of a row is the start of
+-- its interval.
+
+IF NOT EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[METRIC_GAUGE_1M]') AND TYPE IN (N'U'))
+CREATE TABLE METRIC_GAUGE_1M (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    VALUE VARCHAR(100) NOT NULL
+);
+
+IF NOT EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[METRIC_GAUGE_1H]') AND TYPE IN (N'U'))
+CREATE TABLE METRIC_GAUGE_1H (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    VALUE VARCHAR(100) NOT NULL
+);
+
+IF NOT EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[METRIC_METER_1M]') AND TYPE IN (N'U'))
+CREATE TABLE METRIC_METER_1M (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT BIGINT NOT NULL,
+    MEAN_RATE DECIMAL NOT NULL,
+    M1_RATE DECIMAL NOT NULL,
+    M5_RATE DECIMAL NOT NULL,
+    M15_RATE DECIMAL NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL
+);
+
+IF NOT EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[METRIC_METER_1H]') AND TYPE IN (N'U'))
+CREATE TABLE METRIC_METER_1H (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT BIGINT NOT NULL,
+    MEAN_RATE DECIMAL NOT NULL,
+    M1_RATE DECIMAL NOT NULL,
+    M5_RATE DECIMAL NOT NULL,
+    M15_RATE DECIMAL NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL
+);
+
+IF NOT EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[METRIC_TIMER_1M]') AND TYPE IN (N'U'))
+CREATE TABLE METRIC_TIMER_1M (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT BIGINT NOT NULL,
+    MAX DECIMAL NOT NULL,
+    MEAN DECIMAL NOT NULL,
+    MIN DECIMAL NOT NULL,
+    STDDEV DECIMAL NOT NULL,
+    P50 DECIMAL NOT NULL,
+    P75 DECIMAL NOT NULL,
+    P95 DECIMAL NOT NULL,
+    P98 DECIMAL NOT NULL,
+    P99 DECIMAL NOT NULL,
+    P999 DECIMAL NOT NULL,
+    MEAN_RATE DECIMAL NOT NULL,
+    M1_RATE DECIMAL NOT NULL,
+    M5_RATE DECIMAL NOT NULL,
+    M15_RATE DECIMAL NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL,
+    DURATION_UNIT VARCHAR(50) NOT NULL
+);
+
+IF NOT EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[METRIC_TIMER_1H]') AND TYPE IN (N'U'))
+CREATE TABLE METRIC_TIMER_1H (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT BIGINT NOT NULL,
+    MAX DECIMAL NOT NULL,
+    MEAN DECIMAL NOT NULL,
+    MIN DECIMAL NOT NULL,
+    STDDEV DECIMAL NOT NULL,
+    P50 DECIMAL NOT NULL,
+    P75 DECIMAL NOT NULL,
+    P95 DECIMAL NOT NULL,
+    P98 DECIMAL NOT NULL,
+    P99 DECIMAL NOT NULL,
+    P999 DECIMAL NOT NULL,
+    MEAN_RATE DECIMAL NOT NULL,
+    M1_RATE DECIMAL NOT NULL,
+    M5_RATE DECIMAL NOT NULL,
+    M15_RATE DECIMAL NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL,
+    DURATION_UNIT VARCHAR(50) NOT NULL
+);
+
+CREATE INDEX IDX_SOURCE_TIMESTAMP_GAUGE_1M ON METRIC_GAUGE_1M (SOURCE, TIMESTAMP);
+CREATE INDEX IDX_SOURCE_TIMESTAMP_GAUGE_1H ON METRIC_GAUGE_1H (SOURCE, TIMESTAMP);
+CREATE INDEX IDX_SOURCE_TIMESTAMP_METER_1M ON METRIC_METER_1M (SOURCE, TIMESTAMP);
+CREATE INDEX IDX_SOURCE_TIMESTAMP_METER_1H ON METRIC_METER_1H (SOURCE, TIMESTAMP);
+CREATE INDEX IDX_SOURCE_TIMESTAMP_TIMER_1M ON METRIC_TIMER_1M (SOURCE, TIMESTAMP);
+CREATE INDEX IDX_SOURCE_TIMESTAMP_TIMER_1H ON METRIC_TIMER_1H (SOURCE, TIMESTAMP);
@@ -155,3 +155,110 @@ CREATE INDEX IDX_TIMESTAMP_HISTOGRAM ON METRIC_HISTOGRAM (TIMESTAMP)
 /
 CREATE INDEX IDX_TIMESTAMP_TIMER ON METRIC_TIMER (TIMESTAMP)
 /
+
+-- One minute and one hour rollups of the Stream Processor metrics, written by the Stream Processor JDBC
+-- metrics reporter. Rollup tables have the columns of the raw tables, and the timestamp of a row is the start of
+-- its interval.
+
+CREATE TABLE METRIC_GAUGE_1M (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP NUMBER(20) NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    VALUE VARCHAR(100) NOT NULL
+)
+/
+
+CREATE TABLE METRIC_GAUGE_1H (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP NUMBER(20) NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    VALUE VARCHAR(100) NOT NULL
+)
+/
+
+CREATE TABLE METRIC_METER_1M (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP NUMBER(20) NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT NUMBER(20) NOT NULL,
+    MEAN_RATE BINARY_DOUBLE NOT NULL,
+    M1_RATE BINARY_DOUBLE NOT NULL,
+    M5_RATE BINARY_DOUBLE NOT NULL,
+    M15_RATE BINARY_DOUBLE NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL
+)
+/
+
+CREATE TABLE METRIC_METER_1H (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP NUMBER(20) NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT NUMBER(20) NOT NULL,
+    MEAN_RATE BINARY_DOUBLE NOT NULL,
+    M1_RATE BINARY_DOUBLE NOT NULL,
+    M5_RATE BINARY_DOUBLE NOT NULL,
+    M15_RATE BINARY_DOUBLE NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL
+)
+/
+
+CREATE TABLE METRIC_TIMER_1M (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP NUMBER(20) NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT NUMBER(20) NOT NULL,
+    MAX BINARY_DOUBLE NOT NULL,
+    MEAN BINARY_DOUBLE NOT NULL,
+    MIN BINARY_DOUBLE NOT NULL,
+    STDDEV BINARY_DOUBLE NOT NULL,
+    P50 BINARY_DOUBLE NOT NULL,
+    P75 BINARY_DOUBLE NOT NULL,
+    P95 BINARY_DOUBLE NOT NULL,
+    P98 BINARY_DOUBLE NOT NULL,
+    P99 BINARY_DOUBLE NOT NULL,
+    P999 BINARY_DOUBLE NOT NULL,
+    MEAN_RATE BINARY_DOUBLE NOT NULL,
+    M1_RATE BINARY_DOUBLE NOT NULL,
+    M5_RATE BINARY_DOUBLE NOT NULL,
+    M15_RATE BINARY_DOUBLE NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL,
+    DURATION_UNIT VARCHAR(50) NOT NULL
+)
+/
+
+CREATE TABLE METRIC_TIMER_1H (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP NUMBER(20) NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT NUMBER(20) NOT NULL,
+    MAX BINARY_DOUBLE NOT NULL,
+    MEAN BINARY_DOUBLE NOT NULL,
+    MIN BINARY_DOUBLE NOT NULL,
+    STDDEV BINARY_DOUBLE NOT NULL,
+    P50 BINARY_DOUBLE NOT NULL,
+    P75 BINARY_DOUBLE NOT NULL,
+    P95 BINARY_DOUBLE NOT NULL,
+    P98 BINARY_DOUBLE NOT NULL,
+    P99 BINARY_DOUBLE NOT NULL,
+    P999 BINARY_DOUBLE NOT NULL,
+    MEAN_RATE BINARY_DOUBLE NOT NULL,
+    M1_RATE BINARY_DOUBLE NOT NULL,
+    M5_RATE BINARY_DOUBLE NOT NULL,
+    M15_RATE BINARY_DOUBLE NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL,
+    DURATION_UNIT VARCHAR(50) NOT NULL
+)
+/
+
+CREATE INDEX IDX_SOURCE_TIMESTAMP_GAUGE_1M ON METRIC_GAUGE_1M (SOURCE, TIMESTAMP)
+/
+CREATE INDEX IDX_SOURCE_TIMESTAMP_GAUGE_1H ON METRIC_GAUGE_1H (SOURCE, TIMESTAMP)
+/
+CREATE INDEX IDX_SOURCE_TIMESTAMP_METER_1M ON METRIC_METER_1M (SOURCE, TIMESTAMP)
+/
+CREATE INDEX IDX_SOURCE_TIMESTAMP_METER_1H ON METRIC_METER_1H (SOURCE, TIMESTAMP)
+/
+CREATE INDEX IDX_SOURCE_TIMESTAMP_TIMER_1M ON METRIC_TIMER_1M (SOURCE, TIMESTAMP)
+/
+CREATE INDEX IDX_SOURCE_TIMESTAMP_TIMER_1H ON METRIC_TIMER_1H (SOURCE, TIMESTAMP)
+/
@@ -100,3 +100,98 @@ CREATE INDEX IDX_TIMESTAMP_COUNTER ON METRIC_COUNTER (TIMESTAMP);
 CREATE INDEX IDX_TIMESTAMP_METER ON METRIC_METER (TIMESTAMP);
 CREATE INDEX IDX_TIMESTAMP_HISTOGRAM ON METRIC_HISTOGRAM (TIMESTAMP);
 CREATE INDEX IDX_TIMESTAMP_TIMER ON METRIC_TIMER (TIMESTAMP);
+
+-- One minute and one hour rollups of the Stream Processor metrics, written by the Stream Processor JDBC
+-- metrics reporter. Rollup tables have the columns of the raw tables, and the timestamp of a row is the start of
+-- its interval.
+
+CREATE TABLE METRIC_GAUGE_1M (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    VALUE VARCHAR(100) NOT NULL
+);
+
+CREATE TABLE METRIC_GAUGE_1H (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    VALUE VARCHAR(100) NOT NULL
+);
+
+CREATE TABLE METRIC_METER_1M (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT BIGINT NOT NULL,
+    MEAN_RATE NUMERIC(25,20) NOT NULL,
+    M1_RATE NUMERIC(25,20) NOT NULL,
+    M5_RATE NUMERIC(25,20) NOT NULL,
+    M15_RATE NUMERIC(25,20) NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE METRIC_METER_1H (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT BIGINT NOT NULL,
+    MEAN_RATE NUMERIC(25,20) NOT NULL,
+    M1_RATE NUMERIC(25,20) NOT NULL,
+    M5_RATE NUMERIC(25,20) NOT NULL,
+    M15_RATE NUMERIC(25,20) NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE METRIC_TIMER_1M (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT BIGINT NOT NULL,
+    MAX NUMERIC(25,20) NOT NULL,
+    MEAN NUMERIC(25,20) NOT NULL,
+    MIN NUMERIC(25,20) NOT NULL,
+    STDDEV NUMERIC(25,20) NOT NULL,
+    P50 NUMERIC(25,20) NOT NULL,
+    P75 NUMERIC(25,20) NOT NULL,
+    P95 NUMERIC(25,20) NOT NULL,
+    P98 NUMERIC(25,20) NOT NULL,
+    P99 NUMERIC(25,20) NOT NULL,
+    P999 NUMERIC(25,20) NOT NULL,
+    MEAN_RATE NUMERIC(25,20) NOT NULL,
+    M1_RATE NUMERIC(25,20) NOT NULL,
+    M5_RATE NUMERIC(25,20) NOT NULL,
+    M15_RATE NUMERIC(25,20) NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL,
+    DURATION_UNIT VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE METRIC_TIMER_1H (
+    SOURCE VARCHAR(255) NOT NULL,
+    TIMESTAMP BIGINT NOT NULL,
+    NAME VARCHAR(255) NOT NULL,
+    COUNT BIGINT NOT NULL,
+    MAX NUMERIC(25,20) NOT NULL,
+    MEAN NUMERIC(25,20) NOT NULL,
+    MIN NUMERIC(25,20) NOT NULL,
+    STDDEV NUMERIC(25,20) NOT NULL,
+    P50 NUMERIC(25,20) NOT NULL,
+    P75 NUMERIC(25,20) NOT NULL,
+    P95 NUMERIC(25,20) NOT NULL,
+    P98 NUMERIC(25,20) NOT NULL,
+    P99 NUMERIC(25,20) NOT NULL,
+    P999 NUMERIC(25,20) NOT NULL,
+    MEAN_RATE NUMERIC(25,20) NOT NULL,
+    M1_RATE NUMERIC(25,20) NOT NULL,
+    M5_RATE NUMERIC(25,20) NOT NULL,
+    M15_RATE NUMERIC(25,20) NOT NULL,
+    RATE_UNIT VARCHAR(50) NOT NULL,
+    DURATION_UNIT VARCHAR(50) NOT NULL
+);
+
+CREATE INDEX IDX_SOURCE_TIMESTAMP_GAUGE_1M ON METRIC_GAUGE_1M (SOURCE, TIMESTAMP);
+CREATE INDEX IDX_SOURCE_TIMESTAMP_GAUGE_1H ON METRIC_GAUGE_1H (SOURCE, TIMESTAMP);
+CREATE INDEX IDX_SOURCE_TIMESTAMP_METER_1M ON METRIC_METER_1M (SOURCE, TIMESTAMP);
+CREATE INDEX IDX_SOURCE_TIMESTAMP_METER_1H ON METRIC_METER_1H (SOURCE, TIMESTAMP);
+CREATE INDEX IDX_SOURCE_TIMESTAMP_TIMER_1M ON METRIC_TIMER_1M (SOURCE, TIMESTAMP);
+CREATE INDEX IDX_SOURCE_TIMESTAMP_TIMER_1H ON METRIC_TIMER_1H (SOURCE, TIMESTAMP);
@@ -47,26 +47,17 @@ const styles = {
 const toolBar = {position: 'absolute', top: 85, right: 15, padding: 0, backgroundColor: 'transparent'};
 
 const latencyMetadata = {
-    names: ['Time', 'Max', 'Mean', 'Min', 'Standard Deviation', '75th Percentile', '95th Percentile',
-        '99th Percentile', '99.9th Percentile', 'Mean Rate', '1 Minute Rate', '5 Minutes Rate', '15 Minutes Rate'],
-    types: ['time', 'linear', 'linear', 'linear', 'linear', 'linear', 'linear', 'linear', 'linear', 'linear', 'linear',
-        'linear', 'linear']
+    names: ['Time', 'Mean', '50th Percentile', '95th Percentile', '99th Percentile', 'Max'],
+    types: ['time', 'linear', 'linear', 'linear', 'linear', 'linear']
 };
 const latencyLineChartConfig = {
     x: 'Time',
     charts: [
-        {type: 'area', y: 'Max', fill: '#50B432', style: {markRadius: 2}},
         {type: 'area', y: 'Mean', fill: '#f17b31', style: {markRadius: 2}},
-        {type: 'area', y: 'Min', fill: '#8c51a5', style: {markRadius: 2}},
-        {type: 'area', y: 'Standard Deviation', fill: '#FFEB3B', style: {markRadius: 2}},
-        {type: 'area', y: '75th Percentile', fill: '#70dbed', style: {markRadius: 2}},
+        {type: 'area', y: '50th Percentile', fill: '#70dbed', style: {markRadius: 2}},
         {type: 'area', y: '95th Percentile', fill: '#ffb873', style: {markRadius: 2}},
         {type: 'area', y: '99th Percentile', fill: '#95dd87', style: {markRadius: 2}},
-        {type: 'area', y: '99.9th Percentile', fill: '#890f02', style: {markRadius: 2}},
-        {type: 'area', y: 'Mean Rate', fill: '#ff918f', style: {markRadius: 2}},
-        {type: 'area', y: '1 Minute Rate', fill: '#b76969', style: {markRadius: 2}},
-        {type: 'area', y: '5 Minutes Rate', fill: '#aea2e0', style: {markRadius: 2}},
-        {type: 'area', y: '15 Minutes Rate', fill: '#FFEB3B', style: {markRadius: 2}}
+        {type: 'area', y: 'Max', fill: '#50B432', style: {markRadius: 2}}
     ],
     width: 800,
     height: 250,
@@ -35,4 +35,9 @@ public interface EventStreamService {
             ResourceNotFoundException;
 
     public void pushEvent(String siddhiAppName, String streamName, Event event);
+
+    public void pushEvents(String siddhiAppName, String streamName, Event[] events);
+
+    public EventStreamHandle getEventStreamHandle(String siddhiAppName, String streamName) throws
+            ResourceNotFoundException;
 }
@@ -271,6 +271,32 @@ public class SiddhiAppsApi implements Microservice {
         return delegate.siddhiAppsElementsGet(appName, request);
     }
 
+    @POST
+    @Path("/{appName}/streams/{streamName}/events")
+    @Consumes({"application/octet-stream", "application/x-ndjson"})
+    @Produces({"application/json"})
+    @io.swagger.annotations.ApiOperation(value = "Publishes a batch of events to a stream of the Siddhi Application.",
+            notes = "Publishes length prefixed binary event frames or newline delimited JSON events to the " +
+                    "specified stream. ", response = InlineResponse400.class, tags = {"Event",})
+    @io.swagger.annotations.ApiResponses(value = {
+            @io.swagger.annotations.ApiResponse(code = 200, message = "The events are successfully published.",
+                    response = InlineResponse400.class),
+            @io.swagger.annotations.ApiResponse(code = 400, message = "The events cannot be decoded. None of the " +
+                    "events are published.",
+                    response = InlineResponse400.class),
+            @io.swagger.annotations.ApiResponse(code = 404, message = "The Siddhi Application or the stream " +
+                    "specified is not found.", response = InlineResponse400.class),
+            @io.swagger.annotations.ApiResponse(code = 500, message = "An unexpected error occured.",
+                    response = InlineResponse400.class)})
+    public Response siddhiAppsStreamEventsPost(
+            @Context Request request,
+            @ApiParam(value = "The name of the Siddhi Application", required = true)
+            @PathParam("appName") String appName,
+            @ApiParam(value = "The name of the stream", required = true)
+            @PathParam("streamName") String streamName) throws NotFoundException {
+        return delegate.siddhiAppsStreamEventsPost(appName, streamName, request);
+    }
+
     @GET
     @Path("/statistics")
     @Produces({"application/json"})
@@ -287,6 +313,81 @@ public class SiddhiAppsApi implements Microservice {
         return delegate.siddhiAppsStatisticsGet(isActive, request);
     }
 
+    @GET
+    @Path("/{appName}/statistics/latency")
+    @Produces({"application/json"})
+    @io.swagger.annotations.ApiOperation(value = "Fetches the end to end latency of the Siddhi Application.",
+            notes = "Fetches the source to sink latency percentiles of the Siddhi Application in milliseconds. ",
+            response = InlineResponse400.class, tags = {"Artifact",})
+    @io.swagger.annotations.ApiResponses(value = {
+            @io.swagger.annotations.ApiResponse(code = 200, message = "The latency is successfully retrieved.",
+                    response = InlineResponse400.class),
+            @io.swagger.annotations.ApiResponse(code = 404, message = "The Siddhi Application specified is not " +
+                    "found or its latency is not tracked.", response = InlineResponse400.class)})
+    public Response siddhiAppLatencyGet(
+            @Context Request request,
+            @ApiParam(value = "The name of the Siddhi Application.", required = true)
+            @PathParam("appName") String appName) throws NotFoundException {
+        return delegate.siddhiAppLatencyGet(appName, request);
+    }
+
+    @GET
+    @Path("/{appName}/statistics/resources")
+    @Produces({"application/json"})
+    @io.swagger.annotations.ApiOperation(value = "Fetches the CPU and memory allocation of the Siddhi Application.",
+            notes = "Fetches the CPU time used and the bytes allocated by the threads of the Siddhi Application. ",
+            response = InlineResponse400.class, tags = {"Artifact",})
+    @io.swagger.annotations.ApiResponses(value = {
+            @io.swagger.annotations.ApiResponse(code = 200, message = "The resource usage is successfully retrieved.",
+                    response = InlineResponse400.class),
+            @io.swagger.annotations.ApiResponse(code = 404, message = "The Siddhi Application specified is not " +
+                    "found or its resource usage is not tracked.", response = InlineResponse400.class)})
+    public Response siddhiAppResourceUsageGet(
+            @Context Request request,
+            @ApiParam(value = "The name of the Siddhi Application.", required = true)
+            @PathParam("appName") String appName) throws NotFoundException {
+        return delegate.siddhiAppResourceUsageGet(appName, request);
+    }
+
+    @GET
+    @Path("/{appName}/statistics/profile")
+    @Produces({"text/plain", "application/json"})
+    @io.swagger.annotations.ApiOperation(value = "Fetches the stack samples of the Siddhi Application.",
+            notes = "Fetches the stack samples taken while the Siddhi Application is being profiled, in the folded " +
+                    "format used to render flame graphs. ", response = String.class, tags = {"Artifact",})
+    @io.swagger.annotations.ApiResponses(value = {
+            @io.swagger.annotations.ApiResponse(code = 200, message = "The stack samples are successfully retrieved.",
+                    response = String.class),
+            @io.swagger.annotations.ApiResponse(code = 404, message = "The Siddhi Application specified is not " +
+                    "found or it is not being profiled.", response = InlineResponse400.class)})
+    public Response siddhiAppProfileGet(
+            @Context Request request,
+            @ApiParam(value = "The name of the Siddhi Application.", required = true)
+            @PathParam("appName") String appName) throws NotFoundException {
+        return delegate.siddhiAppProfileGet(appName, request);
+    }
+
+    @PUT
+    @Path("/{appName}/statistics/profile")
+    @Produces({"application/json"})
+    @io.swagger.annotations.ApiOperation(value = "Starts or stops profiling the Siddhi Application.",
+            notes = "Starts or stops sampling the stacks of the threads of the Siddhi Application. Starting the " +
+                    "profiler discards the samples taken earlier. ", response = ApiResponseMessage.class,
+            tags = {"Artifact",})
+    @io.swagger.annotations.ApiResponses(value = {
+            @io.swagger.annotations.ApiResponse(code = 200, message = "The profiler is successfully updated.",
+                    response = ApiResponseMessage.class),
+            @io.swagger.annotations.ApiResponse(code = 404, message = "The Siddhi Application specified is not " +
+                    "found.", response = InlineResponse400.class)})
+    public Response siddhiAppProfileEnable(
+            @Context Request request,
+            @ApiParam(value = "The name of the Siddhi Application.", required = true)
+            @PathParam("appName") String appName,
+            @ApiParam(value = "Whether the Siddhi Application is profiled.", required = true)
+            @QueryParam("enabled") String enabled) throws NotFoundException {
+        return delegate.siddhiAppProfileEnable(appName, enabled, request);
+    }
+
     @PUT
     @Path("/{appName}/statistics")
     @Consumes({"application/json"})
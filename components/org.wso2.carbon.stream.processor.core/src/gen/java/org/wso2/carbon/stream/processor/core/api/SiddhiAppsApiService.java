@@ -60,5 +60,17 @@ public abstract class SiddhiAppsApiService {
     public abstract Response siddhiAppsStatsEnable(Level statsEnabled, Request request) throws
             NotFoundException;
 
+    public abstract Response siddhiAppLatencyGet(String appName, Request request) throws NotFoundException;
+
+    public abstract Response siddhiAppResourceUsageGet(String appName, Request request) throws NotFoundException;
+
+    public abstract Response siddhiAppProfileGet(String appName, Request request) throws NotFoundException;
+
+    public abstract Response siddhiAppProfileEnable(String appName, String enabled, Request request)
+            throws NotFoundException;
+
     public abstract Response siddhiAppsElementsGet(String appName, Request request) throws NotFoundException;
+
+    public abstract Response siddhiAppsStreamEventsPost(String appName, String streamName, Request request)
+            throws NotFoundException;
 }
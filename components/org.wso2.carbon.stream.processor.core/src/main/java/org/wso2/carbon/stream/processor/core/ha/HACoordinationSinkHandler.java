@@ -19,6 +19,8 @@
 package org.wso2.carbon.stream.processor.core.ha;
 
 import org.apache.log4j.Logger;
+import org.wso2.carbon.sp.metrics.core.SPEndToEndLatencyMetric;
+import org.wso2.carbon.stream.processor.core.internal.LatencyTrackingSinkHandler;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.stream.output.sink.SinkHandler;
 import org.wso2.siddhi.core.stream.output.sink.SinkHandlerCallback;
@@ -35,6 +37,7 @@ public class HACoordinationSinkHandler extends SinkHandler {
     private boolean isActiveNode;
     private long lastPublishedEventTimestamp = 0L;
     private String sinkHandlerElementId;
+    private SPEndToEndLatencyMetric latencyTracker;
 
 
     /**
@@ -48,6 +51,7 @@ public class HACoordinationSinkHandler extends SinkHandler {
     public void init(String sinkHandlerElementId, StreamDefinition streamDefinition,
                      SinkHandlerCallback sinkHandlerCallback) {
         this.sinkHandlerElementId = sinkHandlerElementId;
+        this.latencyTracker = LatencyTrackingSinkHandler.createLatencyTracker(sinkHandlerElementId);
     }
 
     /**
@@ -60,6 +64,9 @@ public class HACoordinationSinkHandler extends SinkHandler {
     public void handle(Event event, SinkHandlerCallback sinkHandlerCallback) {
         if (isActiveNode) {
             lastPublishedEventTimestamp = event.getTimestamp();
+            if (latencyTracker != null) {
+                latencyTracker.markOut(event.getTimestamp());
+            }
             sinkHandlerCallback.mapAndSend(event);
         }
     }
@@ -74,6 +81,11 @@ public class HACoordinationSinkHandler extends SinkHandler {
     public void handle(Event[] events, SinkHandlerCallback sinkHandlerCallback) {
         if (isActiveNode) {
             lastPublishedEventTimestamp = events[events.length - 1].getTimestamp();
+            if (latencyTracker != null) {
+                for (Event event : events) {
+                    latencyTracker.markOut(event.getTimestamp());
+                }
+            }
             sinkHandlerCallback.mapAndSend(events);
         }
     }
@@ -374,6 +374,7 @@ public class HAManager {
             }
             siddhiAppData.setActive(state);
         });
+        StreamProcessorDataHolder.getStreamProcessorService().markSiddhiAppsChanged();
     }
 
     private String getHost(Map nodePropertiesMap) {
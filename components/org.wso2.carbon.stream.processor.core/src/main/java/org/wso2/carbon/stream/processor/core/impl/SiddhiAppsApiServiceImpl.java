@@ -21,14 +21,25 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.analytics.permissions.PermissionProvider;
 import org.wso2.carbon.analytics.permissions.bean.Permission;
+import org.wso2.carbon.sp.metrics.core.LatencyHistogram;
+import org.wso2.carbon.sp.metrics.core.SPEndToEndLatencyMetric;
+import org.wso2.carbon.sp.metrics.core.SPMetricsFactory;
+import org.wso2.carbon.sp.metrics.core.SPResourceUsageMetric;
+import org.wso2.carbon.sp.metrics.core.SPStackProfiler;
+import org.wso2.carbon.stream.processor.common.EventStreamHandle;
+import org.wso2.carbon.stream.processor.common.exception.ResourceNotFoundException;
 import org.wso2.carbon.stream.processor.core.api.ApiResponseMessage;
 import org.wso2.carbon.stream.processor.core.api.ApiResponseMessageWithCode;
 import org.wso2.carbon.stream.processor.core.api.NotFoundException;
 import org.wso2.carbon.stream.processor.core.api.SiddhiAppsApiService;
 import org.wso2.carbon.stream.processor.core.impl.utils.Constants;
+import org.wso2.carbon.stream.processor.core.internal.CarbonEventStreamHandle;
 import org.wso2.carbon.stream.processor.core.internal.SiddhiAppData;
+import org.wso2.carbon.stream.processor.core.internal.SiddhiAppsSummary;
 import org.wso2.carbon.stream.processor.core.internal.StreamProcessorDataHolder;
 import org.wso2.carbon.stream.processor.core.internal.beans.SiddhiAppElements;
+import org.wso2.carbon.stream.processor.core.internal.beans.SiddhiAppLatency;
+import org.wso2.carbon.stream.processor.core.internal.beans.SiddhiAppResourceUsage;
 import org.wso2.carbon.stream.processor.core.internal.exception.SiddhiAppConfigurationException;
 import org.wso2.carbon.stream.processor.core.internal.exception.SiddhiAppDeploymentException;
 import org.wso2.carbon.stream.processor.core.internal.util.SiddhiAppProcessorConstants;
@@ -36,6 +47,7 @@ import org.wso2.carbon.stream.processor.core.model.SiddhiAppContent;
 import org.wso2.carbon.stream.processor.core.model.SiddhiAppMetrics;
 import org.wso2.carbon.stream.processor.core.model.SiddhiAppRevision;
 import org.wso2.carbon.stream.processor.core.model.SiddhiAppStatus;
+import org.wso2.carbon.stream.processor.core.util.EventBatchDecoder;
 import org.wso2.carbon.stream.processor.core.util.StatsEnable;
 import org.wso2.msf4j.Request;
 import org.wso2.siddhi.core.SiddhiAppRuntime;
@@ -60,6 +72,7 @@ import org.wso2.siddhi.query.api.expression.AttributeFunction;
 import org.wso2.siddhi.query.compiler.SiddhiCompiler;
 
 import java.io.File;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -67,6 +80,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 
@@ -81,6 +95,8 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
     private static final String PERMISSION_APP_NAME = "SAPP";
     private static final String MANAGE_SIDDHI_APP_PERMISSION_STRING = "siddhiApp.manage";
     private static final String VIEW_SIDDHI_APP_PERMISSION_STRING = "siddhiApp.view";
+    private static final Gson GSON = new Gson();
+    private static final double NANOS_PER_MILLI = 1000000d;
 
     public Response siddhiAppsPost(String body) throws NotFoundException {
         String jsonString;
@@ -91,23 +107,23 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
             if (siddhiAppName != null) {
                 URI location = new URI(SiddhiAppProcessorConstants.SIDDHI_APP_REST_PREFIX + File.separator +
                         File.separator + siddhiAppName);
-                jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
+                jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
                         "Siddhi App saved succesfully and will be deployed in next deployment cycle"));
                 return Response.created(location).entity(jsonString).build();
             } else {
-                jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.CONFLICT,
+                jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.CONFLICT,
                         "There is a Siddhi App already " +
                                 "exists with same name"));
                 status = Response.Status.CONFLICT;
             }
 
         } catch (SiddhiAppDeploymentException | URISyntaxException e) {
-            jsonString = new Gson().
+            jsonString = GSON.
                     toJson(new ApiResponseMessageWithCode(ApiResponseMessageWithCode.FILE_PROCESSING_ERROR,
                             e.getMessage()));
             status = Response.Status.INTERNAL_SERVER_ERROR;
         } catch (SiddhiAppConfigurationException e) {
-            jsonString = new Gson().toJson(new ApiResponseMessageWithCode(ApiResponseMessageWithCode.VALIDATION_ERROR,
+            jsonString = GSON.toJson(new ApiResponseMessageWithCode(ApiResponseMessageWithCode.VALIDATION_ERROR,
                     e.getMessage()));
             status = Response.Status.BAD_REQUEST;
         }
@@ -116,7 +132,7 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
     }
 
     public Response siddhiAppsPut(String body) throws NotFoundException {
-        String jsonString = new Gson().toString();
+        String jsonString = GSON.toString();
         Response.Status status = Response.Status.OK;
         try {
             boolean isAlreadyExists = StreamProcessorDataHolder.
@@ -125,23 +141,23 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
                     getStreamProcessorService().validateAndSave(body, true);
             if (siddhiAppName != null) {
                 if (isAlreadyExists) {
-                    jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
+                    jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
                             "Siddhi App updated succesfully and will be deployed in next deployment cycle"));
                 } else {
                     URI location = new URI(SiddhiAppProcessorConstants.SIDDHI_APP_REST_PREFIX + File.separator +
                             File.separator + siddhiAppName);
-                    jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
+                    jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
                             "Siddhi App saved succesfully and will be deployed in next deployment cycle"));
                     return Response.created(location).entity(jsonString).build();
                 }
             }
         } catch (SiddhiAppDeploymentException | URISyntaxException e) {
-            jsonString = new Gson().
+            jsonString = GSON.
                     toJson(new ApiResponseMessageWithCode(ApiResponseMessageWithCode.FILE_PROCESSING_ERROR,
                             e.getMessage()));
             status = Response.Status.INTERNAL_SERVER_ERROR;
         } catch (SiddhiAppConfigurationException e) {
-            jsonString = new Gson().toJson(new ApiResponseMessageWithCode(ApiResponseMessageWithCode.VALIDATION_ERROR,
+            jsonString = GSON.toJson(new ApiResponseMessageWithCode(ApiResponseMessageWithCode.VALIDATION_ERROR,
                     e.getMessage()));
             status = Response.Status.BAD_REQUEST;
         }
@@ -150,29 +166,24 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
     }
 
     public Response siddhiAppsGet(String isActive) throws NotFoundException {
-        String jsonString;
-        boolean isActiveValue;
-
-        List<String> artifactList = new ArrayList<>();
+        return siddhiAppsGet(isActive, (String) null);
+    }
 
-        Map<String, SiddhiAppData> siddhiAppFileMap = StreamProcessorDataHolder.
-                getStreamProcessorService().getSiddhiAppMap();
+    public Response siddhiAppsGet(String isActive, String ifNoneMatch) throws NotFoundException {
+        SiddhiAppsSummary siddhiAppsSummary = StreamProcessorDataHolder.getStreamProcessorService()
+                .getSiddhiAppsSummary();
+        if (siddhiAppsSummary.matches(ifNoneMatch)) {
+            return Response.notModified(siddhiAppsSummary.getETag()).build();
+        }
 
+        List<String> artifactList;
         if (isActive != null && !isActive.trim().isEmpty()) {
-            isActiveValue = Boolean.parseBoolean(isActive);
-            for (Map.Entry<String, SiddhiAppData> siddhiAppFileEntry : siddhiAppFileMap.entrySet()) {
-                if (isActiveValue == siddhiAppFileEntry.getValue().isActive()) {
-                    artifactList.add(siddhiAppFileEntry.getKey());
-                }
-            }
-
+            artifactList = siddhiAppsSummary.getSiddhiAppNames(Boolean.parseBoolean(isActive));
         } else {
-            for (Map.Entry<String, SiddhiAppData> siddhiAppFileEntry : siddhiAppFileMap.entrySet()) {
-                artifactList.add(siddhiAppFileEntry.getKey());
-            }
+            artifactList = siddhiAppsSummary.getSiddhiAppNames();
         }
 
-        return Response.ok().entity(artifactList).build();
+        return Response.ok().entity(artifactList).tag(siddhiAppsSummary.getETag()).build();
     }
 
     public Response siddhiAppsAppNameDelete(String appFileName) throws NotFoundException {
@@ -183,17 +194,17 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
             if (StreamProcessorDataHolder.getStreamProcessorService().delete(appFileName)) {
                 return Response.status(status).build();
             } else {
-                jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+                jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
                         "There is no Siddhi App exist " +
                                 "with provided name : " + appFileName));
                 status = Response.Status.NOT_FOUND;
             }
         } catch (SiddhiAppConfigurationException e) {
-            jsonString = new Gson().toJson(new ApiResponseMessageWithCode(ApiResponseMessageWithCode.VALIDATION_ERROR,
+            jsonString = GSON.toJson(new ApiResponseMessageWithCode(ApiResponseMessageWithCode.VALIDATION_ERROR,
                     e.getMessage()));
             status = Response.Status.BAD_REQUEST;
         } catch (SiddhiAppDeploymentException e) {
-            jsonString = new Gson().
+            jsonString = GSON.
                     toJson(new ApiResponseMessageWithCode(ApiResponseMessageWithCode.FILE_PROCESSING_ERROR,
                             e.getMessage()));
             status = Response.Status.INTERNAL_SERVER_ERROR;
@@ -215,7 +226,7 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
             return Response.ok().entity(siddhiAppContent).build();
         }
 
-        jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+        jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
                 "There is no Siddhi App exist " +
                         "with provided name : " + appName));
         return Response.status(Response.Status.NOT_FOUND).entity(jsonString).build();
@@ -238,7 +249,7 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
             return Response.ok().entity(siddhiAppStatus).build();
         }
 
-        jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+        jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
                 "There is no Siddhi App exist " +
                         "with provided name : " + appFileName));
         return Response.status(Response.Status.NOT_FOUND).entity(jsonString).build();
@@ -257,14 +268,14 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
                 siddhiAppRevision.setrevision(persistenceReference.getRevision());
                 return Response.status(Response.Status.CREATED).entity(siddhiAppRevision).build();
             } else {
-                jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+                jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
                         "There is no Siddhi App exist " +
                                 "with provided name : " + appName));
                 status = Response.Status.NOT_FOUND;
             }
         } catch (Exception e) {
             log.error("Exception occurred when backup the state for Siddhi App : " + appName, e);
-            jsonString = new Gson().
+            jsonString = GSON.
                     toJson(new ApiResponseMessageWithCode(ApiResponseMessageWithCode.FILE_PROCESSING_ERROR,
                             e.getMessage()));
             status = Response.Status.INTERNAL_SERVER_ERROR;
@@ -285,24 +296,24 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
             if (siddhiAppRuntime != null) {
                 if (revision == null) {
                     siddhiAppRuntime.restoreLastRevision();
-                    jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
+                    jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
                             "State restored to last revision for Siddhi App :" +
                                     appName));
                 } else {
                     siddhiAppRuntime.restoreRevision(revision);
-                    jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
+                    jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
                             "State restored to revision " + revision + " for Siddhi App :" +
                                     appName));
                 }
             } else {
-                jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+                jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
                         "There is no Siddhi App exist " +
                                 "with provided name : " + appName));
                 status = Response.Status.NOT_FOUND;
             }
         } catch (Exception e) {
             log.error("Exception occurred when restoring the state for Siddhi App : " + appName, e);
-            jsonString = new Gson().
+            jsonString = GSON.
                     toJson(new ApiResponseMessageWithCode(ApiResponseMessageWithCode.FILE_PROCESSING_ERROR,
                             e.getMessage()));
             status = Response.Status.INTERNAL_SERVER_ERROR;
@@ -332,17 +343,17 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
                 if (enabledRedeployment == null || "true".equals(enabledRedeployment)) {
                     StreamProcessorDataHolder.
                             getStreamProcessorService().deploySiddhiApp(siddhiAppContent.getSiddhiApp(), appName);
-                    jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
+                    jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
                             "All revisions of the state persistence are deleted for Siddhi App :" +
                                     appName));
                 } else {
-                    jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
+                    jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
                             "All revisions of the state persistence are deleted for Siddhi App :" +
                                     appName + " with redeployment."));
                 }
 
             } else {
-                jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+                jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
                         "There is no Siddhi App exist " +
                                 "with provided name : " + appName));
                 status = Response.Status.NOT_FOUND;
@@ -350,7 +361,7 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
 
         } catch (Exception e) {
             log.error("Exception occurred when deleting the persistance store : " + appName, e);
-            jsonString = new Gson().
+            jsonString = GSON.
                     toJson(new ApiResponseMessageWithCode(ApiResponseMessageWithCode.FILE_PROCESSING_ERROR,
                             e.getMessage()));
             status = Response.Status.INTERNAL_SERVER_ERROR;
@@ -392,16 +403,16 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
 
                     }
                 }
-                jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
+                jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
                         "All revisions of the state persistence is deleted for Siddhi Apps with redeployment"));
             } else {
-                jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
+                jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
                         "All revisions of the state persistence is deleted for Siddhi Apps"));
             }
 
         } catch (Throwable e) {
             log.error("Exception occurred when deleting the persistance store :", e);
-            jsonString = new Gson().
+            jsonString = GSON.
                     toJson(new ApiResponseMessageWithCode(ApiResponseMessageWithCode.FILE_PROCESSING_ERROR,
                             e.getMessage()));
             status = Response.Status.INTERNAL_SERVER_ERROR;
@@ -410,58 +421,126 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
         return Response.status(status).entity(jsonString).build();
     }
 
+    /**
+     * Unlike the Siddhi App listing, the statistics are not tagged with the version of the Siddhi App summary, since
+     * the age of each Siddhi App changes between requests even while the summary does not.
+     */
     public Response siddhiAppsStatisticsGet(String isActive) throws NotFoundException {
-        String jsonString;
-        boolean isActiveValue;
+        SiddhiAppsSummary siddhiAppsSummary = StreamProcessorDataHolder.getStreamProcessorService()
+                .getSiddhiAppsSummary();
+        if (siddhiAppsSummary.getSiddhiAppSummaries().isEmpty()) {
+            String jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+                    "There are no any Siddhi App exist."));
+            return Response.status(Response.Status.NOT_FOUND).entity(jsonString).build();
+        }
 
-        Map<String, SiddhiAppData> siddhiAppFileMap = StreamProcessorDataHolder.
-                getStreamProcessorService().getSiddhiAppMap();
-        List<SiddhiAppMetrics> siddhiAppMetricsList = new ArrayList();
-        if (!siddhiAppFileMap.isEmpty()) {
-            if (isActive != null && !isActive.trim().isEmpty()) {
-                isActiveValue = Boolean.parseBoolean(isActive);
-                for (Map.Entry<String, SiddhiAppData> siddhiAppFileEntry : siddhiAppFileMap.entrySet()) {
-                    SiddhiAppData siddiAppData = siddhiAppFileEntry.getValue();
-                    if (isActiveValue = siddiAppData.isActive()) {
-                        long age = (System.currentTimeMillis() - siddiAppData.getDeploymentTime());
-                        SiddhiAppMetrics appMetrics = new SiddhiAppMetrics();
-                        appMetrics.setAge(age);
-                        appMetrics.appName(siddhiAppFileEntry.getKey());
-                        appMetrics.isStatEnabled(siddiAppData.getSiddhiAppRuntime().getRootMetricsLevel());
-                        appMetrics.status(siddiAppData.isActive() ?
-                                SiddhiAppProcessorConstants.SIDDHI_APP_STATUS_ACTIVE :
-                                SiddhiAppProcessorConstants.SIDDHI_APP_STATUS_INACTIVE);
-                        siddhiAppMetricsList.add(appMetrics);
-                    }
-                }
-            } else {
-                for (Map.Entry<String, SiddhiAppData> siddhiAppFileEntry : siddhiAppFileMap.entrySet()) {
-                    SiddhiAppData siddiAppData = siddhiAppFileEntry.getValue();
-                    SiddhiAppMetrics appMetrics = new SiddhiAppMetrics();
-                    if (siddiAppData.isActive()) {
-                        long age = (System.currentTimeMillis() - siddiAppData.getDeploymentTime());
-                        appMetrics.setAge(age);
-                    } else {
-                        appMetrics.setAge(0);
-                    }
-                    appMetrics.appName(siddhiAppFileEntry.getKey());
-                    if (siddiAppData.isActive()) {
-                        appMetrics.isStatEnabled(siddiAppData.getSiddhiAppRuntime().getRootMetricsLevel());
-                    } else {
-                        appMetrics.isStatEnabled(Level.OFF);
-                    }
-                    appMetrics.status(siddiAppData.isActive() ?
-                            SiddhiAppProcessorConstants.SIDDHI_APP_STATUS_ACTIVE :
-                            SiddhiAppProcessorConstants.SIDDHI_APP_STATUS_INACTIVE);
-                    siddhiAppMetricsList.add(appMetrics);
-                }
+        boolean isFiltered = isActive != null && !isActive.trim().isEmpty();
+        boolean isActiveValue = isFiltered && Boolean.parseBoolean(isActive);
+        long currentTime = System.currentTimeMillis();
+        List<SiddhiAppMetrics> siddhiAppMetricsList = new ArrayList<>();
+        for (SiddhiAppsSummary.SiddhiAppSummary siddhiAppSummary : siddhiAppsSummary.getSiddhiAppSummaries()) {
+            if (isFiltered && isActiveValue != siddhiAppSummary.isActive()) {
+                continue;
             }
-            return Response.ok().entity(siddhiAppMetricsList).build();
-        } else {
-            jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
-                    "There are no any Siddhi App exist."));
+            SiddhiAppMetrics appMetrics = new SiddhiAppMetrics();
+            appMetrics.setAge(siddhiAppSummary.isActive() ? currentTime - siddhiAppSummary.getDeploymentTime() : 0);
+            appMetrics.appName(siddhiAppSummary.getSiddhiAppName());
+            appMetrics.isStatEnabled(siddhiAppSummary.getStatsLevel());
+            appMetrics.status(siddhiAppSummary.isActive() ?
+                    SiddhiAppProcessorConstants.SIDDHI_APP_STATUS_ACTIVE :
+                    SiddhiAppProcessorConstants.SIDDHI_APP_STATUS_INACTIVE);
+            siddhiAppMetricsList.add(appMetrics);
+        }
+        return Response.ok().entity(siddhiAppMetricsList).build();
+    }
+
+    public Response siddhiAppLatencyGet(String appName) throws NotFoundException {
+        if (!StreamProcessorDataHolder.getStreamProcessorService().getSiddhiAppMap().containsKey(appName)) {
+            String jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+                    "There is no Siddhi App exist with provided name : " + appName));
+            return Response.status(Response.Status.NOT_FOUND).entity(jsonString).build();
+        }
+        SPEndToEndLatencyMetric latencyTracker = null;
+        if (StreamProcessorDataHolder.getStatisticsConfiguration().getFactory() instanceof SPMetricsFactory) {
+            latencyTracker = ((SPMetricsFactory) StreamProcessorDataHolder.getStatisticsConfiguration().getFactory())
+                    .getEndToEndLatencyTracker(appName);
+        }
+        if (latencyTracker == null) {
+            String jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+                    "End to end latency is not tracked for the Siddhi App : " + appName));
+            return Response.status(Response.Status.NOT_FOUND).entity(jsonString).build();
+        }
+        LatencyHistogram latencyHistogram = latencyTracker.getLatencyHistogram();
+        SiddhiAppLatency siddhiAppLatency = new SiddhiAppLatency();
+        siddhiAppLatency.setAppName(appName);
+        siddhiAppLatency.setCount(latencyHistogram.getCount());
+        siddhiAppLatency.setMean(latencyHistogram.getMean() / NANOS_PER_MILLI);
+        siddhiAppLatency.setMax((double) latencyHistogram.getMax() / NANOS_PER_MILLI);
+        siddhiAppLatency.setP50((double) latencyHistogram.getValueAtPercentile(50) / NANOS_PER_MILLI);
+        siddhiAppLatency.setP99((double) latencyHistogram.getValueAtPercentile(99) / NANOS_PER_MILLI);
+        siddhiAppLatency.setP999((double) latencyHistogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI);
+        return Response.ok().entity(GSON.toJson(siddhiAppLatency)).type(MediaType.APPLICATION_JSON).build();
+    }
+
+    public Response siddhiAppResourceUsageGet(String appName) throws NotFoundException {
+        if (!StreamProcessorDataHolder.getStreamProcessorService().getSiddhiAppMap().containsKey(appName)) {
+            String jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+                    "There is no Siddhi App exist with provided name : " + appName));
+            return Response.status(Response.Status.NOT_FOUND).entity(jsonString).build();
+        }
+        SPResourceUsageMetric resourceUsageTracker = null;
+        if (StreamProcessorDataHolder.getStatisticsConfiguration().getFactory() instanceof SPMetricsFactory) {
+            resourceUsageTracker = ((SPMetricsFactory) StreamProcessorDataHolder.getStatisticsConfiguration()
+                    .getFactory()).getResourceUsageTracker(appName);
+        }
+        if (resourceUsageTracker == null) {
+            String jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+                    "Resource usage is not tracked for the Siddhi App : " + appName));
+            return Response.status(Response.Status.NOT_FOUND).entity(jsonString).build();
+        }
+        SiddhiAppResourceUsage siddhiAppResourceUsage = new SiddhiAppResourceUsage();
+        siddhiAppResourceUsage.setAppName(appName);
+        siddhiAppResourceUsage.setStatsEnabled(resourceUsageTracker.isEnabled());
+        siddhiAppResourceUsage.setThreadCount(resourceUsageTracker.getThreadCount());
+        siddhiAppResourceUsage.setCpuTime(resourceUsageTracker.getCpuTime() / NANOS_PER_MILLI);
+        siddhiAppResourceUsage.setCpuUsage(resourceUsageTracker.getCpuUsage());
+        siddhiAppResourceUsage.setAllocatedBytes(resourceUsageTracker.getAllocatedBytes());
+        siddhiAppResourceUsage.setAllocationRate(resourceUsageTracker.getAllocationRate());
+        return Response.ok().entity(GSON.toJson(siddhiAppResourceUsage)).type(MediaType.APPLICATION_JSON).build();
+    }
+
+    public Response siddhiAppProfileGet(String appName) throws NotFoundException {
+        if (!StreamProcessorDataHolder.getStreamProcessorService().getSiddhiAppMap().containsKey(appName)) {
+            String jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+                    "There is no Siddhi App exist with provided name : " + appName));
             return Response.status(Response.Status.NOT_FOUND).entity(jsonString).build();
         }
+        String foldedStacks = SPStackProfiler.getInstance().getFoldedStacks(appName);
+        if (foldedStacks == null) {
+            String jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+                    "Siddhi App is not being profiled : " + appName));
+            return Response.status(Response.Status.NOT_FOUND).entity(jsonString).build();
+        }
+        return Response.ok().entity(foldedStacks).type(MediaType.TEXT_PLAIN).build();
+    }
+
+    public Response siddhiAppProfileEnable(String appName, String enabled) throws NotFoundException {
+        if (!StreamProcessorDataHolder.getStreamProcessorService().getSiddhiAppMap().containsKey(appName)) {
+            String jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+                    "There is no Siddhi App exist with provided name : " + appName));
+            return Response.status(Response.Status.NOT_FOUND).entity(jsonString).build();
+        }
+        String jsonString;
+        if (Boolean.parseBoolean(enabled)) {
+            SPStackProfiler.getInstance().start(appName);
+            jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
+                    "Started profiling Siddhi App : " + appName));
+        } else {
+            SPStackProfiler.getInstance().stop(appName);
+            jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
+                    "Stopped profiling Siddhi App : " + appName));
+        }
+        return Response.ok().entity(jsonString).build();
     }
 
     public Response siddhiAppStatsEnable(String appFileName, StatsEnable statsEnabled) throws NotFoundException {
@@ -488,17 +567,18 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
                 appStatChanged = true;
             }
             if (appStatChanged) {
-                jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
+                StreamProcessorDataHolder.getStreamProcessorService().markSiddhiAppsChanged();
+                jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
                         "Sucessfully updated Aiddhi App : " + appFileName));
             } else {
                 log.info("Stats level is already set to :" + statsEnabled.getEnabledSiddhiStatLevel());
-                jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
+                jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
                         "Stats level is already set to :" + statsEnabled.toString() + " for siddhi app" +
                                 appFileName));
             }
             return Response.status(Response.Status.OK).entity(jsonString).build();
         } else {
-            jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+            jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
                     "There is no Siddhi App exist " +
                             "with provided name : " + appFileName));
             return Response.status(Response.Status.NOT_FOUND).entity(jsonString).build();
@@ -517,7 +597,8 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
                 }
             }
         }
-        String jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
+        StreamProcessorDataHolder.getStreamProcessorService().markSiddhiAppsChanged();
+        String jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
                 "All siddhi apps Sucessfully updated."));
         return Response.status(Response.Status.OK).entity(jsonString).build();
     }
@@ -525,12 +606,36 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
     public Response siddhiAppElementsGet(String appName) throws NotFoundException {
         Map<String, SiddhiAppData> siddhiAppDataMap = StreamProcessorDataHolder.getStreamProcessorService()
                 .getSiddhiAppMap();
-        if (siddhiAppDataMap.containsKey(appName)) {
-            String siddhiAppString = siddhiAppDataMap.get(appName).getSiddhiApp();
-            SiddhiApp siddhiApp = SiddhiCompiler.parse(String.valueOf(siddhiAppString));
-            SiddhiAppRuntime siddhiAppRuntime = new SiddhiManager().createSiddhiAppRuntime(siddhiApp);
-            List<SiddhiAppElements> listOfSiddhiAppElements = new ArrayList<>();
+        SiddhiAppData siddhiAppData = siddhiAppDataMap.get(appName);
+        if (siddhiAppData != null) {
+            String siddhiAppElementsJson = siddhiAppData.getSiddhiAppElementsJson();
+            if (siddhiAppElementsJson == null) {
+                siddhiAppElementsJson = GSON.toJson(loadSiddhiAppElements(siddhiAppData));
+                siddhiAppData.setSiddhiAppElementsJson(siddhiAppElementsJson);
+            }
+            return Response.ok().entity(siddhiAppElementsJson).type(MediaType.APPLICATION_JSON).build();
+        }
+
+        String jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+                "There is no Siddhi App exist with provided name : " + appName));
+        return Response.status(Response.Status.NOT_FOUND).entity(jsonString).build();
+    }
 
+    /**
+     * Builds the element graph of the Siddhi App. The deployed runtime is used when available, and a temporary
+     * runtime is created otherwise. The result is cached in {@link SiddhiAppData}, which is replaced on every
+     * deployment of the Siddhi App.
+     */
+    private List<SiddhiAppElements> loadSiddhiAppElements(SiddhiAppData siddhiAppData) {
+        String siddhiAppString = siddhiAppData.getSiddhiApp();
+        SiddhiApp siddhiApp = SiddhiCompiler.parse(String.valueOf(siddhiAppString));
+        SiddhiAppRuntime siddhiAppRuntime = siddhiAppData.getSiddhiAppRuntime();
+        boolean isTemporaryRuntime = siddhiAppRuntime == null;
+        if (isTemporaryRuntime) {
+            siddhiAppRuntime = new SiddhiManager().createSiddhiAppRuntime(siddhiApp);
+        }
+        List<SiddhiAppElements> listOfSiddhiAppElements = new ArrayList<>();
+        try {
             for (int i = 0; i < siddhiApp.getExecutionElementList().size(); i++) {
                 ExecutionElement executionElement = siddhiApp.getExecutionElementList().get(i);
                 if (executionElement instanceof Query) {
@@ -545,12 +650,67 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
             loadAggregarionData(siddhiApp, siddhiAppRuntime, listOfSiddhiAppElements, siddhiAppString);
             loadSources(siddhiApp, siddhiAppRuntime, listOfSiddhiAppElements, siddhiAppString);
             loadSinks(siddhiApp, siddhiAppRuntime, listOfSiddhiAppElements, siddhiAppString);
-            return Response.ok().entity(listOfSiddhiAppElements).build();
+        } finally {
+            if (isTemporaryRuntime) {
+                siddhiAppRuntime.shutdown();
+            }
         }
+        return listOfSiddhiAppElements;
+    }
 
-        String jsonString = new Gson().toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
-                "There is no Siddhi App exist with provided name : " + appName));
-        return Response.status(Response.Status.NOT_FOUND).entity(jsonString).build();
+    public Response siddhiAppsStreamEventsPost(String appName, String streamName, String contentType,
+                                               InputStream inputStream) throws NotFoundException {
+        String jsonString;
+        Response.Status status;
+        try {
+            SiddhiAppData siddhiAppData = StreamProcessorDataHolder.getStreamProcessorService().getSiddhiAppMap()
+                    .get(appName);
+            if (siddhiAppData == null || !siddhiAppData.isActive() || siddhiAppData.getSiddhiAppRuntime() == null) {
+                jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+                        "There is no active Siddhi App exist with provided name : " + appName));
+                return Response.status(Response.Status.NOT_FOUND).entity(jsonString).build();
+            }
+            StreamDefinition streamDefinition = siddhiAppData.getSiddhiAppRuntime().getStreamDefinitionMap()
+                    .get(streamName);
+            if (streamDefinition == null) {
+                jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND,
+                        "Siddhi App " + appName + " does not contain stream : " + streamName));
+                return Response.status(Response.Status.NOT_FOUND).entity(jsonString).build();
+            }
+            EventStreamHandle eventStreamHandle = new CarbonEventStreamHandle(appName, streamName);
+            long eventCount;
+            if (contentType != null && contentType.startsWith(Constants.JSON_EVENTS_MEDIA_TYPE)) {
+                eventCount = EventBatchDecoder.pushJsonEvents(inputStream, streamDefinition.getAttributeList(),
+                        Constants.EVENT_BATCH_SIZE, eventStreamHandle);
+            } else {
+                eventCount = EventBatchDecoder.pushBinaryEvents(inputStream, streamDefinition.getAttributeList(),
+                        Constants.EVENT_BATCH_SIZE, Integer.getInteger(Constants.MAX_EVENT_FRAME_LENGTH,
+                                Constants.DEFAULT_MAX_EVENT_FRAME_LENGTH), eventStreamHandle);
+            }
+            jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.SUCCESS,
+                    eventCount + " events published to stream " + streamName + " of Siddhi App " + appName));
+            status = Response.Status.OK;
+        } catch (IllegalArgumentException e) {
+            jsonString = GSON.toJson(new ApiResponseMessageWithCode(ApiResponseMessageWithCode.VALIDATION_ERROR,
+                    e.getMessage()));
+            status = Response.Status.BAD_REQUEST;
+        } catch (ResourceNotFoundException e) {
+            jsonString = GSON.toJson(new ApiResponseMessage(ApiResponseMessage.NOT_FOUND, e.getMessage()));
+            status = Response.Status.NOT_FOUND;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while publishing events to stream " + streamName + " of Siddhi App " + appName, e);
+            jsonString = GSON.toJson(new ApiResponseMessageWithCode(
+                    ApiResponseMessageWithCode.FILE_PROCESSING_ERROR, e.getMessage()));
+            status = Response.Status.INTERNAL_SERVER_ERROR;
+        } catch (Exception e) {
+            log.error("Exception occurred when publishing events to stream " + streamName + " of Siddhi App " +
+                    appName, e);
+            jsonString = GSON.toJson(new ApiResponseMessageWithCode(
+                    ApiResponseMessageWithCode.FILE_PROCESSING_ERROR, e.getMessage()));
+            status = Response.Status.INTERNAL_SERVER_ERROR;
+        }
+        return Response.status(status).entity(jsonString).build();
     }
 
     /**
@@ -886,7 +1046,7 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
             return Response.status(Response.Status.UNAUTHORIZED).entity("Insufficient permissions to list Siddhi Apps")
                     .build();
         }
-        return siddhiAppsGet(isActive);
+        return siddhiAppsGet(isActive, request.getHeader(Constants.IF_NONE_MATCH));
     }
 
     @Override
@@ -987,6 +1147,53 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
         return siddhiAppsStatisticsGet(isActive);
     }
 
+    @Override
+    public Response siddhiAppLatencyGet(String appName, Request request) throws NotFoundException {
+        if (getUserName(request) != null && !(getPermissionProvider().hasPermission(getUserName(request), new
+                Permission(PERMISSION_APP_NAME, VIEW_SIDDHI_APP_PERMISSION_STRING)) || getPermissionProvider()
+                .hasPermission(getUserName(request), new Permission(PERMISSION_APP_NAME,
+                        MANAGE_SIDDHI_APP_PERMISSION_STRING)))) {
+            return Response.status(Response.Status.UNAUTHORIZED).entity("Insufficient permissions to get the " +
+                    "latency of Siddhi App " + appName).build();
+        }
+        return siddhiAppLatencyGet(appName);
+    }
+
+    @Override
+    public Response siddhiAppResourceUsageGet(String appName, Request request) throws NotFoundException {
+        if (getUserName(request) != null && !(getPermissionProvider().hasPermission(getUserName(request), new
+                Permission(PERMISSION_APP_NAME, VIEW_SIDDHI_APP_PERMISSION_STRING)) || getPermissionProvider()
+                .hasPermission(getUserName(request), new Permission(PERMISSION_APP_NAME,
+                        MANAGE_SIDDHI_APP_PERMISSION_STRING)))) {
+            return Response.status(Response.Status.UNAUTHORIZED).entity("Insufficient permissions to get the " +
+                    "resource usage of Siddhi App " + appName).build();
+        }
+        return siddhiAppResourceUsageGet(appName);
+    }
+
+    @Override
+    public Response siddhiAppProfileGet(String appName, Request request) throws NotFoundException {
+        if (getUserName(request) != null && !(getPermissionProvider().hasPermission(getUserName(request), new
+                Permission(PERMISSION_APP_NAME, VIEW_SIDDHI_APP_PERMISSION_STRING)) || getPermissionProvider()
+                .hasPermission(getUserName(request), new Permission(PERMISSION_APP_NAME,
+                        MANAGE_SIDDHI_APP_PERMISSION_STRING)))) {
+            return Response.status(Response.Status.UNAUTHORIZED).entity("Insufficient permissions to get the " +
+                    "profile of Siddhi App " + appName).build();
+        }
+        return siddhiAppProfileGet(appName);
+    }
+
+    @Override
+    public Response siddhiAppProfileEnable(String appName, String enabled, Request request)
+            throws NotFoundException {
+        if (getUserName(request) != null && !getPermissionProvider().hasPermission(getUserName(request), new
+                Permission(PERMISSION_APP_NAME, MANAGE_SIDDHI_APP_PERMISSION_STRING))) {
+            return Response.status(Response.Status.UNAUTHORIZED).entity("Insufficient permissions to start/stop " +
+                    "profiling Siddhi App " + appName).build();
+        }
+        return siddhiAppProfileEnable(appName, enabled);
+    }
+
     @Override
     public Response siddhiAppStatsEnable(String appFileName, StatsEnable statsEnabled, Request request)
             throws NotFoundException {
@@ -1021,6 +1228,18 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
         return siddhiAppElementsGet(appName);
     }
 
+    @Override
+    public Response siddhiAppsStreamEventsPost(String appName, String streamName, Request request)
+            throws NotFoundException {
+        if (getUserName(request) != null && !getPermissionProvider().hasPermission(getUserName(request), new
+                Permission(PERMISSION_APP_NAME, MANAGE_SIDDHI_APP_PERMISSION_STRING))) {
+            return Response.status(Response.Status.UNAUTHORIZED).entity("Insufficient permissions to publish " +
+                    "events to Siddhi App " + appName).build();
+        }
+        return siddhiAppsStreamEventsPost(appName, streamName, request.getHeader(Constants.CONTENT_TYPE),
+                request.getMessageContentStream());
+    }
+
     private static String getUserName(Request request) {
         Object username = request.getProperty("username");
         return username != null ? username.toString() : null;
@@ -35,4 +35,11 @@ public class Constants {
     public static final String SINK_TYPE = "Sink";
     public static final String HA = "HA";
     public static final String PERIOD = ".";
+    public static final String CONTENT_TYPE = "Content-Type";
+    public static final String IF_NONE_MATCH = "If-None-Match";
+    public static final String BINARY_EVENTS_MEDIA_TYPE = "application/octet-stream";
+    public static final String JSON_EVENTS_MEDIA_TYPE = "application/x-ndjson";
+    public static final int EVENT_BATCH_SIZE = 1000;
+    public static final String MAX_EVENT_FRAME_LENGTH = "maxEventFrameLength";
+    public static final int DEFAULT_MAX_EVENT_FRAME_LENGTH = 1024 * 1024;
 }
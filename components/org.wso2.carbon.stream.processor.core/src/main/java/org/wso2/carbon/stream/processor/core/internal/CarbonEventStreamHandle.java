@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.stream.processor.core.internal;
+
+import org.wso2.carbon.stream.processor.common.EventStreamHandle;
+import org.wso2.carbon.stream.processor.common.exception.ResourceNotFoundException;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+
+import java.util.Map;
+
+/**
+ * {@link EventStreamHandle} which holds the resolved {@link InputHandler} of a stream. The input handler is resolved
+ * again only when the Siddhi App gets redeployed or hot swapped.
+ */
+public class CarbonEventStreamHandle implements EventStreamHandle {
+
+    private final String siddhiAppName;
+    private final String streamName;
+    private volatile SiddhiAppData siddhiAppData;
+    private volatile InputHandler inputHandler;
+
+    public CarbonEventStreamHandle(String siddhiAppName, String streamName) throws ResourceNotFoundException {
+        this.siddhiAppName = siddhiAppName;
+        this.streamName = streamName;
+        resolve(getSiddhiAppMap().get(siddhiAppName));
+    }
+
+    @Override
+    public String getSiddhiAppName() {
+        return siddhiAppName;
+    }
+
+    @Override
+    public String getStreamName() {
+        return streamName;
+    }
+
+    @Override
+    public void send(Event event) throws InterruptedException {
+        getInputHandler().send(event);
+    }
+
+    @Override
+    public void send(Event[] events) throws InterruptedException {
+        getInputHandler().send(events);
+    }
+
+    private InputHandler getInputHandler() {
+        SiddhiAppData currentSiddhiAppData = getSiddhiAppMap().get(siddhiAppName);
+        if (currentSiddhiAppData != siddhiAppData) {
+            try {
+                resolve(currentSiddhiAppData);
+            } catch (ResourceNotFoundException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+        return inputHandler;
+    }
+
+    private synchronized void resolve(SiddhiAppData currentSiddhiAppData) throws ResourceNotFoundException {
+        if (currentSiddhiAppData == null || currentSiddhiAppData.getInputHandlerMap() == null) {
+            throw new ResourceNotFoundException("Siddhi App '" + siddhiAppName + "' does not exist.",
+                    ResourceNotFoundException.ResourceType.SIDDHI_APP_NAME, siddhiAppName);
+        }
+        InputHandler currentInputHandler = currentSiddhiAppData.getInputHandlerMap().get(streamName);
+        if (currentInputHandler == null) {
+            throw new ResourceNotFoundException("Siddhi App '" + siddhiAppName + "' does not contain " +
+                    "stream '" + streamName + "'.", ResourceNotFoundException.ResourceType.STREAM_NAME,
+                    streamName);
+        }
+        inputHandler = currentInputHandler;
+        siddhiAppData = currentSiddhiAppData;
+    }
+
+    private static Map<String, SiddhiAppData> getSiddhiAppMap() {
+        return StreamProcessorDataHolder.getStreamProcessorService().getSiddhiAppMap();
+    }
+}
@@ -21,6 +21,7 @@ package org.wso2.carbon.stream.processor.core.internal;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.carbon.stream.processor.common.EventStreamHandle;
 import org.wso2.carbon.stream.processor.common.EventStreamService;
 import org.wso2.carbon.stream.processor.common.exception.ResourceNotFoundException;
 import org.wso2.siddhi.core.SiddhiAppRuntime;
@@ -94,5 +95,30 @@ public class CarbonEventStreamService implements EventStreamService {
 
     }
 
+    @Override
+    public void pushEvents(String siddhiAppName, String streamName, Event[] events) {
 
+        SiddhiAppData siddhiAppData = StreamProcessorDataHolder.getStreamProcessorService().getSiddhiAppMap().
+                get(siddhiAppName);
+        if (siddhiAppData == null || siddhiAppData.getInputHandlerMap() == null) {
+            log.error("Siddhi App with name : " + siddhiAppName + " is not available");
+            return;
+        }
+        InputHandler inputHandler = siddhiAppData.getInputHandlerMap().get(streamName);
+        if (inputHandler == null) {
+            log.error("Siddhi App '" + siddhiAppName + "' does not contain stream '" + streamName + "'.");
+            return;
+        }
+        try {
+            inputHandler.send(events);
+        } catch (InterruptedException e) {
+            log.error("Error when pushing events to Siddhi engine ", e);
+        }
+    }
+
+    @Override
+    public EventStreamHandle getEventStreamHandle(String siddhiAppName, String streamName) throws
+            ResourceNotFoundException {
+        return new CarbonEventStreamHandle(siddhiAppName, streamName);
+    }
 }
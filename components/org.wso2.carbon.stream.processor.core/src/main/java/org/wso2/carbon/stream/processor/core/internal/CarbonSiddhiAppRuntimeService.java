@@ -58,5 +58,6 @@ public class CarbonSiddhiAppRuntimeService implements SiddhiAppRuntimeService {
                 }
             }
         }
+        StreamProcessorDataHolder.getStreamProcessorService().markSiddhiAppsChanged();
     }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.stream.processor.core.internal;
+
+import org.wso2.carbon.sp.metrics.core.SPEndToEndLatencyMetric;
+import org.wso2.carbon.sp.metrics.core.SPMetricsFactory;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.output.sink.SinkHandler;
+import org.wso2.siddhi.core.stream.output.sink.SinkHandlerCallback;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+
+import java.util.Map;
+
+/**
+ * Implementation of {@link SinkHandler} which records the end to end latency of the published events.
+ */
+public class LatencyTrackingSinkHandler extends SinkHandler {
+
+    private String sinkHandlerElementId;
+    private SPEndToEndLatencyMetric latencyTracker;
+
+    @Override
+    public void init(String sinkHandlerElementId, StreamDefinition streamDefinition,
+                     SinkHandlerCallback sinkHandlerCallback) {
+        this.sinkHandlerElementId = sinkHandlerElementId;
+        this.latencyTracker = createLatencyTracker(sinkHandlerElementId);
+    }
+
+    @Override
+    public void handle(Event event, SinkHandlerCallback sinkHandlerCallback) {
+        if (latencyTracker != null) {
+            latencyTracker.markOut(event.getTimestamp());
+        }
+        sinkHandlerCallback.mapAndSend(event);
+    }
+
+    @Override
+    public void handle(Event[] events, SinkHandlerCallback sinkHandlerCallback) {
+        if (latencyTracker != null) {
+            for (Event event : events) {
+                latencyTracker.markOut(event.getTimestamp());
+            }
+        }
+        sinkHandlerCallback.mapAndSend(events);
+    }
+
+    @Override
+    public Map<String, Object> currentState() {
+        // Do Nothing
+        return null;
+    }
+
+    @Override
+    public void restoreState(Map<String, Object> map) {
+        // Do Nothing
+    }
+
+    @Override
+    public String getElementId() {
+        return sinkHandlerElementId;
+    }
+
+    /**
+     * Returns the end to end latency tracker of the Siddhi App the sink belongs to. Siddhi element ids are the
+     * Siddhi App name followed by a sequence number, separated by a hyphen.
+     *
+     * @param sinkHandlerElementId element id of the sink handler
+     * @return end to end latency tracker, or null if statistics are not backed by Carbon Metrics
+     */
+    public static SPEndToEndLatencyMetric createLatencyTracker(String sinkHandlerElementId) {
+        if (sinkHandlerElementId == null || StreamProcessorDataHolder.getStatisticsConfiguration() == null ||
+                !(StreamProcessorDataHolder.getStatisticsConfiguration().getFactory() instanceof SPMetricsFactory)) {
+            return null;
+        }
+        int separatorIndex = sinkHandlerElementId.lastIndexOf('-');
+        String siddhiAppName = separatorIndex > 0 ? sinkHandlerElementId.substring(0, separatorIndex) :
+                sinkHandlerElementId;
+        return ((SPMetricsFactory) StreamProcessorDataHolder.getStatisticsConfiguration().getFactory())
+                .createEndToEndLatencyTracker(siddhiAppName);
+    }
+}
@@ -160,6 +160,10 @@ public class ServiceComponent {
 
         StatisticsConfiguration statisticsConfiguration = new StatisticsConfiguration(new SPMetricsFactory());
         siddhiManager.setStatisticsConfiguration(statisticsConfiguration);
+        if (Boolean.valueOf(System.getProperty(SiddhiAppProcessorConstants.END_TO_END_LATENCY_ENABLED))) {
+            // Replaced by the HA sink handlers, which record the latency as well, when running in HA mode
+            siddhiManager.setSinkHandlerManager(new LatencyTrackingSinkHandlerManager());
+        }
         StreamProcessorDataHolder.setSiddhiManager(siddhiManager);
         StreamProcessorDataHolder.setStatisticsConfiguration(statisticsConfiguration);
 
@@ -33,6 +33,7 @@ public class SiddhiAppData {
     private Map<String, InputHandler> inputHandlerMap;
     private SiddhiAppRuntime siddhiAppRuntime;
     private long deploymentTimeInMillis;
+    private volatile String siddhiAppElementsJson;
 
     public SiddhiAppData(String siddhiApp) {
         SiddhiApp = siddhiApp;
@@ -90,4 +91,15 @@ public class SiddhiAppData {
     public void setDeploymentTime(long deploymentTimeInMillis) {
         this.deploymentTimeInMillis = deploymentTimeInMillis;
     }
+
+    /**
+     * @return serialized element graph of the Siddhi App, or null if it is not computed yet
+     */
+    public String getSiddhiAppElementsJson() {
+        return siddhiAppElementsJson;
+    }
+
+    public void setSiddhiAppElementsJson(String siddhiAppElementsJson) {
+        this.siddhiAppElementsJson = siddhiAppElementsJson;
+    }
 }
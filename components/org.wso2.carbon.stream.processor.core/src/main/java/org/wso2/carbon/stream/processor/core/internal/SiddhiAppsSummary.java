@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.stream.processor.core.internal;
+
+import org.wso2.siddhi.core.util.statistics.metrics.Level;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable summary of the deployed Siddhi Apps, built once per version of the Siddhi App map. The version changes
+ * whenever a Siddhi App is deployed, undeployed, changes its active state or changes its statistics level.
+ */
+public class SiddhiAppsSummary {
+
+    private final long version;
+    private final String eTag;
+    private final List<String> siddhiAppNames;
+    private final List<String> activeSiddhiAppNames;
+    private final List<String> inactiveSiddhiAppNames;
+    private final List<SiddhiAppSummary> siddhiAppSummaries;
+
+    SiddhiAppsSummary(long version, Map<String, SiddhiAppData> siddhiAppMap) {
+        this.version = version;
+        this.eTag = String.valueOf(version);
+        List<String> siddhiAppNames = new ArrayList<>(siddhiAppMap.size());
+        List<String> activeSiddhiAppNames = new ArrayList<>();
+        List<String> inactiveSiddhiAppNames = new ArrayList<>();
+        List<SiddhiAppSummary> siddhiAppSummaries = new ArrayList<>(siddhiAppMap.size());
+        for (Map.Entry<String, SiddhiAppData> entry : siddhiAppMap.entrySet()) {
+            SiddhiAppData siddhiAppData = entry.getValue();
+            siddhiAppNames.add(entry.getKey());
+            if (siddhiAppData.isActive()) {
+                activeSiddhiAppNames.add(entry.getKey());
+            } else {
+                inactiveSiddhiAppNames.add(entry.getKey());
+            }
+            Level statsLevel = Level.OFF;
+            if (siddhiAppData.isActive() && siddhiAppData.getSiddhiAppRuntime() != null) {
+                statsLevel = siddhiAppData.getSiddhiAppRuntime().getRootMetricsLevel();
+            }
+            siddhiAppSummaries.add(new SiddhiAppSummary(entry.getKey(), siddhiAppData.isActive(),
+                    siddhiAppData.getDeploymentTime(), statsLevel));
+        }
+        this.siddhiAppNames = Collections.unmodifiableList(siddhiAppNames);
+        this.activeSiddhiAppNames = Collections.unmodifiableList(activeSiddhiAppNames);
+        this.inactiveSiddhiAppNames = Collections.unmodifiableList(inactiveSiddhiAppNames);
+        this.siddhiAppSummaries = Collections.unmodifiableList(siddhiAppSummaries);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return value of the strong entity tag representing this version of the summary
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    public boolean matches(String ifNoneMatch) {
+        return ifNoneMatch != null && (ifNoneMatch.trim().equals("*") || ifNoneMatch.contains("\"" + eTag + "\""));
+    }
+
+    public List<String> getSiddhiAppNames() {
+        return siddhiAppNames;
+    }
+
+    public List<String> getSiddhiAppNames(boolean isActive) {
+        return isActive ? activeSiddhiAppNames : inactiveSiddhiAppNames;
+    }
+
+    public List<SiddhiAppSummary> getSiddhiAppSummaries() {
+        return siddhiAppSummaries;
+    }
+
+    /**
+     * Summary of a single Siddhi App.
+     */
+    public static class SiddhiAppSummary {
+
+        private final String siddhiAppName;
+        private final boolean isActive;
+        private final long deploymentTime;
+        private final Level statsLevel;
+
+        SiddhiAppSummary(String siddhiAppName, boolean isActive, long deploymentTime, Level statsLevel) {
+            this.siddhiAppName = siddhiAppName;
+            this.isActive = isActive;
+            this.deploymentTime = deploymentTime;
+            this.statsLevel = statsLevel;
+        }
+
+        public String getSiddhiAppName() {
+            return siddhiAppName;
+        }
+
+        public boolean isActive() {
+            return isActive;
+        }
+
+        public long getDeploymentTime() {
+            return deploymentTime;
+        }
+
+        public Level getStatsLevel() {
+            return statsLevel;
+        }
+    }
+}
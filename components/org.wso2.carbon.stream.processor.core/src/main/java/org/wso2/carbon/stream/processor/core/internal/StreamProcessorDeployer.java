@@ -73,6 +73,10 @@ public class StreamProcessorDeployer implements Deployer {
     private static boolean eiAnalyticsEnabledOnSP = false;
 
     public static void deploySiddhiQLFile(File file) throws Exception {
+        deploySiddhiQLFile(file, false);
+    }
+
+    private static void deploySiddhiQLFile(File file, boolean isUpdate) throws Exception {
         InputStream inputStream = null;
         String siddhiAppName;
 
@@ -90,8 +94,13 @@ public class StreamProcessorDeployer implements Deployer {
                     siddhiAppName = StreamProcessorDataHolder.getStreamProcessorService().
                             getSiddhiAppName(siddhiApp);
                     if (siddhiAppFileNameWithoutExtension.equals(siddhiAppName)) {
-                        StreamProcessorDataHolder.getStreamProcessorService().deploySiddhiApp(siddhiApp,
-                                siddhiAppName);
+                        if (isUpdate) {
+                            StreamProcessorDataHolder.getStreamProcessorService().updateSiddhiApp(siddhiApp,
+                                    siddhiAppName);
+                        } else {
+                            StreamProcessorDataHolder.getStreamProcessorService().deploySiddhiApp(siddhiApp,
+                                    siddhiAppName);
+                        }
                     } else {
                         throw new SiddhiAppDeploymentException("Siddhi App file name needs be identical with the " +
                                 "name defined in the Siddhi App content");
@@ -99,6 +108,10 @@ public class StreamProcessorDeployer implements Deployer {
                 } catch (SiddhiAppAlreadyExistException e) {
                     throw e;
                 } catch (Exception e) {
+                    if (isUpdate) {
+                        StreamProcessorDataHolder.getStreamProcessorService().
+                                undeploySiddhiApp(siddhiAppFileNameWithoutExtension);
+                    }
                     SiddhiAppData siddhiAppData = new SiddhiAppData(siddhiApp, false);
                     StreamProcessorDataHolder.getStreamProcessorService().
                             addSiddhiAppFile(siddhiAppFileNameWithoutExtension, siddhiAppData);
@@ -328,10 +341,12 @@ public class StreamProcessorDeployer implements Deployer {
 
         if (StreamProcessorDataHolder.getInstance().getRuntimeMode().equals(SiddhiAppProcessorConstants.
                 RuntimeMode.SERVER)) {
-            StreamProcessorDataHolder.getStreamProcessorService().
-                    undeploySiddhiApp(getFileNameWithoutExtenson(artifact.getName()));
+            StreamProcessorService streamProcessorService = StreamProcessorDataHolder.getStreamProcessorService();
+            if (!streamProcessorService.isHotSwapEnabled()) {
+                streamProcessorService.undeploySiddhiApp(getFileNameWithoutExtenson(artifact.getName()));
+            }
             try {
-                deploySiddhiQLFile(artifact.getFile());
+                deploySiddhiQLFile(artifact.getFile(), true);
             } catch (Exception e) {
                 log.error(e.getMessage(), e);
                 //throw new CarbonDeploymentException(e.getMessage(), e);
@@ -57,6 +57,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -68,6 +69,8 @@ public class StreamProcessorService {
     private Map<String, SiddhiAppData> siddhiAppMap = new ConcurrentHashMap<>();
     private BackoffRetryCounter backoffRetryCounter = new BackoffRetryCounter();
     private DistributionService distributionService = StreamProcessorDataHolder.getDistributionService();
+    private AtomicLong siddhiAppsVersion = new AtomicLong(System.currentTimeMillis());
+    private volatile SiddhiAppsSummary siddhiAppsSummary;
 
     public void deploySiddhiApp(String siddhiAppContent, String siddhiAppName) throws SiddhiAppConfigurationException,
             SiddhiAppAlreadyExistException, ConnectionUnavailableException {
@@ -88,6 +91,7 @@ public class StreamProcessorService {
                 if (deploymentStatus.isDeployed()) {
                     siddhiAppData.setActive(true);
                     siddhiAppMap.put(siddhiAppName, siddhiAppData);
+                    markSiddhiAppsChanged();
                     //can't set SiddhiAppRuntime. Hence we will run into issues when retrieving stats for status
                     // dashboard. Need to fix after discussing
                 } else {
@@ -188,6 +192,7 @@ public class StreamProcessorService {
                     siddhiAppData.setInputHandlerMap(inputHandlerMap);
                     siddhiAppData.setDeploymentTime(System.currentTimeMillis());
                     siddhiAppMap.put(siddhiAppName, siddhiAppData);
+                    markSiddhiAppsChanged();
                     siddhiAppRuntime.start();
                     log.info("Siddhi App " + siddhiAppName + " deployed successfully");
 
@@ -220,6 +225,7 @@ public class StreamProcessorService {
                     siddhiAppData.setInputHandlerMap(inputHandlerMap);
                     siddhiAppData.setDeploymentTime(System.currentTimeMillis());
                     siddhiAppMap.put(siddhiAppName, siddhiAppData);
+                    markSiddhiAppsChanged();
                 }
             } else {
                 if (StreamProcessorDataHolder.isPersistenceEnabled()) {
@@ -258,6 +264,7 @@ public class StreamProcessorService {
                 siddhiAppData.setInputHandlerMap(inputHandlerMap);
                 siddhiAppData.setDeploymentTime(System.currentTimeMillis());
                 siddhiAppMap.put(siddhiAppName, siddhiAppData);
+                markSiddhiAppsChanged();
             }
         }
     }
@@ -276,10 +283,106 @@ public class StreamProcessorService {
                 }
             }
             siddhiAppMap.remove(siddhiAppName);
+            markSiddhiAppsChanged();
             log.info("Siddhi App File " + siddhiAppName + " undeployed successfully.");
         }
     }
 
+    /**
+     * Updates a deployed Siddhi App with the given content. When hot swap is enabled and the app is running on a
+     * single node, the new runtime is created while the old one keeps running, and the in memory state of the old
+     * runtime is carried over, so the sources of the app are only paused for the final cutover. The old runtime is
+     * shut down, disconnecting its sinks, before the new runtime connects its own, so that no event is published
+     * by both. Otherwise the app is undeployed and deployed again.
+     *
+     * @param siddhiAppContent content of the updated Siddhi App
+     * @param siddhiAppName    name of the Siddhi App
+     */
+    public void updateSiddhiApp(String siddhiAppContent, String siddhiAppName) throws SiddhiAppConfigurationException,
+            SiddhiAppAlreadyExistException, ConnectionUnavailableException {
+        SiddhiAppData oldSiddhiAppData = siddhiAppMap.get(siddhiAppName);
+        if (!isHotSwapEnabled() || oldSiddhiAppData == null || !oldSiddhiAppData.isActive() ||
+                oldSiddhiAppData.getSiddhiAppRuntime() == null || StreamProcessorDataHolder.getHAManager() != null ||
+                distributionService.getRuntimeMode() == RuntimeMode.MANAGER) {
+            undeploySiddhiApp(siddhiAppName);
+            deploySiddhiApp(siddhiAppContent, siddhiAppName);
+            return;
+        }
+
+        SiddhiManager siddhiManager = StreamProcessorDataHolder.getSiddhiManager();
+        SiddhiAppRuntime oldSiddhiAppRuntime = oldSiddhiAppData.getSiddhiAppRuntime();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiAppContent);
+        // Keep the running runtime registered until the cutover, so that periodic persistence is not affected
+        siddhiManager.getSiddhiAppRuntimeMap().put(siddhiAppName, oldSiddhiAppRuntime);
+
+        Set<String> streamNames = siddhiAppRuntime.getStreamDefinitionMap().keySet();
+        Map<String, InputHandler> inputHandlerMap = new ConcurrentHashMap<String, InputHandler>(streamNames.size());
+        for (String streamName : streamNames) {
+            inputHandlerMap.put(streamName, siddhiAppRuntime.getInputHandler(streamName));
+        }
+        siddhiAppRuntime.enableStats(oldSiddhiAppRuntime.getRootMetricsLevel());
+
+        log.info("Hot swapping Siddhi App " + siddhiAppName + ". Pausing sources of the running Siddhi App");
+        for (List<Source> sources : oldSiddhiAppRuntime.getSources()) {
+            for (Source source : sources) {
+                source.pause();
+            }
+        }
+        try {
+            siddhiAppRuntime.restore(oldSiddhiAppRuntime.snapshot());
+        } catch (Throwable e) {
+            log.error("Error in carrying over the state of Siddhi App " + siddhiAppName + " to the updated " +
+                    "Siddhi App. Hence redeploying the Siddhi App", e);
+            for (List<Source> sources : oldSiddhiAppRuntime.getSources()) {
+                for (Source source : sources) {
+                    source.resume();
+                }
+            }
+            abortHotSwap(siddhiAppContent, siddhiAppName, siddhiAppRuntime, oldSiddhiAppRuntime);
+            return;
+        }
+
+        // Shut the old runtime down before the new one is started, so that the sinks of both are never connected
+        oldSiddhiAppRuntime.shutdown();
+        SiddhiAppData siddhiAppData = new SiddhiAppData(siddhiAppContent, true, inputHandlerMap, siddhiAppRuntime);
+        siddhiAppData.setDeploymentTime(System.currentTimeMillis());
+        siddhiManager.getSiddhiAppRuntimeMap().put(siddhiAppName, siddhiAppRuntime);
+        siddhiAppMap.put(siddhiAppName, siddhiAppData);
+        markSiddhiAppsChanged();
+        try {
+            siddhiAppRuntime.start();
+        } catch (Throwable e) {
+            log.error("Error in starting the updated Siddhi App " + siddhiAppName + ". Hence redeploying the " +
+                    "Siddhi App", e);
+            undeploySiddhiApp(siddhiAppName);
+            deploySiddhiApp(siddhiAppContent, siddhiAppName);
+            return;
+        }
+        log.info("Siddhi App " + siddhiAppName + " hot swapped successfully");
+    }
+
+    /**
+     * Shuts down the runtime created for a failed hot swap and falls back to undeploying and deploying the Siddhi
+     * App.
+     */
+    private void abortHotSwap(String siddhiAppContent, String siddhiAppName, SiddhiAppRuntime siddhiAppRuntime,
+                              SiddhiAppRuntime oldSiddhiAppRuntime) throws SiddhiAppConfigurationException,
+            SiddhiAppAlreadyExistException, ConnectionUnavailableException {
+        try {
+            siddhiAppRuntime.shutdown();
+        } catch (Throwable e) {
+            log.error("Error in shutting down the updated Siddhi App " + siddhiAppName, e);
+        }
+        StreamProcessorDataHolder.getSiddhiManager().getSiddhiAppRuntimeMap().put(siddhiAppName,
+                oldSiddhiAppRuntime);
+        undeploySiddhiApp(siddhiAppName);
+        deploySiddhiApp(siddhiAppContent, siddhiAppName);
+    }
+
+    public boolean isHotSwapEnabled() {
+        return Boolean.valueOf(System.getProperty(SiddhiAppProcessorConstants.HOT_SWAP_ENABLED));
+    }
+
     public boolean delete(String siddhiAppName) throws SiddhiAppConfigurationException,
             SiddhiAppDeploymentException {
 
@@ -339,9 +442,34 @@ public class StreamProcessorService {
 
     public void addSiddhiAppFile(String siddhiAppName, SiddhiAppData siddhiAppData) {
         siddhiAppMap.put(siddhiAppName, siddhiAppData);
+        markSiddhiAppsChanged();
     }
 
     public Map<String, SiddhiAppData> getSiddhiAppMap() {
         return siddhiAppMap;
     }
+
+    /**
+     * Marks that a Siddhi App is deployed, undeployed or changed its state or statistics level, so that the
+     * {@link SiddhiAppsSummary} is rebuilt on the next access.
+     */
+    public void markSiddhiAppsChanged() {
+        siddhiAppsVersion.incrementAndGet();
+    }
+
+    public SiddhiAppsSummary getSiddhiAppsSummary() {
+        SiddhiAppsSummary summary = siddhiAppsSummary;
+        long version = siddhiAppsVersion.get();
+        if (summary == null || summary.getVersion() != version) {
+            synchronized (this) {
+                summary = siddhiAppsSummary;
+                version = siddhiAppsVersion.get();
+                if (summary == null || summary.getVersion() != version) {
+                    summary = new SiddhiAppsSummary(version, siddhiAppMap);
+                    siddhiAppsSummary = summary;
+                }
+            }
+        }
+        return summary;
+    }
 }
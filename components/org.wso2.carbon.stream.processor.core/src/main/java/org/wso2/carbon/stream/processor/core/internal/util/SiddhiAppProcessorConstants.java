@@ -51,6 +51,8 @@ public class SiddhiAppProcessorConstants {
 
     public static final String PERSISTENCE_STORE_CLEAR_ENABLED = "persistenceStoreClearEnabled";
     public static final String SIDDHI_APP = "siddhiApp";
+    public static final String HOT_SWAP_ENABLED = "hotSwapEnabled";
+    public static final String END_TO_END_LATENCY_ENABLED = "endToEndLatencyEnabled";
 
     public static final String HA_METRICS_PREFIX = "org.wso2.ha";
     public static final String HA_METRICS_SENDING_THROUGHPUT = "sending.throughput";
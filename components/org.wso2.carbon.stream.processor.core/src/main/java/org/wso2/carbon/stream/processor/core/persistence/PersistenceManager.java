@@ -22,6 +22,9 @@ import org.apache.commons.pool.impl.GenericKeyedObjectPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.cluster.coordinator.service.ClusterCoordinator;
+import org.wso2.carbon.metrics.core.Gauge;
+import org.wso2.carbon.sp.metrics.core.LatencyHistogram;
+import org.wso2.carbon.sp.metrics.core.internal.SPMetricsManagement;
 import org.wso2.carbon.stream.processor.core.ha.HAManager;
 import org.wso2.carbon.stream.processor.core.ha.transport.EventSyncConnectionPoolManager;
 import org.wso2.carbon.stream.processor.core.ha.transport.EventSyncConnection;
@@ -30,6 +33,7 @@ import org.wso2.carbon.stream.processor.core.internal.StreamProcessorDataHolder;
 import org.wso2.carbon.stream.processor.core.internal.beans.DeploymentConfig;
 import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.exception.ConnectionUnavailableException;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.snapshot.PersistenceReference;
 
 import java.io.UnsupportedEncodingException;
@@ -46,17 +50,42 @@ import java.util.concurrent.atomic.AtomicLong;
 public class PersistenceManager implements Runnable {
 
     private static final Logger log = LoggerFactory.getLogger(PersistenceManager.class);
+    private static final String PERSISTENCE_METRICS_COMPONENT = "persistence";
+    private static final String PERSISTENCE_METRICS_PREFIX = "org.wso2.sp.persistence";
     private HAManager haManager;
     private DeploymentConfig deploymentConfig;
     private EventSyncConnection eventSyncConnection;
     private AtomicLong sequenceIDGenerator;
     private ClusterCoordinator clusterCoordinator;
+    private static final LatencyHistogram persistenceDuration = new LatencyHistogram();
 
     public PersistenceManager() {
+        SPMetricsManagement.getInstance().registerMetric(PERSISTENCE_METRICS_COMPONENT,
+                PERSISTENCE_METRICS_PREFIX + SiddhiConstants.METRIC_DELIMITER + "duration", persistenceDuration);
+        SPMetricsManagement.getInstance().registerMetric(PERSISTENCE_METRICS_COMPONENT,
+                PERSISTENCE_METRICS_PREFIX + SiddhiConstants.METRIC_DELIMITER + "last.persisted.timestamp",
+                new Gauge<Long>() {
+                    @Override
+                    public Long getValue() {
+                        return StreamProcessorDataHolder.getNodeInfo() != null ?
+                                StreamProcessorDataHolder.getNodeInfo().getLastPersistedTimestamp() : 0L;
+                    }
+                });
+        // The persistence metrics belong to the node rather than a Siddhi App, so they are always reported
+        SPMetricsManagement.getInstance().startMetrics(PERSISTENCE_METRICS_COMPONENT);
     }
 
     @Override
     public void run() {
+        long startTime = System.nanoTime();
+        try {
+            persistSiddhiApps();
+        } finally {
+            persistenceDuration.record(System.nanoTime() - startTime);
+        }
+    }
+
+    private void persistSiddhiApps() {
         haManager = StreamProcessorDataHolder.getHAManager();
         if (haManager != null) {
             if (haManager.isActiveNode()) {
@@ -24,6 +24,7 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
@@ -104,6 +105,9 @@ public final class BinaryMessageConverterUtil {
     }
 
     public static String getString(ByteBuffer byteBuf, int size) throws UnsupportedEncodingException {
+        if (size < 0 || size > byteBuf.remaining()) {
+            throw new BufferUnderflowException();
+        }
         byte[] bytes = new byte[size];
         byteBuf.get(bytes);
         return new String(bytes, Charset.defaultCharset());
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.stream.processor.core.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.wso2.carbon.stream.processor.common.EventStreamHandle;
+import org.wso2.carbon.stream.processor.core.ha.tcp.SiddhiEventConverter;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This is a Util class which decodes bulk event payloads and pushes them to a stream in batches.
+ * <p>
+ * Binary payloads are a sequence of frames, each frame being a 4 byte length followed by the event timestamp and
+ * the attribute values encoded in the same way as {@link SiddhiEventConverter} decodes them. Frames longer than the
+ * given maximum are rejected before they are read, so a corrupt or malicious length cannot exhaust the heap. Newline
+ * delimited JSON payloads contain one event per line, either as an array of attribute values or as an object with an
+ * optional {@code timestamp} and a {@code data} array.
+ * <p>
+ * The whole payload is decoded before any of its events are pushed, so a payload which cannot be decoded does not
+ * publish any event.
+ */
+public class EventBatchDecoder {
+
+    private static final String TIMESTAMP = "timestamp";
+    private static final String DATA = "data";
+
+    private EventBatchDecoder() {
+    }
+
+    public static long pushBinaryEvents(InputStream inputStream, List<Attribute> attributeList, int batchSize,
+                                        int maxFrameLength, EventStreamHandle eventStreamHandle)
+            throws IOException, InterruptedException {
+        String[] attributeTypes = getAttributeTypes(attributeList);
+        DataInputStream dataInputStream = new DataInputStream(inputStream);
+        List<Event> events = new ArrayList<>();
+        int firstByte;
+        while ((firstByte = dataInputStream.read()) >= 0) {
+            int frameLength;
+            try {
+                frameLength = firstByte << 24 | dataInputStream.readUnsignedByte() << 16
+                        | dataInputStream.readUnsignedByte() << 8 | dataInputStream.readUnsignedByte();
+            } catch (EOFException e) {
+                throw new IllegalArgumentException("Truncated frame length at event " + events.size(), e);
+            }
+            if (frameLength <= 0) {
+                throw new IllegalArgumentException("Invalid frame length " + frameLength + " at event " +
+                        events.size());
+            }
+            if (frameLength > maxFrameLength) {
+                throw new IllegalArgumentException("Frame length " + frameLength + " at event " + events.size() +
+                        " exceeds the maximum of " + maxFrameLength + " bytes");
+            }
+            byte[] frame = new byte[frameLength];
+            try {
+                dataInputStream.readFully(frame);
+                events.add(SiddhiEventConverter.getEvent(ByteBuffer.wrap(frame), attributeTypes));
+            } catch (EOFException | BufferUnderflowException e) {
+                throw new IllegalArgumentException("Truncated frame at event " + events.size(), e);
+            }
+        }
+        return send(events, batchSize, eventStreamHandle);
+    }
+
+    public static long pushJsonEvents(InputStream inputStream, List<Attribute> attributeList, int batchSize,
+                                      EventStreamHandle eventStreamHandle) throws IOException, InterruptedException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, Charset.forName("UTF-8")));
+        JsonParser jsonParser = new JsonParser();
+        List<Event> events = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                events.add(toEvent(jsonParser.parse(line), attributeList));
+            } catch (JsonParseException | IllegalStateException | UnsupportedOperationException |
+                    NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid event at line " + (events.size() + 1) + ": " +
+                        e.getMessage(), e);
+            }
+        }
+        return send(events, batchSize, eventStreamHandle);
+    }
+
+    private static long send(List<Event> events, int batchSize, EventStreamHandle eventStreamHandle)
+            throws InterruptedException {
+        for (int i = 0; i < events.size(); i += batchSize) {
+            List<Event> batch = events.subList(i, Math.min(i + batchSize, events.size()));
+            eventStreamHandle.send(batch.toArray(new Event[batch.size()]));
+        }
+        return events.size();
+    }
+
+    private static Event toEvent(JsonElement jsonElement, List<Attribute> attributeList) {
+        long timestamp = System.currentTimeMillis();
+        JsonArray data;
+        if (jsonElement.isJsonArray()) {
+            data = jsonElement.getAsJsonArray();
+        } else if (jsonElement.isJsonObject()) {
+            JsonObject jsonObject = jsonElement.getAsJsonObject();
+            if (jsonObject.has(TIMESTAMP) && !jsonObject.get(TIMESTAMP).isJsonNull()) {
+                timestamp = jsonObject.get(TIMESTAMP).getAsLong();
+            }
+            JsonElement dataElement = jsonObject.get(DATA);
+            if (dataElement == null || !dataElement.isJsonArray()) {
+                throw new IllegalStateException("Expected '" + DATA + "' to be an array of attribute values");
+            }
+            data = dataElement.getAsJsonArray();
+        } else {
+            throw new IllegalStateException("Expected an array of attribute values or an object");
+        }
+        if (data.size() != attributeList.size()) {
+            throw new IllegalStateException("Expected " + attributeList.size() + " attribute values");
+        }
+        Object[] values = new Object[attributeList.size()];
+        for (int i = 0; i < values.length; i++) {
+            JsonElement value = data.get(i);
+            if (value.isJsonNull()) {
+                continue;
+            }
+            switch (attributeList.get(i).getType()) {
+                case STRING:
+                    values[i] = value.getAsString();
+                    break;
+                case INT:
+                    values[i] = value.getAsInt();
+                    break;
+                case LONG:
+                    values[i] = value.getAsLong();
+                    break;
+                case FLOAT:
+                    values[i] = value.getAsFloat();
+                    break;
+                case DOUBLE:
+                    values[i] = value.getAsDouble();
+                    break;
+                case BOOL:
+                    values[i] = value.getAsBoolean();
+                    break;
+                default:
+                    throw new UnsupportedOperationException("Attribute type " + attributeList.get(i).getType() +
+                            " is not supported");
+            }
+        }
+        return new Event(timestamp, values);
+    }
+
+    private static String[] getAttributeTypes(List<Attribute> attributeList) {
+        String[] attributeTypes = new String[attributeList.size()];
+        for (int i = 0; i < attributeTypes.length; i++) {
+            Attribute.Type type = attributeList.get(i).getType();
+            if (type == Attribute.Type.OBJECT) {
+                throw new IllegalArgumentException("Attribute '" + attributeList.get(i).getName() + "' of type " +
+                        "OBJECT cannot be decoded from a binary payload");
+            }
+            attributeTypes[i] = type.name();
+        }
+        return attributeTypes;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.stream.processor.core;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.stream.processor.common.EventStreamHandle;
+import org.wso2.carbon.stream.processor.common.exception.ResourceNotFoundException;
+import org.wso2.carbon.stream.processor.core.internal.CarbonEventStreamService;
+import org.wso2.carbon.stream.processor.core.internal.SiddhiAppData;
+import org.wso2.carbon.stream.processor.core.internal.StreamProcessorDataHolder;
+import org.wso2.carbon.stream.processor.core.internal.StreamProcessorService;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CarbonEventStreamServiceTest {
+
+    private static final String SIDDHI_APP = "@App:name('StockApp')\n" +
+            "define stream StockStream (symbol string, price double);";
+
+    private SiddhiManager siddhiManager;
+    private StreamProcessorService streamProcessorService;
+    private CarbonEventStreamService eventStreamService;
+    private List<SiddhiAppRuntime> siddhiAppRuntimes;
+
+    @BeforeMethod
+    public void init() {
+        siddhiManager = new SiddhiManager();
+        streamProcessorService = new StreamProcessorService();
+        StreamProcessorDataHolder.setStreamProcessorService(streamProcessorService);
+        eventStreamService = new CarbonEventStreamService();
+        siddhiAppRuntimes = new ArrayList<>();
+    }
+
+    @AfterMethod
+    public void destroy() {
+        siddhiAppRuntimes.forEach(SiddhiAppRuntime::shutdown);
+        siddhiManager.shutdown();
+        StreamProcessorDataHolder.setStreamProcessorService(null);
+    }
+
+    @Test
+    public void testPushEvents() {
+        List<Event[]> batches = deploy();
+        eventStreamService.pushEvents("StockApp", "StockStream", createEvents(3));
+        Assert.assertEquals(batches.size(), 1);
+        Assert.assertEquals(batches.get(0).length, 3);
+        Assert.assertEquals(batches.get(0)[2].getData(), new Object[]{"WSO2", 2.0});
+    }
+
+    @Test
+    public void testPushEventsToUnknownStream() {
+        List<Event[]> batches = deploy();
+        eventStreamService.pushEvents("StockApp", "UnknownStream", createEvents(1));
+        eventStreamService.pushEvents("UnknownApp", "StockStream", createEvents(1));
+        Assert.assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    public void testEventStreamHandle() throws ResourceNotFoundException, InterruptedException {
+        List<Event[]> batches = deploy();
+        EventStreamHandle eventStreamHandle = eventStreamService.getEventStreamHandle("StockApp", "StockStream");
+        Assert.assertEquals(eventStreamHandle.getSiddhiAppName(), "StockApp");
+        Assert.assertEquals(eventStreamHandle.getStreamName(), "StockStream");
+        eventStreamHandle.send(createEvents(1)[0]);
+        eventStreamHandle.send(createEvents(2));
+        Assert.assertEquals(batches.size(), 2);
+        Assert.assertEquals(batches.get(1).length, 2);
+
+        // The handle resolves the stream of the Siddhi App again once the Siddhi App is redeployed
+        List<Event[]> redeployedBatches = deploy();
+        eventStreamHandle.send(createEvents(1));
+        Assert.assertEquals(batches.size(), 2);
+        Assert.assertEquals(redeployedBatches.size(), 1);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testEventStreamHandleOfUndeployedApp() throws ResourceNotFoundException, InterruptedException {
+        deploy();
+        EventStreamHandle eventStreamHandle = eventStreamService.getEventStreamHandle("StockApp", "StockStream");
+        streamProcessorService.getSiddhiAppMap().remove("StockApp");
+        eventStreamHandle.send(createEvents(1));
+    }
+
+    @Test(expectedExceptions = ResourceNotFoundException.class)
+    public void testEventStreamHandleOfUnknownStream() throws ResourceNotFoundException {
+        deploy();
+        eventStreamService.getEventStreamHandle("StockApp", "UnknownStream");
+    }
+
+    @Test(expectedExceptions = ResourceNotFoundException.class)
+    public void testEventStreamHandleOfUnknownApp() throws ResourceNotFoundException {
+        eventStreamService.getEventStreamHandle("UnknownApp", "StockStream");
+    }
+
+    private List<Event[]> deploy() {
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(SIDDHI_APP);
+        siddhiAppRuntimes.add(siddhiAppRuntime);
+        List<Event[]> batches = new ArrayList<>();
+        siddhiAppRuntime.addCallback("StockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                batches.add(events);
+            }
+        });
+        siddhiAppRuntime.start();
+        Map<String, InputHandler> inputHandlerMap = new HashMap<>();
+        inputHandlerMap.put("StockStream", siddhiAppRuntime.getInputHandler("StockStream"));
+        streamProcessorService.getSiddhiAppMap().put("StockApp", new SiddhiAppData(SIDDHI_APP, true,
+                inputHandlerMap, siddhiAppRuntime));
+        return batches;
+    }
+
+    private static Event[] createEvents(int count) {
+        Event[] events = new Event[count];
+        for (int i = 0; i < count; i++) {
+            events[i] = new Event(System.currentTimeMillis(), new Object[]{"WSO2", (double) i});
+        }
+        return events;
+    }
+}
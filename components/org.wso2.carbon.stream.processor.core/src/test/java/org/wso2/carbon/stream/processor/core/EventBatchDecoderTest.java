@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.stream.processor.core;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.stream.processor.common.EventStreamHandle;
+import org.wso2.carbon.stream.processor.core.util.EventBatchDecoder;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class EventBatchDecoderTest {
+
+    private static final int MAX_FRAME_LENGTH = 1024;
+    private static final List<Attribute> ATTRIBUTES = Arrays.asList(new Attribute("symbol", Attribute.Type.STRING),
+            new Attribute("price", Attribute.Type.DOUBLE), new Attribute("volume", Attribute.Type.INT));
+
+    @Test
+    public void testBinaryEvents() throws IOException, InterruptedException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        writeFrame(payload, encode(1L, "WSO2", 55.6, 100));
+        writeFrame(payload, encode(2L, "IBM", 75.6, 200));
+        writeFrame(payload, encode(3L, null, 5.6, 300));
+        MockEventStreamHandle eventStreamHandle = new MockEventStreamHandle();
+
+        long eventCount = EventBatchDecoder.pushBinaryEvents(new ByteArrayInputStream(payload.toByteArray()),
+                ATTRIBUTES, 2, MAX_FRAME_LENGTH, eventStreamHandle);
+
+        Assert.assertEquals(eventCount, 3);
+        Assert.assertEquals(eventStreamHandle.batches.size(), 2);
+        Assert.assertEquals(eventStreamHandle.batches.get(0).length, 2);
+        Assert.assertEquals(eventStreamHandle.batches.get(1).length, 1);
+        Event event = eventStreamHandle.batches.get(0)[1];
+        Assert.assertEquals(event.getTimestamp(), 2L);
+        Assert.assertEquals(event.getData(), new Object[]{"IBM", 75.6, 200});
+        Assert.assertEquals(eventStreamHandle.batches.get(1)[0].getData(), new Object[]{null, 5.6, 300});
+    }
+
+    @Test
+    public void testEmptyPayload() throws IOException, InterruptedException {
+        MockEventStreamHandle eventStreamHandle = new MockEventStreamHandle();
+        long eventCount = EventBatchDecoder.pushBinaryEvents(new ByteArrayInputStream(new byte[0]), ATTRIBUTES,
+                2, MAX_FRAME_LENGTH, eventStreamHandle);
+        Assert.assertEquals(eventCount, 0);
+        Assert.assertTrue(eventStreamHandle.batches.isEmpty());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class,
+            expectedExceptionsMessageRegExp = "Truncated frame at event 1")
+    public void testTruncatedFrame() throws IOException, InterruptedException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        writeFrame(payload, encode(1L, "WSO2", 55.6, 100));
+        byte[] frame = encode(2L, "IBM", 75.6, 200);
+        DataOutputStream dataOutputStream = new DataOutputStream(payload);
+        dataOutputStream.writeInt(frame.length);
+        dataOutputStream.write(frame, 0, frame.length - 4);
+        EventBatchDecoder.pushBinaryEvents(new ByteArrayInputStream(payload.toByteArray()), ATTRIBUTES, 2,
+                MAX_FRAME_LENGTH, new MockEventStreamHandle());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class,
+            expectedExceptionsMessageRegExp = "Truncated frame at event 0")
+    public void testFrameShorterThanEvent() throws IOException, InterruptedException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        byte[] frame = encode(1L, "WSO2", 55.6, 100);
+        writeFrame(payload, Arrays.copyOf(frame, frame.length - 4));
+        EventBatchDecoder.pushBinaryEvents(new ByteArrayInputStream(payload.toByteArray()), ATTRIBUTES, 2,
+                MAX_FRAME_LENGTH, new MockEventStreamHandle());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class,
+            expectedExceptionsMessageRegExp = "Truncated frame at event 0")
+    public void testInvalidStringLength() throws IOException, InterruptedException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        DataOutputStream dataOutputStream = new DataOutputStream(frame);
+        dataOutputStream.writeLong(1L);
+        dataOutputStream.writeInt(Integer.MAX_VALUE);
+        dataOutputStream.writeDouble(55.6);
+        dataOutputStream.writeInt(100);
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        writeFrame(payload, frame.toByteArray());
+        EventBatchDecoder.pushBinaryEvents(new ByteArrayInputStream(payload.toByteArray()), ATTRIBUTES, 2,
+                MAX_FRAME_LENGTH, new MockEventStreamHandle());
+    }
+
+    @Test
+    public void testOversizedFrame() throws IOException, InterruptedException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        writeFrame(payload, encode(1L, "WSO2", 55.6, 100));
+        new DataOutputStream(payload).writeInt(Integer.MAX_VALUE);
+        MockEventStreamHandle eventStreamHandle = new MockEventStreamHandle();
+        try {
+            EventBatchDecoder.pushBinaryEvents(new ByteArrayInputStream(payload.toByteArray()), ATTRIBUTES, 2,
+                    MAX_FRAME_LENGTH, eventStreamHandle);
+            Assert.fail("Oversized frame was accepted");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals(e.getMessage(), "Frame length " + Integer.MAX_VALUE + " at event 1 exceeds the " +
+                    "maximum of " + MAX_FRAME_LENGTH + " bytes");
+        }
+        Assert.assertTrue(eventStreamHandle.batches.isEmpty());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class,
+            expectedExceptionsMessageRegExp = "Invalid frame length -1 at event 0")
+    public void testNegativeFrameLength() throws IOException, InterruptedException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        new DataOutputStream(payload).writeInt(-1);
+        EventBatchDecoder.pushBinaryEvents(new ByteArrayInputStream(payload.toByteArray()), ATTRIBUTES, 2,
+                MAX_FRAME_LENGTH, new MockEventStreamHandle());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class,
+            expectedExceptionsMessageRegExp = "Truncated frame length at event 1")
+    public void testTruncatedFrameLength() throws IOException, InterruptedException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        writeFrame(payload, encode(1L, "WSO2", 55.6, 100));
+        payload.write(new byte[]{0, 0});
+        EventBatchDecoder.pushBinaryEvents(new ByteArrayInputStream(payload.toByteArray()), ATTRIBUTES, 2,
+                MAX_FRAME_LENGTH, new MockEventStreamHandle());
+    }
+
+    @Test
+    public void testInvalidPayloadNotPublished() throws IOException, InterruptedException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        for (int i = 0; i < 3; i++) {
+            writeFrame(payload, encode(i, "WSO2", 55.6, 100));
+        }
+        new DataOutputStream(payload).writeInt(-1);
+        MockEventStreamHandle eventStreamHandle = new MockEventStreamHandle();
+        try {
+            EventBatchDecoder.pushBinaryEvents(new ByteArrayInputStream(payload.toByteArray()), ATTRIBUTES, 2,
+                    MAX_FRAME_LENGTH, eventStreamHandle);
+            Assert.fail("Invalid payload was accepted");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals(e.getMessage(), "Invalid frame length -1 at event 3");
+        }
+        // None of the events are published, including the complete batch preceding the invalid frame
+        Assert.assertTrue(eventStreamHandle.batches.isEmpty());
+    }
+
+    @Test
+    public void testJsonEvents() throws IOException, InterruptedException {
+        String payload = "[\"WSO2\", 55.6, 100]\n\n{\"timestamp\": 2, \"data\": [\"IBM\", 75.6, 200]}\n" +
+                "{\"data\": [null, 5.6, 300]}\n";
+        MockEventStreamHandle eventStreamHandle = new MockEventStreamHandle();
+
+        long eventCount = EventBatchDecoder.pushJsonEvents(toInputStream(payload), ATTRIBUTES, 2,
+                eventStreamHandle);
+
+        Assert.assertEquals(eventCount, 3);
+        Assert.assertEquals(eventStreamHandle.batches.size(), 2);
+        Assert.assertEquals(eventStreamHandle.batches.get(0)[0].getData(), new Object[]{"WSO2", 55.6, 100});
+        Assert.assertEquals(eventStreamHandle.batches.get(0)[1].getTimestamp(), 2L);
+        Assert.assertEquals(eventStreamHandle.batches.get(1)[0].getData(), new Object[]{null, 5.6, 300});
+    }
+
+    @Test
+    public void testInvalidJsonEvents() throws IOException, InterruptedException {
+        String[] payloads = {"{\"data\": \"WSO2\"}", "{\"data\": {\"symbol\": \"WSO2\"}}", "{\"timestamp\": 2}",
+                "42", "\"WSO2\"", "[\"WSO2\", 55.6]", "[\"WSO2\", 55.6, \"many\"]", "[\"WSO2\", 55.6, "};
+        for (String invalidEvent : payloads) {
+            MockEventStreamHandle eventStreamHandle = new MockEventStreamHandle();
+            try {
+                EventBatchDecoder.pushJsonEvents(toInputStream("[\"IBM\", 75.6, 200]\n" + invalidEvent),
+                        ATTRIBUTES, 1, eventStreamHandle);
+                Assert.fail("Invalid event " + invalidEvent + " was accepted");
+            } catch (IllegalArgumentException e) {
+                Assert.assertTrue(e.getMessage().startsWith("Invalid event at line 2: "), e.getMessage());
+            }
+            Assert.assertTrue(eventStreamHandle.batches.isEmpty());
+        }
+    }
+
+    private static ByteArrayInputStream toInputStream(String payload) {
+        return new ByteArrayInputStream(payload.getBytes(Charset.forName("UTF-8")));
+    }
+
+    private static byte[] encode(long timestamp, String symbol, double price, int volume) throws IOException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        DataOutputStream dataOutputStream = new DataOutputStream(frame);
+        dataOutputStream.writeLong(timestamp);
+        if (symbol == null) {
+            dataOutputStream.writeInt(0);
+        } else {
+            byte[] bytes = symbol.getBytes(Charset.defaultCharset());
+            dataOutputStream.writeInt(bytes.length);
+            dataOutputStream.write(bytes);
+        }
+        dataOutputStream.writeDouble(price);
+        dataOutputStream.writeInt(volume);
+        return frame.toByteArray();
+    }
+
+    private static void writeFrame(ByteArrayOutputStream payload, byte[] frame) throws IOException {
+        DataOutputStream dataOutputStream = new DataOutputStream(payload);
+        dataOutputStream.writeInt(frame.length);
+        dataOutputStream.write(frame);
+    }
+
+    private static class MockEventStreamHandle implements EventStreamHandle {
+        private final List<Event[]> batches = new ArrayList<>();
+
+        @Override
+        public String getSiddhiAppName() {
+            return "TestApp";
+        }
+
+        @Override
+        public String getStreamName() {
+            return "cseEventStream";
+        }
+
+        @Override
+        public void send(Event event) {
+            batches.add(new Event[]{event});
+        }
+
+        @Override
+        public void send(Event[] events) {
+            batches.add(events);
+        }
+    }
+}
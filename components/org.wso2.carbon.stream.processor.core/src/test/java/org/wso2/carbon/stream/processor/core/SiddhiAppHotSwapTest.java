@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.stream.processor.core;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.stream.processor.core.distribution.DistributionService;
+import org.wso2.carbon.stream.processor.core.internal.StreamProcessorDataHolder;
+import org.wso2.carbon.stream.processor.core.internal.StreamProcessorService;
+import org.wso2.carbon.stream.processor.core.internal.util.SiddhiAppProcessorConstants;
+import org.wso2.carbon.stream.processor.core.util.RuntimeMode;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.util.transport.InMemoryBroker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SiddhiAppHotSwapTest {
+
+    private static final String SIDDHI_APP_NAME = "HotSwapTestApp";
+    private static final String INPUT_TOPIC = "hotSwapTestInput";
+    private static final String OUTPUT_TOPIC = "hotSwapTestOutput";
+    private static final int EVENT_COUNT = 5;
+
+    private StreamProcessorService streamProcessorService;
+    private List<Long> publishedTotals;
+    private InMemoryBroker.Subscriber subscriber;
+
+    @BeforeMethod
+    public void init() {
+        System.setProperty(SiddhiAppProcessorConstants.HOT_SWAP_ENABLED, "true");
+        DistributionService distributionService = mock(DistributionService.class);
+        when(distributionService.getRuntimeMode()).thenReturn(RuntimeMode.RESOURCE);
+        StreamProcessorDataHolder.setDistributionService(distributionService);
+        StreamProcessorDataHolder.setSiddhiManager(new SiddhiManager());
+        streamProcessorService = new StreamProcessorService();
+
+        publishedTotals = Collections.synchronizedList(new ArrayList<>());
+        subscriber = new InMemoryBroker.Subscriber() {
+            @Override
+            public void onMessage(Object message) {
+                if (message instanceof Event[]) {
+                    for (Event event : (Event[]) message) {
+                        publishedTotals.add((Long) event.getData(1));
+                    }
+                } else {
+                    publishedTotals.add((Long) ((Event) message).getData(1));
+                }
+            }
+
+            @Override
+            public String getTopic() {
+                return OUTPUT_TOPIC;
+            }
+        };
+        InMemoryBroker.subscribe(subscriber);
+    }
+
+    @AfterMethod
+    public void destroy() {
+        InMemoryBroker.unsubscribe(subscriber);
+        streamProcessorService.undeploySiddhiApp(SIDDHI_APP_NAME);
+        StreamProcessorDataHolder.getSiddhiManager().shutdown();
+        StreamProcessorDataHolder.setSiddhiManager(null);
+        StreamProcessorDataHolder.setDistributionService(null);
+        System.clearProperty(SiddhiAppProcessorConstants.HOT_SWAP_ENABLED);
+    }
+
+    @Test
+    public void testEventsPublishedOnceAcrossHotSwap() throws Exception {
+        streamProcessorService.deploySiddhiApp(getSiddhiApp("1.0"), SIDDHI_APP_NAME);
+        SiddhiAppRuntime oldSiddhiAppRuntime = streamProcessorService.getSiddhiAppMap().get(SIDDHI_APP_NAME)
+                .getSiddhiAppRuntime();
+        publishEvents(EVENT_COUNT);
+        waitForEvents(EVENT_COUNT);
+
+        streamProcessorService.updateSiddhiApp(getSiddhiApp("2.0"), SIDDHI_APP_NAME);
+        SiddhiAppRuntime siddhiAppRuntime = streamProcessorService.getSiddhiAppMap().get(SIDDHI_APP_NAME)
+                .getSiddhiAppRuntime();
+        Assert.assertNotSame(siddhiAppRuntime, oldSiddhiAppRuntime);
+        publishEvents(EVENT_COUNT);
+        waitForEvents(2 * EVENT_COUNT);
+        Thread.sleep(500);
+
+        // The running count is carried over by the hot swap, so every total is published exactly once
+        List<Long> expectedTotals = new ArrayList<>();
+        for (long total = 1; total <= 2 * EVENT_COUNT; total++) {
+            expectedTotals.add(total);
+        }
+        Assert.assertEquals(new ArrayList<>(publishedTotals), expectedTotals);
+    }
+
+    private static String getSiddhiApp(String version) {
+        return "@App:name('" + SIDDHI_APP_NAME + "') " +
+                "@App:description('Hot swap test app " + version + "') " +
+                "@source(type='inMemory', topic='" + INPUT_TOPIC + "', @map(type='passThrough')) " +
+                "define stream InputStream (symbol string, price double); " +
+                "@sink(type='inMemory', topic='" + OUTPUT_TOPIC + "', @map(type='passThrough')) " +
+                "define stream OutputStream (symbol string, total long); " +
+                "@info(name='countQuery') " +
+                "from InputStream " +
+                "select symbol, count() as total " +
+                "insert into OutputStream;";
+    }
+
+    private static void publishEvents(int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            InMemoryBroker.publish(INPUT_TOPIC, new Event(System.currentTimeMillis(), new Object[]{"WSO2", 55.6}));
+        }
+    }
+
+    private void waitForEvents(int expectedCount) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (publishedTotals.size() < expectedCount && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(publishedTotals.size(), expectedCount);
+    }
+}
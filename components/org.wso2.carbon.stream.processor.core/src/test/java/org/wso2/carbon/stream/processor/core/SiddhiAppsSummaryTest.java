@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.stream.processor.core;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.stream.processor.core.api.NotFoundException;
+import org.wso2.carbon.stream.processor.core.impl.SiddhiAppsApiServiceImpl;
+import org.wso2.carbon.stream.processor.core.internal.SiddhiAppData;
+import org.wso2.carbon.stream.processor.core.internal.StreamProcessorDataHolder;
+import org.wso2.carbon.stream.processor.core.internal.StreamProcessorService;
+import org.wso2.carbon.stream.processor.core.model.SiddhiAppMetrics;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import javax.ws.rs.core.Response;
+
+public class SiddhiAppsSummaryTest {
+
+    private StreamProcessorService streamProcessorService;
+    private SiddhiAppsApiServiceImpl siddhiAppsApiService;
+
+    @BeforeMethod
+    public void init() {
+        streamProcessorService = new StreamProcessorService();
+        addSiddhiApp("App1", true);
+        addSiddhiApp("App2", false);
+        StreamProcessorDataHolder.setStreamProcessorService(streamProcessorService);
+        siddhiAppsApiService = new SiddhiAppsApiServiceImpl();
+    }
+
+    @AfterMethod
+    public void destroy() {
+        StreamProcessorDataHolder.setStreamProcessorService(null);
+    }
+
+    @Test
+    public void testSiddhiAppsGet() throws NotFoundException {
+        Response response = siddhiAppsApiService.siddhiAppsGet(null, (String) null);
+        Assert.assertEquals(response.getStatus(), Response.Status.OK.getStatusCode());
+        Assert.assertEquals(new HashSet<>((List<?>) response.getEntity()), new HashSet<>(Arrays.asList("App1",
+                "App2")));
+        Assert.assertNotNull(response.getEntityTag());
+        Assert.assertEquals(response.getEntityTag().getValue(),
+                streamProcessorService.getSiddhiAppsSummary().getETag());
+
+        response = siddhiAppsApiService.siddhiAppsGet("true", (String) null);
+        Assert.assertEquals(response.getEntity(), Arrays.asList("App1"));
+    }
+
+    @Test
+    public void testSiddhiAppsGetNotModified() throws NotFoundException {
+        String eTag = siddhiAppsApiService.siddhiAppsGet(null, (String) null).getEntityTag().getValue();
+        Response response = siddhiAppsApiService.siddhiAppsGet(null, "\"" + eTag + "\"");
+        Assert.assertEquals(response.getStatus(), Response.Status.NOT_MODIFIED.getStatusCode());
+        Assert.assertNull(response.getEntity());
+        Assert.assertEquals(response.getEntityTag().getValue(), eTag);
+
+        response = siddhiAppsApiService.siddhiAppsGet(null, "\"other\", \"" + eTag + "\"");
+        Assert.assertEquals(response.getStatus(), Response.Status.NOT_MODIFIED.getStatusCode());
+    }
+
+    @Test
+    public void testSiddhiAppsGetChangedETag() throws NotFoundException {
+        String eTag = siddhiAppsApiService.siddhiAppsGet(null, (String) null).getEntityTag().getValue();
+        addSiddhiApp("App3", true);
+
+        Response response = siddhiAppsApiService.siddhiAppsGet(null, "\"" + eTag + "\"");
+        Assert.assertEquals(response.getStatus(), Response.Status.OK.getStatusCode());
+        Assert.assertTrue(((List<?>) response.getEntity()).contains("App3"));
+        Assert.assertNotEquals(response.getEntityTag().getValue(), eTag);
+
+        streamProcessorService.getSiddhiAppMap().get("App3").setActive(false);
+        streamProcessorService.markSiddhiAppsChanged();
+        Assert.assertNotEquals(siddhiAppsApiService.siddhiAppsGet(null, (String) null).getEntityTag().getValue(),
+                response.getEntityTag().getValue());
+    }
+
+    @Test
+    public void testSiddhiAppsStatisticsGet() throws NotFoundException {
+        streamProcessorService.getSiddhiAppMap().get("App1").setDeploymentTime(System.currentTimeMillis() - 1000);
+        Response response = siddhiAppsApiService.siddhiAppsStatisticsGet("true");
+        Assert.assertEquals(response.getStatus(), Response.Status.OK.getStatusCode());
+        Assert.assertNull(response.getEntityTag());
+        List<?> siddhiAppMetricsList = (List<?>) response.getEntity();
+        Assert.assertEquals(siddhiAppMetricsList.size(), 1);
+        SiddhiAppMetrics siddhiAppMetrics = (SiddhiAppMetrics) siddhiAppMetricsList.get(0);
+        Assert.assertEquals(siddhiAppMetrics.getAppName(), "App1");
+        Assert.assertTrue(siddhiAppMetrics.getAge() >= 1000);
+
+        Assert.assertEquals(((List<?>) siddhiAppsApiService.siddhiAppsStatisticsGet(null).getEntity()).size(), 2);
+    }
+
+    private void addSiddhiApp(String siddhiAppName, boolean isActive) {
+        SiddhiAppData siddhiAppData = new SiddhiAppData("@App:name('" + siddhiAppName + "')", isActive);
+        siddhiAppData.setDeploymentTime(System.currentTimeMillis());
+        streamProcessorService.addSiddhiAppFile(siddhiAppName, siddhiAppData);
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ *
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.wso2.carbon.stream.processor.statistics.factories;
+
+import org.wso2.carbon.stream.processor.statistics.api.MetricsApiService;
+import org.wso2.carbon.stream.processor.statistics.impl.MetricsApiServiceImpl;
+
+/**
+ * Metrics API Service factory Class for exposing the worker metrics to Prometheus.
+ */
+public class MetricsApiServiceFactory {
+    private static final MetricsApiService service = new MetricsApiServiceImpl();
+
+    public static MetricsApiService getMetricsApi() {
+        return service;
+    }
+}
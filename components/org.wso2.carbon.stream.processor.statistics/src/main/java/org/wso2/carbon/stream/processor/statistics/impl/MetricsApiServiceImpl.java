@@ -0,0 +1,68 @@
+/*
+ *
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.wso2.carbon.stream.processor.statistics.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.analytics.permissions.bean.Permission;
+import org.wso2.carbon.sp.metrics.core.PrometheusExporter;
+import org.wso2.carbon.stream.processor.statistics.api.MetricsApiService;
+import org.wso2.msf4j.Request;
+
+import javax.ws.rs.core.Response;
+
+import static org.wso2.carbon.stream.processor.core.internal.StreamProcessorDataHolder.getPermissionProvider;
+
+/**
+ * Exposes the Siddhi App, HA and persistence metrics of the worker in the Prometheus text format.
+ */
+public class MetricsApiServiceImpl extends MetricsApiService {
+    private static final Log log = LogFactory.getLog(MetricsApiServiceImpl.class);
+    private static final String PERMISSION_APP_NAME = "SAPP";
+    private static final String MANAGE_SIDDHI_APP_PERMISSION_STRING = "siddhiApp.manage";
+    private static final String VIEW_SIDDHI_APP_PERMISSION_STRING = "siddhiApp.view";
+
+    /**
+     * This will provide the metrics rendered from the in memory trackers, without reading the metrics database.
+     *
+     * @return Metrics in the Prometheus text exposition format.
+     */
+    @Override
+    public Response metricsGet(Request request) {
+        if (getUserName(request) != null && !(getPermissionProvider().hasPermission(getUserName(request), new
+                Permission(PERMISSION_APP_NAME, VIEW_SIDDHI_APP_PERMISSION_STRING)) || getPermissionProvider()
+                .hasPermission(getUserName(request), new Permission(PERMISSION_APP_NAME,
+                        MANAGE_SIDDHI_APP_PERMISSION_STRING)))) {
+            return Response.status(Response.Status.UNAUTHORIZED).entity("Insufficient permissions to get the " +
+                    "metrics of the worker.").build();
+        }
+        try {
+            return Response.ok().entity(PrometheusExporter.getInstance().scrape())
+                    .type(PrometheusExporter.CONTENT_TYPE).build();
+        } catch (RuntimeException e) {
+            log.error("Error while rendering the worker metrics.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("Error while rendering the " +
+                    "worker metrics.").build();
+        }
+    }
+
+    private static String getUserName(Request request) {
+        Object username = request.getProperty("username");
+        return username != null ? username.toString() : null;
+    }
+}
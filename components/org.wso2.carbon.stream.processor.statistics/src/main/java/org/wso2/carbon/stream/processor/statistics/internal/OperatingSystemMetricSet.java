@@ -25,130 +25,63 @@ import org.wso2.carbon.stream.processor.statistics.bean.WorkerStatistics;
 import org.wso2.carbon.stream.processor.statistics.internal.exception.MetricsConfigException;
 import org.wso2.siddhi.core.util.statistics.metrics.Level;
 
-import java.lang.management.ManagementFactory;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import javax.management.AttributeNotFoundException;
-import javax.management.InstanceNotFoundException;
-import javax.management.MBeanException;
-import javax.management.MBeanServer;
-import javax.management.MalformedObjectNameException;
-import javax.management.ObjectName;
-import javax.management.ReflectionException;
 
 /**
  * A set of metrics for Operating System usage, including stats on load average, cpu load,
  * file descriptors etc using org.wso2.carbon.metrics.
+ * <p>
+ * The values are sampled in the background by {@link OperatingSystemMetricsCollector}, so reading them does not
+ * go through JMX.
  */
 public class OperatingSystemMetricSet {
     private static final Logger LOGGER = LoggerFactory.getLogger(OperatingSystemMetricSet.class);
-    private static final String LOAD_AVG_MBEAN_NAME = "org.wso2.carbon.metrics:name=jvm.os.system.load.average";
-    private static final String SYSTEM_CPU_MBEAN_NAME = "org.wso2.carbon.metrics:name=jvm.os.cpu.load.system";
-    private static final String PROCESS_CPU_MBEAN_NAME = "org.wso2.carbon.metrics:name=jvm.os.cpu.load.process";
-    private static final String MEMORY_USAGE_MBEAN_NAME = "org.wso2.carbon.metrics:name=jvm.memory.heap.usage";
-    private static final String VALUE_ATTRIBUTE = "Value";
     private static final String OS_WINDOWS = "windows";
     private static final String OS_OTHER = "other";
-    private double loadAverage;
-    private double systemCPU;
-    private double processCPU;
-    private double memoryUsage;
-    private boolean isJMXEnabled;
-    private MBeanServer mBeanServer;
     private MetricManagementService metricManagementService;
 
     /**
-     * Get the MBean name from the deployment yaml and get access to the MBean.
+     * Creates the metric set. {@link #initConnection()} needs to be called before reading the metrics.
      */
     public OperatingSystemMetricSet() {
     }
 
     public void initConnection() {
-        try {
-            metricManagementService = StreamProcessorStatisticDataHolder.getInstance().getMetricsManagementService();
-            isJMXEnabled = metricManagementService.isReporterRunning("JMX");
-            mBeanServer = ManagementFactory.getPlatformMBeanServer();
-        } catch (IllegalArgumentException e) {
-            LOGGER.warn("Worker level jmx reporting has disabled." + e.getMessage(), e);
-        }
+        metricManagementService = StreamProcessorStatisticDataHolder.getInstance().getMetricsManagementService();
     }
 
     /**
-     * Read the load , cpu memory from the MBean of the mBeanServer.
+     * Read the load , cpu memory from the latest sample of the operating system metrics.
      *
      * @return the metrics values
      */
     public WorkerStatistics getMetrics() throws MetricsConfigException {
-        WorkerStatistics workerStatistics = new WorkerStatistics();
-        if (metricManagementService.isEnabled()) {
-            if (isJMXEnabled) {
-                try {
-                    // windows system does not have load average.
-                    String osName = System.getProperty("os.name").toLowerCase();
-                    if (osName.contains("win") || (osName.contains("windows"))) {
-                        loadAverage = 0;
-                        workerStatistics.setOsName(OS_WINDOWS);
-                    } else {
-                        //tested with linux only
-                        loadAverage = (Double) mBeanServer.getAttribute(new ObjectName(LOAD_AVG_MBEAN_NAME),
-                                VALUE_ATTRIBUTE);
-                        workerStatistics.setOsName(OS_OTHER);
-                    }
-                } catch (MBeanException | AttributeNotFoundException | InstanceNotFoundException |
-                        ReflectionException | MalformedObjectNameException e) {
-                    LOGGER.warn("Error has been occurred while reading load average using bean name " +
-                            LOAD_AVG_MBEAN_NAME + " cause may not enable jmx reporter. Hence use default " +
-                            "metrics. ", e);
-                }
-
-                try {
-                    systemCPU = (Double) mBeanServer.getAttribute(new ObjectName(SYSTEM_CPU_MBEAN_NAME),
-                            VALUE_ATTRIBUTE);
-                } catch (MBeanException | AttributeNotFoundException | InstanceNotFoundException |
-                        ReflectionException | MalformedObjectNameException e) {
-                    LOGGER.warn("Error has been occurred while reading system cpu  using bean name " +
-                            SYSTEM_CPU_MBEAN_NAME + " cause may not enable jmx reporter. Hence use default" +
-                            " metrics. ", e);
-                }
-
-                try {
-                    memoryUsage = (double) mBeanServer.getAttribute(new ObjectName(MEMORY_USAGE_MBEAN_NAME),
-                            VALUE_ATTRIBUTE);
-                } catch (MBeanException | AttributeNotFoundException | InstanceNotFoundException |
-                        ReflectionException | MalformedObjectNameException e) {
-                    LOGGER.warn("Error has been occurred while reading memory usage  using bean name " +
-                            MEMORY_USAGE_MBEAN_NAME + " cause may not enable jmx reporter. Hence use default" +
-                            " metrics. ", e);
-                }
-
-                try {
-                    processCPU = (Double) mBeanServer.getAttribute(new ObjectName(PROCESS_CPU_MBEAN_NAME),
-                            VALUE_ATTRIBUTE);
-                } catch (MBeanException | AttributeNotFoundException | InstanceNotFoundException |
-                        ReflectionException | MalformedObjectNameException e) {
-                    LOGGER.warn("Error has been occurred while reading process cpu  using bean name " +
-                            PROCESS_CPU_MBEAN_NAME + " cause may not enable jmx reporter. Hence use default" +
-                            " metrics. ", e);
-                }
-            } else {
-                throw new MetricsConfigException("JMX reporter has been disabled at WSO2 metrics.");
-            }
-        } else {
+        if (!metricManagementService.isEnabled()) {
             throw new MetricsConfigException("Metrics are disabled.");
         }
-
-        WorkerMetrics workerMetrics = new WorkerMetrics();
-        workerMetrics.setLoadAverage(loadAverage);
-        workerMetrics.setSystemCPU(systemCPU);
-        workerMetrics.setTotalMemory(memoryUsage);
-        workerMetrics.setProcessCPU(processCPU);
-        workerStatistics.setWorkerMetrics(workerMetrics);
+        WorkerStatistics workerStatistics = new WorkerStatistics();
+        workerStatistics.setOsName(OperatingSystemMetricsCollector.getInstance().isWindows() ? OS_WINDOWS : OS_OTHER);
+        workerStatistics.setWorkerMetrics(getWorkerMetrics());
         workerStatistics.setStatsEnabled(metricManagementService.isEnabled());
         addNodeInforToWorkerStatistics(workerStatistics);
         workerStatistics.setRunningStatus("Reachable");
         return workerStatistics;
     }
 
+    /**
+     * @return the latest load, cpu and memory values, without the node information
+     */
+    public WorkerMetrics getWorkerMetrics() {
+        OperatingSystemMetricsCollector.Sample sample = OperatingSystemMetricsCollector.getInstance().getSample();
+        WorkerMetrics workerMetrics = new WorkerMetrics();
+        workerMetrics.setLoadAverage(sample.getLoadAverage());
+        workerMetrics.setSystemCPU(sample.getSystemCPU());
+        workerMetrics.setTotalMemory(sample.getMemoryUsage());
+        workerMetrics.setProcessCPU(sample.getProcessCPU());
+        return workerMetrics;
+    }
+
     private void addNodeInforToWorkerStatistics(WorkerStatistics workerStatistics) {
         NodeInfo nodeInfo = StreamProcessorStatisticDataHolder.getInstance().getNodeInfo();
         SimpleDateFormat dateFormatter = new SimpleDateFormat("E, dd MMM yyyy HH:mm:ss z");
@@ -175,12 +108,7 @@ public class OperatingSystemMetricSet {
      */
     public WorkerStatistics getDefault() {
         WorkerStatistics workerStatistics = new WorkerStatistics();
-        WorkerMetrics workerMetrics = new WorkerMetrics();
-        workerMetrics.setLoadAverage(loadAverage);
-        workerMetrics.setSystemCPU(systemCPU);
-        workerMetrics.setTotalMemory(memoryUsage);
-        workerMetrics.setProcessCPU(processCPU);
-        workerStatistics.setWorkerMetrics(workerMetrics);
+        workerStatistics.setWorkerMetrics(getWorkerMetrics());
         workerStatistics.setStatsEnabled(metricManagementService.isEnabled());
         addNodeInforToWorkerStatistics(workerStatistics);
         workerStatistics.setRunningStatus("Reachable");
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2017 WSO2 Inc. (http://wso2.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.carbon.stream.processor.statistics.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the load average, CPU and heap usage of the worker on a background thread, so that the statistics API and
+ * the resource node heartbeats only read cached values.
+ * <p>
+ * The MXBeans are resolved once. On Linux the load average and the CPU usage are read straight from /proc, and the
+ * CPU usage is computed from the difference between two consecutive samples. Other platforms fall back to the
+ * platform MXBeans. Unlike the Carbon Metrics gauges, this does not depend on the JMX reporter.
+ */
+public final class OperatingSystemMetricsCollector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OperatingSystemMetricsCollector.class);
+
+    public static final String SAMPLING_INTERVAL = "osMetricsSamplingInterval";
+    private static final Path PROC_LOAD_AVERAGE = Paths.get("/proc/loadavg");
+    private static final Path PROC_STAT = Paths.get("/proc/stat");
+    private static final Path PROC_SELF_STAT = Paths.get("/proc/self/stat");
+    // USER_HZ, which /proc reports CPU times in, is 100 on all the Linux platforms the JVM supports.
+    private static final double CLOCK_TICKS_PER_SECOND = 100;
+    private static final int UTIME_INDEX = 11;
+    private static final int STIME_INDEX = 12;
+    private static final int IDLE_INDEX = 3;
+    private static final int IOWAIT_INDEX = 4;
+
+    private static final OperatingSystemMetricsCollector instance =
+            new OperatingSystemMetricsCollector(Long.getLong(SAMPLING_INTERVAL, 5000));
+
+    private final long samplingIntervalMillis;
+    private final OperatingSystemMXBean operatingSystemMXBean;
+    private final MemoryMXBean memoryMXBean;
+    private final int availableProcessors;
+    private final boolean windows;
+    private boolean procAvailable;
+    private long lastProcessCpuTicks = -1;
+    private long lastSampleNanos;
+    private long lastSystemTotalTicks = -1;
+    private long lastSystemIdleTicks;
+    private volatile Sample sample = new Sample(0, 0, 0, 0);
+    private volatile ScheduledExecutorService executorService;
+
+    private OperatingSystemMetricsCollector(long samplingIntervalMillis) {
+        this.samplingIntervalMillis = samplingIntervalMillis;
+        this.operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+        this.memoryMXBean = ManagementFactory.getMemoryMXBean();
+        this.availableProcessors = Math.max(operatingSystemMXBean.getAvailableProcessors(), 1);
+        String osName = System.getProperty("os.name").toLowerCase();
+        this.windows = osName.contains("win");
+        this.procAvailable = osName.contains("linux") && Files.isReadable(PROC_SELF_STAT);
+    }
+
+    public static OperatingSystemMetricsCollector getInstance() {
+        return instance;
+    }
+
+    /**
+     * Starts sampling if it is not started yet. The first sample is taken on the calling thread, so that the values
+     * are available as soon as this returns.
+     */
+    public synchronized void start() {
+        if (executorService == null) {
+            collect();
+            executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "SP-OSMetricsCollector");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executorService.scheduleWithFixedDelay(this::collect, samplingIntervalMillis, samplingIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void stop() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+        }
+    }
+
+    /**
+     * @return the latest sample, starting the sampling if it is not running
+     */
+    public Sample getSample() {
+        if (executorService == null) {
+            start();
+        }
+        return sample;
+    }
+
+    public boolean isWindows() {
+        return windows;
+    }
+
+    private synchronized void collect() {
+        try {
+            double loadAverage = windows ? 0 : readLoadAverage();
+            long now = System.nanoTime();
+            double processCPU;
+            double systemCPU;
+            if (procAvailable) {
+                processCPU = readProcessCPU(now);
+                systemCPU = readSystemCPU();
+            } else {
+                processCPU = getPlatformCPULoad(true);
+                systemCPU = getPlatformCPULoad(false);
+            }
+            lastSampleNanos = now;
+            sample = new Sample(loadAverage, systemCPU, processCPU, readHeapUsage());
+        } catch (Throwable t) {
+            LOGGER.error("Error while collecting the operating system metrics.", t);
+        }
+    }
+
+    private double readLoadAverage() {
+        if (procAvailable) {
+            try {
+                String loadAverage = readProcFile(PROC_LOAD_AVERAGE);
+                return Double.parseDouble(loadAverage.substring(0, loadAverage.indexOf(' ')));
+            } catch (IOException | RuntimeException e) {
+                disableProc(e);
+            }
+        }
+        return Math.max(operatingSystemMXBean.getSystemLoadAverage(), 0);
+    }
+
+    /**
+     * @return share of the CPU capacity of the machine used by this process since the previous sample, in [0, 1]
+     */
+    private double readProcessCPU(long now) {
+        try {
+            String stat = readProcFile(PROC_SELF_STAT);
+            // The command name may contain spaces, so the fields are counted from the end of it.
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            long cpuTicks = Long.parseLong(fields[UTIME_INDEX]) + Long.parseLong(fields[STIME_INDEX]);
+            long lastCpuTicks = lastProcessCpuTicks;
+            lastProcessCpuTicks = cpuTicks;
+            if (lastCpuTicks < 0) {
+                return getPlatformCPULoad(true);
+            } else if (now == lastSampleNanos) {
+                return sample.getProcessCPU();
+            }
+            double cpuSeconds = (cpuTicks - lastCpuTicks) / CLOCK_TICKS_PER_SECOND;
+            double elapsedSeconds = (now - lastSampleNanos) / 1e9;
+            return Math.min(cpuSeconds / (elapsedSeconds * availableProcessors), 1);
+        } catch (IOException | RuntimeException e) {
+            disableProc(e);
+            return getPlatformCPULoad(true);
+        }
+    }
+
+    /**
+     * @return share of the CPU capacity of the machine that was not idle since the previous sample, in [0, 1]
+     */
+    private double readSystemCPU() {
+        try {
+            String stat = readProcFile(PROC_STAT);
+            String[] fields = stat.substring(0, stat.indexOf('\n')).trim().split("\\s+");
+            long totalTicks = 0;
+            for (int i = 1; i < fields.length; i++) {
+                totalTicks += Long.parseLong(fields[i]);
+            }
+            long idleTicks = Long.parseLong(fields[IDLE_INDEX + 1]) + Long.parseLong(fields[IOWAIT_INDEX + 1]);
+            long lastTotalTicks = lastSystemTotalTicks;
+            long lastIdleTicks = lastSystemIdleTicks;
+            lastSystemTotalTicks = totalTicks;
+            lastSystemIdleTicks = idleTicks;
+            if (lastTotalTicks < 0) {
+                return getPlatformCPULoad(false);
+            } else if (totalTicks == lastTotalTicks) {
+                return sample.getSystemCPU();
+            }
+            return 1 - (double) (idleTicks - lastIdleTicks) / (totalTicks - lastTotalTicks);
+        } catch (IOException | RuntimeException e) {
+            disableProc(e);
+            return getPlatformCPULoad(false);
+        }
+    }
+
+    private double getPlatformCPULoad(boolean process) {
+        if (operatingSystemMXBean instanceof com.sun.management.OperatingSystemMXBean) {
+            com.sun.management.OperatingSystemMXBean sunOperatingSystemMXBean =
+                    (com.sun.management.OperatingSystemMXBean) operatingSystemMXBean;
+            return Math.max(process ? sunOperatingSystemMXBean.getProcessCpuLoad() :
+                    sunOperatingSystemMXBean.getSystemCpuLoad(), 0);
+        }
+        return 0;
+    }
+
+    /**
+     * @return ratio of the used heap memory to the maximum heap size, as reported by jvm.memory.heap.usage
+     */
+    private double readHeapUsage() {
+        MemoryUsage heapUsage = memoryMXBean.getHeapMemoryUsage();
+        long max = heapUsage.getMax() > 0 ? heapUsage.getMax() : heapUsage.getCommitted();
+        return max > 0 ? (double) heapUsage.getUsed() / max : 0;
+    }
+
+    private void disableProc(Exception e) {
+        LOGGER.warn("Could not read the operating system metrics from /proc. Hence using the platform MXBeans.", e);
+        procAvailable = false;
+    }
+
+    private static String readProcFile(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Operating system and JVM metrics collected at one point in time.
+     */
+    public static final class Sample {
+        private final double loadAverage;
+        private final double systemCPU;
+        private final double processCPU;
+        private final double memoryUsage;
+
+        private Sample(double loadAverage, double systemCPU, double processCPU, double memoryUsage) {
+            this.loadAverage = loadAverage;
+            this.systemCPU = systemCPU;
+            this.processCPU = processCPU;
+            this.memoryUsage = memoryUsage;
+        }
+
+        public double getLoadAverage() {
+            return loadAverage;
+        }
+
+        public double getSystemCPU() {
+            return systemCPU;
+        }
+
+        public double getProcessCPU() {
+            return processCPU;
+        }
+
+        public double getMemoryUsage() {
+            return memoryUsage;
+        }
+    }
+}
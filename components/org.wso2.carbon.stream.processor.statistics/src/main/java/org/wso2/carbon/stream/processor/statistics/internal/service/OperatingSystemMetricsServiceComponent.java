@@ -28,6 +28,7 @@ import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.stream.processor.statistics.internal.OperatingSystemMetricSet;
+import org.wso2.carbon.stream.processor.statistics.internal.OperatingSystemMetricsCollector;
 
 /**
  * This is OSGi-components to register OperatingSystemMetricSet class.
@@ -44,6 +45,7 @@ public class OperatingSystemMetricsServiceComponent {
         try {
             OperatingSystemMetricSet operatingSystemMetricSet = new OperatingSystemMetricSet();
             operatingSystemMetricSet.initConnection();
+            OperatingSystemMetricsCollector.getInstance().start();
             bundleContext.registerService(OperatingSystemMetricSet.class, operatingSystemMetricSet, null);
             logger.info("OperatingSystemMetricsService Component activated");
         } catch (Exception e) {
@@ -54,6 +56,7 @@ public class OperatingSystemMetricsServiceComponent {
 
     @Deactivate
     protected void deactivate(BundleContext bundleContext) {
+        OperatingSystemMetricsCollector.getInstance().stop();
         logger.debug("OperatingSystemMetricsService Component");
     }
 